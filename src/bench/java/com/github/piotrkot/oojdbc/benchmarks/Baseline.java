@@ -0,0 +1,290 @@
+/*
+ * Copyright (c) 2012-2018, jcabi.com
+ * Copyright (c) 2021, github.com/piotrkot
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions
+ * are met: 1) Redistributions of source code must retain the above
+ * copyright notice, this list of conditions and the following
+ * disclaimer. 2) Redistributions in binary form must reproduce the above
+ * copyright notice, this list of conditions and the following
+ * disclaimer in the documentation and/or other materials provided
+ * with the distribution. 3) Neither the name of the jcabi.com nor
+ * the names of its contributors may be used to endorse or promote
+ * products derived from this software without specific prior written
+ * permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT
+ * NOT LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND
+ * FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL
+ * THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT,
+ * INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION)
+ * HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT,
+ * STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED
+ * OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.github.piotrkot.oojdbc.benchmarks;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Comparison of JMH results against a baseline.
+ *
+ * <p>Both results are CSV files written by JMH with {@code -rf csv}. Scores
+ * and allocations per operation ({@code gc.alloc.rate.norm}) of the same
+ * benchmark with the same parameters are compared and a benchmark is a
+ * regression if it got worse by more than the tolerance, in percent:
+ *
+ * <pre> mvn -Pbenchmarks verify -Djmh.baseline=baseline.csv</pre>
+ *
+ * <p>The build fails if there is any regression. Without a baseline
+ * ({@code -Djmh.baseline=none}, the default) the
+ * comparison is skipped; the results of the run can be kept as the next
+ * baseline.
+ *
+ * @since 1.5
+ */
+public final class Baseline {
+    /**
+     * Suffix of allocations per operation.
+     */
+    private static final String ALLOCATIONS = "gc.alloc.rate.norm";
+
+    /**
+     * Baseline given when there is none.
+     */
+    private static final String NONE = "none";
+
+    /**
+     * Current results.
+     */
+    private final Path current;
+
+    /**
+     * Baseline results.
+     */
+    private final Path base;
+
+    /**
+     * Tolerance, in percent.
+     */
+    private final double tolerance;
+
+    /**
+     * Ctor.
+     * @param current Current results
+     * @param base Baseline results
+     * @param tolerance Tolerance, in percent
+     */
+    public Baseline(final Path current, final Path base,
+        final double tolerance) {
+        this.current = current;
+        this.base = base;
+        this.tolerance = tolerance;
+    }
+
+    /**
+     * Compare results of the run with the baseline.
+     * @param args Current results, baseline results and tolerance
+     * @throws IOException If fails to read results
+     */
+    @SuppressWarnings("PMD.SystemPrintln")
+    public static void main(final String... args) throws IOException {
+        if (Baseline.NONE.equals(args[1])) {
+            System.out.printf(
+                "No baseline to compare %s with, skipping%n", args[0]
+            );
+        } else {
+            final int worse = new Baseline(
+                Paths.get(args[0]), Paths.get(args[1]),
+                Double.parseDouble(args[2])
+            ).report(System.out);
+            if (worse > 0) {
+                throw new IllegalStateException(
+                    String.format("%d benchmarks regressed", worse)
+                );
+            }
+        }
+    }
+
+    /**
+     * Print the comparison.
+     * @param out Where to print
+     * @return Number of regressions
+     * @throws IOException If fails to read results
+     */
+    public int report(final PrintStream out) throws IOException {
+        final Map<String, Baseline.Score> before = Baseline.scores(this.base);
+        int worse = 0;
+        out.printf(
+            "%-80s %14s %14s %9s%n",
+            "Benchmark", "Baseline", "Current", "Change"
+        );
+        for (final Baseline.Score after : Baseline.scores(this.current)
+            .values()) {
+            final Baseline.Score prior = before.get(after.key());
+            if (prior == null) {
+                out.printf(
+                    "%-80s %14s %14.3f%n", after.key(), "-", after.value()
+                );
+            } else {
+                final double change = after.change(prior);
+                String mark = "";
+                if (change > this.tolerance) {
+                    mark = "  REGRESSION";
+                    ++worse;
+                }
+                out.printf(
+                    "%-80s %14.3f %14.3f %+8.1f%%%s%n",
+                    after.key(), prior.value(), after.value(),
+                    change, mark
+                );
+            }
+        }
+        return worse;
+    }
+
+    /**
+     * Read scores from JMH results.
+     * @param file CSV file
+     * @return Scores by benchmark and parameters
+     * @throws IOException If fails
+     */
+    private static Map<String, Baseline.Score> scores(final Path file)
+        throws IOException {
+        final List<String> lines = Files.readAllLines(
+            file, StandardCharsets.UTF_8
+        );
+        final List<String> header = Baseline.cells(lines.get(0));
+        final Map<String, Baseline.Score> scores = new LinkedHashMap<>(0);
+        for (final String line : lines.subList(1, lines.size())) {
+            final List<String> row = Baseline.cells(line);
+            final String name = row.get(header.indexOf("Benchmark"));
+            if (name.indexOf(':') < 0 || name.endsWith(Baseline.ALLOCATIONS)) {
+                final StringBuilder key = new StringBuilder(name);
+                for (int idx = 0; idx < header.size(); ++idx) {
+                    if (header.get(idx).startsWith("Param: ")
+                        && !row.get(idx).isEmpty()) {
+                        key.append(' ').append(header.get(idx).substring(7))
+                            .append('=').append(row.get(idx));
+                    }
+                }
+                final Baseline.Score score = new Baseline.Score(
+                    key.toString(),
+                    Double.parseDouble(row.get(header.indexOf("Score"))),
+                    "thrpt".equals(row.get(header.indexOf("Mode")))
+                        && !name.endsWith(Baseline.ALLOCATIONS)
+                );
+                scores.put(score.key(), score);
+            }
+        }
+        return scores;
+    }
+
+    /**
+     * Cells of a CSV line.
+     * @param line Line
+     * @return Cells, unquoted
+     */
+    private static List<String> cells(final String line) {
+        final List<String> cells = new ArrayList<>(0);
+        final StringBuilder cell = new StringBuilder(0);
+        boolean quoted = false;
+        for (final char chr : line.toCharArray()) {
+            if (chr == '"') {
+                quoted = !quoted;
+            } else if (chr == ',' && !quoted) {
+                cells.add(cell.toString());
+                cell.setLength(0);
+            } else {
+                cell.append(chr);
+            }
+        }
+        cells.add(cell.toString());
+        return cells;
+    }
+
+    /**
+     * Score of a benchmark.
+     *
+     * @since 1.5
+     */
+    private static final class Score {
+        /**
+         * Benchmark and its parameters.
+         */
+        private final String name;
+
+        /**
+         * Score.
+         */
+        private final double measured;
+
+        /**
+         * Whether higher score is better.
+         */
+        private final boolean higher;
+
+        /**
+         * Ctor.
+         * @param name Benchmark and its parameters
+         * @param score Score
+         * @param higher Whether higher score is better
+         */
+        Score(final String name, final double score, final boolean higher) {
+            this.name = name;
+            this.measured = score;
+            this.higher = higher;
+        }
+
+        /**
+         * Benchmark and its parameters.
+         * @return Key
+         */
+        String key() {
+            return this.name;
+        }
+
+        /**
+         * Score.
+         * @return Value
+         */
+        double value() {
+            return this.measured;
+        }
+
+        /**
+         * How much worse than the prior score, in percent.
+         * @param prior Prior score
+         * @return Change, positive if worse
+         * @checkstyle MagicNumber (10 lines)
+         */
+        double change(final Baseline.Score prior) {
+            double change = 0.0;
+            if (prior.measured == 0.0 && this.measured > 0.0) {
+                change = Double.POSITIVE_INFINITY;
+            } else if (prior.measured > 0.0) {
+                change = (this.measured - prior.measured) * 100.0
+                    / prior.measured;
+            }
+            if (this.higher) {
+                change = -change;
+            }
+            return change;
+        }
+    }
+}
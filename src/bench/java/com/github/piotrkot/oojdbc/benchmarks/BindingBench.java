@@ -0,0 +1,114 @@
+/*
+ * Copyright (c) 2012-2018, jcabi.com
+ * Copyright (c) 2021, github.com/piotrkot
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions
+ * are met: 1) Redistributions of source code must retain the above
+ * copyright notice, this list of conditions and the following
+ * disclaimer. 2) Redistributions in binary form must reproduce the above
+ * copyright notice, this list of conditions and the following
+ * disclaimer in the documentation and/or other materials provided
+ * with the distribution. 3) Neither the name of the jcabi.com nor
+ * the names of its contributors may be used to endorse or promote
+ * products derived from this software without specific prior written
+ * permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT
+ * NOT LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND
+ * FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL
+ * THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT,
+ * INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION)
+ * HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT,
+ * STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED
+ * OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.github.piotrkot.oojdbc.benchmarks;
+
+import com.github.piotrkot.oojdbc.H2Source;
+import com.github.piotrkot.oojdbc.statements.Args;
+import java.math.BigDecimal;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmark of binding arguments to a prepared statement.
+ *
+ * @since 1.5
+ * @checkstyle MagicNumber (20 lines)
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class BindingBench {
+    /**
+     * Arguments of the statement.
+     */
+    private final Args args = new Args(
+        "Jeff", 42, 7L, new BigDecimal("12.50"), LocalDate.of(2021, 1, 1)
+    );
+
+    /**
+     * Connection.
+     */
+    private Connection conn;
+
+    /**
+     * Prepared statement.
+     */
+    private PreparedStatement stmt;
+
+    /**
+     * Prepare the statement.
+     * @throws SQLException If fails
+     */
+    @Setup(Level.Trial)
+    public void open() throws SQLException {
+        this.conn = new H2Source("bindingbench").getConnection();
+        this.stmt = this.conn.prepareStatement("VALUES (?, ?, ?, ?, ?)");
+    }
+
+    /**
+     * Close the statement.
+     * @throws SQLException If fails
+     */
+    @TearDown(Level.Trial)
+    public void close() throws SQLException {
+        this.stmt.close();
+        this.conn.close();
+    }
+
+    /**
+     * Binding of arguments.
+     * @return Statement bound
+     * @throws SQLException If fails
+     */
+    @Benchmark
+    public PreparedStatement binding() throws SQLException {
+        this.args.prepare(this.stmt);
+        return this.stmt;
+    }
+}
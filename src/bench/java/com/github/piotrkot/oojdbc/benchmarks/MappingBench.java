@@ -0,0 +1,144 @@
+/*
+ * Copyright (c) 2012-2018, jcabi.com
+ * Copyright (c) 2021, github.com/piotrkot
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions
+ * are met: 1) Redistributions of source code must retain the above
+ * copyright notice, this list of conditions and the following
+ * disclaimer. 2) Redistributions in binary form must reproduce the above
+ * copyright notice, this list of conditions and the following
+ * disclaimer in the documentation and/or other materials provided
+ * with the distribution. 3) Neither the name of the jcabi.com nor
+ * the names of its contributors may be used to endorse or promote
+ * products derived from this software without specific prior written
+ * permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT
+ * NOT LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND
+ * FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL
+ * THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT,
+ * INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION)
+ * HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT,
+ * STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED
+ * OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.github.piotrkot.oojdbc.benchmarks;
+
+import com.github.piotrkot.oojdbc.Codecs;
+import com.github.piotrkot.oojdbc.H2Source;
+import com.github.piotrkot.oojdbc.Outcome;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.LocalDate;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmark of mapping a column of the current row to a type.
+ *
+ * @since 1.5
+ * @checkstyle MagicNumber (20 lines)
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MappingBench {
+    /**
+     * Mappings.
+     */
+    private final Codecs codecs = new Codecs();
+
+    /**
+     * Connection.
+     */
+    private Connection conn;
+
+    /**
+     * Statement.
+     */
+    private Statement stmt;
+
+    /**
+     * Result set on its only row.
+     */
+    private ResultSet rset;
+
+    /**
+     * Open the result set.
+     * @throws SQLException If fails
+     */
+    @Setup(Level.Trial)
+    public void open() throws SQLException {
+        this.conn = new H2Source("mappingbench").getConnection();
+        this.stmt = this.conn.createStatement();
+        this.rset = this.stmt.executeQuery(
+            "VALUES (42, 'Jeff', CAST('2021-01-01' AS DATE))"
+        );
+        this.rset.next();
+    }
+
+    /**
+     * Close the result set.
+     * @throws SQLException If fails
+     */
+    @TearDown(Level.Trial)
+    public void close() throws SQLException {
+        this.rset.close();
+        this.stmt.close();
+        this.conn.close();
+    }
+
+    /**
+     * Mapping to a long, looked up every time.
+     * @return Value
+     * @throws Exception If fails
+     */
+    @Benchmark
+    public Long longs() throws Exception {
+        return this.codecs.forType(Long.class).map(this.rset);
+    }
+
+    /**
+     * Mapping to a string, looked up every time.
+     * @return Value
+     * @throws Exception If fails
+     */
+    @Benchmark
+    public String strings() throws Exception {
+        return this.codecs.forType(String.class, 2).map(this.rset);
+    }
+
+    /**
+     * Mapping to a date, looked up every time.
+     * @return Value
+     * @throws Exception If fails
+     */
+    @Benchmark
+    public LocalDate dates() throws Exception {
+        final Outcome.Mapping<LocalDate> mapping =
+            this.codecs.forType(LocalDate.class, 3);
+        return mapping.map(this.rset);
+    }
+}
@@ -0,0 +1,152 @@
+/*
+ * Copyright (c) 2012-2018, jcabi.com
+ * Copyright (c) 2021, github.com/piotrkot
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions
+ * are met: 1) Redistributions of source code must retain the above
+ * copyright notice, this list of conditions and the following
+ * disclaimer. 2) Redistributions in binary form must reproduce the above
+ * copyright notice, this list of conditions and the following
+ * disclaimer in the documentation and/or other materials provided
+ * with the distribution. 3) Neither the name of the jcabi.com nor
+ * the names of its contributors may be used to endorse or promote
+ * products derived from this software without specific prior written
+ * permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT
+ * NOT LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND
+ * FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL
+ * THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT,
+ * INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION)
+ * HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT,
+ * STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED
+ * OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.github.piotrkot.oojdbc.benchmarks;
+
+import com.github.piotrkot.oojdbc.H2Source;
+import com.github.piotrkot.oojdbc.Sql;
+import com.github.piotrkot.oojdbc.outcomes.ColumnOutcome;
+import com.github.piotrkot.oojdbc.outcomes.ListOutcome;
+import com.github.piotrkot.oojdbc.outcomes.LongColumnOutcome;
+import com.github.piotrkot.oojdbc.statements.Args;
+import com.github.piotrkot.oojdbc.statements.Select;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmark of materializing rows by outcomes.
+ *
+ * <p>Rows come from H2 {@code SYSTEM_RANGE}, so no table is filled up
+ * front and the H2 share of the cost is the same for every outcome.
+ *
+ * @since 1.5
+ * @checkstyle MagicNumber (20 lines)
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 3, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class OutcomeBench {
+    /**
+     * Rows.
+     */
+    private static final Sql ROWS = new Sql(
+        "SELECT X, 'name' || X FROM SYSTEM_RANGE(1, ?)"
+    ).compiled();
+
+    /**
+     * Number of rows.
+     */
+    @Param({"1", "1000", "1000000", "10000000"})
+    private long rows;
+
+    /**
+     * Connection.
+     */
+    private Connection conn;
+
+    /**
+     * Open the connection.
+     * @throws SQLException If fails
+     */
+    @Setup(Level.Trial)
+    public void open() throws SQLException {
+        this.conn = new H2Source("outcomebench").getConnection();
+    }
+
+    /**
+     * Close the connection.
+     * @throws SQLException If fails
+     */
+    @TearDown(Level.Trial)
+    public void close() throws SQLException {
+        this.conn.close();
+    }
+
+    /**
+     * Rows mapped to objects.
+     * @return Objects
+     * @throws Exception If fails
+     */
+    @Benchmark
+    public List<String> list() throws Exception {
+        return new Select<>(
+            OutcomeBench.ROWS,
+            new Args(this.rows),
+            new ListOutcome<>(rset -> rset.getString(2))
+        ).using(this.conn);
+    }
+
+    /**
+     * Column boxed by its codec.
+     * @return Values
+     * @throws Exception If fails
+     */
+    @Benchmark
+    public Collection<Long> column() throws Exception {
+        return new Select<>(
+            OutcomeBench.ROWS,
+            new Args(this.rows),
+            new ColumnOutcome<>(Long.class)
+        ).using(this.conn);
+    }
+
+    /**
+     * Column of primitives.
+     * @return Values
+     * @throws Exception If fails
+     */
+    @Benchmark
+    public long[] primitive() throws Exception {
+        return new Select<>(
+            OutcomeBench.ROWS,
+            new Args(this.rows),
+            new LongColumnOutcome()
+        ).using(this.conn);
+    }
+}
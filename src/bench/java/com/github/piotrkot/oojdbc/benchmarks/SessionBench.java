@@ -0,0 +1,119 @@
+/*
+ * Copyright (c) 2012-2018, jcabi.com
+ * Copyright (c) 2021, github.com/piotrkot
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions
+ * are met: 1) Redistributions of source code must retain the above
+ * copyright notice, this list of conditions and the following
+ * disclaimer. 2) Redistributions in binary form must reproduce the above
+ * copyright notice, this list of conditions and the following
+ * disclaimer in the documentation and/or other materials provided
+ * with the distribution. 3) Neither the name of the jcabi.com nor
+ * the names of its contributors may be used to endorse or promote
+ * products derived from this software without specific prior written
+ * permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT
+ * NOT LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND
+ * FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL
+ * THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT,
+ * INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION)
+ * HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT,
+ * STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED
+ * OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.github.piotrkot.oojdbc.benchmarks;
+
+import com.github.piotrkot.oojdbc.H2Source;
+import com.github.piotrkot.oojdbc.JdbcSession;
+import com.github.piotrkot.oojdbc.Outcome;
+import com.github.piotrkot.oojdbc.Sql;
+import com.github.piotrkot.oojdbc.outcomes.SingleOutcome;
+import com.github.piotrkot.oojdbc.statements.Args;
+import com.github.piotrkot.oojdbc.statements.Exec;
+import com.github.piotrkot.oojdbc.statements.Insert;
+import com.github.piotrkot.oojdbc.statements.Select;
+import java.util.concurrent.TimeUnit;
+import javax.sql.DataSource;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmark of a whole session, from opening the connection to closing it.
+ *
+ * @since 1.5
+ * @checkstyle MagicNumber (20 lines)
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SessionBench {
+    /**
+     * Query by id.
+     */
+    private static final Sql BY_ID = new Sql(
+        "SELECT name FROM users WHERE id = ?"
+    ).compiled();
+
+    /**
+     * Data source.
+     */
+    private final DataSource source = new H2Source("sessionbench");
+
+    /**
+     * Create the table with a user.
+     * @throws Exception If fails
+     */
+    @Setup(Level.Trial)
+    public void create() throws Exception {
+        new JdbcSession<>(
+            new Exec(
+                new Sql(
+                    "CREATE TABLE IF NOT EXISTS users",
+                    "(id INT PRIMARY KEY, name VARCHAR(50))"
+                )
+            )
+        ).using(this.source);
+        new JdbcSession<>(
+            new Insert<>(
+                new Sql("MERGE INTO users (id, name) VALUES (?, ?)"),
+                new Args(1, "Jeff"),
+                Outcome.VOID
+            )
+        ).using(this.source);
+    }
+
+    /**
+     * Select of a single value.
+     * @return Value
+     * @throws Exception If fails
+     */
+    @Benchmark
+    public String select() throws Exception {
+        return new JdbcSession<>(
+            new Select<>(
+                SessionBench.BY_ID,
+                new Args(1),
+                new SingleOutcome<>(String.class)
+            )
+        ).using(this.source);
+    }
+}
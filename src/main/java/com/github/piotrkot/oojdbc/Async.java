@@ -0,0 +1,112 @@
+/*
+ * Copyright (c) 2012-2018, jcabi.com
+ * Copyright (c) 2021, github.com/piotrkot
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions
+ * are met: 1) Redistributions of source code must retain the above
+ * copyright notice, this list of conditions and the following
+ * disclaimer. 2) Redistributions in binary form must reproduce the above
+ * copyright notice, this list of conditions and the following
+ * disclaimer in the documentation and/or other materials provided
+ * with the distribution. 3) Neither the name of the jcabi.com nor
+ * the names of its contributors may be used to endorse or promote
+ * products derived from this software without specific prior written
+ * permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT
+ * NOT LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND
+ * FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL
+ * THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT,
+ * INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION)
+ * HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT,
+ * STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED
+ * OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.github.piotrkot.oojdbc;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.function.UnaryOperator;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Session run on an executor.
+ *
+ * <p>Cancelling the future cancels the statement in flight.
+ *
+ * @param <T> Type of expected result
+ * @since 1.5
+ */
+@RequiredArgsConstructor
+final class Async<T> {
+
+    /**
+     * Session, run with a wrapper of its connection.
+     */
+    private final Async.Session<T> session;
+
+    /**
+     * Run the session.
+     * @param executor Executor to run on
+     * @return Future of the result
+     */
+    @SuppressWarnings("PMD.AvoidCatchingGenericException")
+    public CompletableFuture<T> future(final Executor executor) {
+        final InFlight flight = new InFlight();
+        final CompletableFuture<T> future = new CompletableFuture<>();
+        future.whenComplete(
+            (result, error) -> {
+                if (future.isCancelled()) {
+                    try {
+                        flight.cancel();
+                    } catch (final SQLException ex) {
+                        throw new IllegalStateException(ex);
+                    }
+                }
+            }
+        );
+        try {
+            executor.execute(
+                () -> {
+                    if (!future.isDone()) {
+                        try {
+                            future.complete(this.session.using(flight::connection));
+                            // @checkstyle IllegalCatch (1 line)
+                        } catch (final Exception ex) {
+                            future.completeExceptionally(ex);
+                        }
+                    }
+                }
+            );
+            // @checkstyle IllegalCatch (1 line)
+        } catch (final RuntimeException ex) {
+            future.completeExceptionally(ex);
+        }
+        return future;
+    }
+
+    /**
+     * Session using a wrapped connection.
+     *
+     * @param <T> Type of expected result
+     * @since 1.5
+     */
+    @FunctionalInterface
+    interface Session<T> {
+        /**
+         * Run the session.
+         * @param wrap Wrapper of the connection
+         * @return Result
+         * @throws Exception If fails
+         */
+        T using(UnaryOperator<Connection> wrap) throws Exception;
+    }
+}
@@ -0,0 +1,201 @@
+/*
+ * Copyright (c) 2012-2018, jcabi.com
+ * Copyright (c) 2021, github.com/piotrkot
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions
+ * are met: 1) Redistributions of source code must retain the above
+ * copyright notice, this list of conditions and the following
+ * disclaimer. 2) Redistributions in binary form must reproduce the above
+ * copyright notice, this list of conditions and the following
+ * disclaimer in the documentation and/or other materials provided
+ * with the distribution. 3) Neither the name of the jcabi.com nor
+ * the names of its contributors may be used to endorse or promote
+ * products derived from this software without specific prior written
+ * permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT
+ * NOT LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND
+ * FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL
+ * THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT,
+ * INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION)
+ * HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT,
+ * STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED
+ * OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.github.piotrkot.oojdbc;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.stream.Collectors;
+
+/**
+ * Registry of codecs, resolving mappings for types.
+ *
+ * <p>A type is resolved once, to the codec registered for it or, if
+ * there is exactly one, to the codec of a type assignable to it, e.g.
+ * {@link CharSequence} to the codec of {@link String}. Codecs of
+ * supertypes are never used, as their values may be of other types.
+ * Types with no fitting codec are rejected with
+ * {@link IllegalArgumentException}. Mappings are cached
+ * per type and column, so outcomes of the same shape share them:
+ *
+ * <pre> Codecs codecs = new Codecs();
+ * Outcome.Mapping&lt;Long&gt; ids = codecs.forType(Long.class, "id");</pre>
+ *
+ * <p>The class is immutable and thread-safe.
+ *
+ * @since 1.5
+ */
+public final class Codecs implements Outcome.Mappings {
+
+    /**
+     * Registered codecs, by type.
+     */
+    private final Map<Class<?>, Codec<?>> registered;
+
+    /**
+     * Resolved codecs, by type.
+     */
+    private final ClassValue<Codec<?>> resolved;
+
+    /**
+     * Mappings, by type and column position or label.
+     */
+    private final ClassValue<ConcurrentMap<Object, Outcome.Mapping<?>>> cached;
+
+    /**
+     * Public ctor, with default codecs.
+     */
+    public Codecs() {
+        this(DefaultCodecs.asMap());
+    }
+
+    /**
+     * Ctor.
+     *
+     * @param registered Registered codecs, by type
+     */
+    private Codecs(final Map<Class<?>, Codec<?>> registered) {
+        this.registered = Collections.unmodifiableMap(registered);
+        this.resolved = new ClassValue<Codec<?>>() {
+            @Override
+            protected Codec<?> computeValue(final Class<?> tpe) {
+                return Codecs.this.lookup(tpe);
+            }
+        };
+        this.cached = new ClassValue<ConcurrentMap<Object, Outcome.Mapping<?>>>() {
+            @Override
+            protected ConcurrentMap<Object, Outcome.Mapping<?>> computeValue(
+                final Class<?> tpe) {
+                return new ConcurrentHashMap<>(0);
+            }
+        };
+    }
+
+    /**
+     * Registry with one more codec.
+     *
+     * @param tpe Type
+     * @param codec Codec of the type
+     * @param <T> Type of value
+     * @return New registry
+     */
+    public <T> Codecs with(final Class<T> tpe, final Codec<? extends T> codec) {
+        final Map<Class<?>, Codec<?>> codecs = new HashMap<>(this.registered);
+        codecs.put(tpe, codec);
+        return new Codecs(codecs);
+    }
+
+    /**
+     * Codec for a type.
+     *
+     * @param tpe Type
+     * @param <T> Type of value
+     * @return Codec
+     */
+    @SuppressWarnings("unchecked")
+    public <T> Codec<T> codec(final Class<? extends T> tpe) {
+        return (Codec<T>) this.resolved.get(tpe);
+    }
+
+    @Override
+    public <T> Outcome.Mapping<T> forType(final Class<? extends T> tpe) {
+        return this.forType(tpe, 1);
+    }
+
+    /**
+     * Mapping for a type, from a column.
+     *
+     * @param tpe Type
+     * @param column Column position, starting from 1
+     * @param <T> Type of value
+     * @return Mapping
+     */
+    @SuppressWarnings("unchecked")
+    public <T> Outcome.Mapping<T> forType(final Class<? extends T> tpe,
+        final int column) {
+        return (Outcome.Mapping<T>) this.cached.get(tpe).computeIfAbsent(
+            column,
+            key -> {
+                final Codec<T> codec = this.codec(tpe);
+                return rset -> codec.read(rset, column);
+            }
+        );
+    }
+
+    /**
+     * Mapping for a type, from a column.
+     *
+     * @param tpe Type
+     * @param label Column label
+     * @param <T> Type of value
+     * @return Mapping
+     */
+    @SuppressWarnings("unchecked")
+    public <T> Outcome.Mapping<T> forType(final Class<? extends T> tpe,
+        final String label) {
+        return (Outcome.Mapping<T>) this.cached.get(tpe).computeIfAbsent(
+            label,
+            key -> {
+                final Codec<T> codec = this.codec(tpe);
+                return rset -> codec.read(rset, rset.findColumn(label));
+            }
+        );
+    }
+
+    /**
+     * Find codec of the type, or of the only registered type assignable
+     * to it.
+     *
+     * <p>A codec gives values of the type it's registered for, so codecs
+     * of supertypes never fit.
+     *
+     * @param tpe Type
+     * @return Codec
+     */
+    private Codec<?> lookup(final Class<?> tpe) {
+        Codec<?> codec = this.registered.get(tpe);
+        if (codec == null) {
+            final List<Class<?>> fitting = this.registered.keySet().stream()
+                .filter(tpe::isAssignableFrom)
+                .collect(Collectors.toList());
+            if (fitting.size() != 1) {
+                throw new IllegalArgumentException(
+                    String.format("type %s is not supported", tpe.getName())
+                );
+            }
+            codec = this.registered.get(fitting.get(0));
+        }
+        return codec;
+    }
+}
@@ -106,6 +106,49 @@ public interface Connect {
         }
     }
 
+    /**
+     * Plain, with given type and concurrency of result sets.
+     *
+     * @since 1.5
+     */
+    final class Cursor implements Connect {
+        /**
+         * SQL query.
+         */
+        private final String sql;
+
+        /**
+         * Result set type, e.g. {@link java.sql.ResultSet#TYPE_FORWARD_ONLY}.
+         */
+        private final int type;
+
+        /**
+         * Result set concurrency, e.g.
+         * {@link java.sql.ResultSet#CONCUR_READ_ONLY}.
+         */
+        private final int concurrency;
+
+        /**
+         * Ctor.
+         *
+         * @param query Query
+         * @param type Result set type
+         * @param concurrency Result set concurrency
+         */
+        public Cursor(final String query, final int type,
+            final int concurrency) {
+            this.sql = query;
+            this.type = type;
+            this.concurrency = concurrency;
+        }
+
+        @Override
+        @SuppressFBWarnings("SQL_PREPARED_STATEMENT_GENERATED_FROM_NONCONSTANT_STRING")
+        public PreparedStatement open(final Connection conn) throws SQLException {
+            return conn.prepareStatement(this.sql, this.type, this.concurrency);
+        }
+    }
+
     /**
      * With returned keys.
      *
@@ -0,0 +1,152 @@
+/*
+ * Copyright (c) 2012-2018, jcabi.com
+ * Copyright (c) 2021, github.com/piotrkot
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions
+ * are met: 1) Redistributions of source code must retain the above
+ * copyright notice, this list of conditions and the following
+ * disclaimer. 2) Redistributions in binary form must reproduce the above
+ * copyright notice, this list of conditions and the following
+ * disclaimer in the documentation and/or other materials provided
+ * with the distribution. 3) Neither the name of the jcabi.com nor
+ * the names of its contributors may be used to endorse or promote
+ * products derived from this software without specific prior written
+ * permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT
+ * NOT LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND
+ * FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL
+ * THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT,
+ * INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION)
+ * HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT,
+ * STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED
+ * OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.github.piotrkot.oojdbc;
+
+import java.math.BigDecimal;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
+import java.util.stream.Stream;
+
+/**
+ * Default codecs for types.
+ *
+ * @since 1.5
+ */
+final class DefaultCodecs {
+
+    /**
+     * Support of java.time, shared by all codecs.
+     */
+    private static final JavaTime TIME = new JavaTime();
+
+    /**
+     * Utility class.
+     */
+    private DefaultCodecs() {
+        // intentionally empty
+    }
+
+    /**
+     * Codecs, by type.
+     *
+     * @return Codecs
+     * @checkstyle ExecutableStatementCount (50 lines)
+     */
+    static Map<Class<?>, Codec<?>> asMap() {
+        final Map<Class<?>, Codec<?>> codecs = new HashMap<>();
+        codecs.put(String.class, (rset, pos) -> rset.getString(pos));
+        codecs.put(Long.class, (rset, pos) -> rset.getLong(pos));
+        codecs.put(long.class, codecs.get(Long.class));
+        codecs.put(Integer.class, (rset, pos) -> rset.getInt(pos));
+        codecs.put(int.class, codecs.get(Integer.class));
+        codecs.put(Short.class, (rset, pos) -> rset.getShort(pos));
+        codecs.put(short.class, codecs.get(Short.class));
+        codecs.put(Byte.class, (rset, pos) -> rset.getByte(pos));
+        codecs.put(byte.class, codecs.get(Byte.class));
+        codecs.put(Double.class, (rset, pos) -> rset.getDouble(pos));
+        codecs.put(double.class, codecs.get(Double.class));
+        codecs.put(Float.class, (rset, pos) -> rset.getFloat(pos));
+        codecs.put(float.class, codecs.get(Float.class));
+        codecs.put(Boolean.class, (rset, pos) -> rset.getBoolean(pos));
+        codecs.put(boolean.class, codecs.get(Boolean.class));
+        codecs.put(BigDecimal.class, (rset, pos) -> rset.getBigDecimal(pos));
+        codecs.put(byte[].class, (rset, pos) -> rset.getBytes(pos));
+        codecs.put(Date.class, (rset, pos) -> rset.getDate(pos));
+        codecs.put(Timestamp.class, (rset, pos) -> rset.getTimestamp(pos));
+        codecs.put(
+            Utc.class, (rset, pos) -> new Utc(Utc.getTimestamp(rset, pos))
+        );
+        Stream.of(
+            UUID.class, LocalDate.class, LocalTime.class, OffsetDateTime.class
+        ).forEach(
+            tpe -> codecs.put(tpe, (rset, pos) -> rset.getObject(pos, tpe))
+        );
+        codecs.put(LocalDateTime.class, DefaultCodecs::local);
+        codecs.put(
+            Instant.class,
+            (rset, pos) -> {
+                final LocalDateTime local = DefaultCodecs.local(rset, pos);
+                Instant instant = null;
+                if (local != null) {
+                    instant = local.toInstant(ZoneOffset.UTC);
+                }
+                return instant;
+            }
+        );
+        return codecs;
+    }
+
+    /**
+     * Read local date and time, also from drivers without java.time support.
+     * @param rset Result set
+     * @param pos Column position
+     * @return Date and time, NULL if NULL
+     * @throws SQLException If fails
+     */
+    private static LocalDateTime local(final ResultSet rset, final int pos)
+        throws SQLException {
+        return DefaultCodecs.TIME.read(
+            rset, pos,
+            (rows, col, arg) -> rows.getObject(col, LocalDateTime.class),
+            (rows, col, arg) -> DefaultCodecs.utc(rows, col)
+        );
+    }
+
+    /**
+     * Read local date and time from a timestamp in UTC.
+     * @param rset Result set
+     * @param pos Column position
+     * @return Date and time, NULL if NULL
+     * @throws SQLException If fails
+     */
+    private static LocalDateTime utc(final ResultSet rset, final int pos)
+        throws SQLException {
+        final long millis = Utc.getMillis(rset, pos);
+        LocalDateTime local = null;
+        if (!rset.wasNull()) {
+            local = LocalDateTime.ofInstant(
+                Instant.ofEpochMilli(millis), ZoneOffset.UTC
+            );
+        }
+        return local;
+    }
+}
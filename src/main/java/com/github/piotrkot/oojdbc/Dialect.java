@@ -0,0 +1,508 @@
+/*
+ * Copyright (c) 2012-2018, jcabi.com
+ * Copyright (c) 2021, github.com/piotrkot
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions
+ * are met: 1) Redistributions of source code must retain the above
+ * copyright notice, this list of conditions and the following
+ * disclaimer. 2) Redistributions in binary form must reproduce the above
+ * copyright notice, this list of conditions and the following
+ * disclaimer in the documentation and/or other materials provided
+ * with the distribution. 3) Neither the name of the jcabi.com nor
+ * the names of its contributors may be used to endorse or promote
+ * products derived from this software without specific prior written
+ * permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT
+ * NOT LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND
+ * FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL
+ * THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT,
+ * INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION)
+ * HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT,
+ * STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED
+ * OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.github.piotrkot.oojdbc;
+
+import java.sql.Connection;
+import java.sql.DatabaseMetaData;
+import java.sql.SQLException;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.HashSet;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.WeakHashMap;
+import java.util.concurrent.ConcurrentHashMap;
+import org.cactoos.Func;
+
+/**
+ * SQL dialect of a database.
+ *
+ * <p>Tells which features the database and its driver support, so
+ * statements can pick the right way of running without asking the
+ * database each time. Well known dialects are provided as constants,
+ * while {@link Dialect.Detect} finds out the dialect of a connection:
+ *
+ * <pre> Dialect dialect = new Dialect.Detect().apply(conn);
+ * if (dialect.supports(Dialect.Feature.RETURNING)) {
+ *   // use INSERT ... RETURNING
+ * }</pre>
+ *
+ * <p>Dialects also tell which failures are transient, so a transaction
+ * failing on them may be run again, see {@link JdbcSessionRetry}, and
+ * how big a single statement may get, see
+ * {@link com.github.piotrkot.oojdbc.statements.Bulk}.
+ *
+ * @since 1.5
+ */
+public interface Dialect {
+
+    /**
+     * Dialect of an unknown database, supporting no extra features.
+     */
+    Dialect GENERIC = new Dialect.Features();
+
+    /**
+     * MySQL and MariaDB.
+     */
+    Dialect MYSQL = new Dialect.Features(
+        new Dialect.Transients(
+            Collections.singleton("40001"),
+            // @checkstyle MagicNumber (1 line)
+            Arrays.asList(1205, 1213)
+        ),
+        // @checkstyle MagicNumber (1 line)
+        new Dialect.Limits(65_535, 4L << 20),
+        Dialect.Feature.GENERATED_KEYS,
+        Dialect.Feature.REQUESTED_KEYS,
+        Dialect.Feature.MULTI_ROW_VALUES,
+        Dialect.Feature.SKIP_LOCKED,
+        Dialect.Feature.STREAMING_BY_MIN_FETCH
+    );
+
+    /**
+     * PostgreSQL.
+     */
+    Dialect POSTGRESQL = new Dialect.Features(
+        new Dialect.Transients(
+            Arrays.asList("40001", "40P01"),
+            Collections.emptySet()
+        ),
+        // @checkstyle MagicNumber (1 line)
+        new Dialect.Limits(32_767, 64L << 20),
+        Dialect.Feature.GENERATED_KEYS,
+        Dialect.Feature.MULTI_ROW_VALUES,
+        Dialect.Feature.RETURNING,
+        Dialect.Feature.SKIP_LOCKED,
+        Dialect.Feature.ARRAYS,
+        Dialect.Feature.CURSOR_IN_TRANSACTION
+    );
+
+    /**
+     * H2.
+     */
+    Dialect H2 = new Dialect.Features(
+        new Dialect.Transients(
+            Collections.singleton("40001"),
+            // @checkstyle MagicNumber (1 line)
+            Collections.singleton(50_200)
+        ),
+        // @checkstyle MagicNumber (1 line)
+        new Dialect.Limits(65_535, 64L << 20),
+        Dialect.Feature.GENERATED_KEYS,
+        Dialect.Feature.MULTI_ROW_VALUES,
+        Dialect.Feature.ARRAYS
+    );
+
+    /**
+     * Is the feature supported.
+     * @param feature The feature
+     * @return TRUE if supported
+     */
+    boolean supports(Dialect.Feature feature);
+
+    /**
+     * Is the failure transient, so running the transaction again may
+     * succeed, as with serialization failures and deadlocks.
+     * @param error The failure
+     * @return TRUE if transient
+     */
+    boolean retryable(SQLException error);
+
+    /**
+     * Limits of a single statement.
+     * @return Limits
+     */
+    Dialect.Limits limits();
+
+    /**
+     * Features a dialect may support.
+     *
+     * @since 1.5
+     */
+    enum Feature {
+        /**
+         * Generated keys are returned by the driver.
+         */
+        GENERATED_KEYS,
+
+        /**
+         * Generated keys are only available from statements which
+         * requested them when prepared.
+         */
+        REQUESTED_KEYS,
+
+        /**
+         * Many rows in a single {@code INSERT ... VALUES (...), (...)}.
+         */
+        MULTI_ROW_VALUES,
+
+        /**
+         * {@code RETURNING} clause of modifying statements.
+         */
+        RETURNING,
+
+        /**
+         * {@code SELECT ... FOR UPDATE SKIP LOCKED}.
+         */
+        SKIP_LOCKED,
+
+        /**
+         * Array parameters, as in {@link java.sql.Connection#createArrayOf}.
+         */
+        ARRAYS,
+
+        /**
+         * Rows are fetched in chunks of the fetch size only inside a
+         * transaction, otherwise the whole result is fetched at once.
+         */
+        CURSOR_IN_TRANSACTION,
+
+        /**
+         * Rows are streamed one by one only with fetch size of
+         * {@link Integer#MIN_VALUE}, otherwise the whole result is
+         * fetched at once.
+         */
+        STREAMING_BY_MIN_FETCH
+    }
+
+    /**
+     * Dialect with a fixed set of features.
+     *
+     * @since 1.5
+     */
+    final class Features implements Dialect {
+        /**
+         * Supported features.
+         */
+        private final Set<Dialect.Feature> supported;
+
+        /**
+         * Transient failures.
+         */
+        private final Dialect.Transients transients;
+
+        /**
+         * Limits of a single statement.
+         */
+        private final Dialect.Limits bounds;
+
+        /**
+         * Ctor.
+         * @param features Supported features
+         */
+        public Features(final Dialect.Feature... features) {
+            this(Dialect.Transients.STANDARD, features);
+        }
+
+        /**
+         * Ctor.
+         * @param transients Transient failures
+         * @param features Supported features
+         */
+        public Features(final Dialect.Transients transients,
+            final Dialect.Feature... features) {
+            this(transients, Arrays.asList(features));
+        }
+
+        /**
+         * Ctor.
+         * @param transients Transient failures
+         * @param limits Limits of a single statement
+         * @param features Supported features
+         */
+        public Features(final Dialect.Transients transients,
+            final Dialect.Limits limits, final Dialect.Feature... features) {
+            this(transients, limits, Arrays.asList(features));
+        }
+
+        /**
+         * Ctor.
+         * @param features Supported features
+         */
+        public Features(final Collection<Dialect.Feature> features) {
+            this(Dialect.Transients.STANDARD, features);
+        }
+
+        /**
+         * Ctor.
+         * @param transients Transient failures
+         * @param features Supported features
+         */
+        public Features(final Dialect.Transients transients,
+            final Collection<Dialect.Feature> features) {
+            this(transients, Dialect.Limits.STANDARD, features);
+        }
+
+        /**
+         * Ctor.
+         * @param transients Transient failures
+         * @param limits Limits of a single statement
+         * @param features Supported features
+         */
+        @SuppressWarnings(
+            "PMD.ConstructorOnlyInitializesOrCallOtherConstructors"
+        )
+        public Features(final Dialect.Transients transients,
+            final Dialect.Limits limits,
+            final Collection<Dialect.Feature> features) {
+            this.transients = transients;
+            this.bounds = limits;
+            this.supported = EnumSet.noneOf(Dialect.Feature.class);
+            this.supported.addAll(features);
+        }
+
+        @Override
+        public boolean supports(final Dialect.Feature feature) {
+            return this.supported.contains(feature);
+        }
+
+        @Override
+        public boolean retryable(final SQLException error) {
+            return this.transients.matches(error);
+        }
+
+        @Override
+        public Dialect.Limits limits() {
+            return this.bounds;
+        }
+    }
+
+    /**
+     * Limits of a single statement, the number of its parameters and its
+     * size in bytes, with the values bound.
+     *
+     * <p>Limits are kept below what databases and drivers allow by default,
+     * e.g. MySQL {@code max_allowed_packet}, as the size of a statement is
+     * only estimated.
+     *
+     * @since 1.5
+     */
+    final class Limits {
+        /**
+         * Limits safe with most databases.
+         */
+        public static final Dialect.Limits STANDARD =
+            // @checkstyle MagicNumber (1 line)
+            new Dialect.Limits(2_000, 1L << 20);
+
+        /**
+         * Most parameters.
+         */
+        private final int params;
+
+        /**
+         * Most bytes.
+         */
+        private final long size;
+
+        /**
+         * Ctor.
+         * @param parameters Most parameters
+         * @param bytes Most bytes
+         */
+        public Limits(final int parameters, final long bytes) {
+            this.params = parameters;
+            this.size = bytes;
+        }
+
+        /**
+         * Most parameters of a single statement.
+         * @return Number of parameters
+         */
+        public int parameters() {
+            return this.params;
+        }
+
+        /**
+         * Most bytes of a single statement.
+         * @return Number of bytes
+         */
+        public long bytes() {
+            return this.size;
+        }
+    }
+
+    /**
+     * Transient failures, by SQLState and by vendor error code.
+     *
+     * <p>The failure and all its causes are checked, so failures wrapped
+     * by {@link JdbcSessionTx} are recognized too.
+     *
+     * @since 1.5
+     */
+    final class Transients {
+        /**
+         * Serialization failure, the only transient SQLState of the
+         * standard.
+         */
+        public static final Dialect.Transients STANDARD =
+            new Dialect.Transients(
+                Collections.singleton("40001"),
+                Collections.emptySet()
+            );
+
+        /**
+         * Transient SQLStates.
+         */
+        private final Set<String> states;
+
+        /**
+         * Transient vendor error codes.
+         */
+        private final Set<Integer> codes;
+
+        /**
+         * Ctor.
+         * @param states Transient SQLStates
+         * @param codes Transient vendor error codes
+         */
+        public Transients(final Collection<String> states,
+            final Collection<Integer> codes) {
+            this.states = new HashSet<>(states);
+            this.codes = new HashSet<>(codes);
+        }
+
+        /**
+         * Is the failure, or any of its causes, transient.
+         * @param error The failure
+         * @return TRUE if transient
+         */
+        public boolean matches(final Throwable error) {
+            boolean found = false;
+            Throwable cause = error;
+            while (cause != null && !found) {
+                if (cause instanceof SQLException) {
+                    final SQLException sql = (SQLException) cause;
+                    found = this.states.contains(sql.getSQLState())
+                        || this.codes.contains(sql.getErrorCode());
+                }
+                cause = cause.getCause();
+            }
+            return found;
+        }
+    }
+
+    /**
+     * Detection of connection dialect.
+     *
+     * <p>The dialect is cached per physical connection, unwrapped from
+     * pools and proxies, so repeated statements on a connection ask it for
+     * nothing but {@link Connection#unwrap(Class)}. The database is asked
+     * for its product name once per connection URL, all later connections
+     * to the same URL get the cached dialect.
+     *
+     * @since 1.5
+     */
+    final class Detect implements Func<Connection, Dialect> {
+        /**
+         * Dialects by connection URL.
+         */
+        private static final Map<String, Dialect> CACHE =
+            new ConcurrentHashMap<>();
+
+        /**
+         * Dialects by physical connection.
+         */
+        private static final Map<Connection, Dialect> CONNECTIONS =
+            Collections.synchronizedMap(new WeakHashMap<>());
+
+        @Override
+        @SuppressWarnings("PMD.CloseResource")
+        public Dialect apply(final Connection conn) throws SQLException {
+            final Connection physical = Detect.physical(conn);
+            Dialect dialect = Detect.CONNECTIONS.get(physical);
+            if (dialect == null) {
+                dialect = Detect.located(conn);
+                Detect.CONNECTIONS.put(physical, dialect);
+            }
+            return dialect;
+        }
+
+        /**
+         * Physical connection, unwrapped from pools and proxies.
+         * @param conn Connection
+         * @return Physical connection, or the connection itself
+         */
+        private static Connection physical(final Connection conn) {
+            Connection physical;
+            try {
+                physical = conn.unwrap(Connection.class);
+            } catch (final SQLException ex) {
+                physical = conn;
+            }
+            if (physical == null) {
+                physical = conn;
+            }
+            return physical;
+        }
+
+        /**
+         * Dialect of the connection URL.
+         * @param conn Connection
+         * @return The dialect
+         * @throws SQLException If fails
+         */
+        private static Dialect located(final Connection conn)
+            throws SQLException {
+            final DatabaseMetaData meta = conn.getMetaData();
+            final String url = String.valueOf(meta.getURL());
+            Dialect dialect = Detect.CACHE.get(url);
+            if (dialect == null) {
+                dialect = Detect.named(meta.getDatabaseProductName());
+                Detect.CACHE.putIfAbsent(url, dialect);
+            }
+            return dialect;
+        }
+
+        /**
+         * Dialect of a database product.
+         * @param product Database product name
+         * @return The dialect
+         */
+        private static Dialect named(final String product) {
+            final String name = product.toLowerCase(Locale.ENGLISH);
+            final Dialect dialect;
+            if ("mysql".equals(name) || "mariadb".equals(name)) {
+                dialect = Dialect.MYSQL;
+            } else if ("postgresql".equals(name)) {
+                dialect = Dialect.POSTGRESQL;
+            } else if ("h2".equals(name)) {
+                dialect = Dialect.H2;
+            } else {
+                dialect = Dialect.GENERIC;
+            }
+            return dialect;
+        }
+    }
+}
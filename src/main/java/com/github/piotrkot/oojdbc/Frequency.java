@@ -0,0 +1,150 @@
+/*
+ * Copyright (c) 2012-2018, jcabi.com
+ * Copyright (c) 2021, github.com/piotrkot
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions
+ * are met: 1) Redistributions of source code must retain the above
+ * copyright notice, this list of conditions and the following
+ * disclaimer. 2) Redistributions in binary form must reproduce the above
+ * copyright notice, this list of conditions and the following
+ * disclaimer in the documentation and/or other materials provided
+ * with the distribution. 3) Neither the name of the jcabi.com nor
+ * the names of its contributors may be used to endorse or promote
+ * products derived from this software without specific prior written
+ * permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT
+ * NOT LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND
+ * FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL
+ * THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT,
+ * INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION)
+ * HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT,
+ * STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED
+ * OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.github.piotrkot.oojdbc;
+
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Approximate frequency of keys.
+ *
+ * <p>A count-min sketch of four rows of small counters. Counters stop at
+ * fifteen and are all halved every ten times as many additions as the
+ * expected number of keys, so the frequency follows recent popularity.
+ * Updates race without locks and may be lost now and then, which an
+ * estimate tolerates.
+ *
+ * @since 1.5
+ */
+final class Frequency {
+    /**
+     * Maximum count.
+     */
+    private static final int MAX = 15;
+
+    /**
+     * Seeds of the rows.
+     */
+    private static final int[] SEEDS = {
+        0x97cb3127, 0xb3a1a1cb, 0x5a2b9d31, 0x1c3f8e4d,
+    };
+
+    /**
+     * Counters, row after row.
+     */
+    private final AtomicIntegerArray counts;
+
+    /**
+     * Mask of a position in a row.
+     */
+    private final int mask;
+
+    /**
+     * Additions before counters are halved.
+     */
+    private final long period;
+
+    /**
+     * Additions since counters were halved.
+     */
+    private final AtomicLong additions;
+
+    /**
+     * Ctor.
+     * @param size Expected number of keys
+     */
+    Frequency(final int size) {
+        // @checkstyle MagicNumber (2 lines)
+        this(
+            Integer.highestOneBit(Math.max(size, 16) - 1) << 1,
+            10L * Math.max(size, 1)
+        );
+    }
+
+    /**
+     * Ctor.
+     * @param width Counters in a row, a power of two
+     * @param period Additions before counters are halved
+     */
+    private Frequency(final int width, final long period) {
+        this.counts = new AtomicIntegerArray(width * Frequency.SEEDS.length);
+        this.mask = width - 1;
+        this.period = period;
+        this.additions = new AtomicLong();
+    }
+
+    /**
+     * Count the key once more.
+     * @param key Key
+     */
+    public void increment(final Object key) {
+        for (int row = 0; row < Frequency.SEEDS.length; ++row) {
+            final int idx = this.index(key, row);
+            int count = this.counts.get(idx);
+            while (count < Frequency.MAX
+                && !this.counts.compareAndSet(idx, count, count + 1)) {
+                count = this.counts.get(idx);
+            }
+        }
+        if (this.additions.incrementAndGet() >= this.period) {
+            this.additions.set(0L);
+            for (int idx = 0; idx < this.counts.length(); ++idx) {
+                this.counts.set(idx, this.counts.get(idx) >>> 1);
+            }
+        }
+    }
+
+    /**
+     * Estimated frequency of the key.
+     * @param key Key
+     * @return Frequency
+     */
+    public int frequency(final Object key) {
+        int min = Frequency.MAX;
+        for (int row = 0; row < Frequency.SEEDS.length; ++row) {
+            min = Math.min(min, this.counts.get(this.index(key, row)));
+        }
+        return min;
+    }
+
+    /**
+     * Position of the key counter in a row.
+     * @param key Key
+     * @param row Row
+     * @return Position in all counters
+     */
+    private int index(final Object key, final int row) {
+        int hash = (key.hashCode() + Frequency.SEEDS[row]) * 0x9e3779b9;
+        // @checkstyle MagicNumber (1 line)
+        hash ^= hash >>> 16;
+        return row * (this.mask + 1) + (hash & this.mask);
+    }
+}
@@ -0,0 +1,348 @@
+/*
+ * Copyright (c) 2012-2018, jcabi.com
+ * Copyright (c) 2021, github.com/piotrkot
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions
+ * are met: 1) Redistributions of source code must retain the above
+ * copyright notice, this list of conditions and the following
+ * disclaimer. 2) Redistributions in binary form must reproduce the above
+ * copyright notice, this list of conditions and the following
+ * disclaimer in the documentation and/or other materials provided
+ * with the distribution. 3) Neither the name of the jcabi.com nor
+ * the names of its contributors may be used to endorse or promote
+ * products derived from this software without specific prior written
+ * permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT
+ * NOT LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND
+ * FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL
+ * THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT,
+ * INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION)
+ * HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT,
+ * STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED
+ * OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.github.piotrkot.oojdbc;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import javax.sql.DataSource;
+
+/**
+ * Group commit of small write statements.
+ *
+ * <p>Statements submitted within a short window are run on one
+ * connection, in one transaction, and committed once. Futures of the
+ * statements complete after the commit:
+ *
+ * <pre> try (GroupCommit group = new GroupCommit(source)) {
+ *   CompletableFuture&lt;Integer&gt; count = group.submit(
+ *     new Update&lt;&gt;(
+ *       new Sql("UPDATE account SET seen = NOW() WHERE id = ?"),
+ *       new Args(42),
+ *       Outcome.UPDATE_COUNT
+ *     )
+ *   );
+ * }</pre>
+ *
+ * <p>If a statement fails, its future fails and the transaction is
+ * rolled back and run again without it. Statements must only write and
+ * must be safe to run again. If the commit fails, all futures of the
+ * group fail.
+ *
+ * <p>The class is thread-safe. Groups are run by one background thread.
+ * Closing stops accepting statements and waits until submitted ones are
+ * run.
+ *
+ * @since 1.5
+ */
+public final class GroupCommit implements AutoCloseable {
+
+    /**
+     * Default window, in microseconds.
+     */
+    private static final long WINDOW = 2000L;
+
+    /**
+     * Default maximum number of statements in a group.
+     */
+    private static final int MAX = 100;
+
+    /**
+     * Unit waking up the background thread when closed.
+     */
+    private static final GroupCommit.Unit<Void> STOP = new GroupCommit.Unit<>(
+        conn -> null, new CompletableFuture<>()
+    );
+
+    /**
+     * Data source.
+     */
+    private final DataSource source;
+
+    /**
+     * Window of a group, in nanoseconds.
+     */
+    private final long window;
+
+    /**
+     * Maximum number of statements in a group.
+     */
+    private final int max;
+
+    /**
+     * Submitted statements.
+     */
+    private final BlockingQueue<GroupCommit.Unit<?>> queue;
+
+    /**
+     * Commits made.
+     */
+    private final LongAdder committed;
+
+    /**
+     * Background thread.
+     */
+    private final Thread worker;
+
+    /**
+     * Closed.
+     */
+    private volatile boolean closed;
+
+    /**
+     * Public ctor, with a 2 millisecond window of up to 100 statements.
+     * @param source Data source
+     */
+    public GroupCommit(final DataSource source) {
+        this(source, GroupCommit.WINDOW, TimeUnit.MICROSECONDS, GroupCommit.MAX);
+    }
+
+    /**
+     * Public ctor.
+     * @param source Data source
+     * @param window Window of a group
+     * @param unit Unit of the window
+     * @param max Maximum number of statements in a group
+     * @checkstyle ParameterNumberCheck (3 lines)
+     */
+    @SuppressWarnings("PMD.ConstructorOnlyInitializesOrCallOtherConstructors")
+    public GroupCommit(final DataSource source, final long window,
+        final TimeUnit unit, final int max) {
+        this.source = source;
+        this.window = unit.toNanos(window);
+        this.max = max;
+        this.queue = new LinkedBlockingQueue<>();
+        this.committed = new LongAdder();
+        this.worker = new Thread(this::work, "oojdbc-group-commit");
+        this.worker.setDaemon(true);
+        this.worker.start();
+    }
+
+    /**
+     * Submit statement to the next group.
+     * @param stmnt Write statement
+     * @param <T> Type of result
+     * @return Future result, completed after the commit
+     */
+    public <T> CompletableFuture<T> submit(final Stmnt<T> stmnt) {
+        final CompletableFuture<T> future = new CompletableFuture<>();
+        synchronized (this.queue) {
+            if (this.closed) {
+                future.completeExceptionally(
+                    new IllegalStateException("group commit is closed")
+                );
+            } else {
+                this.queue.add(new GroupCommit.Unit<>(stmnt, future));
+            }
+        }
+        return future;
+    }
+
+    /**
+     * Number of commits made.
+     * @return Commits
+     */
+    public long commits() {
+        return this.committed.sum();
+    }
+
+    @Override
+    public void close() throws InterruptedException {
+        synchronized (this.queue) {
+            if (!this.closed) {
+                this.closed = true;
+                this.queue.add(GroupCommit.STOP);
+            }
+        }
+        this.worker.join();
+    }
+
+    /**
+     * Run groups until closed and all statements are run.
+     *
+     * <p>Statements left over when interrupted fail. A group failing
+     * unexpectedly fails its statements only.
+     */
+    @SuppressWarnings("PMD.AvoidCatchingGenericException")
+    private void work() {
+        try {
+            while (!this.closed || !this.queue.isEmpty()) {
+                final GroupCommit.Unit<?> first = this.queue.take();
+                if (!first.equals(GroupCommit.STOP)) {
+                    final List<GroupCommit.Unit<?>> group = this.group(first);
+                    try {
+                        this.commit(group);
+                        // @checkstyle IllegalCatch (1 line)
+                    } catch (final RuntimeException ex) {
+                        group.forEach(
+                            unit -> unit.future.completeExceptionally(ex)
+                        );
+                    }
+                }
+            }
+        } catch (final InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        } finally {
+            final List<GroupCommit.Unit<?>> left = new ArrayList<>(0);
+            this.queue.drainTo(left);
+            left.forEach(
+                unit -> unit.future.completeExceptionally(
+                    new IllegalStateException("group commit is stopped")
+                )
+            );
+        }
+    }
+
+    /**
+     * Collect group of statements within the window.
+     * @param first First statement of the group
+     * @return Group
+     * @throws InterruptedException If interrupted
+     */
+    private List<GroupCommit.Unit<?>> group(final GroupCommit.Unit<?> first)
+        throws InterruptedException {
+        final List<GroupCommit.Unit<?>> group = new ArrayList<>(this.max);
+        group.add(first);
+        final long deadline = System.nanoTime() + this.window;
+        while (group.size() < this.max) {
+            final GroupCommit.Unit<?> next = this.queue.poll(
+                deadline - System.nanoTime(), TimeUnit.NANOSECONDS
+            );
+            if (next == null || next.equals(GroupCommit.STOP)) {
+                break;
+            }
+            group.add(next);
+        }
+        group.removeIf(unit -> unit.future.isDone());
+        return group;
+    }
+
+    /**
+     * Commit group, running it again without failed statements.
+     * @param group Group of statements
+     */
+    private void commit(final List<GroupCommit.Unit<?>> group) {
+        while (!group.isEmpty()) {
+            final GroupCommit.Unit<?> failed = this.attempt(group);
+            if (failed == null) {
+                break;
+            }
+            group.remove(failed);
+        }
+    }
+
+    /**
+     * Run group in one transaction.
+     * @param group Group of statements
+     * @return Failed statement, or NULL if the group is done
+     */
+    @SuppressWarnings("PMD.AvoidCatchingGenericException")
+    private GroupCommit.Unit<?> attempt(final List<GroupCommit.Unit<?>> group) {
+        GroupCommit.Unit<?> failed = null;
+        try (Connection conn = this.source.getConnection()) {
+            conn.setAutoCommit(false);
+            for (final GroupCommit.Unit<?> unit : group) {
+                try {
+                    unit.run(conn);
+                    // @checkstyle IllegalCatch (1 line)
+                } catch (final Exception ex) {
+                    conn.rollback();
+                    unit.future.completeExceptionally(ex);
+                    failed = unit;
+                    break;
+                }
+            }
+            if (failed == null) {
+                conn.commit();
+                this.committed.increment();
+                group.forEach(GroupCommit.Unit::complete);
+            }
+        } catch (final SQLException ex) {
+            group.forEach(unit -> unit.future.completeExceptionally(ex));
+        }
+        return failed;
+    }
+
+    /**
+     * Statement submitted to a group.
+     *
+     * @param <T> Type of result
+     * @since 1.5
+     */
+    private static final class Unit<T> {
+        /**
+         * Statement.
+         */
+        private final Stmnt<T> stmnt;
+
+        /**
+         * Future result.
+         */
+        private final CompletableFuture<T> future;
+
+        /**
+         * Result, before the commit.
+         */
+        private T result;
+
+        /**
+         * Ctor.
+         * @param stmnt Statement
+         * @param future Future result
+         */
+        Unit(final Stmnt<T> stmnt, final CompletableFuture<T> future) {
+            this.stmnt = stmnt;
+            this.future = future;
+        }
+
+        /**
+         * Run statement.
+         * @param conn Connection in the transaction
+         * @throws Exception If fails
+         */
+        void run(final Connection conn) throws Exception {
+            this.result = this.stmnt.using(conn);
+        }
+
+        /**
+         * Complete future after the commit.
+         */
+        void complete() {
+            this.future.complete(this.result);
+        }
+    }
+}
@@ -0,0 +1,166 @@
+/*
+ * Copyright (c) 2012-2018, jcabi.com
+ * Copyright (c) 2021, github.com/piotrkot
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions
+ * are met: 1) Redistributions of source code must retain the above
+ * copyright notice, this list of conditions and the following
+ * disclaimer. 2) Redistributions in binary form must reproduce the above
+ * copyright notice, this list of conditions and the following
+ * disclaimer in the documentation and/or other materials provided
+ * with the distribution. 3) Neither the name of the jcabi.com nor
+ * the names of its contributors may be used to endorse or promote
+ * products derived from this software without specific prior written
+ * permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT
+ * NOT LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND
+ * FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL
+ * THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT,
+ * INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION)
+ * HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT,
+ * STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED
+ * OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.github.piotrkot.oojdbc;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Histogram of latencies, in nanoseconds.
+ *
+ * <p>Buckets grow exponentially, each power of two split in eight, so a
+ * percentile is off by at most an eighth. Latencies over about eighteen
+ * minutes fall into the last bucket. Recording is a single
+ * {@link LongAdder} increment, free of contention.
+ *
+ * @since 1.5
+ */
+final class Histogram {
+    /**
+     * Bits of a bucket within a power of two.
+     */
+    private static final int BITS = 3;
+
+    /**
+     * Buckets within a power of two.
+     */
+    private static final int SUB = 1 << Histogram.BITS;
+
+    /**
+     * Highest power of two recorded.
+     */
+    private static final int TOP = 40;
+
+    /**
+     * Counts of buckets.
+     */
+    private final LongAdder[] buckets;
+
+    /**
+     * Ctor.
+     */
+    @SuppressWarnings(
+        "PMD.ConstructorOnlyInitializesOrCallOtherConstructors"
+    )
+    Histogram() {
+        this.buckets = new LongAdder[
+            Histogram.index((1L << Histogram.TOP) - 1L) + 1
+        ];
+        for (int idx = 0; idx < this.buckets.length; ++idx) {
+            this.buckets[idx] = new LongAdder();
+        }
+    }
+
+    /**
+     * Record a latency.
+     * @param nanos Latency, in nanoseconds
+     */
+    public void record(final long nanos) {
+        this.buckets[
+            Histogram.index(
+                Math.min(Math.max(nanos, 0L), (1L << Histogram.TOP) - 1L)
+            )
+        ].increment();
+    }
+
+    /**
+     * Counts of buckets at the moment.
+     * @return Counts
+     */
+    public long[] counts() {
+        final long[] snapshot = new long[this.buckets.length];
+        for (int idx = 0; idx < snapshot.length; ++idx) {
+            snapshot[idx] = this.buckets[idx].sum();
+        }
+        return snapshot;
+    }
+
+    /**
+     * Latency below which the part of records falls.
+     * @param counts Counts of buckets
+     * @param part Part of records, e.g. 0.99
+     * @return Latency in nanoseconds, upper bound of its bucket
+     */
+    static long percentile(final long[] counts, final double part) {
+        long total = 0L;
+        for (final long count : counts) {
+            total += count;
+        }
+        final long rank = Math.max(1L, (long) Math.ceil(part * total));
+        long seen = 0L;
+        int bucket = 0;
+        while (bucket < counts.length && seen + counts[bucket] < rank) {
+            seen += counts[bucket];
+            ++bucket;
+        }
+        final long result;
+        if (total == 0L) {
+            result = 0L;
+        } else {
+            result = Histogram.lowest(bucket + 1) - 1L;
+        }
+        return result;
+    }
+
+    /**
+     * Bucket of a latency.
+     * @param nanos Latency, in nanoseconds
+     * @return Bucket
+     */
+    static int index(final long nanos) {
+        final int result;
+        if (nanos < Histogram.SUB) {
+            result = (int) nanos;
+        } else {
+            final int exp = Long.SIZE - 1 - Long.numberOfLeadingZeros(nanos);
+            final int within = (int) (nanos >>> (exp - Histogram.BITS))
+                & (Histogram.SUB - 1);
+            result = (exp - Histogram.BITS + 1 << Histogram.BITS) + within;
+        }
+        return result;
+    }
+
+    /**
+     * Lowest latency of a bucket.
+     * @param bucket Bucket
+     * @return Latency, in nanoseconds
+     */
+    static long lowest(final int bucket) {
+        final long result;
+        if (bucket < Histogram.SUB) {
+            result = bucket;
+        } else {
+            final int exp = (bucket >>> Histogram.BITS) + Histogram.BITS - 1;
+            result = (long) (Histogram.SUB + (bucket & Histogram.SUB - 1))
+                << exp - Histogram.BITS;
+        }
+        return result;
+    }
+}
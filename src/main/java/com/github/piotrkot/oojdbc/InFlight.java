@@ -0,0 +1,208 @@
+/*
+ * Copyright (c) 2012-2018, jcabi.com
+ * Copyright (c) 2021, github.com/piotrkot
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions
+ * are met: 1) Redistributions of source code must retain the above
+ * copyright notice, this list of conditions and the following
+ * disclaimer. 2) Redistributions in binary form must reproduce the above
+ * copyright notice, this list of conditions and the following
+ * disclaimer in the documentation and/or other materials provided
+ * with the distribution. 3) Neither the name of the jcabi.com nor
+ * the names of its contributors may be used to endorse or promote
+ * products derived from this software without specific prior written
+ * permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT
+ * NOT LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND
+ * FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL
+ * THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT,
+ * INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION)
+ * HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT,
+ * STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED
+ * OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.github.piotrkot.oojdbc;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Statements in flight, which can be cancelled.
+ *
+ * <p>Connections made by {@link #connection(Connection)} remember every
+ * statement they create, till it is closed. After {@link #cancel()}, the
+ * open statements are cancelled and new ones can't be created.
+ *
+ * @since 1.5
+ */
+final class InFlight {
+
+    /**
+     * Statements created.
+     */
+    private final Set<Statement> statements;
+
+    /**
+     * Cancelled.
+     */
+    private final AtomicBoolean cancelled;
+
+    /**
+     * Ctor.
+     */
+    InFlight() {
+        this.statements = ConcurrentHashMap.newKeySet();
+        this.cancelled = new AtomicBoolean();
+    }
+
+    /**
+     * Connection remembering statements it creates.
+     * @param conn Connection
+     * @return Connection
+     */
+    @SuppressWarnings("PMD.UseProperClassLoader")
+    public Connection connection(final Connection conn) {
+        return (Connection) Proxy.newProxyInstance(
+            InFlight.class.getClassLoader(),
+            new Class<?>[]{Connection.class},
+            new InFlight.Tracking(this, conn)
+        );
+    }
+
+    /**
+     * Cancel statements in flight.
+     * @throws SQLException If some statements fail to cancel
+     */
+    @SuppressWarnings("PMD.CloseResource")
+    public void cancel() throws SQLException {
+        if (!this.cancelled.getAndSet(true)) {
+            SQLException failure = null;
+            for (final Statement stmt : this.statements) {
+                try {
+                    stmt.cancel();
+                } catch (final SQLException ex) {
+                    if (failure == null) {
+                        failure = ex;
+                    } else {
+                        failure.addSuppressed(ex);
+                    }
+                }
+            }
+            if (failure != null) {
+                throw failure;
+            }
+        }
+    }
+
+    /**
+     * Remember created statement, till it is closed.
+     * @param stmt Statement
+     * @param type Type of the statement
+     * @return Statement forgotten when closed
+     * @throws SQLException If cancelled already
+     */
+    @SuppressWarnings("PMD.UseProperClassLoader")
+    private Object created(final Statement stmt, final Class<?> type)
+        throws SQLException {
+        this.statements.add(stmt);
+        if (this.cancelled.get()) {
+            this.statements.remove(stmt);
+            stmt.close();
+            throw new SQLException("statement is cancelled");
+        }
+        return Proxy.newProxyInstance(
+            InFlight.class.getClassLoader(),
+            new Class<?>[]{type},
+            new InFlight.Closing(this.statements, stmt)
+        );
+    }
+
+    /**
+     * Connection handler remembering statements.
+     *
+     * @since 1.5
+     */
+    private static final class Tracking implements InvocationHandler {
+        /**
+         * Statements in flight.
+         */
+        private final InFlight flight;
+
+        /**
+         * Origin connection.
+         */
+        private final Connection conn;
+
+        /**
+         * Ctor.
+         * @param flight Statements in flight
+         * @param conn Origin connection
+         */
+        Tracking(final InFlight flight, final Connection conn) {
+            this.flight = flight;
+            this.conn = conn;
+        }
+
+        @Override
+        public Object invoke(final Object proxy, final Method method,
+            final Object[] args) throws Throwable {
+            Object result = PreparedCache.call(this.conn, method, args);
+            if (result instanceof Statement) {
+                result = this.flight.created(
+                    (Statement) result, method.getReturnType()
+                );
+            }
+            return result;
+        }
+    }
+
+    /**
+     * Statement handler forgetting the statement when closed.
+     *
+     * @since 1.5
+     */
+    private static final class Closing implements InvocationHandler {
+        /**
+         * Statements in flight.
+         */
+        private final Set<Statement> statements;
+
+        /**
+         * Origin statement.
+         */
+        private final Statement stmt;
+
+        /**
+         * Ctor.
+         * @param statements Statements in flight
+         * @param stmt Origin statement
+         */
+        Closing(final Set<Statement> statements, final Statement stmt) {
+            this.statements = statements;
+            this.stmt = stmt;
+        }
+
+        @Override
+        public Object invoke(final Object proxy, final Method method,
+            final Object[] args) throws Throwable {
+            if ("close".equals(method.getName())) {
+                this.statements.remove(this.stmt);
+            }
+            return PreparedCache.call(this.stmt, method, args);
+        }
+    }
+}
@@ -0,0 +1,245 @@
+/*
+ * Copyright (c) 2012-2018, jcabi.com
+ * Copyright (c) 2021, github.com/piotrkot
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions
+ * are met: 1) Redistributions of source code must retain the above
+ * copyright notice, this list of conditions and the following
+ * disclaimer. 2) Redistributions in binary form must reproduce the above
+ * copyright notice, this list of conditions and the following
+ * disclaimer in the documentation and/or other materials provided
+ * with the distribution. 3) Neither the name of the jcabi.com nor
+ * the names of its contributors may be used to endorse or promote
+ * products derived from this software without specific prior written
+ * permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT
+ * NOT LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND
+ * FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL
+ * THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT,
+ * INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION)
+ * HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT,
+ * STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED
+ * OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.github.piotrkot.oojdbc;
+
+import java.lang.reflect.Proxy;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.SQLFeatureNotSupportedException;
+import java.sql.Wrapper;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Support of java.time by JDBC drivers, detected once per driver.
+ *
+ * <p>Drivers of JDBC 4.2 bind and read java.time values with
+ * {@code setObject} and {@code getObject}. Older ones fail with
+ * {@link SQLFeatureNotSupportedException} or {@link AbstractMethodError}:
+ * such a driver is remembered to have no java.time support and the
+ * following values go straight to the legacy call, with no exception per
+ * value. A driver that handled a java.time value once is remembered to
+ * support it. Other failures, like a column of a type the driver can't
+ * convert, fall back to the legacy call for that value only and are not
+ * remembered. If both calls fail, the first failure is thrown.
+ *
+ * <pre> private static final JavaTime TIME = new JavaTime();
+ * LocalDateTime local = TIME.read(
+ *   rset, 1,
+ *   (rows, pos, arg) -&gt; rows.getObject(pos, LocalDateTime.class),
+ *   (rows, pos, arg) -&gt; rows.getTimestamp(pos).toLocalDateTime()
+ * );</pre>
+ *
+ * <p>The calls get the statement or result set, the position and the
+ * value, so they can be built once and shared by all values, with no
+ * allocation per value.
+ *
+ * <p>Drivers are told by the classes of their statements and result sets,
+ * unwrapped if proxies.
+ *
+ * @since 1.5
+ */
+public final class JavaTime {
+    /**
+     * Support of all drivers, by class of statements or result sets.
+     */
+    private static final ClassValue<AtomicReference<Boolean>> DRIVERS =
+        new ClassValue<AtomicReference<Boolean>>() {
+            @Override
+            protected AtomicReference<Boolean> computeValue(
+                final Class<?> type) {
+                return new AtomicReference<>();
+            }
+        };
+
+    /**
+     * Support, by class of statements or result sets, NULL till known.
+     */
+    private final ClassValue<AtomicReference<Boolean>> support;
+
+    /**
+     * Public ctor, sharing support detected for all drivers.
+     */
+    public JavaTime() {
+        this(JavaTime.DRIVERS);
+    }
+
+    /**
+     * Ctor.
+     * @param support Support, by class of statements or result sets
+     */
+    JavaTime(final ClassValue<AtomicReference<Boolean>> support) {
+        this.support = support;
+    }
+
+    /**
+     * Bind a value.
+     * @param stmt Statement
+     * @param pos Parameter position
+     * @param arg Value
+     * @param modern Binding with java.time
+     * @param legacy Binding for drivers without java.time support
+     * @throws SQLException If fails
+     * @checkstyle ParameterNumberCheck (5 lines)
+     */
+    public void bind(final PreparedStatement stmt, final int pos,
+        final Object arg, final JavaTime.Call<PreparedStatement, Void> modern,
+        final JavaTime.Call<PreparedStatement, Void> legacy)
+        throws SQLException {
+        this.called(
+            JavaTime.driver(stmt, PreparedStatement.class),
+            stmt, pos, arg, modern, legacy
+        );
+    }
+
+    /**
+     * Read a value.
+     * @param rset Result set
+     * @param pos Column position
+     * @param modern Reading with java.time
+     * @param legacy Reading for drivers without java.time support
+     * @param <T> Type of value
+     * @return Value
+     * @throws SQLException If fails
+     * @checkstyle ParameterNumberCheck (5 lines)
+     */
+    public <T> T read(final ResultSet rset, final int pos,
+        final JavaTime.Call<ResultSet, T> modern,
+        final JavaTime.Call<ResultSet, T> legacy) throws SQLException {
+        return this.called(
+            JavaTime.driver(rset, ResultSet.class), rset, pos, null,
+            modern, legacy
+        );
+    }
+
+    /**
+     * Result of the call the driver supports.
+     * @param driver Class of statements or result sets of the driver
+     * @param jdbc Statement or result set
+     * @param pos Position
+     * @param arg Value, NULL when reading
+     * @param modern Call with java.time
+     * @param legacy Call for drivers without java.time support
+     * @param <J> Type of statement or result set
+     * @param <T> Type of result
+     * @return Result
+     * @throws SQLException If fails
+     * @checkstyle ParameterNumberCheck (5 lines)
+     */
+    private <J extends Wrapper, T> T called(final Class<?> driver,
+        final J jdbc, final int pos, final Object arg,
+        final JavaTime.Call<J, T> modern, final JavaTime.Call<J, T> legacy)
+        throws SQLException {
+        final AtomicReference<Boolean> known = this.support.get(driver);
+        T result;
+        if (Boolean.FALSE.equals(known.get())) {
+            result = legacy.call(jdbc, pos, arg);
+        } else {
+            try {
+                result = modern.call(jdbc, pos, arg);
+                known.compareAndSet(null, true);
+            } catch (final SQLFeatureNotSupportedException ex) {
+                known.compareAndSet(null, false);
+                result = JavaTime.fallback(ex, jdbc, pos, arg, legacy);
+            } catch (final AbstractMethodError ex) {
+                known.compareAndSet(null, false);
+                result = JavaTime.fallback(
+                    new SQLFeatureNotSupportedException(ex),
+                    jdbc, pos, arg, legacy
+                );
+            } catch (final SQLException ex) {
+                result = JavaTime.fallback(ex, jdbc, pos, arg, legacy);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Result of the legacy call, after the java.time one failed.
+     * @param failure Failure of the java.time call
+     * @param jdbc Statement or result set
+     * @param pos Position
+     * @param arg Value, NULL when reading
+     * @param legacy Call for drivers without java.time support
+     * @param <J> Type of statement or result set
+     * @param <T> Type of result
+     * @return Result
+     * @throws SQLException The first failure, if the legacy call fails too
+     * @checkstyle ParameterNumberCheck (5 lines)
+     */
+    private static <J extends Wrapper, T> T fallback(
+        final SQLException failure, final J jdbc, final int pos,
+        final Object arg, final JavaTime.Call<J, T> legacy)
+        throws SQLException {
+        try {
+            return legacy.call(jdbc, pos, arg);
+        } catch (final SQLException ex) {
+            failure.addSuppressed(ex);
+            throw failure;
+        }
+    }
+
+    /**
+     * Class telling the driver.
+     * @param jdbc Statement or result set
+     * @param iface Its interface
+     * @return Class of the driver's statement or result set
+     * @throws SQLException If fails
+     */
+    private static Class<?> driver(final Wrapper jdbc,
+        final Class<? extends Wrapper> iface) throws SQLException {
+        Class<?> driver = jdbc.getClass();
+        if (Proxy.isProxyClass(driver)) {
+            driver = jdbc.unwrap(iface).getClass();
+        }
+        return driver;
+    }
+
+    /**
+     * Call binding or reading a value.
+     *
+     * @param <J> Type of statement or result set
+     * @param <T> Type of result, {@link Void} when binding
+     * @since 1.5
+     */
+    @FunctionalInterface
+    public interface Call<J extends Wrapper, T> {
+        /**
+         * Call.
+         * @param jdbc Statement or result set
+         * @param pos Parameter or column position
+         * @param arg Value to bind, NULL when reading
+         * @return Result, NULL when binding
+         * @throws SQLException If fails
+         */
+        T call(J jdbc, int pos, Object arg) throws SQLException;
+    }
+}
@@ -32,6 +32,9 @@ package com.github.piotrkot.oojdbc;
 
 import java.sql.Connection;
 import java.sql.SQLException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.function.UnaryOperator;
 import javax.sql.DataSource;
 import lombok.RequiredArgsConstructor;
 
@@ -54,10 +57,45 @@ public final class JdbcSession<T> {
      * @return Outcome of ResultSet
      * @throws SQLException When fails
      */
-    @SuppressWarnings("PMD.AvoidCatchingGenericException")
     public T using(final DataSource source) throws SQLException {
+        return this.using(source, UnaryOperator.identity());
+    }
+
+    /**
+     * Makes SQL statement or query on a new virtual thread, on Java 21+.
+     * @param source Data source
+     * @return Future outcome of ResultSet
+     */
+    public CompletableFuture<T> usingAsync(final DataSource source) {
+        return this.usingAsync(source, new VirtualThreads());
+    }
+
+    /**
+     * Makes SQL statement or query on the executor.
+     *
+     * <p>Cancelling the future cancels the statement in flight.
+     *
+     * @param source Data source
+     * @param executor Executor
+     * @return Future outcome of ResultSet
+     */
+    public CompletableFuture<T> usingAsync(final DataSource source,
+        final Executor executor) {
+        return new Async<>(wrap -> this.using(source, wrap)).future(executor);
+    }
+
+    /**
+     * Makes SQL statement or query.
+     * @param source Data source
+     * @param wrap Wrapper of the connection
+     * @return Outcome of ResultSet
+     * @throws SQLException When fails
+     */
+    @SuppressWarnings("PMD.AvoidCatchingGenericException")
+    private T using(final DataSource source,
+        final UnaryOperator<Connection> wrap) throws SQLException {
         try (Connection conn = source.getConnection()) {
-            return this.stmnt.using(conn);
+            return this.stmnt.using(wrap.apply(conn));
             // @checkstyle IllegalCatch (1 line)
         } catch (final Exception ex) {
             throw new SQLException(ex);
@@ -0,0 +1,268 @@
+/*
+ * Copyright (c) 2012-2018, jcabi.com
+ * Copyright (c) 2021, github.com/piotrkot
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions
+ * are met: 1) Redistributions of source code must retain the above
+ * copyright notice, this list of conditions and the following
+ * disclaimer. 2) Redistributions in binary form must reproduce the above
+ * copyright notice, this list of conditions and the following
+ * disclaimer in the documentation and/or other materials provided
+ * with the distribution. 3) Neither the name of the jcabi.com nor
+ * the names of its contributors may be used to endorse or promote
+ * products derived from this software without specific prior written
+ * permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT
+ * NOT LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND
+ * FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL
+ * THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT,
+ * INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION)
+ * HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT,
+ * STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED
+ * OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.github.piotrkot.oojdbc;
+
+import java.sql.SQLException;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.UnaryOperator;
+import javax.sql.DataSource;
+
+/**
+ * JDBC session with transaction block, run again on transient failures.
+ *
+ * <p>When the transaction fails on a failure the dialect of the database
+ * tells is transient, e.g. a serialization failure or a deadlock, it is
+ * rolled back and the statement is run again in a new transaction. Runs
+ * are spaced with exponential backoff with full jitter, so transactions
+ * in conflict do not retry all at the same time:
+ *
+ * <pre> new JdbcSessionRetry&lt;&gt;(
+ *   conn -&gt; new Update&lt;&gt;(...).using(conn),
+ *   5, 10L, 1000L, TimeUnit.MILLISECONDS
+ * ).using(source);</pre>
+ *
+ * <p>Transactions are configured as in {@link JdbcSessionTx}, e.g. to
+ * retry serialization failures of serializable ones:
+ *
+ * <pre> new JdbcSessionRetry&lt;&gt;(stmnt)
+ *   .withIsolation(Connection.TRANSACTION_SERIALIZABLE)
+ *   .using(source);</pre>
+ *
+ * <p>The session counts retries, so it is best shared by the callers of
+ * the same statement to watch contention.
+ *
+ * @param <T> Type of expected result
+ * @since 1.5
+ */
+public final class JdbcSessionRetry<T> {
+
+    /**
+     * JDBC statement.
+     */
+    private final Stmnt<T> stmnt;
+
+    /**
+     * Maximum number of runs.
+     */
+    private final int attempts;
+
+    /**
+     * Backoff before the first retry, in nanoseconds.
+     */
+    private final long base;
+
+    /**
+     * Maximum backoff, in nanoseconds.
+     */
+    private final long cap;
+
+    /**
+     * Configuration of the transaction.
+     */
+    private final UnaryOperator<JdbcSessionTx<T>> setup;
+
+    /**
+     * Number of retries.
+     */
+    private final LongAdder retried;
+
+    /**
+     * Number of transient failures given up on.
+     */
+    private final LongAdder abandoned;
+
+    /**
+     * Ctor.
+     *
+     * <p>Runs the statement up to 5 times, with backoff from 10 ms up
+     * to 1 s.
+     *
+     * @param stmnt JDBC statement
+     */
+    public JdbcSessionRetry(final Stmnt<T> stmnt) {
+        // @checkstyle MagicNumber (1 line)
+        this(stmnt, 5, 10L, 1000L, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Ctor.
+     * @param stmnt JDBC statement
+     * @param attempts Maximum number of runs
+     * @param base Backoff before the first retry
+     * @param cap Maximum backoff
+     * @param unit Unit of the backoff
+     * @checkstyle ParameterNumberCheck (3 lines)
+     */
+    public JdbcSessionRetry(final Stmnt<T> stmnt, final int attempts,
+        final long base, final long cap, final TimeUnit unit) {
+        this(
+            stmnt, attempts, unit.toNanos(base), unit.toNanos(cap),
+            UnaryOperator.identity()
+        );
+    }
+
+    /**
+     * Ctor.
+     * @param stmnt JDBC statement
+     * @param attempts Maximum number of runs
+     * @param base Backoff before the first retry, in nanoseconds
+     * @param cap Maximum backoff, in nanoseconds
+     * @param setup Configuration of the transaction
+     * @checkstyle ParameterNumberCheck (3 lines)
+     */
+    private JdbcSessionRetry(final Stmnt<T> stmnt, final int attempts,
+        final long base, final long cap,
+        final UnaryOperator<JdbcSessionTx<T>> setup) {
+        this.stmnt = stmnt;
+        this.attempts = attempts;
+        this.base = base;
+        this.cap = cap;
+        this.setup = setup;
+        this.retried = new LongAdder();
+        this.abandoned = new LongAdder();
+    }
+
+    /**
+     * Session running transactions at the isolation level.
+     * @param level Isolation level, as in
+     *  {@link java.sql.Connection#TRANSACTION_SERIALIZABLE}
+     * @return Session
+     * @see JdbcSessionTx#withIsolation(int)
+     */
+    public JdbcSessionRetry<T> withIsolation(final int level) {
+        return this.with(session -> session.withIsolation(level));
+    }
+
+    /**
+     * Session running read-only transactions.
+     * @return Session
+     * @see JdbcSessionTx#withReadOnly()
+     */
+    public JdbcSessionRetry<T> withReadOnly() {
+        return this.with(JdbcSessionTx::withReadOnly);
+    }
+
+    /**
+     * Session beginning transactions with the first write statement.
+     * @return Session
+     * @see JdbcSessionTx#withLazyBegin()
+     */
+    public JdbcSessionRetry<T> withLazyBegin() {
+        return this.with(JdbcSessionTx::withLazyBegin);
+    }
+
+    /**
+     * Makes SQL statement or query in a transaction, as many times as
+     * needed.
+     * @param source Data source
+     * @return Outcome of ResultSet
+     * @throws SQLException When fails
+     */
+    public T using(final DataSource source) throws SQLException {
+        final AtomicReference<Dialect> dialect =
+            new AtomicReference<>(Dialect.GENERIC);
+        final JdbcSessionTx<T> session = this.setup.apply(
+            new JdbcSessionTx<>(
+                conn -> {
+                    dialect.set(new Dialect.Detect().apply(conn));
+                    return this.stmnt.using(conn);
+                }
+            )
+        );
+        for (int attempt = 1;; ++attempt) {
+            try {
+                return session.using(source);
+            } catch (final SQLException ex) {
+                if (!dialect.get().retryable(ex)) {
+                    throw ex;
+                }
+                if (attempt >= this.attempts) {
+                    this.abandoned.increment();
+                    throw ex;
+                }
+                this.retried.increment();
+                this.pause(attempt);
+            }
+        }
+    }
+
+    /**
+     * Number of retries so far.
+     * @return Retries
+     */
+    public long retries() {
+        return this.retried.sum();
+    }
+
+    /**
+     * Number of transient failures given up on, after all attempts.
+     * @return Failures given up on
+     */
+    public long exhausted() {
+        return this.abandoned.sum();
+    }
+
+    /**
+     * Session with one more configuration of the transaction.
+     * @param more Configuration
+     * @return Session
+     */
+    private JdbcSessionRetry<T> with(final UnaryOperator<JdbcSessionTx<T>> more) {
+        return new JdbcSessionRetry<>(
+            this.stmnt, this.attempts, this.base, this.cap,
+            session -> more.apply(this.setup.apply(session))
+        );
+    }
+
+    /**
+     * Wait before the next run.
+     * @param attempt Number of the failed run
+     * @throws SQLException When interrupted
+     */
+    private void pause(final int attempt) throws SQLException {
+        final int shift = Math.min(
+            attempt - 1,
+            Long.numberOfLeadingZeros(Math.max(this.base, 1L)) - 1
+        );
+        final long ceiling = Math.min(this.cap, this.base << shift);
+        try {
+            TimeUnit.NANOSECONDS.sleep(
+                ThreadLocalRandom.current().nextLong(ceiling + 1L)
+            );
+        } catch (final InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new SQLException(ex);
+        }
+    }
+}
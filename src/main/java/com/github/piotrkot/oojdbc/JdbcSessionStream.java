@@ -0,0 +1,84 @@
+/*
+ * Copyright (c) 2012-2018, jcabi.com
+ * Copyright (c) 2021, github.com/piotrkot
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions
+ * are met: 1) Redistributions of source code must retain the above
+ * copyright notice, this list of conditions and the following
+ * disclaimer. 2) Redistributions in binary form must reproduce the above
+ * copyright notice, this list of conditions and the following
+ * disclaimer in the documentation and/or other materials provided
+ * with the distribution. 3) Neither the name of the jcabi.com nor
+ * the names of its contributors may be used to endorse or promote
+ * products derived from this software without specific prior written
+ * permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT
+ * NOT LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND
+ * FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL
+ * THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT,
+ * INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION)
+ * HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT,
+ * STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED
+ * OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.github.piotrkot.oojdbc;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.stream.Stream;
+import javax.sql.DataSource;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * JDBC session returning a stream, which keeps the connection open.
+ *
+ * <p>Unlike {@link JdbcSession}, the connection is not closed when
+ * {@link #using(DataSource)} returns, but when the returned stream is
+ * closed. Always close the stream, e.g. with try-with-resources. Use it
+ * together with outcomes streaming rows, like
+ * {@link com.github.piotrkot.oojdbc.outcomes.StreamOutcome}.
+ *
+ * @param <T> Type of stream items
+ * @since 1.5
+ */
+@RequiredArgsConstructor
+public final class JdbcSessionStream<T> {
+
+    /**
+     * JDBC statement.
+     */
+    private final Stmnt<Stream<T>> stmnt;
+
+    /**
+     * Makes SQL query.
+     * @param source Data source
+     * @return Stream of items, to be closed
+     * @throws SQLException When fails
+     */
+    @SuppressWarnings("PMD.AvoidCatchingGenericException")
+    public Stream<T> using(final DataSource source) throws SQLException {
+        final Connection conn = source.getConnection();
+        try {
+            return this.stmnt.using(conn).onClose(
+                () -> {
+                    try {
+                        conn.close();
+                    } catch (final SQLException ex) {
+                        throw new IllegalStateException(ex);
+                    }
+                }
+            );
+            // @checkstyle IllegalCatch (1 line)
+        } catch (final Exception ex) {
+            conn.close();
+            throw new SQLException(ex);
+        }
+    }
+}
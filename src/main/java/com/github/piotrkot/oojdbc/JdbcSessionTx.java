@@ -32,42 +32,230 @@ package com.github.piotrkot.oojdbc;
 
 import java.sql.Connection;
 import java.sql.SQLException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.function.UnaryOperator;
 import javax.sql.DataSource;
-import lombok.RequiredArgsConstructor;
 
 /**
  * JDBC session with transaction block.
+ *
+ * <p>Transactions run at the default isolation level of the driver,
+ * unless told otherwise. Read-only transactions let the database skip
+ * work, while lazy ones begin with the first write, so units which only
+ * read make no {@code BEGIN} and {@code COMMIT} round trips:
+ *
+ * <pre> new JdbcSessionTx&lt;&gt;(stmnt)
+ *   .withIsolation(Connection.TRANSACTION_REPEATABLE_READ)
+ *   .withReadOnly()
+ *   .withLazyBegin()
+ *   .using(source);</pre>
+ *
+ * <p>The isolation level and read-only mode set for the transaction are
+ * set back on the connection before it is closed, so the next user of a
+ * pooled connection doesn't inherit them.
+ *
  * @param <T> Type of expected result
  * @since 1.0
  */
-@RequiredArgsConstructor
 public final class JdbcSessionTx<T> {
 
+    /**
+     * Default isolation level of the driver.
+     */
+    private static final int DRIVER_ISOLATION = -1;
+
     /**
      * JDBC statement.
      */
     private final Stmnt<T> stmnt;
 
+    /**
+     * Isolation level.
+     */
+    private final int isolation;
+
+    /**
+     * Read-only transaction.
+     */
+    private final boolean readonly;
+
+    /**
+     * Begin the transaction with the first write.
+     */
+    private final boolean lazy;
+
+    /**
+     * Public ctor.
+     * @param stmnt JDBC statement
+     */
+    public JdbcSessionTx(final Stmnt<T> stmnt) {
+        this(stmnt, JdbcSessionTx.DRIVER_ISOLATION, false, false);
+    }
+
+    /**
+     * Ctor.
+     * @param stmnt JDBC statement
+     * @param isolation Isolation level
+     * @param readonly Read-only transaction
+     * @param lazy Begin the transaction with the first write
+     * @checkstyle ParameterNumberCheck (3 lines)
+     */
+    private JdbcSessionTx(final Stmnt<T> stmnt, final int isolation,
+        final boolean readonly, final boolean lazy) {
+        this.stmnt = stmnt;
+        this.isolation = isolation;
+        this.readonly = readonly;
+        this.lazy = lazy;
+    }
+
+    /**
+     * Session running at the isolation level.
+     * @param level Isolation level, as in
+     *  {@link Connection#TRANSACTION_SERIALIZABLE}
+     * @return Session
+     */
+    public JdbcSessionTx<T> withIsolation(final int level) {
+        return new JdbcSessionTx<>(this.stmnt, level, this.readonly, this.lazy);
+    }
+
+    /**
+     * Session running read-only transactions.
+     * @return Session
+     */
+    public JdbcSessionTx<T> withReadOnly() {
+        return new JdbcSessionTx<>(this.stmnt, this.isolation, true, this.lazy);
+    }
+
+    /**
+     * Session beginning the transaction with the first write statement.
+     *
+     * <p>Until then, the connection stays in auto-commit, so each read
+     * runs on its own. Units which never write are not committed at all.
+     * Statements are told by their SQL, so a {@code SELECT} calling a
+     * function with side effects, e.g. {@code SELECT nextval('seq')} or
+     * a function writing tables, counts as a read: if it comes before
+     * the first write, its effects are committed at once and not rolled
+     * back with the unit. Don't use it for such units.
+     *
+     * @return Session
+     */
+    public JdbcSessionTx<T> withLazyBegin() {
+        return new JdbcSessionTx<>(
+            this.stmnt, this.isolation, this.readonly, true
+        );
+    }
+
     /**
      * Makes SQL statement or query.
      * @param source Data source
      * @return Outcome of ResultSet
      * @throws SQLException When fails
      */
-    @SuppressWarnings("PMD.AvoidCatchingGenericException")
     public T using(final DataSource source) throws SQLException {
+        return this.using(source, UnaryOperator.identity());
+    }
+
+    /**
+     * Makes SQL statement or query on a new virtual thread, on Java 21+.
+     * @param source Data source
+     * @return Future outcome of ResultSet
+     */
+    public CompletableFuture<T> usingAsync(final DataSource source) {
+        return this.usingAsync(source, new VirtualThreads());
+    }
+
+    /**
+     * Makes SQL statement or query on the executor.
+     *
+     * <p>Cancelling the future cancels the statement in flight.
+     *
+     * @param source Data source
+     * @param executor Executor
+     * @return Future outcome of ResultSet
+     */
+    public CompletableFuture<T> usingAsync(final DataSource source,
+        final Executor executor) {
+        return new Async<>(wrap -> this.using(source, wrap)).future(executor);
+    }
+
+    /**
+     * Makes SQL statement or query.
+     * @param source Data source
+     * @param wrap Wrapper of the connection
+     * @return Outcome of ResultSet
+     * @throws SQLException When fails
+     */
+    @SuppressWarnings("PMD.AvoidCatchingGenericException")
+    private T using(final DataSource source,
+        final UnaryOperator<Connection> wrap) throws SQLException {
         final Connection conn = source.getConnection();
+        int level = JdbcSessionTx.DRIVER_ISOLATION;
+        boolean writable = false;
         try {
-            conn.setAutoCommit(false);
-            final T result = this.stmnt.using(conn);
-            conn.commit();
+            if (this.isolation != JdbcSessionTx.DRIVER_ISOLATION) {
+                level = conn.getTransactionIsolation();
+            }
+            writable = this.readonly && !conn.isReadOnly();
+            final T result = this.stmnt.using(wrap.apply(this.begin(conn)));
+            if (!conn.getAutoCommit()) {
+                conn.commit();
+            }
             return result;
             // @checkstyle IllegalCatch (1 line)
         } catch (final Exception ex) {
-            conn.rollback();
+            if (!conn.getAutoCommit()) {
+                conn.rollback();
+            }
             throw new SQLException(ex);
         } finally {
-            conn.close();
+            try {
+                this.restore(conn, level, writable);
+            } finally {
+                conn.close();
+            }
+        }
+    }
+
+    /**
+     * Set the transaction characteristics and begin it, unless lazy.
+     * @param conn Connection
+     * @return Connection for the statement
+     * @throws SQLException When fails
+     */
+    private Connection begin(final Connection conn) throws SQLException {
+        if (this.isolation != JdbcSessionTx.DRIVER_ISOLATION) {
+            conn.setTransactionIsolation(this.isolation);
+        }
+        if (this.readonly) {
+            conn.setReadOnly(true);
+        }
+        final Connection begun;
+        if (this.lazy) {
+            conn.setAutoCommit(true);
+            begun = LazyBegin.connection(conn);
+        } else {
+            conn.setAutoCommit(false);
+            begun = conn;
+        }
+        return begun;
+    }
+
+    /**
+     * Set back the characteristics changed for the transaction.
+     * @param conn Connection
+     * @param level Isolation level before, or the driver default if not
+     *  changed
+     * @param writable Connection was not read-only before
+     * @throws SQLException When fails
+     */
+    private void restore(final Connection conn, final int level,
+        final boolean writable) throws SQLException {
+        if (level != JdbcSessionTx.DRIVER_ISOLATION && level != this.isolation) {
+            conn.setTransactionIsolation(level);
+        }
+        if (writable) {
+            conn.setReadOnly(false);
         }
     }
 }
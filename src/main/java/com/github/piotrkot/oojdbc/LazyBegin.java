@@ -0,0 +1,126 @@
+/*
+ * Copyright (c) 2012-2018, jcabi.com
+ * Copyright (c) 2021, github.com/piotrkot
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions
+ * are met: 1) Redistributions of source code must retain the above
+ * copyright notice, this list of conditions and the following
+ * disclaimer. 2) Redistributions in binary form must reproduce the above
+ * copyright notice, this list of conditions and the following
+ * disclaimer in the documentation and/or other materials provided
+ * with the distribution. 3) Neither the name of the jcabi.com nor
+ * the names of its contributors may be used to endorse or promote
+ * products derived from this software without specific prior written
+ * permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT
+ * NOT LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND
+ * FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL
+ * THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT,
+ * INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION)
+ * HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT,
+ * STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED
+ * OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.github.piotrkot.oojdbc;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.regex.Pattern;
+import lombok.AccessLevel;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Connection beginning the transaction at the first write.
+ *
+ * <p>The connection stays in auto-commit while it prepares reading
+ * statements. Before it prepares any other statement, auto-commit is
+ * turned off, so the statement and all after it run in a transaction.
+ * Reading statements locking rows, e.g. {@code SELECT ... FOR UPDATE},
+ * begin the transaction too, to hold the locks.
+ *
+ * @since 1.5
+ */
+@RequiredArgsConstructor(access = AccessLevel.PRIVATE)
+final class LazyBegin implements InvocationHandler {
+    /**
+     * Statements only reading.
+     */
+    private static final Pattern READING = Pattern.compile(
+        "[\\s(]*(SELECT|VALUES|SHOW|EXPLAIN|DESCRIBE)\\b",
+        Pattern.CASE_INSENSITIVE
+    );
+
+    /**
+     * Reading statements which lock or write anyway.
+     */
+    private static final Pattern LOCKS = Pattern.compile(
+        String.join(
+            "|",
+            "\\bFOR\\s+(NO\\s+KEY\\s+|KEY\\s+)?(UPDATE|SHARE)\\b",
+            "\\bLOCK\\s+IN\\b",
+            "\\bINTO\\b"
+        ),
+        Pattern.CASE_INSENSITIVE
+    );
+
+    /**
+     * Origin connection.
+     */
+    private final Connection conn;
+
+    /**
+     * Connection beginning the transaction at the first write.
+     * @param conn Origin connection, in auto-commit
+     * @return Connection
+     */
+    @SuppressWarnings("PMD.UseProperClassLoader")
+    public static Connection connection(final Connection conn) {
+        return (Connection) Proxy.newProxyInstance(
+            LazyBegin.class.getClassLoader(),
+            new Class<?>[]{Connection.class},
+            new LazyBegin(conn)
+        );
+    }
+
+    @Override
+    public Object invoke(final Object proxy, final Method method,
+        final Object[] args) throws Throwable {
+        final String name = method.getName();
+        if ("createStatement".equals(name)
+            || name.startsWith("prepare") && !LazyBegin.reads(args[0])) {
+            this.begin();
+        }
+        return PreparedCache.call(this.conn, method, args);
+    }
+
+    /**
+     * Is the SQL only reading.
+     * @param sql SQL
+     * @return TRUE if reading
+     */
+    static boolean reads(final Object sql) {
+        final String text = String.valueOf(sql);
+        return LazyBegin.READING.matcher(text).lookingAt()
+            && !LazyBegin.LOCKS.matcher(text).find();
+    }
+
+    /**
+     * Begin the transaction, unless begun.
+     * @throws SQLException If fails
+     */
+    private void begin() throws SQLException {
+        if (this.conn.getAutoCommit()) {
+            this.conn.setAutoCommit(false);
+        }
+    }
+}
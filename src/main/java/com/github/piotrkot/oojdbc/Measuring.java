@@ -0,0 +1,229 @@
+/*
+ * Copyright (c) 2012-2018, jcabi.com
+ * Copyright (c) 2021, github.com/piotrkot
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions
+ * are met: 1) Redistributions of source code must retain the above
+ * copyright notice, this list of conditions and the following
+ * disclaimer. 2) Redistributions in binary form must reproduce the above
+ * copyright notice, this list of conditions and the following
+ * disclaimer in the documentation and/or other materials provided
+ * with the distribution. 3) Neither the name of the jcabi.com nor
+ * the names of its contributors may be used to endorse or promote
+ * products derived from this software without specific prior written
+ * permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT
+ * NOT LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND
+ * FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL
+ * THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT,
+ * INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION)
+ * HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT,
+ * STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED
+ * OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.github.piotrkot.oojdbc;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Connection recording metrics of the statements it prepares.
+ *
+ * @since 1.5
+ */
+@RequiredArgsConstructor
+final class Measuring implements InvocationHandler {
+    /**
+     * Metrics.
+     */
+    private final Metrics metrics;
+
+    /**
+     * Origin connection.
+     */
+    private final Connection conn;
+
+    @Override
+    public Object invoke(final Object proxy, final Method method,
+        final Object[] args) throws Throwable {
+        Object result = PreparedCache.call(this.conn, method, args);
+        if (method.getName().startsWith("prepare")) {
+            result = Measuring.proxy(
+                method.getReturnType(),
+                new Measuring.Execution(
+                    this.metrics.stats(String.valueOf(args[0])), result
+                )
+            );
+        }
+        return result;
+    }
+
+    /**
+     * Connection recording metrics.
+     * @param metrics Metrics
+     * @param conn Origin connection
+     * @return Connection
+     */
+    static Connection connection(final Metrics metrics,
+        final Connection conn) {
+        return Measuring.proxy(Connection.class, new Measuring(metrics, conn));
+    }
+
+    /**
+     * Proxy of the interface.
+     * @param iface Interface
+     * @param handler Handler
+     * @param <T> Type of the interface
+     * @return Proxy
+     */
+    @SuppressWarnings({"unchecked", "PMD.UseProperClassLoader"})
+    private static <T> T proxy(final Class<?> iface,
+        final InvocationHandler handler) {
+        return (T) Proxy.newProxyInstance(
+            Measuring.class.getClassLoader(), new Class<?>[]{iface}, handler
+        );
+    }
+
+    /**
+     * Statement recording each of its executions.
+     *
+     * <p>An execution lasts from an {@code execute*} call till the next one
+     * or till the statement is closed, so it covers reading the rows too.
+     * A statement closed without being executed records nothing.
+     *
+     * @since 1.5
+     */
+    private static final class Execution implements InvocationHandler {
+        /**
+         * Metrics of the statement.
+         */
+        private final StatementStats stats;
+
+        /**
+         * Origin statement.
+         */
+        private final Object stmt;
+
+        /**
+         * Execution started, in nanoseconds.
+         */
+        private long start;
+
+        /**
+         * Rows read.
+         */
+        private long rows;
+
+        /**
+         * Failed.
+         */
+        private boolean failed;
+
+        /**
+         * Execution is running, not recorded yet.
+         */
+        private boolean running;
+
+        /**
+         * Ctor.
+         * @param stats Metrics of the statement
+         * @param stmt Origin statement
+         */
+        Execution(final StatementStats stats, final Object stmt) {
+            this.stats = stats;
+            this.stmt = stmt;
+        }
+
+        @Override
+        @SuppressWarnings("PMD.AvoidCatchingGenericException")
+        public Object invoke(final Object proxy, final Method method,
+            final Object[] args) throws Throwable {
+            final String name = method.getName();
+            final boolean execute = name.startsWith("execute");
+            if (execute) {
+                this.begin();
+            }
+            Object result;
+            try {
+                result = PreparedCache.call(this.stmt, method, args);
+                // @checkstyle IllegalCatch (1 line)
+            } catch (final Exception ex) {
+                this.failed = this.failed || execute;
+                throw ex;
+            }
+            if (result instanceof ResultSet
+                && ("executeQuery".equals(name)
+                || "getResultSet".equals(name))) {
+                result = Measuring.proxy(
+                    ResultSet.class, new Measuring.Rows(this, result)
+                );
+            } else if ("close".equals(name)) {
+                this.end();
+            }
+            return result;
+        }
+
+        /**
+         * Record the previous execution, if any, and start a new one.
+         */
+        private void begin() {
+            this.end();
+            this.running = true;
+            this.rows = 0L;
+            this.failed = false;
+            this.start = System.nanoTime();
+        }
+
+        /**
+         * Record the running execution, if any.
+         */
+        private void end() {
+            if (this.running) {
+                this.running = false;
+                this.stats.record(
+                    System.nanoTime() - this.start, this.rows, this.failed
+                );
+            }
+        }
+    }
+
+    /**
+     * Result set counting rows read.
+     *
+     * @since 1.5
+     */
+    @RequiredArgsConstructor
+    private static final class Rows implements InvocationHandler {
+        /**
+         * Execution of the statement.
+         */
+        private final Measuring.Execution execution;
+
+        /**
+         * Origin result set.
+         */
+        private final Object rset;
+
+        @Override
+        public Object invoke(final Object proxy, final Method method,
+            final Object[] args) throws Throwable {
+            final Object result = PreparedCache.call(this.rset, method, args);
+            if ("next".equals(method.getName())
+                && Boolean.TRUE.equals(result)) {
+                ++this.execution.rows;
+            }
+            return result;
+        }
+    }
+}
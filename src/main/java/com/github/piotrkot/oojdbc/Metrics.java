@@ -0,0 +1,299 @@
+/*
+ * Copyright (c) 2012-2018, jcabi.com
+ * Copyright (c) 2021, github.com/piotrkot
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions
+ * are met: 1) Redistributions of source code must retain the above
+ * copyright notice, this list of conditions and the following
+ * disclaimer. 2) Redistributions in binary form must reproduce the above
+ * copyright notice, this list of conditions and the following
+ * disclaimer in the documentation and/or other materials provided
+ * with the distribution. 3) Neither the name of the jcabi.com nor
+ * the names of its contributors may be used to endorse or promote
+ * products derived from this software without specific prior written
+ * permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT
+ * NOT LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND
+ * FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL
+ * THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT,
+ * INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION)
+ * HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT,
+ * STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED
+ * OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.github.piotrkot.oojdbc;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+/**
+ * Registry of statement metrics.
+ *
+ * <p>Statements run through {@link Measured} are counted by the
+ * fingerprint of their compiled SQL: executions, errors, rows read and
+ * latency percentiles. Every {@code execute*} call is an execution, its
+ * latency is measured till the next execution of the statement or till
+ * closing it, so it covers reading the rows too:
+ *
+ * <pre> Metrics metrics = new Metrics();
+ * metrics.register(ManagementFactory.getPlatformMBeanServer());
+ * new JdbcSession&lt;&gt;(new Measured&lt;&gt;(metrics, select)).using(source);
+ * for (Metrics.Snapshot stmt : metrics.snapshot()) {
+ *   System.out.println(
+ *     stmt.sql() + " " + stmt.latency(0.99, TimeUnit.MILLISECONDS)
+ *   );
+ * }</pre>
+ *
+ * <p>Every statement is a JMX MBean named
+ * {@code com.github.piotrkot.oojdbc:type=Statement,name=<fingerprint>}
+ * in servers it is registered with. Recording is free of contention and
+ * disabled metrics cost nothing, the statements run as they are.
+ *
+ * <p>Metrics of a fingerprint, and its MBean, are kept as long as the
+ * registry is. SQL generated with ever new shapes, e.g. {@code IN} lists
+ * of any length built by hand, makes ever new fingerprints and grows the
+ * registry without bound; measure such statements with a registry of their
+ * own, or not at all. Raw SQL texts are remembered only up to a limit,
+ * past which they are compiled on every statement.
+ *
+ * @since 1.5
+ */
+public final class Metrics {
+    /**
+     * Max number of raw SQL texts remembered.
+     */
+    private static final int TEXTS = 1024;
+
+    /**
+     * Metrics by fingerprint.
+     */
+    private final ConcurrentMap<Long, StatementStats> prints;
+
+    /**
+     * Metrics by SQL text, as prepared, up to {@link #TEXTS} of them.
+     */
+    private final ConcurrentMap<String, StatementStats> texts;
+
+    /**
+     * MBean servers.
+     */
+    private final List<MBeanServer> servers;
+
+    /**
+     * Enabled.
+     */
+    private volatile boolean active;
+
+    /**
+     * Public ctor.
+     */
+    public Metrics() {
+        this.prints = new ConcurrentHashMap<>();
+        this.texts = new ConcurrentHashMap<>();
+        this.servers = new CopyOnWriteArrayList<>();
+        this.active = true;
+    }
+
+    /**
+     * Enable or disable recording.
+     * @param enabled Enabled
+     */
+    public void enable(final boolean enabled) {
+        this.active = enabled;
+    }
+
+    /**
+     * Is recording enabled.
+     * @return TRUE if enabled
+     */
+    public boolean enabled() {
+        return this.active;
+    }
+
+    /**
+     * Register statements as MBeans, present and future.
+     * @param server MBean server
+     */
+    public void register(final MBeanServer server) {
+        this.servers.add(server);
+        for (final StatementStats stats : this.prints.values()) {
+            Metrics.register(server, stats);
+        }
+    }
+
+    /**
+     * Snapshot of metrics of all statements.
+     * @return Snapshots
+     */
+    public List<Metrics.Snapshot> snapshot() {
+        final List<Metrics.Snapshot> all =
+            new ArrayList<>(this.prints.size());
+        for (final StatementStats stats : this.prints.values()) {
+            all.add(new Metrics.Snapshot(stats));
+        }
+        return all;
+    }
+
+    /**
+     * Metrics of the SQL.
+     * @param sql SQL, as prepared
+     * @return Metrics
+     */
+    StatementStats stats(final String sql) {
+        StatementStats stats = this.texts.get(sql);
+        if (stats == null) {
+            final Sql compiled = new Sql(sql).compiled();
+            stats = this.prints.computeIfAbsent(
+                compiled.fingerprint(),
+                print -> this.created(
+                    new StatementStats(compiled.asString(), print)
+                )
+            );
+            if (this.texts.size() < Metrics.TEXTS) {
+                this.texts.putIfAbsent(sql, stats);
+            }
+        }
+        return stats;
+    }
+
+    /**
+     * Register new metrics with the servers.
+     * @param stats Metrics
+     * @return Metrics
+     */
+    private StatementStats created(final StatementStats stats) {
+        for (final MBeanServer server : this.servers) {
+            Metrics.register(server, stats);
+        }
+        return stats;
+    }
+
+    /**
+     * Register metrics with the server.
+     * @param server MBean server
+     * @param stats Metrics
+     */
+    private static void register(final MBeanServer server,
+        final StatementStats stats) {
+        try {
+            final ObjectName name = new ObjectName(
+                String.format(
+                    "com.github.piotrkot.oojdbc:type=Statement,name=%s",
+                    stats.getFingerprint()
+                )
+            );
+            if (!server.isRegistered(name)) {
+                server.registerMBean(stats, name);
+            }
+        } catch (final JMException ex) {
+            throw new IllegalStateException(ex);
+        }
+    }
+
+    /**
+     * Metrics of a statement at a moment.
+     *
+     * @since 1.5
+     */
+    public static final class Snapshot {
+        /**
+         * Normalized SQL.
+         */
+        private final String text;
+
+        /**
+         * Fingerprint of the SQL.
+         */
+        private final long print;
+
+        /**
+         * Executions, errors and rows read.
+         */
+        private final long[] counts;
+
+        /**
+         * Counts of latency buckets.
+         */
+        private final long[] buckets;
+
+        /**
+         * Ctor.
+         * @param stats Live metrics
+         */
+        Snapshot(final StatementStats stats) {
+            this.text = stats.getSql();
+            this.print = stats.fingerprint();
+            this.counts = new long[]{
+                stats.getExecutions(), stats.getErrors(), stats.getRows(),
+            };
+            this.buckets = stats.latencies();
+        }
+
+        /**
+         * Normalized SQL.
+         * @return SQL
+         */
+        public String sql() {
+            return this.text;
+        }
+
+        /**
+         * Fingerprint of the SQL.
+         * @return Fingerprint
+         */
+        public long fingerprint() {
+            return this.print;
+        }
+
+        /**
+         * Number of executions.
+         * @return Executions
+         */
+        public long executions() {
+            return this.counts[0];
+        }
+
+        /**
+         * Number of failed executions.
+         * @return Errors
+         */
+        public long errors() {
+            return this.counts[1];
+        }
+
+        /**
+         * Number of rows read.
+         * @return Rows
+         */
+        public long rows() {
+            return this.counts[2];
+        }
+
+        /**
+         * Latency below which the part of executions falls, e.g. 0.99
+         * for the 99th percentile.
+         * @param part Part of executions
+         * @param unit Unit of the latency
+         * @return Latency, upper bound, within an eighth
+         */
+        public long latency(final double part, final TimeUnit unit) {
+            return unit.convert(
+                Histogram.percentile(this.buckets, part), TimeUnit.NANOSECONDS
+            );
+        }
+    }
+}
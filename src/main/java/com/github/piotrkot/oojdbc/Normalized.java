@@ -0,0 +1,240 @@
+/*
+ * Copyright (c) 2012-2018, jcabi.com
+ * Copyright (c) 2021, github.com/piotrkot
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions
+ * are met: 1) Redistributions of source code must retain the above
+ * copyright notice, this list of conditions and the following
+ * disclaimer. 2) Redistributions in binary form must reproduce the above
+ * copyright notice, this list of conditions and the following
+ * disclaimer in the documentation and/or other materials provided
+ * with the distribution. 3) Neither the name of the jcabi.com nor
+ * the names of its contributors may be used to endorse or promote
+ * products derived from this software without specific prior written
+ * permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT
+ * NOT LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND
+ * FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL
+ * THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT,
+ * INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION)
+ * HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT,
+ * STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED
+ * OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.github.piotrkot.oojdbc;
+
+/**
+ * SQL text with whitespace outside of quotes and comments collapsed.
+ *
+ * <p>Quoted text, with quotes escaped by doubling them, line and block
+ * comments, and PostgreSQL dollar-quoted text are kept intact. As
+ * backslash escapes quotes in some databases but not in others, the rest
+ * of the SQL after a backslash in quoted text is kept intact as well.
+ *
+ * @since 1.5
+ */
+final class Normalized {
+    /**
+     * SQL text.
+     */
+    private final String sql;
+
+    /**
+     * Ctor.
+     * @param sql SQL text
+     */
+    Normalized(final String sql) {
+        this.sql = sql;
+    }
+
+    /**
+     * Normalized text.
+     * @return Text
+     */
+    String asString() {
+        return Normalized.normalized(this.sql);
+    }
+
+    /**
+     * Text with whitespace outside of quotes and comments collapsed.
+     * @param sql SQL text
+     * @return Normalized text
+     */
+    private static String normalized(final String sql) {
+        final StringBuilder out = new StringBuilder(sql.length());
+        int idx = 0;
+        while (idx < sql.length()) {
+            final char chr = sql.charAt(idx);
+            if (Character.isWhitespace(chr)) {
+                idx = Normalized.spaced(sql, idx, out);
+            } else if (chr == '\'' || chr == '"' || chr == '`') {
+                idx = Normalized.quoted(sql, idx, out);
+            } else if (sql.startsWith("--", idx)) {
+                idx = Normalized.commented(sql, idx, out);
+            } else if (sql.startsWith("/*", idx)) {
+                idx = Normalized.blocked(sql, idx, out);
+            } else if (chr == '$' && Normalized.dollar(sql, idx) > idx) {
+                idx = Normalized.dollared(sql, idx, out);
+            } else {
+                out.append(chr);
+                ++idx;
+            }
+        }
+        return out.toString();
+    }
+
+    /**
+     * Collapse whitespace into a single space.
+     * @param sql SQL text
+     * @param start Position of the first whitespace
+     * @param out Normalized text
+     * @return Position after the whitespace
+     */
+    private static int spaced(final String sql, final int start,
+        final StringBuilder out) {
+        int idx = start;
+        while (idx < sql.length() && Character.isWhitespace(sql.charAt(idx))) {
+            ++idx;
+        }
+        if (idx < sql.length() && out.length() > 0
+            && out.charAt(out.length() - 1) != '\n') {
+            out.append(' ');
+        }
+        return idx;
+    }
+
+    /**
+     * Copy quoted text as is.
+     *
+     * <p>A doubled quote escapes the quote, it is copied as the end of one
+     * quoted text and the start of the next one. A backslash may or may
+     * not escape the quote, depending on the database, so the rest of the
+     * SQL is copied as is.
+     *
+     * @param sql SQL text
+     * @param start Position of the opening quote
+     * @param out Normalized text
+     * @return Position after the closing quote
+     */
+    private static int quoted(final String sql, final int start,
+        final StringBuilder out) {
+        final char quote = sql.charAt(start);
+        int end = start + 1;
+        while (end < sql.length() && sql.charAt(end) != quote) {
+            if (sql.charAt(end) == '\\') {
+                end = sql.length() - 1;
+            }
+            ++end;
+        }
+        end = Math.min(end + 1, sql.length());
+        out.append(sql, start, end);
+        return end;
+    }
+
+    /**
+     * Copy block comment as is, with nested comments.
+     * @param sql SQL text
+     * @param start Position of the comment
+     * @param out Normalized text
+     * @return Position after the comment
+     */
+    private static int blocked(final String sql, final int start,
+        final StringBuilder out) {
+        int depth = 0;
+        int end = start;
+        do {
+            if (sql.startsWith("/*", end)) {
+                ++depth;
+                end += 2;
+            } else if (sql.startsWith("*/", end)) {
+                --depth;
+                end += 2;
+            } else {
+                ++end;
+            }
+        } while (depth > 0 && end < sql.length());
+        end = Math.min(end, sql.length());
+        out.append(sql, start, end);
+        return end;
+    }
+
+    /**
+     * Copy dollar-quoted text as is.
+     * @param sql SQL text
+     * @param start Position of the opening tag
+     * @param out Normalized text
+     * @return Position after the closing tag
+     */
+    private static int dollared(final String sql, final int start,
+        final StringBuilder out) {
+        final int body = Normalized.dollar(sql, start);
+        final String tag = sql.substring(start, body);
+        int end = sql.indexOf(tag, body);
+        if (end < 0) {
+            end = sql.length();
+        } else {
+            end += tag.length();
+        }
+        out.append(sql, start, end);
+        return end;
+    }
+
+    /**
+     * Position after the opening tag of dollar-quoted text, as
+     * {@code $$} or {@code $tag$}.
+     * @param sql SQL text
+     * @param start Position of the dollar
+     * @return Position after the tag, or the start if there is no tag
+     */
+    private static int dollar(final String sql, final int start) {
+        int end = start + 1;
+        while (end < sql.length()
+            && Normalized.tag(sql.charAt(end), end == start + 1)) {
+            ++end;
+        }
+        int result = start;
+        final boolean word = start > 0
+            && Normalized.tag(sql.charAt(start - 1), false);
+        if (!word && end < sql.length() && sql.charAt(end) == '$') {
+            result = end + 1;
+        }
+        return result;
+    }
+
+    /**
+     * Is the character part of a tag of dollar-quoted text.
+     * @param chr Character
+     * @param first Whether it is the first character of the tag
+     * @return TRUE if part of a tag
+     */
+    private static boolean tag(final char chr, final boolean first) {
+        return Character.isLetter(chr) || chr == '_'
+            || !first && Character.isDigit(chr);
+    }
+
+    /**
+     * Copy line comment as is, together with its line end.
+     * @param sql SQL text
+     * @param start Position of the comment
+     * @param out Normalized text
+     * @return Position after the line end
+     */
+    private static int commented(final String sql, final int start,
+        final StringBuilder out) {
+        int end = sql.indexOf('\n', start);
+        if (end < 0) {
+            end = sql.length();
+        } else {
+            ++end;
+        }
+        out.append(sql, start, end);
+        return end;
+    }
+}
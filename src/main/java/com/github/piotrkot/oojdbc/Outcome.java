@@ -122,7 +122,7 @@ public interface Outcome<T> {
     /**
      * Default mappings.
      */
-    Mappings DEFAULT_MAPPINGS = new DefaultMappings();
+    Codecs DEFAULT_MAPPINGS = new Codecs();
 
     /**
      * Process the result set and return some value.
@@ -134,6 +134,24 @@ public interface Outcome<T> {
      */
     T handle(ResultSet rset, Statement stmt) throws Exception;
 
+    /**
+     * Outcome which takes over the result set and the statement.
+     *
+     * <p>Statements close the {@link ResultSet} and the {@link Statement}
+     * as soon as the outcome returns. Outcomes which hand them out past
+     * {@link Stmnt#using(java.sql.Connection)}, e.g. to stream rows, opt
+     * out of it with this interface and close both on their own:
+     *
+     * <pre> Outcome.Owning&lt;ResultSet&gt; cursor = (rset, stmt) -&gt; rset;</pre>
+     *
+     * <p>Both are still closed when the outcome fails.
+     *
+     * @param <T> Type of expected result
+     * @since 1.5
+     */
+    interface Owning<T> extends Outcome<T> {
+    }
+
     /**
      * Mapping.
      *
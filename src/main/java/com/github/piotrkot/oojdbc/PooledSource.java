@@ -0,0 +1,624 @@
+/*
+ * Copyright (c) 2012-2018, jcabi.com
+ * Copyright (c) 2021, github.com/piotrkot
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions
+ * are met: 1) Redistributions of source code must retain the above
+ * copyright notice, this list of conditions and the following
+ * disclaimer. 2) Redistributions in binary form must reproduce the above
+ * copyright notice, this list of conditions and the following
+ * disclaimer in the documentation and/or other materials provided
+ * with the distribution. 3) Neither the name of the jcabi.com nor
+ * the names of its contributors may be used to endorse or promote
+ * products derived from this software without specific prior written
+ * permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT
+ * NOT LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND
+ * FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL
+ * THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT,
+ * INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION)
+ * HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT,
+ * STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED
+ * OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.github.piotrkot.oojdbc;
+
+import java.io.PrintWriter;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLFeatureNotSupportedException;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.logging.Logger;
+import javax.sql.DataSource;
+
+/**
+ * Data source pooling connections of another data source.
+ *
+ * <p>Idle connections are handed over through a lock-free deque, most
+ * recently used first. Waiting for a connection blocks on a semaphore,
+ * with no {@code synchronized}, so it suits virtual threads:
+ *
+ * <pre> PooledSource source = new PooledSource(origin, 2, 16).warm();
+ * new JdbcSession&lt;&gt;(stmnt).using(source);</pre>
+ *
+ * <p>Connections are reset when returned: an open transaction is rolled
+ * back, and auto-commit, read-only mode, isolation and catalog are set
+ * back to what they were when the connection was opened. Connections
+ * failing to reset are closed. A connection idle for longer than a
+ * second is validated before it is handed out, and closed and skipped
+ * if the database dropped it meanwhile.
+ *
+ * <p>Once closed, the pool hands out no more connections.
+ *
+ * <p>The class is thread-safe.
+ *
+ * @since 1.5
+ */
+@SuppressWarnings("PMD.TooManyMethods")
+public final class PooledSource implements DataSource, AutoCloseable {
+
+    /**
+     * Default timeout of waiting for a connection, in seconds.
+     */
+    private static final long TIMEOUT = 30L;
+
+    /**
+     * Default time a connection may be idle without validation, in
+     * nanoseconds.
+     */
+    private static final long IDLE = TimeUnit.SECONDS.toNanos(1L);
+
+    /**
+     * Timeout of validating a connection, in seconds.
+     */
+    private static final int VALIDATION = 5;
+
+    /**
+     * Origin of connections.
+     */
+    private final DataSource origin;
+
+    /**
+     * Minimum number of connections, opened when warming up.
+     */
+    private final int min;
+
+    /**
+     * Idle connections.
+     */
+    private final Deque<PooledSource.Physical> idle;
+
+    /**
+     * Permits to hold a connection.
+     */
+    private final Semaphore permits;
+
+    /**
+     * Timeout of waiting for a connection, in nanoseconds.
+     */
+    private final long timeout;
+
+    /**
+     * Time a connection may be idle without validation, in nanoseconds.
+     */
+    private final long trusted;
+
+    /**
+     * Connections handed out.
+     */
+    private final LongAdder acquired;
+
+    /**
+     * Time spent waiting for connections, in nanoseconds.
+     */
+    private final LongAdder waited;
+
+    /**
+     * Time connections were held, in nanoseconds.
+     */
+    private final LongAdder held;
+
+    /**
+     * Closed.
+     */
+    private final AtomicBoolean closed;
+
+    /**
+     * Public ctor.
+     * @param origin Origin of connections
+     * @param min Minimum number of connections, opened when warming up
+     * @param max Maximum number of connections
+     */
+    public PooledSource(final DataSource origin, final int min,
+        final int max) {
+        this(origin, min, max, TimeUnit.SECONDS.toNanos(PooledSource.TIMEOUT));
+    }
+
+    /**
+     * Public ctor.
+     * @param origin Origin of connections
+     * @param min Minimum number of connections, opened when warming up
+     * @param max Maximum number of connections
+     * @param timeout Timeout of waiting for a connection, in nanoseconds
+     * @checkstyle ParameterNumberCheck (3 lines)
+     */
+    public PooledSource(final DataSource origin, final int min,
+        final int max, final long timeout) {
+        this(origin, min, max, timeout, PooledSource.IDLE);
+    }
+
+    /**
+     * Ctor.
+     * @param origin Origin of connections
+     * @param min Minimum number of connections, opened when warming up
+     * @param max Maximum number of connections
+     * @param timeout Timeout of waiting for a connection, in nanoseconds
+     * @param trusted Time a connection may be idle without validation, in
+     *  nanoseconds
+     * @checkstyle ParameterNumberCheck (3 lines)
+     */
+    PooledSource(final DataSource origin, final int min, final int max,
+        final long timeout, final long trusted) {
+        this.origin = origin;
+        this.min = min;
+        this.idle = new ConcurrentLinkedDeque<>();
+        this.permits = new Semaphore(max, true);
+        this.timeout = timeout;
+        this.trusted = trusted;
+        this.acquired = new LongAdder();
+        this.waited = new LongAdder();
+        this.held = new LongAdder();
+        this.closed = new AtomicBoolean();
+    }
+
+    /**
+     * Open the minimum number of connections, in parallel.
+     * @return This pool
+     * @throws SQLException If any connection fails to open
+     */
+    public PooledSource warm() throws SQLException {
+        final List<CompletableFuture<PooledSource.Physical>> opening =
+            new ArrayList<>(this.min);
+        final VirtualThreads threads = new VirtualThreads();
+        for (int idx = this.idle.size(); idx < this.min; ++idx) {
+            opening.add(
+                CompletableFuture.supplyAsync(
+                    () -> {
+                        try {
+                            return this.opened();
+                        } catch (final SQLException ex) {
+                            throw new CompletionException(ex);
+                        }
+                    },
+                    threads
+                )
+            );
+        }
+        for (final PooledSource.Physical conn : PooledSource.joined(opening)) {
+            this.idle.push(conn);
+        }
+        return this;
+    }
+
+    @Override
+    @SuppressWarnings("PMD.AvoidCatchingGenericException")
+    public Connection getConnection() throws SQLException {
+        if (this.closed.get()) {
+            throw new SQLException("pool is closed");
+        }
+        final long start = System.nanoTime();
+        this.acquire();
+        try {
+            final PooledSource.Physical conn = this.checkout();
+            final long now = System.nanoTime();
+            this.waited.add(now - start);
+            this.acquired.increment();
+            return conn.lease(now);
+            // @checkstyle IllegalCatch (1 line)
+        } catch (final SQLException | RuntimeException ex) {
+            this.permits.release();
+            throw ex;
+        }
+    }
+
+    /**
+     * Number of connections handed out.
+     * @return Count
+     */
+    public long acquires() {
+        return this.acquired.sum();
+    }
+
+    /**
+     * Total time spent waiting for connections.
+     * @param unit Unit of time
+     * @return Time
+     */
+    public long acquireWait(final TimeUnit unit) {
+        return unit.convert(this.waited.sum(), TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Total time connections were held, until returned.
+     * @param unit Unit of time
+     * @return Time
+     */
+    public long holdTime(final TimeUnit unit) {
+        return unit.convert(this.held.sum(), TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Number of idle connections.
+     * @return Count
+     */
+    public int idleCount() {
+        return this.idle.size();
+    }
+
+    @Override
+    public void close() throws SQLException {
+        if (!this.closed.getAndSet(true)) {
+            PooledSource.Physical conn = this.idle.poll();
+            while (conn != null) {
+                conn.conn.close();
+                conn = this.idle.poll();
+            }
+        }
+    }
+
+    @Override
+    public Connection getConnection(final String username,
+        final String password) throws SQLException {
+        throw new SQLFeatureNotSupportedException("#getConnection(user)");
+    }
+
+    @Override
+    public PrintWriter getLogWriter() throws SQLException {
+        return this.origin.getLogWriter();
+    }
+
+    @Override
+    public void setLogWriter(final PrintWriter writer) throws SQLException {
+        this.origin.setLogWriter(writer);
+    }
+
+    @Override
+    public void setLoginTimeout(final int seconds) throws SQLException {
+        this.origin.setLoginTimeout(seconds);
+    }
+
+    @Override
+    public int getLoginTimeout() throws SQLException {
+        return this.origin.getLoginTimeout();
+    }
+
+    @Override
+    public Logger getParentLogger() throws SQLFeatureNotSupportedException {
+        return this.origin.getParentLogger();
+    }
+
+    @Override
+    public <T> T unwrap(final Class<T> iface) throws SQLException {
+        return this.origin.unwrap(iface);
+    }
+
+    @Override
+    public boolean isWrapperFor(final Class<?> iface) throws SQLException {
+        return this.origin.isWrapperFor(iface);
+    }
+
+    /**
+     * Wait for a permit to hold a connection.
+     * @throws SQLException If no permit in time
+     */
+    private void acquire() throws SQLException {
+        try {
+            if (!this.permits.tryAcquire(this.timeout, TimeUnit.NANOSECONDS)) {
+                throw new SQLException(
+                    String.format(
+                        "no connection available in %d ms",
+                        TimeUnit.NANOSECONDS.toMillis(this.timeout)
+                    )
+                );
+            }
+        } catch (final InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new SQLException(ex);
+        }
+    }
+
+    /**
+     * Idle connection still valid, or a new one.
+     * @return Connection
+     * @throws SQLException If fails
+     */
+    private PooledSource.Physical checkout() throws SQLException {
+        PooledSource.Physical conn = this.idle.poll();
+        while (conn != null && !conn.valid(this.trusted)) {
+            conn.conn.close();
+            conn = this.idle.poll();
+        }
+        if (conn == null) {
+            conn = this.opened();
+        }
+        return conn;
+    }
+
+    /**
+     * Connections opened in parallel, all closed if any fails to open.
+     * @param opening Connections being opened
+     * @return Opened connections
+     * @throws SQLException If any connection fails to open
+     */
+    private static List<PooledSource.Physical> joined(
+        final List<CompletableFuture<PooledSource.Physical>> opening)
+        throws SQLException {
+        final List<PooledSource.Physical> opened =
+            new ArrayList<>(opening.size());
+        final SQLException error = new SQLException(
+            "failed to open connections"
+        );
+        for (final CompletableFuture<PooledSource.Physical> conn : opening) {
+            try {
+                opened.add(conn.join());
+            } catch (final CompletionException ex) {
+                error.addSuppressed(ex.getCause());
+            }
+        }
+        if (error.getSuppressed().length > 0) {
+            for (final PooledSource.Physical conn : opened) {
+                try {
+                    conn.conn.close();
+                } catch (final SQLException ex) {
+                    error.addSuppressed(ex);
+                }
+            }
+            throw error;
+        }
+        return opened;
+    }
+
+    /**
+     * Open new physical connection.
+     * @return Connection
+     * @throws SQLException If fails
+     */
+    private PooledSource.Physical opened() throws SQLException {
+        return new PooledSource.Physical(this, this.origin.getConnection());
+    }
+
+    /**
+     * Take back connection.
+     * @param conn Connection
+     * @param since When it was handed out, in nanoseconds
+     * @throws SQLException If fails to reset or close the connection
+     */
+    private void released(final PooledSource.Physical conn, final long since)
+        throws SQLException {
+        this.held.add(System.nanoTime() - since);
+        try {
+            if (this.closed.get() || !conn.reset()) {
+                conn.conn.close();
+            } else {
+                conn.rest();
+                this.idle.push(conn);
+            }
+        } catch (final SQLException ex) {
+            conn.conn.close();
+            throw ex;
+        } finally {
+            this.permits.release();
+        }
+    }
+
+    /**
+     * Physical connection, with its initial state.
+     *
+     * @since 1.5
+     */
+    private static final class Physical {
+        /**
+         * Pool.
+         */
+        private final PooledSource pool;
+
+        /**
+         * Connection.
+         */
+        private final Connection conn;
+
+        /**
+         * Initial auto-commit.
+         */
+        private final boolean commit;
+
+        /**
+         * Initial read-only mode.
+         */
+        private final boolean readonly;
+
+        /**
+         * Initial transaction isolation.
+         */
+        private final int isolation;
+
+        /**
+         * Initial catalog.
+         */
+        private final String catalog;
+
+        /**
+         * Since when it is idle, in nanoseconds.
+         */
+        private volatile long rested;
+
+        /**
+         * Ctor.
+         * @param pool Pool
+         * @param conn Connection
+         * @throws SQLException If fails to read the state
+         */
+        Physical(final PooledSource pool, final Connection conn)
+            throws SQLException {
+            this(
+                pool, conn, conn.getAutoCommit(), conn.isReadOnly(),
+                conn.getTransactionIsolation(), conn.getCatalog()
+            );
+        }
+
+        /**
+         * Ctor.
+         * @param pool Pool
+         * @param conn Connection
+         * @param commit Initial auto-commit
+         * @param readonly Initial read-only mode
+         * @param isolation Initial transaction isolation
+         * @param catalog Initial catalog
+         * @checkstyle ParameterNumberCheck (4 lines)
+         */
+        Physical(final PooledSource pool, final Connection conn,
+            final boolean commit, final boolean readonly, final int isolation,
+            final String catalog) {
+            this.pool = pool;
+            this.conn = conn;
+            this.commit = commit;
+            this.readonly = readonly;
+            this.isolation = isolation;
+            this.catalog = catalog;
+            this.rested = System.nanoTime();
+        }
+
+        /**
+         * Mark the connection idle from now on.
+         */
+        void rest() {
+            this.rested = System.nanoTime();
+        }
+
+        /**
+         * Is the connection valid, checked if idle for long.
+         * @param trusted Time it may be idle without validation, in
+         *  nanoseconds
+         * @return TRUE if valid
+         * @throws SQLException If fails
+         */
+        boolean valid(final long trusted) throws SQLException {
+            return System.nanoTime() - this.rested < trusted
+                || this.conn.isValid(PooledSource.VALIDATION);
+        }
+
+        /**
+         * Hand out the connection.
+         * @param since When it is handed out, in nanoseconds
+         * @return Connection returning here when closed
+         */
+        @SuppressWarnings("PMD.UseProperClassLoader")
+        Connection lease(final long since) {
+            return (Connection) Proxy.newProxyInstance(
+                PooledSource.class.getClassLoader(),
+                new Class<?>[]{Connection.class},
+                new PooledSource.Lease(this, since)
+            );
+        }
+
+        /**
+         * Reset the connection to its initial state.
+         * @return TRUE if it can be reused
+         * @throws SQLException If fails
+         */
+        boolean reset() throws SQLException {
+            final boolean open = !this.conn.isClosed();
+            if (open) {
+                if (!this.conn.getAutoCommit()) {
+                    this.conn.rollback();
+                }
+                if (this.conn.getAutoCommit() != this.commit) {
+                    this.conn.setAutoCommit(this.commit);
+                }
+                if (this.conn.isReadOnly() != this.readonly) {
+                    this.conn.setReadOnly(this.readonly);
+                }
+                if (this.conn.getTransactionIsolation() != this.isolation) {
+                    this.conn.setTransactionIsolation(this.isolation);
+                }
+                if (this.catalog != null
+                    && !this.catalog.equals(this.conn.getCatalog())) {
+                    this.conn.setCatalog(this.catalog);
+                }
+                this.conn.clearWarnings();
+            }
+            return open;
+        }
+    }
+
+    /**
+     * Connection handed out, returned to the pool when closed.
+     *
+     * @since 1.5
+     */
+    private static final class Lease implements InvocationHandler {
+        /**
+         * Physical connection.
+         */
+        private final PooledSource.Physical physical;
+
+        /**
+         * When it was handed out, in nanoseconds.
+         */
+        private final long since;
+
+        /**
+         * Returned to the pool.
+         */
+        private final AtomicBoolean returned;
+
+        /**
+         * Ctor.
+         * @param physical Physical connection
+         * @param since When it was handed out, in nanoseconds
+         */
+        Lease(final PooledSource.Physical physical, final long since) {
+            this.physical = physical;
+            this.since = since;
+            this.returned = new AtomicBoolean();
+        }
+
+        @Override
+        public Object invoke(final Object proxy, final Method method,
+            final Object[] args) throws Throwable {
+            final Object result;
+            if ("close".equals(method.getName())) {
+                if (!this.returned.getAndSet(true)) {
+                    this.physical.pool.released(this.physical, this.since);
+                }
+                result = null;
+            } else if ("isClosed".equals(method.getName())) {
+                result = this.returned.get() || this.physical.conn.isClosed();
+            } else if (this.returned.get()) {
+                throw new SQLException("connection is closed");
+            } else {
+                result = PreparedCache.call(this.physical.conn, method, args);
+            }
+            return result;
+        }
+    }
+}
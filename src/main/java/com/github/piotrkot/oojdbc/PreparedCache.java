@@ -0,0 +1,428 @@
+/*
+ * Copyright (c) 2012-2018, jcabi.com
+ * Copyright (c) 2021, github.com/piotrkot
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions
+ * are met: 1) Redistributions of source code must retain the above
+ * copyright notice, this list of conditions and the following
+ * disclaimer. 2) Redistributions in binary form must reproduce the above
+ * copyright notice, this list of conditions and the following
+ * disclaimer in the documentation and/or other materials provided
+ * with the distribution. 3) Neither the name of the jcabi.com nor
+ * the names of its contributors may be used to endorse or promote
+ * products derived from this software without specific prior written
+ * permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT
+ * NOT LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND
+ * FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL
+ * THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT,
+ * INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION)
+ * HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT,
+ * STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED
+ * OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.github.piotrkot.oojdbc;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.LongAdder;
+import lombok.AccessLevel;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Cache of prepared statements of a single connection.
+ *
+ * <p>Hands out a connection, which prepares statements through this
+ * cache. Prepared statements are keyed by the method preparing them and
+ * its arguments, i.e. the SQL and the kind of {@link Connect}. A prepared
+ * statement is reused only after it was closed by its previous user, with
+ * its result set closed, its batch and parameters cleared and its max
+ * rows, fetch size, fetch direction, max field size and query timeout
+ * back to what they were when prepared, if its previous user changed
+ * them. It is not thread-safe, as the
+ * connection itself.
+ *
+ * @since 1.5
+ */
+@RequiredArgsConstructor(access = AccessLevel.PRIVATE)
+final class PreparedCache implements InvocationHandler, AutoCloseable {
+    /**
+     * Methods changing properties of a statement, which are restored.
+     */
+    private static final Set<String> SETTERS = new HashSet<>(
+        Arrays.asList(
+            "setMaxRows", "setLargeMaxRows", "setFetchSize",
+            "setFetchDirection", "setMaxFieldSize", "setQueryTimeout"
+        )
+    );
+
+    /**
+     * Origin connection.
+     */
+    private final Connection conn;
+
+    /**
+     * Max number of prepared statements cached.
+     */
+    private final int size;
+
+    /**
+     * Cached statements, from least to most recently used.
+     */
+    private final Map<List<Object>, PreparedCache.Entry> entries;
+
+    /**
+     * Reused prepared statements.
+     */
+    private final LongAdder hits;
+
+    /**
+     * Prepared statements prepared.
+     */
+    private final LongAdder misses;
+
+    /**
+     * Ctor.
+     * @param conn Origin connection
+     * @param size Max number of prepared statements cached
+     * @param hits Reused prepared statements
+     * @param misses Prepared statements prepared
+     * @checkstyle ParameterNumberCheck (3 lines)
+     */
+    PreparedCache(final Connection conn, final int size,
+        final LongAdder hits, final LongAdder misses) {
+        this(conn, size, new LinkedHashMap<>(size, 1.0f, true), hits, misses);
+    }
+
+    /**
+     * Connection preparing statements through this cache.
+     * @return Connection
+     */
+    @SuppressWarnings("PMD.UseProperClassLoader")
+    public Connection connection() {
+        return (Connection) Proxy.newProxyInstance(
+            PreparedCache.class.getClassLoader(),
+            new Class<?>[]{Connection.class},
+            this
+        );
+    }
+
+    @Override
+    public Object invoke(final Object proxy, final Method method,
+        final Object[] args) throws Throwable {
+        final Object result;
+        if (method.getName().startsWith("prepare")) {
+            result = this.prepared(method, args);
+        } else {
+            result = PreparedCache.call(this.conn, method, args);
+        }
+        return result;
+    }
+
+    @Override
+    public void close() throws SQLException {
+        for (final PreparedCache.Entry entry : this.entries.values()) {
+            entry.evict();
+        }
+        this.entries.clear();
+    }
+
+    /**
+     * Call the method on the target.
+     * @param target Target object
+     * @param method Method to call
+     * @param args Arguments of the method
+     * @return Result of the method
+     * @throws Exception If method fails
+     */
+    static Object call(final Object target, final Method method,
+        final Object... args) throws Exception {
+        try {
+            return method.invoke(target, args);
+        } catch (final InvocationTargetException ex) {
+            if (ex.getCause() instanceof Error) {
+                throw (Error) ex.getCause();
+            }
+            throw (Exception) ex.getCause();
+        }
+    }
+
+    /**
+     * Prepared statement, reused if possible.
+     * @param method Method preparing statement
+     * @param args Arguments of the method
+     * @return Prepared statement
+     * @throws Exception If fails
+     */
+    private Object prepared(final Method method, final Object... args)
+        throws Exception {
+        final List<Object> key = new ArrayList<>(args.length + 1);
+        key.add(method.getName());
+        key.addAll(Arrays.asList(args));
+        PreparedCache.Entry entry = this.entries.get(key);
+        final Object result;
+        if (entry == null) {
+            this.misses.increment();
+            entry = new PreparedCache.Entry(
+                (PreparedStatement) PreparedCache.call(this.conn, method, args)
+            );
+            this.entries.put(key, entry);
+            this.shrink();
+            result = entry.lease(method.getReturnType());
+        } else if (entry.busy()) {
+            this.misses.increment();
+            result = PreparedCache.call(this.conn, method, args);
+        } else {
+            this.hits.increment();
+            result = entry.lease(method.getReturnType());
+        }
+        return result;
+    }
+
+    /**
+     * Evict least recently used statements above the size.
+     * @throws SQLException If fails
+     */
+    private void shrink() throws SQLException {
+        final Iterator<PreparedCache.Entry> iter =
+            this.entries.values().iterator();
+        while (this.entries.size() > this.size) {
+            iter.next().evict();
+            iter.remove();
+        }
+    }
+
+    /**
+     * Cached prepared statement.
+     *
+     * @since 1.5
+     */
+    private static final class Entry {
+        /**
+         * Prepared statement.
+         */
+        private final PreparedStatement stmt;
+
+        /**
+         * Is it in use.
+         */
+        private boolean used;
+
+        /**
+         * Is it evicted from the cache.
+         */
+        private boolean evicted;
+
+        /**
+         * Properties as prepared, NULL till first changed.
+         */
+        private PreparedCache.Properties prepared;
+
+        /**
+         * Are properties changed by the current user.
+         */
+        private boolean changed;
+
+        /**
+         * Ctor.
+         * @param stmt Prepared statement
+         */
+        Entry(final PreparedStatement stmt) {
+            this.stmt = stmt;
+        }
+
+        /**
+         * Is it in use.
+         * @return TRUE if in use
+         */
+        public boolean busy() {
+            return this.used;
+        }
+
+        /**
+         * Lease the statement till it is closed.
+         * @param type Type of statement expected
+         * @return Statement
+         * @throws SQLException If fails
+         */
+        @SuppressWarnings("PMD.UseProperClassLoader")
+        public Object lease(final Class<?> type) throws SQLException {
+            this.stmt.clearParameters();
+            if (this.changed) {
+                this.prepared.restore(this.stmt);
+                this.changed = false;
+            }
+            this.used = true;
+            return Proxy.newProxyInstance(
+                PreparedCache.class.getClassLoader(),
+                new Class<?>[]{type},
+                new PreparedCache.Lease(this)
+            );
+        }
+
+        /**
+         * Record properties before they are changed.
+         * @throws SQLException If fails
+         */
+        public void change() throws SQLException {
+            if (this.prepared == null) {
+                this.prepared = new PreparedCache.Properties(this.stmt);
+            }
+            this.changed = true;
+        }
+
+        /**
+         * Return the statement to the cache, dropping what its user left.
+         * @throws SQLException If fails
+         */
+        @SuppressWarnings("PMD.CloseResource")
+        public void release() throws SQLException {
+            this.used = false;
+            if (this.evicted) {
+                this.stmt.close();
+            } else {
+                final ResultSet rset = this.stmt.getResultSet();
+                if (rset != null) {
+                    rset.close();
+                }
+                this.stmt.clearBatch();
+            }
+        }
+
+        /**
+         * Evict the statement, closing it once not in use.
+         * @throws SQLException If fails
+         */
+        public void evict() throws SQLException {
+            this.evicted = true;
+            if (!this.used) {
+                this.stmt.close();
+            }
+        }
+    }
+
+    /**
+     * Cached prepared statement, in use till closed.
+     *
+     * @since 1.5
+     */
+    private static final class Lease implements InvocationHandler {
+        /**
+         * Cached statement.
+         */
+        private final PreparedCache.Entry entry;
+
+        /**
+         * Is it closed.
+         */
+        private boolean closed;
+
+        /**
+         * Ctor.
+         * @param entry Cached statement
+         */
+        Lease(final PreparedCache.Entry entry) {
+            this.entry = entry;
+        }
+
+        @Override
+        public Object invoke(final Object proxy, final Method method,
+            final Object[] args) throws Throwable {
+            final Object result;
+            if ("close".equals(method.getName())) {
+                if (!this.closed) {
+                    this.closed = true;
+                    this.entry.release();
+                }
+                result = null;
+            } else if (this.closed && "isClosed".equals(method.getName())) {
+                result = true;
+            } else {
+                if (PreparedCache.SETTERS.contains(method.getName())) {
+                    this.entry.change();
+                }
+                result = PreparedCache.call(this.entry.stmt, method, args);
+            }
+            return result;
+        }
+    }
+
+    /**
+     * Properties of a statement, restored before it is reused.
+     *
+     * @since 1.5
+     */
+    private static final class Properties {
+        /**
+         * Max rows.
+         */
+        private final int rows;
+
+        /**
+         * Fetch size.
+         */
+        private final int fetch;
+
+        /**
+         * Fetch direction.
+         */
+        private final int direction;
+
+        /**
+         * Max field size.
+         */
+        private final int field;
+
+        /**
+         * Query timeout, in seconds.
+         */
+        private final int timeout;
+
+        /**
+         * Ctor.
+         * @param stmt Statement to read properties of
+         * @throws SQLException If fails
+         */
+        Properties(final PreparedStatement stmt) throws SQLException {
+            this.rows = stmt.getMaxRows();
+            this.fetch = stmt.getFetchSize();
+            this.direction = stmt.getFetchDirection();
+            this.field = stmt.getMaxFieldSize();
+            this.timeout = stmt.getQueryTimeout();
+        }
+
+        /**
+         * Restore the properties.
+         * @param stmt Statement to restore properties of
+         * @throws SQLException If fails
+         */
+        public void restore(final PreparedStatement stmt) throws SQLException {
+            stmt.setMaxRows(this.rows);
+            stmt.setFetchSize(this.fetch);
+            stmt.setFetchDirection(this.direction);
+            stmt.setMaxFieldSize(this.field);
+            stmt.setQueryTimeout(this.timeout);
+        }
+    }
+}
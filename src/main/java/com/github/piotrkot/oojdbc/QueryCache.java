@@ -0,0 +1,730 @@
+/*
+ * Copyright (c) 2012-2018, jcabi.com
+ * Copyright (c) 2021, github.com/piotrkot
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions
+ * are met: 1) Redistributions of source code must retain the above
+ * copyright notice, this list of conditions and the following
+ * disclaimer. 2) Redistributions in binary form must reproduce the above
+ * copyright notice, this list of conditions and the following
+ * disclaimer in the documentation and/or other materials provided
+ * with the distribution. 3) Neither the name of the jcabi.com nor
+ * the names of its contributors may be used to endorse or promote
+ * products derived from this software without specific prior written
+ * permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT
+ * NOT LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND
+ * FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL
+ * THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT,
+ * INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION)
+ * HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT,
+ * STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED
+ * OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.github.piotrkot.oojdbc;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+import javax.sql.DataSource;
+
+/**
+ * Cache of query results.
+ *
+ * <p>Results are kept for their time to live, read through
+ * {@link com.github.piotrkot.oojdbc.statements.Cached}:
+ *
+ * <pre> QueryCache cache = new QueryCache(1000);
+ * DataSource source = cache.watching(datasource);
+ * List&lt;String&gt; names = new JdbcSession&lt;&gt;(
+ *   new Cached&lt;&gt;(
+ *     cache,
+ *     new Select&lt;&gt;(
+ *       new Sql("SELECT name FROM country"),
+ *       new ColumnOutcome&lt;&gt;(String.class)
+ *     ),
+ *     "country"
+ *   )
+ * ).using(source);</pre>
+ *
+ * <p>Results depend on tables. Writes to a table through a data source
+ * {@link #watching(DataSource) watched} by the cache invalidate the
+ * results of the table once committed. Results read while a write was
+ * in flight are never served afterwards. Till committed, queries of the
+ * table on the connection that wrote it go past the cache, so a unit
+ * reads its own writes. Writes through data sources not watched are not
+ * seen at all, their results are served till they expire.
+ *
+ * <p>The cache is bounded both by the number of results and by their
+ * total weight, the number of rows of collections. It evicts the least
+ * recently used result, unless a new result is less frequently asked
+ * for than it, then the new one is dropped instead. So a scan of
+ * one-off queries doesn't flush the popular results.
+ *
+ * <p>A result is refreshed ahead, by a single caller, after most of its
+ * time to live, while other callers are still served the current one.
+ * The refresh is synchronous: the caller runs the query on its own
+ * thread and connection, in its transaction if any, and pays its
+ * latency. When a result is missing, only one caller loads it, the
+ * others wait for it.
+ *
+ * <p>A cached result is shared by all callers. Lists, sets, maps and other
+ * collections are cached and handed out as unmodifiable views, so their
+ * type must be declared as the interface. Other results, e.g. arrays,
+ * are handed out as they are and must not be changed.
+ *
+ * @since 1.5
+ */
+@SuppressWarnings("PMD.TooManyMethods")
+public final class QueryCache {
+
+    /**
+     * Time to live of the cache, for results without their own.
+     */
+    public static final long DEFAULT_TTL = -1L;
+
+    /**
+     * Part of the time to live after which results are refreshed, in
+     * percent.
+     */
+    private static final long AHEAD = 80L;
+
+    /**
+     * Maximum number of results.
+     */
+    private final int capacity;
+
+    /**
+     * Maximum total weight of results.
+     */
+    private final long weight;
+
+    /**
+     * Time to live, in nanoseconds.
+     */
+    private final long ttl;
+
+    /**
+     * Results, least recently used first.
+     */
+    private final Map<Object, QueryCache.Entry> entries;
+
+    /**
+     * Guard of the results.
+     */
+    private final Lock lock;
+
+    /**
+     * Total weight of results.
+     */
+    private final AtomicLong total;
+
+    /**
+     * Frequency of keys.
+     */
+    private final Frequency frequency;
+
+    /**
+     * Results being loaded.
+     */
+    private final ConcurrentMap<Object, CompletableFuture<Object>> loading;
+
+    /**
+     * Versions of tables, changed by writes.
+     */
+    private final ConcurrentMap<String, AtomicLong> versions;
+
+    /**
+     * Version of all tables.
+     */
+    private final AtomicLong generation;
+
+    /**
+     * Results served from the cache.
+     */
+    private final LongAdder hit;
+
+    /**
+     * Results loaded.
+     */
+    private final LongAdder missed;
+
+    /**
+     * Public ctor.
+     *
+     * <p>Results live five minutes.
+     *
+     * @param size Maximum number of results
+     */
+    public QueryCache(final int size) {
+        // @checkstyle MagicNumber (1 line)
+        this(size, Long.MAX_VALUE, 5L, TimeUnit.MINUTES);
+    }
+
+    /**
+     * Public ctor.
+     * @param size Maximum number of results
+     * @param weight Maximum total weight of results
+     * @param ttl Time to live
+     * @param unit Unit of the time
+     * @checkstyle ParameterNumberCheck (3 lines)
+     */
+    public QueryCache(final int size, final long weight, final long ttl,
+        final TimeUnit unit) {
+        this.capacity = size;
+        this.weight = weight;
+        this.ttl = unit.toNanos(ttl);
+        this.entries = new LinkedHashMap<>(16, 0.75f, true);
+        this.lock = new ReentrantLock();
+        this.total = new AtomicLong();
+        this.frequency = new Frequency(size);
+        this.loading = new ConcurrentHashMap<>();
+        this.versions = new ConcurrentHashMap<>();
+        this.generation = new AtomicLong();
+        this.hit = new LongAdder();
+        this.missed = new LongAdder();
+    }
+
+    /**
+     * Result of a query, from the cache or loaded.
+     * @param key Key of the query, e.g. its SQL and arguments
+     * @param life Time to live in nanoseconds, or {@link #DEFAULT_TTL}
+     * @param tables Tables the result depends on
+     * @param load Query
+     * @param <T> Type of the result
+     * @return Result
+     * @throws Exception If fails
+     * @checkstyle ParameterNumberCheck (3 lines)
+     */
+    @SuppressWarnings("unchecked")
+    public <T> T get(final Object key, final long life,
+        final Collection<String> tables, final Callable<T> load)
+        throws Exception {
+        final QueryCache.Load<T> loader = new QueryCache.Load<>(
+            this, key, this.life(life), tables, load
+        );
+        final QueryCache.Entry found = this.lookup(key);
+        final T result;
+        if (found == null) {
+            this.missed.increment();
+            result = this.once(loader);
+        } else {
+            this.hit.increment();
+            result = QueryCache.refreshed(found, loader);
+        }
+        return result;
+    }
+
+    /**
+     * Result of a query on a connection, from the cache or loaded.
+     *
+     * <p>The query goes past the cache if the connection wrote some of
+     * the tables and the writes are not invalidated yet.
+     *
+     * @param conn Connection the query runs on
+     * @param key Key of the query, e.g. its SQL and arguments
+     * @param life Time to live in nanoseconds, or {@link #DEFAULT_TTL}
+     * @param tables Tables the result depends on
+     * @param load Query
+     * @param <T> Type of the result
+     * @return Result
+     * @throws Exception If fails
+     * @checkstyle ParameterNumberCheck (3 lines)
+     */
+    public <T> T get(final Connection conn, final Object key,
+        final long life, final Collection<String> tables,
+        final Callable<T> load) throws Exception {
+        final T result;
+        if (WatchedSource.pending(conn, tables)) {
+            this.missed.increment();
+            result = load.call();
+        } else {
+            result = this.get(key, life, tables, load);
+        }
+        return result;
+    }
+
+    /**
+     * Invalidate results of tables.
+     * @param tables Tables
+     */
+    public void invalidate(final Collection<String> tables) {
+        for (final String table : tables) {
+            this.version(table).incrementAndGet();
+        }
+    }
+
+    /**
+     * Invalidate all results.
+     */
+    public void invalidateAll() {
+        this.generation.incrementAndGet();
+        this.lock.lock();
+        try {
+            this.entries.clear();
+            this.total.set(0L);
+        } finally {
+            this.lock.unlock();
+        }
+    }
+
+    /**
+     * Data source, whose writes invalidate results of the tables written.
+     * @param source Data source
+     * @return Data source
+     */
+    public DataSource watching(final DataSource source) {
+        return new WatchedSource(source, this);
+    }
+
+    /**
+     * Number of results served from the cache.
+     * @return Hits
+     */
+    public long hits() {
+        return this.hit.sum();
+    }
+
+    /**
+     * Number of results loaded.
+     * @return Misses
+     */
+    public long misses() {
+        return this.missed.sum();
+    }
+
+    /**
+     * Number of results cached.
+     * @return Number of results
+     */
+    public int size() {
+        this.lock.lock();
+        try {
+            return this.entries.size();
+        } finally {
+            this.lock.unlock();
+        }
+    }
+
+    /**
+     * Weight of a result.
+     * @param value Result
+     * @return Weight
+     */
+    static long weigh(final Object value) {
+        final long result;
+        if (value instanceof Collection) {
+            result = ((Collection<?>) value).size() + 1L;
+        } else if (value instanceof Map) {
+            result = ((Map<?, ?>) value).size() + 1L;
+        } else {
+            result = 1L;
+        }
+        return result;
+    }
+
+    /**
+     * Valid result of the key, counting the key once more.
+     * @param key Key
+     * @return Result or NULL
+     */
+    private QueryCache.Entry lookup(final Object key) {
+        this.frequency.increment(key);
+        final QueryCache.Entry cached;
+        this.lock.lock();
+        try {
+            cached = this.entries.get(key);
+        } finally {
+            this.lock.unlock();
+        }
+        QueryCache.Entry found = null;
+        if (cached != null) {
+            if (cached.valid(System.nanoTime())) {
+                found = cached;
+            } else {
+                this.remove(cached);
+            }
+        }
+        return found;
+    }
+
+    /**
+     * Result cached, refreshed by a single caller after most of its life.
+     * @param found Result cached
+     * @param loader Loader of the result
+     * @param <T> Type of the result
+     * @return Result
+     */
+    @SuppressWarnings({"unchecked", "PMD.AvoidCatchingGenericException"})
+    private static <T> T refreshed(final QueryCache.Entry found,
+        final QueryCache.Load<T> loader) {
+        T result = (T) found.value;
+        if (found.due(System.nanoTime())
+            && found.refreshing.compareAndSet(false, true)) {
+            try {
+                result = loader.call();
+                // @checkstyle IllegalCatch (1 line)
+            } catch (final Exception ex) {
+                found.refreshing.set(false);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Load the result by a single caller, other callers wait for it.
+     * @param loader Loader of the result
+     * @param <T> Type of the result
+     * @return Result
+     * @throws Exception If fails
+     */
+    @SuppressWarnings({"unchecked", "PMD.AvoidCatchingGenericException"})
+    private <T> T once(final QueryCache.Load<T> loader) throws Exception {
+        final CompletableFuture<Object> mine = new CompletableFuture<>();
+        final CompletableFuture<Object> running =
+            this.loading.putIfAbsent(loader.key, mine);
+        final T result;
+        if (running == null) {
+            try {
+                result = loader.call();
+                mine.complete(result);
+                // @checkstyle IllegalCatch (1 line)
+            } catch (final Exception ex) {
+                mine.completeExceptionally(ex);
+                throw ex;
+            } finally {
+                this.loading.remove(loader.key, mine);
+            }
+        } else {
+            result = (T) QueryCache.await(running);
+        }
+        return result;
+    }
+
+    /**
+     * Store the result, evicting others if over the bounds.
+     * @param entry Result
+     */
+    private void store(final QueryCache.Entry entry) {
+        this.lock.lock();
+        try {
+            final QueryCache.Entry previous =
+                this.entries.put(entry.key, entry);
+            long sum = this.total.addAndGet(entry.weight);
+            if (previous != null) {
+                sum = this.total.addAndGet(-previous.weight);
+            }
+            boolean admitted = true;
+            while (admitted
+                && (this.entries.size() > this.capacity || sum > this.weight)) {
+                QueryCache.Entry victim =
+                    this.entries.values().iterator().next();
+                if (previous == null
+                    && this.frequency.frequency(entry.key)
+                    <= this.frequency.frequency(victim.key)) {
+                    victim = entry;
+                }
+                this.entries.remove(victim.key);
+                sum = this.total.addAndGet(-victim.weight);
+                admitted = !entry.equals(victim);
+            }
+        } finally {
+            this.lock.unlock();
+        }
+    }
+
+    /**
+     * Remove the result, unless replaced.
+     * @param entry Result
+     */
+    private void remove(final QueryCache.Entry entry) {
+        this.lock.lock();
+        try {
+            if (this.entries.remove(entry.key, entry)) {
+                this.total.addAndGet(-entry.weight);
+            }
+        } finally {
+            this.lock.unlock();
+        }
+    }
+
+    /**
+     * Current versions of the tables.
+     * @param tables Tables
+     * @return Versions
+     */
+    private long[] current(final String... tables) {
+        final long[] result = new long[tables.length];
+        for (int idx = 0; idx < tables.length; ++idx) {
+            result[idx] = this.version(tables[idx]).get();
+        }
+        return result;
+    }
+
+    /**
+     * Version of a table.
+     * @param table Table
+     * @return Version
+     */
+    private AtomicLong version(final String table) {
+        return this.versions.computeIfAbsent(
+            table.toLowerCase(Locale.ENGLISH), name -> new AtomicLong()
+        );
+    }
+
+    /**
+     * Time to live.
+     * @param life Time to live in nanoseconds, or {@link #DEFAULT_TTL}
+     * @return Time to live in nanoseconds
+     */
+    private long life(final long life) {
+        final long result;
+        if (life == QueryCache.DEFAULT_TTL) {
+            result = this.ttl;
+        } else {
+            result = life;
+        }
+        return result;
+    }
+
+    /**
+     * Result to share, lists, sets, maps and other collections as
+     * unmodifiable views.
+     * @param value Result
+     * @param <T> Type of the result
+     * @return Result
+     */
+    @SuppressWarnings("unchecked")
+    private static <T> T frozen(final T value) {
+        final Object result;
+        if (value instanceof List) {
+            result = Collections.unmodifiableList((List<?>) value);
+        } else if (value instanceof Set) {
+            result = Collections.unmodifiableSet((Set<?>) value);
+        } else if (value instanceof Collection) {
+            result = Collections.unmodifiableCollection((Collection<?>) value);
+        } else if (value instanceof Map) {
+            result = Collections.unmodifiableMap((Map<?, ?>) value);
+        } else {
+            result = value;
+        }
+        return (T) result;
+    }
+
+    /**
+     * Wait for a result loaded by another caller.
+     * @param running Result being loaded
+     * @return Result
+     * @throws SQLException If loading fails
+     */
+    private static Object await(final CompletableFuture<Object> running)
+        throws SQLException {
+        try {
+            return running.get();
+        } catch (final InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new SQLException(ex);
+        } catch (final ExecutionException ex) {
+            throw new SQLException(ex);
+        }
+    }
+
+    /**
+     * Loading of a result.
+     *
+     * @param <T> Type of the result
+     * @since 1.5
+     */
+    private static final class Load<T> implements Callable<T> {
+        /**
+         * Cache.
+         */
+        private final QueryCache cache;
+
+        /**
+         * Key.
+         */
+        private final Object key;
+
+        /**
+         * Time to live, in nanoseconds.
+         */
+        private final long life;
+
+        /**
+         * Tables the result depends on.
+         */
+        private final String[] tables;
+
+        /**
+         * Query.
+         */
+        private final Callable<T> query;
+
+        /**
+         * Ctor.
+         * @param cache Cache
+         * @param key Key
+         * @param life Time to live, in nanoseconds
+         * @param tables Tables the result depends on
+         * @param query Query
+         * @checkstyle ParameterNumberCheck (3 lines)
+         */
+        Load(final QueryCache cache, final Object key, final long life,
+            final Collection<String> tables, final Callable<T> query) {
+            this.cache = cache;
+            this.key = key;
+            this.life = life;
+            this.tables = tables.toArray(new String[0]);
+            this.query = query;
+        }
+
+        @Override
+        public T call() throws Exception {
+            final long gen = this.cache.generation.get();
+            final long[] before = this.cache.current(this.tables);
+            final T value = QueryCache.frozen(this.query.call());
+            final long now = System.nanoTime();
+            this.cache.store(
+                new QueryCache.Entry(
+                    this.cache, this.key, value,
+                    new long[]{gen, now, now + this.life},
+                    this.tables, before
+                )
+            );
+            return value;
+        }
+    }
+
+    /**
+     * Cached result.
+     *
+     * @since 1.5
+     */
+    private static final class Entry {
+        /**
+         * Cache.
+         */
+        private final QueryCache cache;
+
+        /**
+         * Key.
+         */
+        private final Object key;
+
+        /**
+         * Result.
+         */
+        private final Object value;
+
+        /**
+         * Weight.
+         */
+        private final long weight;
+
+        /**
+         * Version of all tables when loaded.
+         */
+        private final long generation;
+
+        /**
+         * When to refresh, in nanoseconds.
+         */
+        private final long refresh;
+
+        /**
+         * When expired, in nanoseconds.
+         */
+        private final long expiry;
+
+        /**
+         * Tables the result depends on.
+         */
+        private final String[] tables;
+
+        /**
+         * Versions of the tables when loaded.
+         */
+        private final long[] versions;
+
+        /**
+         * Being refreshed.
+         */
+        private final AtomicBoolean refreshing;
+
+        /**
+         * Ctor.
+         * @param cache Cache
+         * @param key Key
+         * @param value Result
+         * @param times Version of all tables, load time and expiry
+         * @param tables Tables the result depends on
+         * @param versions Versions of the tables when loaded
+         * @checkstyle ParameterNumberCheck (4 lines)
+         */
+        Entry(final QueryCache cache, final Object key, final Object value,
+            final long[] times, final String[] tables,
+            final long... versions) {
+            this.cache = cache;
+            this.key = key;
+            this.value = value;
+            this.weight = QueryCache.weigh(value);
+            this.generation = times[0];
+            this.refresh = times[1]
+                + (times[2] - times[1]) / 100L * QueryCache.AHEAD;
+            this.expiry = times[2];
+            this.tables = tables.clone();
+            this.versions = versions.clone();
+            this.refreshing = new AtomicBoolean();
+        }
+
+        /**
+         * Is the result still valid.
+         * @param now Current time, in nanoseconds
+         * @return TRUE if valid
+         */
+        boolean valid(final long now) {
+            boolean result = this.expiry - now > 0L
+                && this.generation == this.cache.generation.get();
+            for (int idx = 0; result && idx < this.tables.length; ++idx) {
+                final long current =
+                    this.cache.version(this.tables[idx]).get();
+                result = this.versions[idx] == current;
+            }
+            return result;
+        }
+
+        /**
+         * Is the result due to refresh.
+         * @param now Current time, in nanoseconds
+         * @return TRUE if due
+         */
+        boolean due(final long now) {
+            return now - this.refresh >= 0L;
+        }
+    }
+}
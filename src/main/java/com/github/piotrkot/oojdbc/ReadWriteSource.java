@@ -0,0 +1,268 @@
+/*
+ * Copyright (c) 2012-2018, jcabi.com
+ * Copyright (c) 2021, github.com/piotrkot
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions
+ * are met: 1) Redistributions of source code must retain the above
+ * copyright notice, this list of conditions and the following
+ * disclaimer. 2) Redistributions in binary form must reproduce the above
+ * copyright notice, this list of conditions and the following
+ * disclaimer in the documentation and/or other materials provided
+ * with the distribution. 3) Neither the name of the jcabi.com nor
+ * the names of its contributors may be used to endorse or promote
+ * products derived from this software without specific prior written
+ * permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT
+ * NOT LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND
+ * FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL
+ * THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT,
+ * INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION)
+ * HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT,
+ * STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED
+ * OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.github.piotrkot.oojdbc;
+
+import java.io.PrintWriter;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLFeatureNotSupportedException;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+import java.util.logging.Logger;
+import javax.sql.DataSource;
+
+/**
+ * Data source sending reads to replicas and everything else to the
+ * primary.
+ *
+ * <p>Connections are opened lazily, when the first statement is
+ * prepared. Reading statements outside of a transaction, or in a
+ * read-only one, go to the replicas in turns, other statements go to
+ * the primary. A connection which read from a replica and then writes,
+ * outside of a transaction, moves over to the primary.
+ *
+ * <p>Replicas lag behind the primary, so after a write, reads of the
+ * same logical context go to the primary for a while, to see the write.
+ * By default the context is the thread, {@link #with(Affinity)} binds
+ * another one, e.g. a user session:
+ *
+ * <pre> ReadWriteSource source = new ReadWriteSource(
+ *   primary, 2L, TimeUnit.SECONDS, replica
+ * );
+ * ReadWriteSource.Affinity user = new ReadWriteSource.Affinity();
+ * new JdbcSession&lt;&gt;(insert).using(source.with(user));
+ * new JdbcSession&lt;&gt;(select).using(source.with(user));</pre>
+ *
+ * @since 1.5
+ */
+@SuppressWarnings("PMD.TooManyMethods")
+public final class ReadWriteSource implements DataSource {
+
+    /**
+     * Affinity of the thread.
+     */
+    private static final ThreadLocal<ReadWriteSource.Affinity> LOCAL =
+        ThreadLocal.withInitial(ReadWriteSource.Affinity::new);
+
+    /**
+     * Primary.
+     */
+    private final DataSource primary;
+
+    /**
+     * Replicas.
+     */
+    private final List<DataSource> replicas;
+
+    /**
+     * Time to read from the primary after a write, in nanoseconds.
+     */
+    private final long window;
+
+    /**
+     * Logical context.
+     */
+    private final Supplier<ReadWriteSource.Affinity> affinity;
+
+    /**
+     * Next replica.
+     */
+    private final AtomicInteger turn;
+
+    /**
+     * Public ctor.
+     * @param primary Primary
+     * @param window Time to read from the primary after a write
+     * @param unit Unit of the time
+     * @param replicas Replicas
+     * @checkstyle ParameterNumberCheck (3 lines)
+     */
+    public ReadWriteSource(final DataSource primary, final long window,
+        final TimeUnit unit, final DataSource... replicas) {
+        this(
+            primary, Arrays.asList(replicas), unit.toNanos(window),
+            ReadWriteSource.LOCAL::get, new AtomicInteger()
+        );
+    }
+
+    /**
+     * Ctor.
+     * @param primary Primary
+     * @param replicas Replicas
+     * @param window Time to read from the primary after a write
+     * @param affinity Logical context
+     * @param turn Next replica
+     * @checkstyle ParameterNumberCheck (4 lines)
+     */
+    private ReadWriteSource(final DataSource primary,
+        final List<DataSource> replicas, final long window,
+        final Supplier<ReadWriteSource.Affinity> affinity,
+        final AtomicInteger turn) {
+        this.primary = primary;
+        this.replicas = replicas;
+        this.window = window;
+        this.affinity = affinity;
+        this.turn = turn;
+    }
+
+    /**
+     * Same data source, for a logical context.
+     * @param context Logical context
+     * @return Data source
+     */
+    public ReadWriteSource with(final ReadWriteSource.Affinity context) {
+        return new ReadWriteSource(
+            this.primary, this.replicas, this.window, () -> context, this.turn
+        );
+    }
+
+    @Override
+    @SuppressWarnings("PMD.UseProperClassLoader")
+    public Connection getConnection() {
+        return (Connection) Proxy.newProxyInstance(
+            ReadWriteSource.class.getClassLoader(),
+            new Class<?>[]{Connection.class},
+            new Routed(this)
+        );
+    }
+
+    @Override
+    public Connection getConnection(final String username,
+        final String password) throws SQLException {
+        throw new SQLFeatureNotSupportedException("#getConnection(user)");
+    }
+
+    @Override
+    public PrintWriter getLogWriter() throws SQLException {
+        return this.primary.getLogWriter();
+    }
+
+    @Override
+    public void setLogWriter(final PrintWriter writer) throws SQLException {
+        this.primary.setLogWriter(writer);
+    }
+
+    @Override
+    public void setLoginTimeout(final int seconds) throws SQLException {
+        this.primary.setLoginTimeout(seconds);
+    }
+
+    @Override
+    public int getLoginTimeout() throws SQLException {
+        return this.primary.getLoginTimeout();
+    }
+
+    @Override
+    public Logger getParentLogger() throws SQLFeatureNotSupportedException {
+        return this.primary.getParentLogger();
+    }
+
+    @Override
+    public <T> T unwrap(final Class<T> iface) throws SQLException {
+        return this.primary.unwrap(iface);
+    }
+
+    @Override
+    public boolean isWrapperFor(final Class<?> iface) throws SQLException {
+        return this.primary.isWrapperFor(iface);
+    }
+
+    /**
+     * Connection to the primary.
+     * @return Connection
+     * @throws SQLException If fails
+     */
+    Connection writer() throws SQLException {
+        return this.primary.getConnection();
+    }
+
+    /**
+     * Remember a write to the primary.
+     */
+    void written() {
+        this.affinity.get().written(this.window);
+    }
+
+    /**
+     * Connection to the next replica, or to the primary after a recent
+     * write or when there are no replicas.
+     * @return Connection, or NULL if reading from the primary
+     * @throws SQLException If fails
+     */
+    Connection reader() throws SQLException {
+        Connection conn = null;
+        if (!this.replicas.isEmpty() && !this.affinity.get().sticky()) {
+            conn = this.replicas.get(
+                Math.floorMod(this.turn.getAndIncrement(), this.replicas.size())
+            ).getConnection();
+        }
+        return conn;
+    }
+
+    /**
+     * Logical context, for reading own writes.
+     *
+     * @since 1.5
+     */
+    public static final class Affinity {
+        /**
+         * Read from the primary until, in nanoseconds.
+         */
+        private volatile long until;
+
+        /**
+         * Public ctor.
+         */
+        public Affinity() {
+            this.until = System.nanoTime();
+        }
+
+        /**
+         * Remember a write.
+         * @param window Time to read from the primary, in nanoseconds
+         */
+        void written(final long window) {
+            this.until = System.nanoTime() + window;
+        }
+
+        /**
+         * Should reads go to the primary.
+         * @return TRUE if reads should go to the primary
+         */
+        boolean sticky() {
+            return this.until - System.nanoTime() > 0L;
+        }
+    }
+}
@@ -0,0 +1,127 @@
+/*
+ * Copyright (c) 2012-2018, jcabi.com
+ * Copyright (c) 2021, github.com/piotrkot
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions
+ * are met: 1) Redistributions of source code must retain the above
+ * copyright notice, this list of conditions and the following
+ * disclaimer. 2) Redistributions in binary form must reproduce the above
+ * copyright notice, this list of conditions and the following
+ * disclaimer in the documentation and/or other materials provided
+ * with the distribution. 3) Neither the name of the jcabi.com nor
+ * the names of its contributors may be used to endorse or promote
+ * products derived from this software without specific prior written
+ * permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT
+ * NOT LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND
+ * FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL
+ * THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT,
+ * INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION)
+ * HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT,
+ * STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED
+ * OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.github.piotrkot.oojdbc;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Bounded ring buffer of many producers and a single consumer.
+ *
+ * <p>Producers claim a slot with a single CAS and never wait, an item
+ * offered to a full ring is refused. Only one thread may poll.
+ *
+ * @param <T> Type of items
+ * @since 1.5
+ */
+final class Ring<T> {
+    /**
+     * Slots.
+     */
+    private final AtomicReferenceArray<T> slots;
+
+    /**
+     * Mask of a slot position.
+     */
+    private final int mask;
+
+    /**
+     * Next position to offer to.
+     */
+    private final AtomicLong tail;
+
+    /**
+     * Next position to poll from.
+     */
+    private final AtomicLong head;
+
+    /**
+     * Ctor.
+     * @param capacity Capacity, rounded up to a power of two
+     */
+    Ring(final int capacity) {
+        this(new AtomicReferenceArray<>(Ring.rounded(capacity)));
+    }
+
+    /**
+     * Ctor.
+     * @param slots Slots, a power of two of them
+     */
+    private Ring(final AtomicReferenceArray<T> slots) {
+        this.slots = slots;
+        this.mask = slots.length() - 1;
+        this.tail = new AtomicLong();
+        this.head = new AtomicLong();
+    }
+
+    /**
+     * Offer an item.
+     * @param item Item
+     * @return TRUE if taken, FALSE if the ring is full
+     */
+    public boolean offer(final T item) {
+        boolean taken = false;
+        long pos = this.tail.get();
+        while (!taken && pos - this.head.get() < this.slots.length()) {
+            if (this.tail.compareAndSet(pos, pos + 1L)) {
+                this.slots.lazySet((int) pos & this.mask, item);
+                taken = true;
+            } else {
+                pos = this.tail.get();
+            }
+        }
+        return taken;
+    }
+
+    /**
+     * Poll the oldest item, by the single consumer.
+     * @return Item or NULL if none
+     */
+    public T poll() {
+        final long pos = this.head.get();
+        final int idx = (int) pos & this.mask;
+        final T item = this.slots.get(idx);
+        if (item != null) {
+            this.slots.lazySet(idx, null);
+            this.head.lazySet(pos + 1L);
+        }
+        return item;
+    }
+
+    /**
+     * Capacity rounded up to a power of two.
+     * @param capacity Capacity
+     * @return Power of two
+     */
+    private static int rounded(final int capacity) {
+        return Integer.highestOneBit(Math.max(capacity, 2) - 1) << 1;
+    }
+}
@@ -0,0 +1,275 @@
+/*
+ * Copyright (c) 2012-2018, jcabi.com
+ * Copyright (c) 2021, github.com/piotrkot
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions
+ * are met: 1) Redistributions of source code must retain the above
+ * copyright notice, this list of conditions and the following
+ * disclaimer. 2) Redistributions in binary form must reproduce the above
+ * copyright notice, this list of conditions and the following
+ * disclaimer in the documentation and/or other materials provided
+ * with the distribution. 3) Neither the name of the jcabi.com nor
+ * the names of its contributors may be used to endorse or promote
+ * products derived from this software without specific prior written
+ * permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT
+ * NOT LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND
+ * FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL
+ * THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT,
+ * INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION)
+ * HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT,
+ * STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED
+ * OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.github.piotrkot.oojdbc;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Connection of {@link ReadWriteSource}, opened with the first statement.
+ *
+ * <p>Settings made before it is opened, e.g. auto-commit or read-only,
+ * are remembered and made again on the opened connection. Only statements
+ * are routed: a connection opened by any other call, e.g. for metadata or
+ * {@code unwrap}, is opened to the primary.
+ *
+ * @since 1.5
+ */
+final class Routed implements InvocationHandler {
+    /**
+     * Setters of connection properties, remembered till opened.
+     */
+    private static final Set<String> SETTERS = new HashSet<>(
+        Arrays.asList(
+            "setAutoCommit", "setReadOnly", "setTransactionIsolation",
+            "setCatalog", "setSchema", "setHoldability", "setNetworkTimeout",
+            "setClientInfo", "setTypeMap"
+        )
+    );
+
+    /**
+     * Data source.
+     */
+    private final ReadWriteSource source;
+
+    /**
+     * Settings made, as methods and their arguments.
+     */
+    private final List<Object[]> settings;
+
+    /**
+     * Opened connection, or NULL.
+     */
+    private Connection conn;
+
+    /**
+     * Connection is to a replica.
+     */
+    private boolean replica;
+
+    /**
+     * Auto-commit.
+     */
+    private boolean autocommit;
+
+    /**
+     * Read-only.
+     */
+    private boolean readonly;
+
+    /**
+     * Closed.
+     */
+    private boolean closed;
+
+    /**
+     * Ctor.
+     * @param source Data source
+     */
+    Routed(final ReadWriteSource source) {
+        this.source = source;
+        this.settings = new LinkedList<>();
+        this.autocommit = true;
+    }
+
+    @Override
+    public Object invoke(final Object proxy, final Method method,
+        final Object[] args) throws Throwable {
+        final String name = method.getName();
+        final Object result;
+        if ("close".equals(name)) {
+            this.close();
+            result = null;
+        } else if ("isClosed".equals(name)) {
+            result = this.closed || this.conn != null && this.conn.isClosed();
+        } else if (this.closed) {
+            throw new SQLException("connection is closed");
+        } else if (Routed.SETTERS.contains(name)) {
+            this.set(method, args);
+            result = null;
+        } else if (this.conn == null) {
+            result = this.unopened(method, args);
+        } else {
+            result = this.call(method, args);
+        }
+        return result;
+    }
+
+    /**
+     * Call a method before the connection is opened.
+     * @param method Method
+     * @param args Arguments
+     * @return Result
+     * @throws Exception If fails
+     */
+    private Object unopened(final Method method, final Object... args)
+        throws Exception {
+        final String name = method.getName();
+        Object result = null;
+        if ("getAutoCommit".equals(name)) {
+            result = this.autocommit;
+        } else if ("isReadOnly".equals(name)) {
+            result = this.readonly;
+        } else if (!"commit".equals(name) && !"rollback".equals(name)) {
+            result = this.call(method, args);
+        }
+        return result;
+    }
+
+    /**
+     * Call a method on the connection opened to the right database.
+     *
+     * <p>Statements are routed by their SQL, other calls go to the opened
+     * connection, or to the primary if none is opened yet.
+     *
+     * @param method Method
+     * @param args Arguments
+     * @return Result
+     * @throws Exception If fails
+     */
+    private Object call(final Method method, final Object... args)
+        throws Exception {
+        final String name = method.getName();
+        if (name.startsWith("prepare")) {
+            this.route(LazyBegin.reads(args[0]));
+        } else if ("createStatement".equals(name)) {
+            this.route(false);
+        } else if (this.conn == null) {
+            this.conn = this.source.writer();
+            this.replay();
+        }
+        return PreparedCache.call(this.conn, method, args);
+    }
+
+    /**
+     * Make a setting, now or when opened.
+     * @param method Setter
+     * @param args Arguments
+     * @throws Exception If fails
+     */
+    private void set(final Method method, final Object... args)
+        throws Exception {
+        if ("setAutoCommit".equals(method.getName())) {
+            this.commits((Boolean) args[0]);
+        } else if ("setReadOnly".equals(method.getName())) {
+            this.readonly = (Boolean) args[0];
+        }
+        this.settings.add(new Object[]{method, args});
+        if (this.conn != null) {
+            PreparedCache.call(this.conn, method, args);
+        }
+    }
+
+    /**
+     * Make sure the connection is opened to the right database.
+     * @param reads Statement only reads
+     * @throws Exception If fails
+     */
+    private void route(final boolean reads) throws Exception {
+        if (this.conn == null) {
+            if (reads && (this.autocommit || this.readonly)) {
+                this.conn = this.source.reader();
+                this.replica = this.conn != null;
+            }
+            if (this.conn == null) {
+                this.conn = this.source.writer();
+            }
+            this.replay();
+        } else if (!reads && this.replica) {
+            if (!this.autocommit) {
+                throw new SQLException(
+                    "can't write in a transaction reading from a replica"
+                );
+            }
+            this.leave();
+        }
+        if (!reads) {
+            this.source.written();
+        }
+    }
+
+    /**
+     * Switch auto-commit.
+     *
+     * <p>A transaction which may write doesn't begin on a replica, the
+     * connection moves over to the primary.
+     *
+     * @param value Auto-commit
+     * @throws Exception If fails
+     */
+    private void commits(final boolean value) throws Exception {
+        if (this.replica && !value && !this.readonly) {
+            this.leave();
+        }
+        this.autocommit = value;
+    }
+
+    /**
+     * Leave the replica for the primary.
+     * @throws Exception If fails
+     */
+    private void leave() throws Exception {
+        this.conn.close();
+        this.conn = this.source.writer();
+        this.replica = false;
+        this.replay();
+    }
+
+    /**
+     * Make the remembered settings on the opened connection.
+     * @throws Exception If fails
+     */
+    private void replay() throws Exception {
+        for (final Object[] setting : this.settings) {
+            PreparedCache.call(
+                this.conn, (Method) setting[0], (Object[]) setting[1]
+            );
+        }
+    }
+
+    /**
+     * Close the connection, if opened.
+     * @throws SQLException If fails
+     */
+    private void close() throws SQLException {
+        this.closed = true;
+        if (this.conn != null) {
+            this.conn.close();
+        }
+    }
+}
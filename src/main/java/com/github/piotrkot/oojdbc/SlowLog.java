@@ -0,0 +1,418 @@
+/*
+ * Copyright (c) 2012-2018, jcabi.com
+ * Copyright (c) 2021, github.com/piotrkot
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions
+ * are met: 1) Redistributions of source code must retain the above
+ * copyright notice, this list of conditions and the following
+ * disclaimer. 2) Redistributions in binary form must reproduce the above
+ * copyright notice, this list of conditions and the following
+ * disclaimer in the documentation and/or other materials provided
+ * with the distribution. 3) Neither the name of the jcabi.com nor
+ * the names of its contributors may be used to endorse or promote
+ * products derived from this software without specific prior written
+ * permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT
+ * NOT LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND
+ * FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL
+ * THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT,
+ * INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION)
+ * HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT,
+ * STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED
+ * OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.github.piotrkot.oojdbc;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Log of slow queries.
+ *
+ * <p>Queries run through
+ * {@link com.github.piotrkot.oojdbc.statements.Logged} and slower than
+ * the threshold of their SQL are put, with their arguments, onto a
+ * bounded lock-free ring. A background thread, started with the first
+ * slow query, drains it to the sink and sleeps while it is empty, till
+ * the next slow query wakes it up. Fast queries cost a comparison, the
+ * SQL and the arguments are only looked at for slow ones. When the ring
+ * is full, entries are dropped and counted, queries never wait for the
+ * sink:
+ *
+ * <pre> SlowLog log = new SlowLog(
+ *   100L, TimeUnit.MILLISECONDS, SlowLog.Redaction.MASK,
+ *   entry -&gt; logger.warn(entry.toString())
+ * );
+ * new JdbcSession&lt;&gt;(new Logged&lt;&gt;(log, select)).using(source);</pre>
+ *
+ * @since 1.5
+ */
+public final class SlowLog implements AutoCloseable {
+    /**
+     * Capacity of the ring.
+     */
+    private static final int CAPACITY = 1024;
+
+    /**
+     * Threshold of queries without their own, in nanoseconds.
+     */
+    private final long standard;
+
+    /**
+     * Thresholds by SQL fingerprint, in nanoseconds.
+     */
+    private final ConcurrentMap<Long, Long> thresholds;
+
+    /**
+     * Redaction of arguments.
+     */
+    private final SlowLog.Redaction redaction;
+
+    /**
+     * Sink of entries.
+     */
+    private final SlowLog.Sink sink;
+
+    /**
+     * Entries to drain.
+     */
+    private final Ring<SlowLog.Entry> ring;
+
+    /**
+     * Entries dropped.
+     */
+    private final LongAdder dropped;
+
+    /**
+     * Entries the sink failed on.
+     */
+    private final LongAdder failed;
+
+    /**
+     * Draining thread.
+     */
+    private final Thread drain;
+
+    /**
+     * Draining thread started.
+     */
+    private final AtomicBoolean started;
+
+    /**
+     * Lowest threshold, in nanoseconds.
+     */
+    private volatile long floor;
+
+    /**
+     * Closed.
+     */
+    private volatile boolean closed;
+
+    /**
+     * Public ctor, with arguments logged as they are.
+     * @param threshold Threshold of slow queries
+     * @param unit Unit of the threshold
+     * @param sink Sink of entries
+     */
+    public SlowLog(final long threshold, final TimeUnit unit,
+        final SlowLog.Sink sink) {
+        this(threshold, unit, SlowLog.Redaction.KEEP, sink);
+    }
+
+    /**
+     * Public ctor.
+     * @param threshold Threshold of slow queries
+     * @param unit Unit of the threshold
+     * @param redaction Redaction of arguments
+     * @param sink Sink of entries
+     * @checkstyle ParameterNumberCheck (4 lines)
+     */
+    public SlowLog(final long threshold, final TimeUnit unit,
+        final SlowLog.Redaction redaction, final SlowLog.Sink sink) {
+        this.standard = unit.toNanos(threshold);
+        this.thresholds = new ConcurrentHashMap<>();
+        this.redaction = redaction;
+        this.sink = sink;
+        this.ring = new Ring<>(SlowLog.CAPACITY);
+        this.dropped = new LongAdder();
+        this.failed = new LongAdder();
+        this.floor = this.standard;
+        this.drain = new Thread(this::work, "oojdbc-slow-log");
+        this.started = new AtomicBoolean();
+    }
+
+    /**
+     * Set the threshold of the SQL, raising or lowering it.
+     * @param sql SQL
+     * @param time Threshold
+     * @param unit Unit of the threshold
+     */
+    public void threshold(final Sql sql, final long time,
+        final TimeUnit unit) {
+        synchronized (this.thresholds) {
+            this.thresholds.put(sql.compiled().fingerprint(), unit.toNanos(time));
+            long lowest = this.standard;
+            for (final long nanos : this.thresholds.values()) {
+                lowest = Math.min(lowest, nanos);
+            }
+            this.floor = lowest;
+        }
+    }
+
+    /**
+     * Record a query run.
+     * @param nanos Time of the run, in nanoseconds
+     * @param query Query
+     */
+    public void took(final long nanos, final SlowLog.Query query) {
+        if (nanos >= this.floor) {
+            this.slow(nanos, query);
+        }
+    }
+
+    /**
+     * Number of entries dropped, as the ring was full.
+     * @return Entries dropped
+     */
+    public long drops() {
+        return this.dropped.sum();
+    }
+
+    /**
+     * Number of entries the sink failed on.
+     * @return Entries failed
+     */
+    public long failures() {
+        return this.failed.sum();
+    }
+
+    @Override
+    public void close() throws InterruptedException {
+        this.closed = true;
+        if (!this.started.compareAndSet(false, true)) {
+            LockSupport.unpark(this.drain);
+            this.drain.join();
+        }
+    }
+
+    /**
+     * Put the query onto the ring, if slower than its threshold and not
+     * closed.
+     * @param nanos Time of the run, in nanoseconds
+     * @param query Query
+     */
+    private void slow(final long nanos, final SlowLog.Query query) {
+        if (!this.closed && nanos >= this.thresholds.getOrDefault(
+            query.fingerprint(), this.standard
+        )) {
+            final String sql = query.sql();
+            if (this.ring.offer(
+                new SlowLog.Entry(
+                    sql, this.redaction.redacted(sql, query.args()), nanos
+                )
+            )) {
+                this.wake();
+            } else {
+                this.dropped.increment();
+            }
+        }
+    }
+
+    /**
+     * Start the draining thread, or wake it up if sleeping.
+     */
+    private void wake() {
+        if (this.started.compareAndSet(false, true)) {
+            this.drain.setDaemon(true);
+            this.drain.start();
+        } else {
+            LockSupport.unpark(this.drain);
+        }
+    }
+
+    /**
+     * Drain entries to the sink until closed and all are drained.
+     */
+    @SuppressWarnings("PMD.AvoidCatchingGenericException")
+    private void work() {
+        SlowLog.Entry entry = this.ring.poll();
+        while (!this.closed || entry != null) {
+            if (entry == null) {
+                LockSupport.park(this);
+            } else {
+                try {
+                    this.sink.accept(entry);
+                    // @checkstyle IllegalCatch (1 line)
+                } catch (final Exception ex) {
+                    this.failed.increment();
+                }
+            }
+            entry = this.ring.poll();
+        }
+    }
+
+    /**
+     * Query run.
+     *
+     * @since 1.5
+     */
+    public interface Query {
+        /**
+         * Compiled SQL.
+         * @return SQL
+         */
+        String sql();
+
+        /**
+         * Fingerprint of the compiled SQL, see {@link Sql#fingerprint()}.
+         * @return Fingerprint
+         */
+        long fingerprint();
+
+        /**
+         * Values of the arguments.
+         * @return Values
+         */
+        List<Object> args();
+    }
+
+    /**
+     * Sink of entries.
+     *
+     * @since 1.5
+     */
+    public interface Sink {
+        /**
+         * Take the entry.
+         * @param entry Entry
+         * @throws Exception If fails
+         */
+        void accept(SlowLog.Entry entry) throws Exception;
+    }
+
+    /**
+     * Redaction of arguments.
+     *
+     * @since 1.5
+     */
+    public interface Redaction {
+        /**
+         * Arguments as they are.
+         */
+        SlowLog.Redaction KEEP = (sql, args) -> args;
+
+        /**
+         * Arguments masked, only their number is logged.
+         */
+        SlowLog.Redaction MASK = (sql, args) -> Collections.nCopies(
+            args.size(), "?"
+        );
+
+        /**
+         * Arguments to log.
+         * @param sql SQL
+         * @param args Values of the arguments
+         * @return Values to log
+         */
+        List<Object> redacted(String sql, List<Object> args);
+    }
+
+    /**
+     * Entry of the log.
+     *
+     * @since 1.5
+     */
+    public static final class Entry {
+        /**
+         * SQL.
+         */
+        private final String text;
+
+        /**
+         * Values of the arguments.
+         */
+        private final List<Object> values;
+
+        /**
+         * Time of the run, in nanoseconds.
+         */
+        private final long nanos;
+
+        /**
+         * When logged, in milliseconds since the epoch.
+         */
+        private final long when;
+
+        /**
+         * Ctor.
+         * @param text SQL
+         * @param values Values of the arguments
+         * @param nanos Time of the run, in nanoseconds
+         */
+        Entry(final String text, final List<Object> values,
+            final long nanos) {
+            this.text = text;
+            this.values = Collections.unmodifiableList(
+                new ArrayList<>(values)
+            );
+            this.nanos = nanos;
+            this.when = System.currentTimeMillis();
+        }
+
+        /**
+         * SQL.
+         * @return SQL
+         */
+        public String sql() {
+            return this.text;
+        }
+
+        /**
+         * Values of the arguments, maybe redacted.
+         * @return Values
+         */
+        public List<Object> args() {
+            return this.values;
+        }
+
+        /**
+         * Time of the run.
+         * @param unit Unit of the time
+         * @return Time
+         */
+        public long took(final TimeUnit unit) {
+            return unit.convert(this.nanos, TimeUnit.NANOSECONDS);
+        }
+
+        /**
+         * When logged.
+         * @return Milliseconds since the epoch
+         */
+        public long logged() {
+            return this.when;
+        }
+
+        @Override
+        public String toString() {
+            return String.format(
+                "%d ms: %s %s",
+                TimeUnit.NANOSECONDS.toMillis(this.nanos),
+                this.text, this.values
+            );
+        }
+    }
+}
@@ -30,21 +30,56 @@
  */
 package com.github.piotrkot.oojdbc;
 
+import lombok.AccessLevel;
 import lombok.RequiredArgsConstructor;
 import org.cactoos.iterable.IterableOf;
 import org.cactoos.iterable.Joined;
 
 /**
  * SQL command.
+ *
+ * <p>Parts of the SQL are joined every time its text is asked for. For
+ * SQL run often, compile it once, e.g. into a {@code static final} field:
+ *
+ * <pre> private static final Sql NAMES = new Sql(
+ *   "SELECT name",
+ *   "FROM users"
+ * ).compiled();</pre>
+ *
+ * <p>Compiled SQL has its text normalized and computed up-front, together
+ * with its fingerprint. Normalization collapses whitespace outside of
+ * quotes into single spaces, so equivalent spellings of the SQL get the
+ * same text. Quoted text and comments are kept intact. Compiled SQL is immutable and thread-safe.
+ *
  * @since 1.0
  */
-@RequiredArgsConstructor
+@RequiredArgsConstructor(access = AccessLevel.PRIVATE)
 public final class Sql {
+    /**
+     * FNV-1a offset basis.
+     */
+    private static final long BASIS = 0xcbf29ce484222325L;
+
+    /**
+     * FNV-1a prime.
+     */
+    private static final long PRIME = 0x100000001b3L;
+
     /**
      * Parts of this SQL.
      */
     private final Iterable<String> parts;
 
+    /**
+     * Text of compiled SQL, NULL if not compiled.
+     */
+    private final String text;
+
+    /**
+     * Fingerprint of compiled SQL.
+     */
+    private final long print;
+
     /**
      * Ctor.
      * @param part First part of SQL
@@ -56,11 +91,81 @@ public final class Sql {
         );
     }
 
+    /**
+     * Ctor.
+     * @param parts Parts of SQL
+     */
+    public Sql(final Iterable<String> parts) {
+        this(parts, null, 0L);
+    }
+
     /**
      * String representation of the SQL parts joined with space.
      * @return SQL String.
      */
     public String asString() {
-        return String.join(" ", this.parts);
+        final String result;
+        if (this.text == null) {
+            result = String.join(" ", this.parts);
+        } else {
+            result = this.text;
+        }
+        return result;
+    }
+
+    /**
+     * Compiled SQL, with normalized text and fingerprint computed once.
+     * @return Compiled SQL
+     */
+    public Sql compiled() {
+        final Sql result;
+        if (this.text == null) {
+            final String normal = new Normalized(this.asString()).asString();
+            result = new Sql(
+                new IterableOf<>(normal), normal, Sql.fingerprint(normal)
+            );
+        } else {
+            result = this;
+        }
+        return result;
+    }
+
+    /**
+     * Fingerprint of the SQL text, 64 bits long.
+     * @return Fingerprint
+     */
+    public long fingerprint() {
+        final long result;
+        if (this.text == null) {
+            result = Sql.fingerprint(this.asString());
+        } else {
+            result = this.print;
+        }
+        return result;
+    }
+
+    @Override
+    public boolean equals(final Object other) {
+        return this == other || other instanceof Sql
+            && this.asString().equals(((Sql) other).asString());
+    }
+
+    @Override
+    public int hashCode() {
+        return this.asString().hashCode();
+    }
+
+    /**
+     * FNV-1a hash of the text.
+     * @param text Text
+     * @return Hash
+     */
+    private static long fingerprint(final String text) {
+        long hash = Sql.BASIS;
+        for (int idx = 0; idx < text.length(); ++idx) {
+            hash ^= text.charAt(idx);
+            hash *= Sql.PRIME;
+        }
+        return hash;
     }
 }
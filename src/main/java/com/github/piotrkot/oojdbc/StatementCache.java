@@ -0,0 +1,136 @@
+/*
+ * Copyright (c) 2012-2018, jcabi.com
+ * Copyright (c) 2021, github.com/piotrkot
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions
+ * are met: 1) Redistributions of source code must retain the above
+ * copyright notice, this list of conditions and the following
+ * disclaimer. 2) Redistributions in binary form must reproduce the above
+ * copyright notice, this list of conditions and the following
+ * disclaimer in the documentation and/or other materials provided
+ * with the distribution. 3) Neither the name of the jcabi.com nor
+ * the names of its contributors may be used to endorse or promote
+ * products derived from this software without specific prior written
+ * permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT
+ * NOT LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND
+ * FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL
+ * THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT,
+ * INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION)
+ * HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT,
+ * STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED
+ * OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.github.piotrkot.oojdbc;
+
+import java.sql.Connection;
+import java.util.concurrent.atomic.LongAdder;
+import lombok.AccessLevel;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Statement with prepared statements cached per connection.
+ *
+ * <p>Statements prepared with the same SQL and the same kind of
+ * {@link Connect} reuse the {@link java.sql.PreparedStatement} prepared
+ * first, instead of preparing it again. It helps statements run in a
+ * loop on one connection:
+ *
+ * <pre> StatementCache&lt;Void&gt; cached = new StatementCache&lt;&gt;(
+ *   conn -&gt; {
+ *     for (final String name : names) {
+ *       new Insert&lt;&gt;(
+ *         new Sql("INSERT INTO users (name) VALUES (?)"),
+ *         new Args(name),
+ *         Outcome.VOID
+ *       ).using(conn);
+ *     }
+ *     return null;
+ *   }
+ * );
+ * new JdbcSessionTx&lt;&gt;(cached).using(source);</pre>
+ *
+ * <p>The cache lives as long as a single run of the statement. The least
+ * recently used prepared statements are closed when it gets full, all of
+ * them are closed when the run ends. Parameters are cleared before a
+ * prepared statement is reused. Hits and misses of all runs are counted.
+ *
+ * @param <T> Type of expected result
+ * @since 1.5
+ */
+@RequiredArgsConstructor(access = AccessLevel.PRIVATE)
+public final class StatementCache<T> implements Stmnt<T> {
+    /**
+     * Default number of prepared statements cached.
+     */
+    private static final int SIZE = 64;
+
+    /**
+     * Origin statement.
+     */
+    private final Stmnt<T> origin;
+
+    /**
+     * Max number of prepared statements cached.
+     */
+    private final int size;
+
+    /**
+     * Reused prepared statements.
+     */
+    private final LongAdder hit;
+
+    /**
+     * Prepared statements prepared.
+     */
+    private final LongAdder miss;
+
+    /**
+     * Ctor.
+     * @param origin Origin statement
+     */
+    public StatementCache(final Stmnt<T> origin) {
+        this(origin, StatementCache.SIZE);
+    }
+
+    /**
+     * Ctor.
+     * @param origin Origin statement
+     * @param size Max number of prepared statements cached
+     */
+    public StatementCache(final Stmnt<T> origin, final int size) {
+        this(origin, size, new LongAdder(), new LongAdder());
+    }
+
+    @Override
+    public T using(final Connection conn) throws Exception {
+        try (PreparedCache cache = new PreparedCache(
+            conn, this.size, this.hit, this.miss
+        )) {
+            return this.origin.using(cache.connection());
+        }
+    }
+
+    /**
+     * Number of prepared statements reused.
+     * @return Hits
+     */
+    public long hits() {
+        return this.hit.sum();
+    }
+
+    /**
+     * Number of prepared statements actually prepared.
+     * @return Misses
+     */
+    public long misses() {
+        return this.miss.sum();
+    }
+}
@@ -0,0 +1,178 @@
+/*
+ * Copyright (c) 2012-2018, jcabi.com
+ * Copyright (c) 2021, github.com/piotrkot
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions
+ * are met: 1) Redistributions of source code must retain the above
+ * copyright notice, this list of conditions and the following
+ * disclaimer. 2) Redistributions in binary form must reproduce the above
+ * copyright notice, this list of conditions and the following
+ * disclaimer in the documentation and/or other materials provided
+ * with the distribution. 3) Neither the name of the jcabi.com nor
+ * the names of its contributors may be used to endorse or promote
+ * products derived from this software without specific prior written
+ * permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT
+ * NOT LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND
+ * FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL
+ * THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT,
+ * INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION)
+ * HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT,
+ * STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED
+ * OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.github.piotrkot.oojdbc;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Metrics of a statement, live.
+ *
+ * @since 1.5
+ */
+final class StatementStats implements StatementStatsMBean {
+    /**
+     * Median.
+     */
+    private static final double MEDIAN = 0.5;
+
+    /**
+     * The 99th percentile.
+     */
+    private static final double NINETY_NINTH = 0.99;
+
+    /**
+     * The 99.9th percentile.
+     */
+    private static final double THREE_NINES = 0.999;
+
+    /**
+     * Normalized SQL.
+     */
+    private final String sql;
+
+    /**
+     * Fingerprint of the SQL.
+     */
+    private final long print;
+
+    /**
+     * Executions.
+     */
+    private final LongAdder executions;
+
+    /**
+     * Failed executions.
+     */
+    private final LongAdder errors;
+
+    /**
+     * Rows read.
+     */
+    private final LongAdder rows;
+
+    /**
+     * Latencies.
+     */
+    private final Histogram histogram;
+
+    /**
+     * Ctor.
+     * @param sql Normalized SQL
+     * @param print Fingerprint of the SQL
+     */
+    StatementStats(final String sql, final long print) {
+        this.sql = sql;
+        this.print = print;
+        this.executions = new LongAdder();
+        this.errors = new LongAdder();
+        this.rows = new LongAdder();
+        this.histogram = new Histogram();
+    }
+
+    @Override
+    public String getSql() {
+        return this.sql;
+    }
+
+    @Override
+    public String getFingerprint() {
+        return Long.toHexString(this.print);
+    }
+
+    @Override
+    public long getExecutions() {
+        return this.executions.sum();
+    }
+
+    @Override
+    public long getErrors() {
+        return this.errors.sum();
+    }
+
+    @Override
+    public long getRows() {
+        return this.rows.sum();
+    }
+
+    @Override
+    public long getMedianMicros() {
+        return TimeUnit.NANOSECONDS.toMicros(
+            Histogram.percentile(this.histogram.counts(), StatementStats.MEDIAN)
+        );
+    }
+
+    @Override
+    public long getNinetyNinthMicros() {
+        return TimeUnit.NANOSECONDS.toMicros(
+            Histogram.percentile(this.histogram.counts(), StatementStats.NINETY_NINTH)
+        );
+    }
+
+    @Override
+    public long getThreeNinesMicros() {
+        return TimeUnit.NANOSECONDS.toMicros(
+            Histogram.percentile(this.histogram.counts(), StatementStats.THREE_NINES)
+        );
+    }
+
+    /**
+     * Record an execution.
+     * @param nanos Latency, in nanoseconds
+     * @param read Rows read
+     * @param failed Execution failed
+     */
+    public void record(final long nanos, final long read,
+        final boolean failed) {
+        this.executions.increment();
+        if (failed) {
+            this.errors.increment();
+        }
+        this.rows.add(read);
+        this.histogram.record(nanos);
+    }
+
+    /**
+     * Fingerprint of the SQL.
+     * @return Fingerprint
+     */
+    public long fingerprint() {
+        return this.print;
+    }
+
+    /**
+     * Counts of latency buckets at the moment.
+     * @return Counts
+     */
+    public long[] latencies() {
+        return this.histogram.counts();
+    }
+}
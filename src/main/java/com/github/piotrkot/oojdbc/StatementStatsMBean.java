@@ -0,0 +1,86 @@
+/*
+ * Copyright (c) 2012-2018, jcabi.com
+ * Copyright (c) 2021, github.com/piotrkot
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions
+ * are met: 1) Redistributions of source code must retain the above
+ * copyright notice, this list of conditions and the following
+ * disclaimer. 2) Redistributions in binary form must reproduce the above
+ * copyright notice, this list of conditions and the following
+ * disclaimer in the documentation and/or other materials provided
+ * with the distribution. 3) Neither the name of the jcabi.com nor
+ * the names of its contributors may be used to endorse or promote
+ * products derived from this software without specific prior written
+ * permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT
+ * NOT LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND
+ * FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL
+ * THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT,
+ * INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION)
+ * HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT,
+ * STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED
+ * OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.github.piotrkot.oojdbc;
+
+/**
+ * Metrics of a statement, as a JMX MBean.
+ *
+ * @since 1.5
+ */
+public interface StatementStatsMBean {
+    /**
+     * Normalized SQL.
+     * @return SQL
+     */
+    String getSql();
+
+    /**
+     * Fingerprint of the SQL, in hex.
+     * @return Fingerprint
+     */
+    String getFingerprint();
+
+    /**
+     * Number of executions.
+     * @return Executions
+     */
+    long getExecutions();
+
+    /**
+     * Number of failed executions.
+     * @return Errors
+     */
+    long getErrors();
+
+    /**
+     * Number of rows read.
+     * @return Rows
+     */
+    long getRows();
+
+    /**
+     * Median latency, in microseconds.
+     * @return Latency
+     */
+    long getMedianMicros();
+
+    /**
+     * Latency of the 99th percentile, in microseconds.
+     * @return Latency
+     */
+    long getNinetyNinthMicros();
+
+    /**
+     * Latency of the 99.9th percentile, in microseconds.
+     * @return Latency
+     */
+    long getThreeNinesMicros();
+}
@@ -77,10 +77,12 @@ import lombok.ToString;
 public final class Utc {
 
     /**
-     * The calendar to use.
+     * The calendar to use, per thread, as calendars are mutable.
      */
-    private static final Calendar CALENDAR =
-        Calendar.getInstance(new SimpleTimeZone(0, "UTC"));
+    private static final ThreadLocal<Calendar> CALENDAR =
+        ThreadLocal.withInitial(
+            () -> Calendar.getInstance(new SimpleTimeZone(0, "UTC"))
+        );
 
     /**
      * The date to work with.
@@ -99,7 +101,15 @@ public final class Utc {
      * @param when The date to use.
      */
     public Utc(final Date when) {
-        this.date = when.getTime();
+        this(when.getTime());
+    }
+
+    /**
+     * Public ctor.
+     * @param millis Milliseconds since the epoch
+     */
+    public Utc(final long millis) {
+        this.date = millis;
     }
 
     /**
@@ -112,17 +122,20 @@ public final class Utc {
 
     /**
      * Convert date to timestamp and save to the statement.
+     *
+     * <p>The date is set as a {@link Timestamp} with a UTC calendar of
+     * the thread, so columns without time zone store its UTC wall clock.
+     * Columns with time zone depend on the driver: some keep the instant,
+     * others, like H2, read the UTC wall clock in the time zone of the
+     * session. Bind an {@link java.time.OffsetDateTime} to them instead.
+     *
      * @param stmt The statement
      * @param pos Position in the statement
      * @throws SQLException If some SQL problem inside
      */
     public void setTimestamp(final PreparedStatement stmt, final int pos)
         throws SQLException {
-        stmt.setTimestamp(
-            pos,
-            new Timestamp(this.date),
-            Utc.CALENDAR
-        );
+        stmt.setTimestamp(pos, new Timestamp(this.date), Utc.CALENDAR.get());
     }
 
     /**
@@ -135,12 +148,35 @@ public final class Utc {
     @SuppressWarnings("PMD.ProhibitPublicStaticMethods")
     public static Date getTimestamp(final ResultSet rset, final int pos)
         throws SQLException {
-        final Timestamp stamp = rset.getTimestamp(pos, Utc.CALENDAR);
+        final long millis = Utc.getMillis(rset, pos);
         Date when = null;
-        if (stamp != null) {
-            when = new Date(stamp.getTime());
+        if (!rset.wasNull()) {
+            when = new Date(millis);
         }
         return when;
     }
 
+    /**
+     * Retrieve timestamp from the result set, as milliseconds.
+     *
+     * <p>Use it to read timestamps into primitives, e.g. with
+     * {@code new LongColumnOutcome(1, -1L, Utc::getMillis)}. The timestamp
+     * is read with a UTC calendar of the thread. NULL is returned as zero
+     * and reported by {@link ResultSet#wasNull()}.
+     *
+     * @param rset The result set
+     * @param pos Position in the result set
+     * @return Milliseconds since the epoch
+     * @throws SQLException If some SQL problem inside
+     */
+    @SuppressWarnings("PMD.ProhibitPublicStaticMethods")
+    public static long getMillis(final ResultSet rset, final int pos)
+        throws SQLException {
+        final Timestamp stamp = rset.getTimestamp(pos, Utc.CALENDAR.get());
+        long millis = 0L;
+        if (stamp != null) {
+            millis = stamp.getTime();
+        }
+        return millis;
+    }
 }
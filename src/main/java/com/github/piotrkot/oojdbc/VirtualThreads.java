@@ -0,0 +1,100 @@
+/*
+ * Copyright (c) 2012-2018, jcabi.com
+ * Copyright (c) 2021, github.com/piotrkot
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions
+ * are met: 1) Redistributions of source code must retain the above
+ * copyright notice, this list of conditions and the following
+ * disclaimer. 2) Redistributions in binary form must reproduce the above
+ * copyright notice, this list of conditions and the following
+ * disclaimer in the documentation and/or other materials provided
+ * with the distribution. 3) Neither the name of the jcabi.com nor
+ * the names of its contributors may be used to endorse or promote
+ * products derived from this software without specific prior written
+ * permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT
+ * NOT LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND
+ * FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL
+ * THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT,
+ * INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION)
+ * HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT,
+ * STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED
+ * OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.github.piotrkot.oojdbc;
+
+import java.lang.reflect.InvocationTargetException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicLong;
+import lombok.EqualsAndHashCode;
+import lombok.ToString;
+
+/**
+ * Executor running every task in a new virtual thread, on Java 21+.
+ *
+ * <p>Use it for asynchronous sessions, to wait on the database without
+ * holding platform threads:
+ *
+ * <pre> CompletableFuture&lt;String&gt; name = new JdbcSession&lt;&gt;(
+ *   new Select&lt;&gt;(
+ *     new Sql("SELECT name FROM user WHERE id = ?"),
+ *     new Args(1),
+ *     new SingleOutcome&lt;&gt;(String.class)
+ *   )
+ * ).usingAsync(source, new VirtualThreads());</pre>
+ *
+ * <p>Virtual threads are looked up reflectively. On older Java versions,
+ * tasks run on a shared, unbounded pool of daemon threads.
+ *
+ * @since 1.5
+ */
+@ToString
+@EqualsAndHashCode
+public final class VirtualThreads implements Executor {
+
+    /**
+     * Shared executor.
+     */
+    private static final Executor SHARED = VirtualThreads.created();
+
+    @Override
+    public void execute(final Runnable task) {
+        VirtualThreads.SHARED.execute(task);
+    }
+
+    /**
+     * Create executor of virtual threads, or of daemon threads if there
+     * are no virtual threads.
+     * @return Executor
+     */
+    private static Executor created() {
+        Executor executor;
+        try {
+            executor = (ExecutorService) Executors.class
+                .getMethod("newVirtualThreadPerTaskExecutor")
+                .invoke(null);
+        } catch (final NoSuchMethodException | IllegalAccessException
+            | InvocationTargetException ex) {
+            final AtomicLong count = new AtomicLong();
+            executor = Executors.newCachedThreadPool(
+                task -> {
+                    final Thread thread = new Thread(
+                        task, String.format("oojdbc-%d", count.incrementAndGet())
+                    );
+                    thread.setDaemon(true);
+                    return thread;
+                }
+            );
+        }
+        return executor;
+    }
+}
@@ -0,0 +1,288 @@
+/*
+ * Copyright (c) 2012-2018, jcabi.com
+ * Copyright (c) 2021, github.com/piotrkot
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions
+ * are met: 1) Redistributions of source code must retain the above
+ * copyright notice, this list of conditions and the following
+ * disclaimer. 2) Redistributions in binary form must reproduce the above
+ * copyright notice, this list of conditions and the following
+ * disclaimer in the documentation and/or other materials provided
+ * with the distribution. 3) Neither the name of the jcabi.com nor
+ * the names of its contributors may be used to endorse or promote
+ * products derived from this software without specific prior written
+ * permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT
+ * NOT LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND
+ * FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL
+ * THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT,
+ * INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION)
+ * HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT,
+ * STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED
+ * OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.github.piotrkot.oojdbc;
+
+import java.io.PrintWriter;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLFeatureNotSupportedException;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.Locale;
+import java.util.Set;
+import java.util.logging.Logger;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import javax.sql.DataSource;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Data source invalidating results of {@link QueryCache} on writes.
+ *
+ * <p>Its connections remember the tables written by the statements they
+ * prepare and invalidate their results after commit, or when closed in
+ * auto-commit. Statements writing tables it can't tell invalidate all
+ * the results. Till then, the connection reads the tables it wrote
+ * past the cache, see {@link #pending(Connection, Collection)}.
+ *
+ * @since 1.5
+ */
+@RequiredArgsConstructor
+final class WatchedSource implements DataSource {
+    /**
+     * Tables written by a statement.
+     */
+    private static final Pattern TABLES = Pattern.compile(
+        String.join(
+            "",
+            "\\b(?:INSERT\\s+(?:IGNORE\\s+)?INTO|REPLACE\\s+INTO|UPDATE",
+            "|DELETE\\s+FROM|MERGE\\s+INTO|TRUNCATE(?:\\s+TABLE)?",
+            "|(?:ALTER|DROP)\\s+TABLE(?:\\s+IF\\s+EXISTS)?)",
+            "\\s+(?:[\\w\"`]+\\.)?[\"`]?(\\w+)"
+        ),
+        Pattern.CASE_INSENSITIVE
+    );
+
+    /**
+     * Origin data source.
+     */
+    private final DataSource origin;
+
+    /**
+     * Cache.
+     */
+    private final QueryCache cache;
+
+    @Override
+    @SuppressWarnings("PMD.UseProperClassLoader")
+    public Connection getConnection() throws SQLException {
+        return (Connection) Proxy.newProxyInstance(
+            WatchedSource.class.getClassLoader(),
+            new Class<?>[]{Connection.class},
+            new WatchedSource.Writes(this.cache, this.origin.getConnection())
+        );
+    }
+
+    @Override
+    public Connection getConnection(final String username,
+        final String password) throws SQLException {
+        throw new SQLFeatureNotSupportedException("#getConnection(user)");
+    }
+
+    @Override
+    public PrintWriter getLogWriter() throws SQLException {
+        return this.origin.getLogWriter();
+    }
+
+    @Override
+    public void setLogWriter(final PrintWriter writer) throws SQLException {
+        this.origin.setLogWriter(writer);
+    }
+
+    @Override
+    public void setLoginTimeout(final int seconds) throws SQLException {
+        this.origin.setLoginTimeout(seconds);
+    }
+
+    @Override
+    public int getLoginTimeout() throws SQLException {
+        return this.origin.getLoginTimeout();
+    }
+
+    @Override
+    public Logger getParentLogger() throws SQLFeatureNotSupportedException {
+        return this.origin.getParentLogger();
+    }
+
+    @Override
+    public <T> T unwrap(final Class<T> iface) throws SQLException {
+        return this.origin.unwrap(iface);
+    }
+
+    @Override
+    public boolean isWrapperFor(final Class<?> iface) throws SQLException {
+        return this.origin.isWrapperFor(iface);
+    }
+
+    /**
+     * Tables written by the SQL.
+     * @param sql SQL
+     * @return Tables, empty if unknown
+     */
+    static Set<String> written(final String sql) {
+        final Set<String> tables = new HashSet<>(0);
+        final Matcher matcher = WatchedSource.TABLES.matcher(sql);
+        while (matcher.find()) {
+            tables.add(matcher.group(1).toLowerCase(Locale.ENGLISH));
+        }
+        return tables;
+    }
+
+    /**
+     * Are some of the tables written on the connection and not invalidated
+     * yet, so results of the cache are stale for it.
+     * @param conn Connection, from a watched data source or not
+     * @param tables Tables
+     * @return TRUE if written
+     * @throws SQLException If fails
+     */
+    static boolean pending(final Connection conn,
+        final Collection<String> tables) throws SQLException {
+        return conn.isWrapperFor(WatchedSource.Writes.class)
+            && conn.unwrap(WatchedSource.Writes.class).written(tables);
+    }
+
+    /**
+     * First argument of a method.
+     * @param args Arguments, NULL if none
+     * @return First argument, NULL if none
+     */
+    private static Object arg(final Object... args) {
+        Object first = null;
+        if (args != null && args.length > 0) {
+            first = args[0];
+        }
+        return first;
+    }
+
+    /**
+     * Connection remembering the tables written.
+     *
+     * @since 1.5
+     */
+    private static final class Writes implements InvocationHandler {
+        /**
+         * Cache.
+         */
+        private final QueryCache cache;
+
+        /**
+         * Origin connection.
+         */
+        private final Connection conn;
+
+        /**
+         * Tables written and not invalidated yet.
+         */
+        private final Set<String> pending;
+
+        /**
+         * Some tables written can't be told.
+         */
+        private boolean unknown;
+
+        /**
+         * Ctor.
+         * @param cache Cache
+         * @param conn Origin connection
+         */
+        Writes(final QueryCache cache, final Connection conn) {
+            this.cache = cache;
+            this.conn = conn;
+            this.pending = new HashSet<>(0);
+        }
+
+        @Override
+        public Object invoke(final Object proxy, final Method method,
+            final Object[] args) throws Throwable {
+            final Object result;
+            if (WatchedSource.Writes.class.equals(WatchedSource.arg(args))) {
+                if ("unwrap".equals(method.getName())) {
+                    result = this;
+                } else {
+                    result = true;
+                }
+            } else {
+                result = this.watched(method, args);
+            }
+            return result;
+        }
+
+        /**
+         * Are some of the tables written and not invalidated yet.
+         * @param tables Tables
+         * @return TRUE if written
+         */
+        public boolean written(final Collection<String> tables) {
+            boolean written = this.unknown;
+            for (final String table : tables) {
+                written = written
+                    || this.pending.contains(table.toLowerCase(Locale.ENGLISH));
+            }
+            return written;
+        }
+
+        /**
+         * Call the method, remembering the tables written.
+         * @param method Method
+         * @param args Arguments
+         * @return Result of the method
+         * @throws Exception If fails
+         */
+        private Object watched(final Method method, final Object... args)
+            throws Exception {
+            final String name = method.getName();
+            if ("createStatement".equals(name)) {
+                this.unknown = true;
+            } else if (name.startsWith("prepare")
+                && !LazyBegin.reads(args[0])) {
+                final Set<String> tables =
+                    WatchedSource.written(String.valueOf(args[0]));
+                this.unknown = this.unknown || tables.isEmpty();
+                this.pending.addAll(tables);
+            }
+            final Object result = PreparedCache.call(this.conn, method, args);
+            if ("rollback".equals(name) && args == null) {
+                this.pending.clear();
+                this.unknown = false;
+            } else if ("commit".equals(name) || "close".equals(name)) {
+                this.invalidate();
+            }
+            return result;
+        }
+
+        /**
+         * Invalidate results of the tables written.
+         */
+        private void invalidate() {
+            if (this.unknown) {
+                this.cache.invalidateAll();
+            } else {
+                this.cache.invalidate(this.pending);
+            }
+            this.pending.clear();
+            this.unknown = false;
+        }
+    }
+}
@@ -0,0 +1,287 @@
+/*
+ * Copyright (c) 2012-2018, jcabi.com
+ * Copyright (c) 2021, github.com/piotrkot
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions
+ * are met: 1) Redistributions of source code must retain the above
+ * copyright notice, this list of conditions and the following
+ * disclaimer. 2) Redistributions in binary form must reproduce the above
+ * copyright notice, this list of conditions and the following
+ * disclaimer in the documentation and/or other materials provided
+ * with the distribution. 3) Neither the name of the jcabi.com nor
+ * the names of its contributors may be used to endorse or promote
+ * products derived from this software without specific prior written
+ * permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT
+ * NOT LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND
+ * FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL
+ * THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT,
+ * INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION)
+ * HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT,
+ * STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED
+ * OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.github.piotrkot.oojdbc.outcomes;
+
+import com.github.piotrkot.oojdbc.Codec;
+import com.github.piotrkot.oojdbc.Codecs;
+import com.github.piotrkot.oojdbc.Outcome;
+import java.lang.invoke.MethodType;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicReference;
+import lombok.EqualsAndHashCode;
+import lombok.ToString;
+
+/**
+ * Outcome that returns a list of objects, built from matching columns.
+ *
+ * <p>Use it instead of a hand-written mapping for beans and records:
+ *
+ * <pre> List&lt;User&gt; users = new JdbcSession&lt;&gt;(
+ *   new Select&lt;&gt;(
+ *     new Sql("SELECT first_name, age FROM user"),
+ *     new BeanOutcome&lt;&gt;(User.class)
+ *   )
+ * ).using(source);</pre>
+ *
+ * <p>The class is inspected once. Records, and classes with a public
+ * constructor annotated with {@link java.beans.ConstructorProperties},
+ * are built by the constructor, which needs all its parameters matched.
+ * Names compiled with {@code -parameters} are used only when the class has
+ * one public constructor and it has parameters. Other classes need a
+ * public no-args constructor and are filled with setters, skipping
+ * unmatched ones.
+ * Columns match properties by label, ignoring case and underscores.
+ *
+ * <p>Columns are matched once per query shape. Each row is then read with
+ * codecs at column positions, with no reflection and no label lookups.
+ * Wrapper properties read SQL NULL as NULL, primitive ones as zero, while
+ * the codecs themselves read it as they do in other outcomes.
+ *
+ * @param <T> Type of items
+ * @since 1.5
+ */
+@ToString(of = "type")
+@EqualsAndHashCode(of = {"type", "codecs"})
+public final class BeanOutcome<T> implements Outcome<List<T>> {
+
+    /**
+     * Shapes, by class.
+     */
+    private static final ClassValue<Shape<?>> SHAPES =
+        new ClassValue<Shape<?>>() {
+            @Override
+            protected Shape<?> computeValue(final Class<?> tpe) {
+                return BeanOutcome.shape(tpe);
+            }
+        };
+
+    /**
+     * Type of items.
+     */
+    private final Class<T> type;
+
+    /**
+     * Codecs.
+     */
+    private final Codecs codecs;
+
+    /**
+     * Plan of the last query shape.
+     */
+    private final AtomicReference<BeanOutcome.Plan<T>> last;
+
+    /**
+     * Public ctor.
+     * @param tpe Type of items
+     */
+    public BeanOutcome(final Class<T> tpe) {
+        this(tpe, Outcome.DEFAULT_MAPPINGS);
+    }
+
+    /**
+     * Public ctor.
+     * @param tpe Type of items
+     * @param codecs Codecs for column values
+     */
+    public BeanOutcome(final Class<T> tpe, final Codecs codecs) {
+        this.type = tpe;
+        this.codecs = codecs;
+        this.last = new AtomicReference<>();
+    }
+
+    @Override
+    public List<T> handle(final ResultSet rset, final Statement stmt)
+        throws Exception {
+        final BeanOutcome.Plan<T> plan = this.plan(rset.getMetaData());
+        final List<T> result = new ArrayList<>(0);
+        while (rset.next()) {
+            result.add(plan.mapping.map(rset));
+        }
+        return result;
+    }
+
+    /**
+     * Plan for the query shape, reused while the columns are the same.
+     * @param meta Metadata of the result set
+     * @return Plan
+     * @throws SQLException If fails
+     */
+    @SuppressWarnings("unchecked")
+    private BeanOutcome.Plan<T> plan(final ResultSetMetaData meta)
+        throws SQLException {
+        final List<String> labels = new ArrayList<>(meta.getColumnCount());
+        for (int pos = 1; pos <= meta.getColumnCount(); ++pos) {
+            labels.add(meta.getColumnLabel(pos));
+        }
+        BeanOutcome.Plan<T> plan = this.last.get();
+        if (plan == null || !plan.labels.equals(labels)) {
+            plan = new BeanOutcome.Plan<>(
+                (Shape<T>) BeanOutcome.SHAPES.get(this.type),
+                this.codecs,
+                labels
+            );
+            this.last.set(plan);
+        }
+        return plan;
+    }
+
+    /**
+     * Inspect the class.
+     * @param tpe Class of items
+     * @return Shape
+     */
+    @SuppressWarnings({
+        "unchecked", "rawtypes", "PMD.AvoidCatchingGenericException"
+    })
+    private static Shape<?> shape(final Class<?> tpe) {
+        try {
+            Shape<?> shape = Shape.Creator.named(tpe);
+            if (shape == null) {
+                shape = new Shape.Setters(tpe);
+            }
+            return shape;
+            // @checkstyle IllegalCatch (1 line)
+        } catch (final Exception ex) {
+            throw new IllegalArgumentException(
+                String.format(
+                    "type %s can't be built from columns", tpe.getName()
+                ),
+                ex
+            );
+        }
+    }
+
+    /**
+     * Codec of a property, reading SQL NULL as NULL into wrapper types.
+     * @param codecs Codecs
+     * @param tpe Type of the property
+     * @return Codec
+     */
+    private static Codec<?> reader(final Codecs codecs, final Class<?> tpe) {
+        final Codec<?> codec = codecs.codec(tpe);
+        final Codec<?> reader;
+        if (MethodType.methodType(tpe).unwrap().returnType().equals(tpe)) {
+            reader = codec;
+        } else {
+            reader = (rset, pos) -> {
+                final Object value = codec.read(rset, pos);
+                Object result = null;
+                if (!rset.wasNull()) {
+                    result = value;
+                }
+                return result;
+            };
+        }
+        return reader;
+    }
+
+    /**
+     * Name for matching.
+     * @param name Column label or property name
+     * @return Name in lower case, without underscores
+     */
+    private static String matching(final String name) {
+        return name.replace("_", "").toLowerCase(Locale.ENGLISH);
+    }
+
+    /**
+     * Plan of reading rows of a query shape.
+     *
+     * @param <T> Type of items
+     * @since 1.5
+     */
+    private static final class Plan<T> {
+        /**
+         * Column labels.
+         */
+        private final List<String> labels;
+
+        /**
+         * Mapping of rows.
+         */
+        private final Outcome.Mapping<T> mapping;
+
+        /**
+         * Ctor.
+         * @param shape Shape of items
+         * @param codecs Codecs
+         * @param labels Column labels
+         */
+        @SuppressWarnings("PMD.ConstructorOnlyInitializesOrCallOtherConstructors")
+        Plan(final Shape<T> shape, final Codecs codecs,
+            final List<String> labels) {
+            this.labels = labels;
+            final Map<String, Integer> columns = new HashMap<>();
+            for (int idx = 0; idx < labels.size(); ++idx) {
+                columns.putIfAbsent(
+                    BeanOutcome.matching(labels.get(idx)), idx + 1
+                );
+            }
+            final List<String> names = shape.names();
+            final List<Integer> matched = new ArrayList<>(names.size());
+            for (int idx = 0; idx < names.size(); ++idx) {
+                final Integer pos = columns.get(
+                    BeanOutcome.matching(names.get(idx))
+                );
+                if (pos == null && !shape.partial()) {
+                    throw new IllegalArgumentException(
+                        String.format("no column for %s", names.get(idx))
+                    );
+                }
+                if (pos != null) {
+                    matched.add(idx);
+                }
+            }
+            final int[] props = new int[matched.size()];
+            final int[] positions = new int[matched.size()];
+            final Codec<?>[] readers = new Codec<?>[matched.size()];
+            for (int idx = 0; idx < props.length; ++idx) {
+                final int prop = matched.get(idx);
+                props[idx] = prop;
+                positions[idx] = columns.get(
+                    BeanOutcome.matching(names.get(prop))
+                );
+                readers[idx] = BeanOutcome.reader(
+                    codecs, shape.types().get(prop)
+                );
+            }
+            this.mapping = shape.mapping(props, positions, readers);
+        }
+    }
+}
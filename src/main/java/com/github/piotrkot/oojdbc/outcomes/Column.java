@@ -0,0 +1,351 @@
+/*
+ * Copyright (c) 2012-2018, jcabi.com
+ * Copyright (c) 2021, github.com/piotrkot
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions
+ * are met: 1) Redistributions of source code must retain the above
+ * copyright notice, this list of conditions and the following
+ * disclaimer. 2) Redistributions in binary form must reproduce the above
+ * copyright notice, this list of conditions and the following
+ * disclaimer in the documentation and/or other materials provided
+ * with the distribution. 3) Neither the name of the jcabi.com nor
+ * the names of its contributors may be used to endorse or promote
+ * products derived from this software without specific prior written
+ * permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT
+ * NOT LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND
+ * FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL
+ * THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT,
+ * INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION)
+ * HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT,
+ * STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED
+ * OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.github.piotrkot.oojdbc.outcomes;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Column of values, stored by type.
+ *
+ * @since 1.5
+ */
+interface Column {
+
+    /**
+     * Add value of the current row.
+     * @param rset Result set
+     * @param pos Column position in the result set
+     * @throws SQLException If fails
+     */
+    void add(ResultSet rset, int pos) throws SQLException;
+
+    /**
+     * Is the value NULL.
+     * @param row Row index
+     * @return TRUE if NULL
+     */
+    boolean isNull(int row);
+
+    /**
+     * Value as long.
+     * @param row Row index
+     * @return Value, zero if NULL
+     */
+    long asLong(int row);
+
+    /**
+     * Value as double.
+     * @param row Row index
+     * @return Value, zero if NULL
+     */
+    double asDouble(int row);
+
+    /**
+     * Value as object.
+     * @param row Row index
+     * @return Value, NULL if NULL
+     */
+    Object value(int row);
+
+    /**
+     * Column of long values.
+     *
+     * @since 1.5
+     */
+    final class Longs implements Column {
+        /**
+         * Values.
+         */
+        private final Memory values;
+
+        /**
+         * NULL values.
+         */
+        private final BitSet nulls;
+
+        /**
+         * Number of values.
+         */
+        private int size;
+
+        /**
+         * Ctor.
+         * @param direct Allocate off the heap
+         */
+        Longs(final boolean direct) {
+            this.values = new Memory(direct);
+            this.nulls = new BitSet();
+        }
+
+        @Override
+        public void add(final ResultSet rset, final int pos)
+            throws SQLException {
+            this.values.putLong(this.size, rset.getLong(pos));
+            this.nulls.set(this.size, rset.wasNull());
+            ++this.size;
+        }
+
+        @Override
+        public boolean isNull(final int row) {
+            return this.nulls.get(row);
+        }
+
+        @Override
+        public long asLong(final int row) {
+            return this.values.getLong(row);
+        }
+
+        @Override
+        public double asDouble(final int row) {
+            return this.values.getLong(row);
+        }
+
+        @Override
+        public Object value(final int row) {
+            Object value = null;
+            if (!this.isNull(row)) {
+                value = this.asLong(row);
+            }
+            return value;
+        }
+    }
+
+    /**
+     * Column of double values.
+     *
+     * @since 1.5
+     */
+    final class Doubles implements Column {
+        /**
+         * Values.
+         */
+        private final Memory values;
+
+        /**
+         * NULL values.
+         */
+        private final BitSet nulls;
+
+        /**
+         * Number of values.
+         */
+        private int size;
+
+        /**
+         * Ctor.
+         * @param direct Allocate off the heap
+         */
+        Doubles(final boolean direct) {
+            this.values = new Memory(direct);
+            this.nulls = new BitSet();
+        }
+
+        @Override
+        public void add(final ResultSet rset, final int pos)
+            throws SQLException {
+            this.values.putDouble(this.size, rset.getDouble(pos));
+            this.nulls.set(this.size, rset.wasNull());
+            ++this.size;
+        }
+
+        @Override
+        public boolean isNull(final int row) {
+            return this.nulls.get(row);
+        }
+
+        @Override
+        public long asLong(final int row) {
+            return (long) this.values.getDouble(row);
+        }
+
+        @Override
+        public double asDouble(final int row) {
+            return this.values.getDouble(row);
+        }
+
+        @Override
+        public Object value(final int row) {
+            Object value = null;
+            if (!this.isNull(row)) {
+                value = this.asDouble(row);
+            }
+            return value;
+        }
+    }
+
+    /**
+     * Column of strings, encoded with a dictionary of distinct values.
+     *
+     * @since 1.5
+     */
+    final class Strings implements Column {
+        /**
+         * Codes of values, -1 for NULL.
+         */
+        private final Memory codes;
+
+        /**
+         * Distinct values, by code.
+         */
+        private final List<String> words;
+
+        /**
+         * Codes, by distinct value.
+         */
+        private final Map<String, Integer> dictionary;
+
+        /**
+         * Number of values.
+         */
+        private int size;
+
+        /**
+         * Ctor.
+         * @param direct Allocate off the heap
+         */
+        Strings(final boolean direct) {
+            this.codes = new Memory(direct);
+            this.words = new ArrayList<>(0);
+            this.dictionary = new HashMap<>();
+        }
+
+        @Override
+        public void add(final ResultSet rset, final int pos)
+            throws SQLException {
+            final String value = rset.getString(pos);
+            int code = -1;
+            if (value != null) {
+                code = this.dictionary.computeIfAbsent(
+                    value,
+                    word -> {
+                        this.words.add(word);
+                        return this.words.size() - 1;
+                    }
+                );
+            }
+            this.codes.putInt(this.size, code);
+            ++this.size;
+        }
+
+        @Override
+        public boolean isNull(final int row) {
+            return this.codes.getInt(row) < 0;
+        }
+
+        @Override
+        public long asLong(final int row) {
+            long value = 0L;
+            if (!this.isNull(row)) {
+                value = Long.parseLong(this.words.get(this.codes.getInt(row)));
+            }
+            return value;
+        }
+
+        @Override
+        public double asDouble(final int row) {
+            double value = 0.0;
+            if (!this.isNull(row)) {
+                value = Double.parseDouble(
+                    this.words.get(this.codes.getInt(row))
+                );
+            }
+            return value;
+        }
+
+        @Override
+        public Object value(final int row) {
+            Object value = null;
+            if (!this.isNull(row)) {
+                value = this.words.get(this.codes.getInt(row));
+            }
+            return value;
+        }
+    }
+
+    /**
+     * Column of any other objects, on the heap.
+     *
+     * @since 1.5
+     */
+    final class Objects implements Column {
+        /**
+         * Values.
+         */
+        private final List<Object> values;
+
+        /**
+         * Ctor.
+         */
+        Objects() {
+            this.values = new ArrayList<>(0);
+        }
+
+        @Override
+        public void add(final ResultSet rset, final int pos)
+            throws SQLException {
+            this.values.add(rset.getObject(pos));
+        }
+
+        @Override
+        public boolean isNull(final int row) {
+            return this.values.get(row) == null;
+        }
+
+        @Override
+        public long asLong(final int row) {
+            long value = 0L;
+            if (!this.isNull(row)) {
+                value = ((Number) this.values.get(row)).longValue();
+            }
+            return value;
+        }
+
+        @Override
+        public double asDouble(final int row) {
+            double value = 0.0;
+            if (!this.isNull(row)) {
+                value = ((Number) this.values.get(row)).doubleValue();
+            }
+            return value;
+        }
+
+        @Override
+        public Object value(final int row) {
+            return this.values.get(row);
+        }
+    }
+}
@@ -50,8 +50,10 @@ import lombok.ToString;
  *   .sql("SELECT salary FROM user")
  *   .select(new ColumnOutcome&lt;Long&gt;(Long.class));</pre>
  *
- * <p>Supported types are: {@link String}, {@link Long}, {@link Boolean},
- * {@link Byte}, {@link Date}, and {@link Utc}.
+ * <p>Types are read with codecs of {@link Outcome#DEFAULT_MAPPINGS}, e.g.
+ * {@link String}, {@link Long}, {@link Integer}, {@link Double},
+ * {@link Boolean}, {@link Byte}, {@link Date}, and {@link Utc}. Other
+ * columns can be picked by position or label.
  *
  * @param <T> Type of items
  * @since 1.0
@@ -75,6 +77,26 @@ public final class ColumnOutcome<T> implements Outcome<Collection<T>> {
         this(tpe, Outcome.DEFAULT_MAPPINGS);
     }
 
+    /**
+     * Public ctor.
+     *
+     * @param tpe The type to convert to
+     * @param column Column position, starting from 1
+     */
+    public ColumnOutcome(final Class<T> tpe, final int column) {
+        this(Outcome.DEFAULT_MAPPINGS.forType(tpe, column));
+    }
+
+    /**
+     * Public ctor.
+     *
+     * @param tpe The type to convert to
+     * @param label Column label
+     */
+    public ColumnOutcome(final Class<T> tpe, final String label) {
+        this(Outcome.DEFAULT_MAPPINGS.forType(tpe, label));
+    }
+
     /**
      * Public ctor.
      *
@@ -0,0 +1,144 @@
+/*
+ * Copyright (c) 2012-2018, jcabi.com
+ * Copyright (c) 2021, github.com/piotrkot
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions
+ * are met: 1) Redistributions of source code must retain the above
+ * copyright notice, this list of conditions and the following
+ * disclaimer. 2) Redistributions in binary form must reproduce the above
+ * copyright notice, this list of conditions and the following
+ * disclaimer in the documentation and/or other materials provided
+ * with the distribution. 3) Neither the name of the jcabi.com nor
+ * the names of its contributors may be used to endorse or promote
+ * products derived from this software without specific prior written
+ * permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT
+ * NOT LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND
+ * FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL
+ * THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT,
+ * INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION)
+ * HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT,
+ * STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED
+ * OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.github.piotrkot.oojdbc.outcomes;
+
+import com.github.piotrkot.oojdbc.Outcome;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Types;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import lombok.EqualsAndHashCode;
+import lombok.RequiredArgsConstructor;
+import lombok.ToString;
+
+/**
+ * Outcome that returns all columns, stored column by column.
+ *
+ * <p>Use it for wide and big results, e.g. for analytics. The metadata
+ * is read once, then every column is stored by its type: integral
+ * numbers as longs, floating point numbers as doubles, strings encoded
+ * with a dictionary of distinct values, other types as objects. NULL
+ * values are tracked in a bitmap. Numbers and string codes can be kept
+ * off the heap, in direct buffers:
+ *
+ * <pre> Columns sales = new JdbcSession&lt;&gt;(
+ *   new Select&lt;&gt;(
+ *     new Sql("SELECT region, amount FROM sale"),
+ *     new ColumnarOutcome(true)
+ *   )
+ * ).using(source);</pre>
+ *
+ * @since 1.5
+ */
+@ToString
+@EqualsAndHashCode
+@RequiredArgsConstructor
+public final class ColumnarOutcome implements Outcome<Columns> {
+
+    /**
+     * SQL types stored as longs.
+     */
+    private static final Collection<Integer> INTEGRAL = Arrays.asList(
+        Types.BIGINT, Types.INTEGER, Types.SMALLINT, Types.TINYINT
+    );
+
+    /**
+     * SQL types stored as doubles.
+     */
+    private static final Collection<Integer> FLOATING = Arrays.asList(
+        Types.DOUBLE, Types.FLOAT, Types.REAL
+    );
+
+    /**
+     * SQL types stored as strings.
+     */
+    private static final Collection<Integer> TEXTUAL = Arrays.asList(
+        Types.CHAR, Types.VARCHAR, Types.LONGVARCHAR,
+        Types.NCHAR, Types.NVARCHAR, Types.LONGNVARCHAR
+    );
+
+    /**
+     * Keep values off the heap.
+     */
+    private final boolean direct;
+
+    /**
+     * Public ctor, keeping values on the heap.
+     */
+    public ColumnarOutcome() {
+        this(false);
+    }
+
+    @Override
+    public Columns handle(final ResultSet rset, final Statement stmt)
+        throws SQLException {
+        final ResultSetMetaData meta = rset.getMetaData();
+        final int width = meta.getColumnCount();
+        final List<String> labels = new ArrayList<>(width);
+        final List<Column> columns = new ArrayList<>(width);
+        for (int pos = 1; pos <= width; ++pos) {
+            labels.add(meta.getColumnLabel(pos));
+            columns.add(this.column(meta.getColumnType(pos)));
+        }
+        int rows = 0;
+        while (rset.next()) {
+            for (int pos = 1; pos <= width; ++pos) {
+                columns.get(pos - 1).add(rset, pos);
+            }
+            ++rows;
+        }
+        return new Columns(labels, columns, rows);
+    }
+
+    /**
+     * Column for the SQL type.
+     * @param type SQL type, from {@link Types}
+     * @return Column
+     */
+    private Column column(final int type) {
+        final Column column;
+        if (ColumnarOutcome.INTEGRAL.contains(type)) {
+            column = new Column.Longs(this.direct);
+        } else if (ColumnarOutcome.FLOATING.contains(type)) {
+            column = new Column.Doubles(this.direct);
+        } else if (ColumnarOutcome.TEXTUAL.contains(type)) {
+            column = new Column.Strings(this.direct);
+        } else {
+            column = new Column.Objects();
+        }
+        return column;
+    }
+}
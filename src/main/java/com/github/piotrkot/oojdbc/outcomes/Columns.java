@@ -0,0 +1,216 @@
+/*
+ * Copyright (c) 2012-2018, jcabi.com
+ * Copyright (c) 2021, github.com/piotrkot
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions
+ * are met: 1) Redistributions of source code must retain the above
+ * copyright notice, this list of conditions and the following
+ * disclaimer. 2) Redistributions in binary form must reproduce the above
+ * copyright notice, this list of conditions and the following
+ * disclaimer in the documentation and/or other materials provided
+ * with the distribution. 3) Neither the name of the jcabi.com nor
+ * the names of its contributors may be used to endorse or promote
+ * products derived from this software without specific prior written
+ * permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT
+ * NOT LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND
+ * FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL
+ * THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT,
+ * INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION)
+ * HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT,
+ * STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED
+ * OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.github.piotrkot.oojdbc.outcomes;
+
+import java.util.List;
+
+/**
+ * Result set stored column by column.
+ *
+ * <p>Returned by {@link ColumnarOutcome}. Values are read through a
+ * cursor, moving row by row, with column positions starting from 1:
+ *
+ * <pre> final Columns.Cursor cursor = columns.cursor();
+ * while (cursor.next()) {
+ *   total += cursor.getDouble(2);
+ * }</pre>
+ *
+ * @since 1.5
+ */
+public final class Columns {
+
+    /**
+     * Column labels.
+     */
+    private final List<String> labels;
+
+    /**
+     * Columns, by position.
+     */
+    private final List<Column> stored;
+
+    /**
+     * Number of rows.
+     */
+    private final int rows;
+
+    /**
+     * Ctor.
+     * @param labels Column labels
+     * @param columns Columns
+     * @param rows Number of rows
+     */
+    Columns(final List<String> labels, final List<Column> columns,
+        final int rows) {
+        this.labels = labels;
+        this.stored = columns;
+        this.rows = rows;
+    }
+
+    /**
+     * Number of rows.
+     * @return Rows
+     */
+    public int size() {
+        return this.rows;
+    }
+
+    /**
+     * Number of columns.
+     * @return Columns
+     */
+    public int width() {
+        return this.stored.size();
+    }
+
+    /**
+     * Position of the column.
+     * @param label Column label
+     * @return Position, starting from 1
+     */
+    public int position(final String label) {
+        for (int idx = 0; idx < this.labels.size(); ++idx) {
+            if (this.labels.get(idx).equalsIgnoreCase(label)) {
+                return idx + 1;
+            }
+        }
+        throw new IllegalArgumentException(
+            String.format("no column %s", label)
+        );
+    }
+
+    /**
+     * Cursor before the first row.
+     * @return Cursor
+     */
+    public Columns.Cursor cursor() {
+        return new Columns.Cursor(this);
+    }
+
+    /**
+     * Cursor moving over rows.
+     *
+     * @since 1.5
+     */
+    public static final class Cursor {
+        /**
+         * Columns.
+         */
+        private final Columns columns;
+
+        /**
+         * Current row.
+         */
+        private int row;
+
+        /**
+         * Ctor.
+         * @param columns Columns
+         */
+        Cursor(final Columns columns) {
+            this.columns = columns;
+            this.row = -1;
+        }
+
+        /**
+         * Move to the next row.
+         * @return TRUE if there is a next row
+         */
+        public boolean next() {
+            if (this.row < this.columns.rows) {
+                ++this.row;
+            }
+            return this.row < this.columns.rows;
+        }
+
+        /**
+         * Is the value NULL.
+         * @param pos Column position, starting from 1
+         * @return TRUE if NULL
+         */
+        public boolean isNull(final int pos) {
+            return this.column(pos).isNull(this.row);
+        }
+
+        /**
+         * Value as long.
+         * @param pos Column position, starting from 1
+         * @return Value, zero if NULL
+         */
+        public long getLong(final int pos) {
+            return this.column(pos).asLong(this.row);
+        }
+
+        /**
+         * Value as double.
+         * @param pos Column position, starting from 1
+         * @return Value, zero if NULL
+         */
+        public double getDouble(final int pos) {
+            return this.column(pos).asDouble(this.row);
+        }
+
+        /**
+         * Value as string.
+         * @param pos Column position, starting from 1
+         * @return Value, NULL if NULL
+         */
+        public String getString(final int pos) {
+            final Object value = this.getObject(pos);
+            String text = null;
+            if (value != null) {
+                text = value.toString();
+            }
+            return text;
+        }
+
+        /**
+         * Value as object.
+         * @param pos Column position, starting from 1
+         * @return Value, NULL if NULL
+         */
+        public Object getObject(final int pos) {
+            return this.column(pos).value(this.row);
+        }
+
+        /**
+         * Column at the position.
+         * @param pos Column position, starting from 1
+         * @return Column
+         */
+        private Column column(final int pos) {
+            if (this.row < 0 || this.row >= this.columns.rows) {
+                throw new IllegalStateException("cursor is not on a row");
+            }
+            return this.columns.stored.get(pos - 1);
+        }
+    }
+}
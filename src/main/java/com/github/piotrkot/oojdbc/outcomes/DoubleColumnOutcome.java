@@ -0,0 +1,141 @@
+/*
+ * Copyright (c) 2012-2018, jcabi.com
+ * Copyright (c) 2021, github.com/piotrkot
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions
+ * are met: 1) Redistributions of source code must retain the above
+ * copyright notice, this list of conditions and the following
+ * disclaimer. 2) Redistributions in binary form must reproduce the above
+ * copyright notice, this list of conditions and the following
+ * disclaimer in the documentation and/or other materials provided
+ * with the distribution. 3) Neither the name of the jcabi.com nor
+ * the names of its contributors may be used to endorse or promote
+ * products derived from this software without specific prior written
+ * permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT
+ * NOT LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND
+ * FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL
+ * THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT,
+ * INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION)
+ * HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT,
+ * STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED
+ * OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.github.piotrkot.oojdbc.outcomes;
+
+import com.github.piotrkot.oojdbc.Outcome;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Arrays;
+import lombok.AccessLevel;
+import lombok.EqualsAndHashCode;
+import lombok.RequiredArgsConstructor;
+import lombok.ToString;
+
+/**
+ * Outcome that returns a column as an array of {@code double}.
+ *
+ * <p>Use it instead of {@link ColumnOutcome} of {@link Double} for
+ * big results, as values are not boxed:
+ *
+ * <pre> double[] values = new JdbcSession&lt;&gt;(
+ *   new Select&lt;&gt;(
+ *     new Sql("SELECT salary FROM user"),
+ *     new DoubleColumnOutcome(Double.NaN)
+ *   )
+ * ).using(source);</pre>
+ *
+ * <p>NULL values are replaced with the given sentinel. Without a
+ * sentinel, the outcome throws {@link SQLException} on NULL.
+ *
+ * @since 1.5
+ */
+@ToString
+@EqualsAndHashCode
+@RequiredArgsConstructor(access = AccessLevel.PRIVATE)
+public final class DoubleColumnOutcome implements Outcome<double[]> {
+
+    /**
+     * Column position.
+     */
+    private final int column;
+
+    /**
+     * Value of NULL.
+     */
+    private final double sentinel;
+
+    /**
+     * NULL values allowed.
+     */
+    private final boolean nullable;
+
+    /**
+     * Public ctor, for the first column without NULL values.
+     */
+    public DoubleColumnOutcome() {
+        this(1, 0, false);
+    }
+
+    /**
+     * Public ctor, for the first column.
+     *
+     * @param sentinel Value of NULL
+     */
+    public DoubleColumnOutcome(final double sentinel) {
+        this(1, sentinel);
+    }
+
+    /**
+     * Public ctor.
+     *
+     * @param column Column position
+     * @param sentinel Value of NULL
+     */
+    public DoubleColumnOutcome(final int column, final double sentinel) {
+        this(column, sentinel, true);
+    }
+
+    @Override
+    public double[] handle(final ResultSet rset, final Statement stmt)
+        throws SQLException {
+        double[] values = new double[Growth.INITIAL];
+        int size = 0;
+        while (rset.next()) {
+            if (size == values.length) {
+                values = Arrays.copyOf(values, Growth.grown(size));
+            }
+            values[size] = this.value(rset);
+            ++size;
+        }
+        return Arrays.copyOf(values, size);
+    }
+
+    /**
+     * Value of the current row.
+     *
+     * @param rset Result set
+     * @return Value
+     * @throws SQLException If NULL is not allowed
+     */
+    private double value(final ResultSet rset) throws SQLException {
+        double value = rset.getDouble(this.column);
+        if (rset.wasNull()) {
+            if (!this.nullable) {
+                throw new SQLException(
+                    String.format("NULL in column %d", this.column)
+                );
+            }
+            value = this.sentinel;
+        }
+        return value;
+    }
+}
@@ -0,0 +1,76 @@
+/*
+ * Copyright (c) 2012-2018, jcabi.com
+ * Copyright (c) 2021, github.com/piotrkot
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions
+ * are met: 1) Redistributions of source code must retain the above
+ * copyright notice, this list of conditions and the following
+ * disclaimer. 2) Redistributions in binary form must reproduce the above
+ * copyright notice, this list of conditions and the following
+ * disclaimer in the documentation and/or other materials provided
+ * with the distribution. 3) Neither the name of the jcabi.com nor
+ * the names of its contributors may be used to endorse or promote
+ * products derived from this software without specific prior written
+ * permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT
+ * NOT LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND
+ * FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL
+ * THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT,
+ * INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION)
+ * HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT,
+ * STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED
+ * OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.github.piotrkot.oojdbc.outcomes;
+
+import java.sql.SQLException;
+
+/**
+ * Growth of arrays of primitive column values.
+ *
+ * <p>Shared by {@link IntColumnOutcome}, {@link LongColumnOutcome} and
+ * {@link DoubleColumnOutcome}.
+ *
+ * @since 1.5
+ */
+final class Growth {
+
+    /**
+     * Initial capacity of an array.
+     */
+    static final int INITIAL = 64;
+
+    /**
+     * Max length of an array, as some VMs reserve header words in it.
+     */
+    private static final int MAX = Integer.MAX_VALUE - 8;
+
+    /**
+     * Utility class.
+     */
+    private Growth() {
+        // intentionally empty
+    }
+
+    /**
+     * Length of a full array, grown.
+     * @param length Length of the full array
+     * @return New length, doubled but not above the max
+     * @throws SQLException If the array can't grow any more
+     */
+    static int grown(final int length) throws SQLException {
+        if (length >= Growth.MAX) {
+            throw new SQLException(
+                String.format("More than %d rows in the column", Growth.MAX)
+            );
+        }
+        return (int) Math.min((long) length << 1, Growth.MAX);
+    }
+}
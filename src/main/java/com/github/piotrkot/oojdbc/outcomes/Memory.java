@@ -0,0 +1,227 @@
+/*
+ * Copyright (c) 2012-2018, jcabi.com
+ * Copyright (c) 2021, github.com/piotrkot
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions
+ * are met: 1) Redistributions of source code must retain the above
+ * copyright notice, this list of conditions and the following
+ * disclaimer. 2) Redistributions in binary form must reproduce the above
+ * copyright notice, this list of conditions and the following
+ * disclaimer in the documentation and/or other materials provided
+ * with the distribution. 3) Neither the name of the jcabi.com nor
+ * the names of its contributors may be used to endorse or promote
+ * products derived from this software without specific prior written
+ * permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT
+ * NOT LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND
+ * FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL
+ * THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT,
+ * INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION)
+ * HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT,
+ * STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED
+ * OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.github.piotrkot.oojdbc.outcomes;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Growable memory of primitive values, on or off the heap.
+ *
+ * <p>Values are kept in chunks which are never copied nor replaced, so
+ * growing costs no more than allocating. Chunks double in size from
+ * 1 KiB to 64 MiB and stay at 64 MiB after that, so small columns stay
+ * small while a column may hold many gigabytes. Values never span two
+ * chunks, as every chunk starts at a multiple of the first chunk size.
+ *
+ * @since 1.5
+ */
+final class Memory {
+
+    /**
+     * Size of the first chunk in bytes.
+     */
+    private static final int FIRST = 1024;
+
+    /**
+     * Number of chunks growing in size.
+     */
+    private static final int GROWING = 16;
+
+    /**
+     * Size of the largest chunk in bytes.
+     */
+    private static final long LARGEST = (long) Memory.FIRST << Memory.GROWING;
+
+    /**
+     * Allocate off the heap.
+     */
+    private final boolean direct;
+
+    /**
+     * Chunks holding the values.
+     */
+    private final List<ByteBuffer> chunks;
+
+    /**
+     * Ctor.
+     * @param direct Allocate off the heap
+     */
+    Memory(final boolean direct) {
+        this.direct = direct;
+        this.chunks = new ArrayList<>(0);
+    }
+
+    /**
+     * Put long value.
+     * @param idx Index of the value
+     * @param value Value
+     */
+    public void putLong(final int idx, final long value) {
+        final long offset = (long) idx * Long.BYTES;
+        final int index = Memory.index(offset);
+        this.ensured(index).putLong(Memory.position(offset, index), value);
+    }
+
+    /**
+     * Get long value.
+     * @param idx Index of the value
+     * @return Value
+     */
+    public long getLong(final int idx) {
+        final long offset = (long) idx * Long.BYTES;
+        final int index = Memory.index(offset);
+        return this.chunks.get(index).getLong(Memory.position(offset, index));
+    }
+
+    /**
+     * Put double value.
+     * @param idx Index of the value
+     * @param value Value
+     */
+    public void putDouble(final int idx, final double value) {
+        final long offset = (long) idx * Double.BYTES;
+        final int index = Memory.index(offset);
+        this.ensured(index).putDouble(Memory.position(offset, index), value);
+    }
+
+    /**
+     * Get double value.
+     * @param idx Index of the value
+     * @return Value
+     */
+    public double getDouble(final int idx) {
+        final long offset = (long) idx * Double.BYTES;
+        final int index = Memory.index(offset);
+        return this.chunks.get(index).getDouble(Memory.position(offset, index));
+    }
+
+    /**
+     * Put int value.
+     * @param idx Index of the value
+     * @param value Value
+     */
+    public void putInt(final int idx, final int value) {
+        final long offset = (long) idx * Integer.BYTES;
+        final int index = Memory.index(offset);
+        this.ensured(index).putInt(Memory.position(offset, index), value);
+    }
+
+    /**
+     * Get int value.
+     * @param idx Index of the value
+     * @return Value
+     */
+    public int getInt(final int idx) {
+        final long offset = (long) idx * Integer.BYTES;
+        final int index = Memory.index(offset);
+        return this.chunks.get(index).getInt(Memory.position(offset, index));
+    }
+
+    /**
+     * Index of the chunk holding the offset.
+     * @param offset Offset in bytes
+     * @return Index of the chunk
+     */
+    static int index(final long offset) {
+        final int index;
+        if (offset < Memory.LARGEST - Memory.FIRST) {
+            // @checkstyle MagicNumber (1 line)
+            index = 63 - Long.numberOfLeadingZeros(offset / Memory.FIRST + 1L);
+        } else {
+            final long beyond = offset - Memory.LARGEST + Memory.FIRST;
+            index = Memory.GROWING + (int) (beyond / Memory.LARGEST);
+        }
+        return index;
+    }
+
+    /**
+     * Offset of the first byte of the chunk.
+     * @param index Index of the chunk
+     * @return Offset in bytes
+     */
+    static long start(final int index) {
+        final long start;
+        if (index < Memory.GROWING) {
+            start = Memory.FIRST * ((1L << index) - 1L);
+        } else {
+            start = Memory.LARGEST - Memory.FIRST
+                + (index - Memory.GROWING) * Memory.LARGEST;
+        }
+        return start;
+    }
+
+    /**
+     * Chunk, allocated with all chunks before it if missing.
+     * @param index Index of the chunk
+     * @return Chunk
+     */
+    private ByteBuffer ensured(final int index) {
+        while (this.chunks.size() <= index) {
+            final int next = this.chunks.size();
+            this.chunks.add(
+                Memory.allocated(
+                    this.direct,
+                    (int) (Memory.start(next + 1) - Memory.start(next))
+                )
+            );
+        }
+        return this.chunks.get(index);
+    }
+
+    /**
+     * Position of the offset in its chunk.
+     * @param offset Offset in bytes
+     * @param index Index of the chunk holding the offset
+     * @return Position
+     */
+    private static int position(final long offset, final int index) {
+        return (int) (offset - Memory.start(index));
+    }
+
+    /**
+     * Allocate buffer.
+     * @param direct Allocate off the heap
+     * @param capacity Capacity in bytes
+     * @return Buffer
+     */
+    private static ByteBuffer allocated(final boolean direct,
+        final int capacity) {
+        final ByteBuffer buffer;
+        if (direct) {
+            buffer = ByteBuffer.allocateDirect(capacity);
+        } else {
+            buffer = ByteBuffer.allocate(capacity);
+        }
+        return buffer;
+    }
+}
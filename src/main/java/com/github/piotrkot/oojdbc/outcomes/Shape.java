@@ -0,0 +1,567 @@
+/*
+ * Copyright (c) 2012-2018, jcabi.com
+ * Copyright (c) 2021, github.com/piotrkot
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions
+ * are met: 1) Redistributions of source code must retain the above
+ * copyright notice, this list of conditions and the following
+ * disclaimer. 2) Redistributions in binary form must reproduce the above
+ * copyright notice, this list of conditions and the following
+ * disclaimer in the documentation and/or other materials provided
+ * with the distribution. 3) Neither the name of the jcabi.com nor
+ * the names of its contributors may be used to endorse or promote
+ * products derived from this software without specific prior written
+ * permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT
+ * NOT LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND
+ * FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL
+ * THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT,
+ * INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION)
+ * HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT,
+ * STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED
+ * OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.github.piotrkot.oojdbc.outcomes;
+
+import com.github.piotrkot.oojdbc.Codec;
+import com.github.piotrkot.oojdbc.Outcome;
+import java.beans.ConstructorProperties;
+import java.lang.invoke.LambdaMetafactory;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.lang.reflect.Parameter;
+import java.sql.ResultSet;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.BiConsumer;
+import java.util.function.Supplier;
+
+/**
+ * Shape of a class built from columns.
+ *
+ * @param <T> Type of objects
+ * @since 1.5
+ */
+interface Shape<T> {
+
+    /**
+     * Names of properties.
+     * @return Names, in order
+     */
+    List<String> names();
+
+    /**
+     * Types of properties.
+     * @return Types, in order
+     */
+    List<Class<?>> types();
+
+    /**
+     * Can objects be made with only some properties.
+     * @return TRUE if some properties can be missing
+     */
+    boolean partial();
+
+    /**
+     * Mapping of rows to objects, made once per query shape.
+     * @param indexes Indexes of matched properties, ascending
+     * @param positions Column positions, by matched property
+     * @param readers Codecs, by matched property
+     * @return Mapping
+     */
+    Outcome.Mapping<T> mapping(int[] indexes, int[] positions,
+        Codec<?>... readers);
+
+    /**
+     * Shape of a class with a no-args constructor and setters.
+     *
+     * <p>The constructor and setters are bound with
+     * {@link LambdaMetafactory}, so no reflection is used per row.
+     * Classes not visible from the class loader of this library, like
+     * ones of a child class loader, are called through method handles
+     * instead. Properties read as NULL are not set.
+     *
+     * @param <T> Type of objects
+     * @since 1.5
+     */
+    final class Setters<T> implements Shape<T> {
+        /**
+         * Property names.
+         */
+        private final List<String> props;
+
+        /**
+         * Property types.
+         */
+        private final List<Class<?>> kinds;
+
+        /**
+         * Constructor.
+         */
+        private final Supplier<Object> ctor;
+
+        /**
+         * Setters, by property.
+         */
+        private final List<BiConsumer<Object, Object>> setters;
+
+        /**
+         * Ctor.
+         * @param tpe Class of objects
+         * @throws Exception If the class has no public no-args constructor
+         */
+        @SuppressWarnings("PMD.ConstructorOnlyInitializesOrCallOtherConstructors")
+        Setters(final Class<T> tpe) throws Exception {
+            final MethodHandles.Lookup lookup = MethodHandles.lookup();
+            final boolean visible = Shape.Setters.visible(tpe);
+            this.ctor = Shape.Setters.maker(lookup, tpe, visible);
+            this.props = new ArrayList<>(0);
+            this.kinds = new ArrayList<>(0);
+            this.setters = new ArrayList<>(0);
+            for (final Method method : tpe.getMethods()) {
+                if (Shape.Setters.setter(method)) {
+                    final Class<?> kind = method.getParameterTypes()[0];
+                    this.props.add(method.getName().substring(3));
+                    this.kinds.add(kind);
+                    this.setters.add(
+                        Shape.Setters.setting(
+                            lookup, method,
+                            visible && Shape.Setters.visible(kind)
+                        )
+                    );
+                }
+            }
+        }
+
+        @Override
+        public List<String> names() {
+            return this.props;
+        }
+
+        @Override
+        public List<Class<?>> types() {
+            return this.kinds;
+        }
+
+        @Override
+        public boolean partial() {
+            return true;
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public Outcome.Mapping<T> mapping(final int[] indexes,
+            final int[] positions, final Codec<?>... readers) {
+            final List<BiConsumer<Object, Object>> bound =
+                new ArrayList<>(indexes.length);
+            for (final int index : indexes) {
+                bound.add(this.setters.get(index));
+            }
+            final Supplier<Object> make = this.ctor;
+            return rset -> {
+                final Object bean = make.get();
+                for (int idx = 0; idx < positions.length; ++idx) {
+                    final Object value = readers[idx].read(
+                        rset, positions[idx]
+                    );
+                    if (value != null) {
+                        bound.get(idx).accept(bean, value);
+                    }
+                }
+                return (T) bean;
+            };
+        }
+
+        /**
+         * Maker of objects.
+         * @param lookup Lookup
+         * @param tpe Class of objects
+         * @param visible Can lambdas of the class be spun
+         * @return Maker
+         * @throws Exception If fails
+         */
+        private static Supplier<Object> maker(
+            final MethodHandles.Lookup lookup, final Class<?> tpe,
+            final boolean visible) throws Exception {
+            final MethodHandle ctor = lookup.findConstructor(
+                tpe, MethodType.methodType(void.class)
+            );
+            final Supplier<Object> maker;
+            if (visible) {
+                maker = Shape.Setters.lambda(
+                    LambdaMetafactory.metafactory(
+                        lookup, "get",
+                        MethodType.methodType(Supplier.class),
+                        MethodType.methodType(Object.class),
+                        ctor,
+                        MethodType.methodType(tpe)
+                    ).getTarget()
+                );
+            } else {
+                maker = () -> Shape.Setters.invoked(ctor);
+            }
+            return maker;
+        }
+
+        /**
+         * Setting of a property.
+         * @param lookup Lookup
+         * @param method Setter
+         * @param visible Can lambdas of the setter be spun
+         * @return Setting
+         * @throws Exception If fails
+         */
+        private static BiConsumer<Object, Object> setting(
+            final MethodHandles.Lookup lookup, final Method method,
+            final boolean visible) throws Exception {
+            final MethodHandle handle = lookup.unreflect(method);
+            final BiConsumer<Object, Object> setting;
+            if (visible) {
+                setting = Shape.Setters.lambda(
+                    LambdaMetafactory.metafactory(
+                        lookup, "accept",
+                        MethodType.methodType(BiConsumer.class),
+                        MethodType.methodType(
+                            void.class, Object.class, Object.class
+                        ),
+                        handle,
+                        MethodType.methodType(
+                            void.class, method.getDeclaringClass(),
+                            handle.type().wrap().parameterType(1)
+                        )
+                    ).getTarget()
+                );
+            } else {
+                setting = (bean, value) -> Shape.Setters.invoked(
+                    handle, bean, value
+                );
+            }
+            return setting;
+        }
+
+        /**
+         * Result of a method handle, for classes lambdas can't be spun for.
+         * @param handle Method handle
+         * @param args Arguments
+         * @return Result
+         */
+        @SuppressWarnings("PMD.AvoidCatchingThrowable")
+        private static Object invoked(final MethodHandle handle,
+            final Object... args) {
+            try {
+                return handle.invokeWithArguments(args);
+                // @checkstyle IllegalCatch (1 line)
+            } catch (final Throwable ex) {
+                throw Shape.Setters.unchecked(Shape.Creator.failure(ex));
+            }
+        }
+
+        /**
+         * Unchecked exception to rethrow.
+         * @param failure Failure
+         * @return Exception to throw
+         */
+        private static RuntimeException unchecked(final Exception failure) {
+            final RuntimeException unchecked;
+            if (failure instanceof RuntimeException) {
+                unchecked = (RuntimeException) failure;
+            } else {
+                unchecked = new IllegalStateException(failure);
+            }
+            return unchecked;
+        }
+
+        /**
+         * Can lambdas of the class be spun next to this class, which needs
+         * the class to be visible from its class loader.
+         * @param tpe Class
+         * @return TRUE if visible
+         */
+        @SuppressWarnings("PMD.UseProperClassLoader")
+        private static boolean visible(final Class<?> tpe) {
+            boolean visible;
+            if (tpe.isPrimitive()) {
+                visible = true;
+            } else {
+                try {
+                    visible = Class.forName(
+                        tpe.getName(), false, Shape.class.getClassLoader()
+                    ) == tpe;
+                } catch (final ClassNotFoundException ex) {
+                    visible = false;
+                }
+            }
+            return visible;
+        }
+
+        /**
+         * Lambda made by the factory.
+         * @param factory Factory of the lambda
+         * @param <F> Type of the lambda
+         * @return Lambda
+         * @throws Exception If fails
+         */
+        @SuppressWarnings({"unchecked", "PMD.AvoidCatchingThrowable"})
+        private static <F> F lambda(final MethodHandle factory)
+            throws Exception {
+            try {
+                return (F) factory.invoke();
+                // @checkstyle IllegalCatch (1 line)
+            } catch (final Throwable ex) {
+                throw Shape.Creator.failure(ex);
+            }
+        }
+
+        /**
+         * Is the method a setter.
+         * @param method Method
+         * @return TRUE if setter
+         */
+        private static boolean setter(final Method method) {
+            return !Modifier.isStatic(method.getModifiers())
+                && method.getParameterCount() == 1
+                && method.getName().length() > 3
+                && method.getName().startsWith("set");
+        }
+    }
+
+    /**
+     * Shape of a class made by a constructor with named parameters.
+     *
+     * <p>The constructor is chosen explicitly, never by compiler flags
+     * alone. Records are built by the canonical constructor. Other classes
+     * are built by the public constructor annotated with
+     * {@link ConstructorProperties}; more than one such constructor is an
+     * error. Without it, parameter names compiled with {@code -parameters}
+     * are used only when that constructor is the only public one, so a
+     * class with a public no-args constructor is filled with setters
+     * whatever the compiler flags.
+     *
+     * <p>Codecs of the columns are combined with the constructor into one
+     * method handle per query shape, bound into the mapping, so a row is
+     * built by one call, with no array of values.
+     *
+     * @param <T> Type of objects
+     * @since 1.5
+     */
+    final class Creator<T> implements Shape<T> {
+        /**
+         * Property names.
+         */
+        private final List<String> props;
+
+        /**
+         * Property types.
+         */
+        private final List<Class<?>> kinds;
+
+        /**
+         * Constructor, returning an Object.
+         */
+        private final MethodHandle ctor;
+
+        /**
+         * Reading of a codec, as {@code (Codec, ResultSet, int)Object}.
+         */
+        private final MethodHandle read;
+
+        /**
+         * Ctor.
+         * @param ctor Constructor
+         * @param names Names of constructor parameters
+         * @throws ReflectiveOperationException If the constructor is not
+         *  public
+         */
+        @SuppressWarnings("PMD.ConstructorOnlyInitializesOrCallOtherConstructors")
+        Creator(final Constructor<?> ctor, final List<String> names)
+            throws ReflectiveOperationException {
+            this.props = names;
+            this.kinds = Arrays.asList(ctor.getParameterTypes());
+            final MethodHandles.Lookup lookup = MethodHandles.lookup();
+            final MethodHandle handle = lookup.unreflectConstructor(ctor);
+            this.ctor = handle.asType(
+                handle.type().changeReturnType(Object.class)
+            );
+            this.read = lookup.findVirtual(
+                Codec.class, "read",
+                MethodType.methodType(Object.class, ResultSet.class, int.class)
+            );
+        }
+
+        @Override
+        public List<String> names() {
+            return this.props;
+        }
+
+        @Override
+        public List<Class<?>> types() {
+            return this.kinds;
+        }
+
+        @Override
+        public boolean partial() {
+            return false;
+        }
+
+        @Override
+        public Outcome.Mapping<T> mapping(final int[] indexes,
+            final int[] positions, final Codec<?>... readers) {
+            final MethodHandle[] filters = new MethodHandle[indexes.length];
+            for (int idx = 0; idx < filters.length; ++idx) {
+                filters[idx] = MethodHandles.insertArguments(
+                    this.read.bindTo(readers[idx]), 1, positions[idx]
+                ).asType(
+                    MethodType.methodType(
+                        this.kinds.get(indexes[idx]), ResultSet.class
+                    )
+                );
+            }
+            final MethodHandle row = MethodHandles.permuteArguments(
+                MethodHandles.filterArguments(this.ctor, 0, filters),
+                MethodType.methodType(Object.class, ResultSet.class),
+                new int[filters.length]
+            );
+            return rset -> Shape.Creator.made(row, rset);
+        }
+
+        /**
+         * Failure of a method handle, to rethrow.
+         * @param thrown Thrown by the method handle
+         * @return Exception to throw
+         */
+        static Exception failure(final Throwable thrown) {
+            if (thrown instanceof Error) {
+                throw (Error) thrown;
+            }
+            final Exception failure;
+            if (thrown instanceof Exception) {
+                failure = (Exception) thrown;
+            } else {
+                failure = new IllegalStateException(thrown);
+            }
+            return failure;
+        }
+
+        /**
+         * Constructor with named parameters.
+         * @param tpe Class of objects
+         * @param <T> Type of objects
+         * @return Shape, or NULL if the class is to be filled with setters
+         * @throws Exception If fails
+         */
+        static <T> Shape<T> named(final Class<T> tpe) throws Exception {
+            Shape<T> shape = null;
+            final Class<?> parent = tpe.getSuperclass();
+            if (parent != null
+                && "java.lang.Record".equals(parent.getName())) {
+                final Object[] comps = (Object[]) Class.class
+                    .getMethod("getRecordComponents").invoke(tpe);
+                final List<String> names = new ArrayList<>(comps.length);
+                final Class<?>[] types = new Class<?>[comps.length];
+                for (int idx = 0; idx < comps.length; ++idx) {
+                    final Class<?> comp = comps[idx].getClass();
+                    names.add((String) comp.getMethod("getName").invoke(comps[idx]));
+                    types[idx] = (Class<?>) comp.getMethod("getType")
+                        .invoke(comps[idx]);
+                }
+                shape = new Shape.Creator<>(
+                    tpe.getDeclaredConstructor(types), names
+                );
+            } else {
+                final Constructor<?> ctor = Shape.Creator.chosen(tpe);
+                if (ctor != null) {
+                    shape = new Shape.Creator<>(
+                        ctor, Shape.Creator.names(ctor)
+                    );
+                }
+            }
+            return shape;
+        }
+
+        /**
+         * Object made by the row handle.
+         * @param row Handle of {@code (ResultSet)Object}
+         * @param rset Result set
+         * @param <T> Type of objects
+         * @return Object
+         * @throws Exception If fails
+         */
+        @SuppressWarnings({"unchecked", "PMD.AvoidCatchingThrowable"})
+        private static <T> T made(final MethodHandle row, final ResultSet rset)
+            throws Exception {
+            try {
+                return (T) row.invokeExact(rset);
+                // @checkstyle IllegalCatch (1 line)
+            } catch (final Throwable ex) {
+                throw Shape.Creator.failure(ex);
+            }
+        }
+
+        /**
+         * Constructor to build objects of a class that is not a record.
+         * @param tpe Class
+         * @return Constructor, or NULL if the class is to be filled with
+         *  setters
+         */
+        private static Constructor<?> chosen(final Class<?> tpe) {
+            final List<Constructor<?>> annotated = new ArrayList<>(1);
+            final List<Constructor<?>> named = new ArrayList<>(1);
+            for (final Constructor<?> ctor : tpe.getConstructors()) {
+                if (ctor.isAnnotationPresent(ConstructorProperties.class)) {
+                    annotated.add(ctor);
+                } else if (ctor.getParameterCount() > 0
+                    && ctor.getParameters()[0].isNamePresent()) {
+                    named.add(ctor);
+                }
+            }
+            if (annotated.size() > 1) {
+                throw new IllegalArgumentException(
+                    String.format(
+                        "%s has more than one @ConstructorProperties",
+                        tpe.getName()
+                    )
+                );
+            }
+            Constructor<?> chosen = null;
+            if (annotated.isEmpty()) {
+                if (named.size() == 1 && tpe.getConstructors().length == 1) {
+                    chosen = named.get(0);
+                }
+            } else {
+                chosen = annotated.get(0);
+            }
+            return chosen;
+        }
+
+        /**
+         * Names of constructor parameters.
+         * @param ctor Constructor
+         * @return Names
+         */
+        private static List<String> names(final Constructor<?> ctor) {
+            final List<String> names = new ArrayList<>(0);
+            final ConstructorProperties props =
+                ctor.getAnnotation(ConstructorProperties.class);
+            if (props == null) {
+                for (final Parameter param : ctor.getParameters()) {
+                    names.add(param.getName());
+                }
+            } else {
+                names.addAll(Arrays.asList(props.value()));
+            }
+            return names;
+        }
+    }
+}
@@ -50,8 +50,10 @@ import lombok.ToString;
  *   .set("Jeff Lebowski")
  *   .select(new SingleOutcome&lt;Long&gt;(Long.class));</pre>
  *
- * <p>Supported types are: {@link String}, {@link Long}, {@link Boolean},
- * {@link Byte}, {@link Date}, and {@link Utc}.
+ * <p>Types are read with codecs of {@link Outcome#DEFAULT_MAPPINGS}, e.g.
+ * {@link String}, {@link Long}, {@link Integer}, {@link Double},
+ * {@link Boolean}, {@link Byte}, {@link Date}, and {@link Utc}. Other
+ * columns can be picked by position or label.
  *
  * <p>By default, the outcome throws {@link SQLException} if no records
  * are found in the {@link ResultSet}. You can change this behavior by using
@@ -108,6 +110,30 @@ public final class SingleOutcome<T> implements Outcome<T> {
         );
     }
 
+    /**
+     * Public ctor.
+     *
+     * @param tpe The type to convert to
+     * @param column Column position, starting from 1
+     * @param slnt Silently return NULL if there is no row
+     */
+    public SingleOutcome(final Class<T> tpe, final int column,
+        final boolean slnt) {
+        this(Outcome.DEFAULT_MAPPINGS.forType(tpe, column), slnt);
+    }
+
+    /**
+     * Public ctor.
+     *
+     * @param tpe The type to convert to
+     * @param label Column label
+     * @param slnt Silently return NULL if there is no row
+     */
+    public SingleOutcome(final Class<T> tpe, final String label,
+        final boolean slnt) {
+        this(Outcome.DEFAULT_MAPPINGS.forType(tpe, label), slnt);
+    }
+
     /**
      * Public ctor.
      *
@@ -0,0 +1,142 @@
+/*
+ * Copyright (c) 2012-2018, jcabi.com
+ * Copyright (c) 2021, github.com/piotrkot
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions
+ * are met: 1) Redistributions of source code must retain the above
+ * copyright notice, this list of conditions and the following
+ * disclaimer. 2) Redistributions in binary form must reproduce the above
+ * copyright notice, this list of conditions and the following
+ * disclaimer in the documentation and/or other materials provided
+ * with the distribution. 3) Neither the name of the jcabi.com nor
+ * the names of its contributors may be used to endorse or promote
+ * products derived from this software without specific prior written
+ * permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT
+ * NOT LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND
+ * FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL
+ * THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT,
+ * INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION)
+ * HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT,
+ * STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED
+ * OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.github.piotrkot.oojdbc.outcomes;
+
+import com.github.piotrkot.oojdbc.Outcome;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+import lombok.EqualsAndHashCode;
+import lombok.RequiredArgsConstructor;
+import lombok.ToString;
+
+/**
+ * Outcome that returns a lazy stream of rows.
+ *
+ * <p>Use it when the result is too big to hold in memory. Rows are read
+ * and mapped only as the stream is consumed, the result set and the
+ * statement stay open till the stream is closed:
+ *
+ * <pre> try (Stream&lt;User&gt; users = new JdbcSessionStream&lt;&gt;(
+ *   new Select&lt;&gt;(
+ *     new Sql("SELECT id, name FROM user"),
+ *     new StreamOutcome&lt;&gt;(
+ *       rset -&gt; new User(rset.getLong(1), rset.getString(2))
+ *     )
+ *   )
+ * ).using(source)) {
+ *   users.forEach(System.out::println);
+ * }</pre>
+ *
+ * <p>Errors while reading rows are rethrown as
+ * {@link IllegalStateException}. Closing the stream closes both the
+ * result set and the statement, even if the first fails. The mapping may
+ * return {@code null}, such items are passed down the stream as they are.
+ *
+ * @param <T> Type of items
+ * @since 1.5
+ */
+@ToString
+@EqualsAndHashCode
+@RequiredArgsConstructor
+public final class StreamOutcome<T> implements Outcome.Owning<Stream<T>> {
+
+    /**
+     * Mapping.
+     */
+    private final ListOutcome.Mapping<T> mapping;
+
+    @Override
+    public Stream<T> handle(final ResultSet rset, final Statement stmt) {
+        return StreamSupport.stream(
+            new StreamOutcome.Rows<>(rset, this.mapping),
+            false
+        ).onClose(
+            () -> {
+                try (Statement owned = stmt) {
+                    rset.close();
+                } catch (final SQLException ex) {
+                    throw new IllegalStateException(ex);
+                }
+            }
+        );
+    }
+
+    /**
+     * Rows of the result set, mapped one by one.
+     *
+     * @param <T> Type of items
+     * @since 1.5
+     */
+    private static final class Rows<T> extends Spliterators.AbstractSpliterator<T> {
+
+        /**
+         * Result set.
+         */
+        private final ResultSet rset;
+
+        /**
+         * Mapping.
+         */
+        private final ListOutcome.Mapping<T> mapping;
+
+        /**
+         * Ctor.
+         * @param rset Result set
+         * @param mapping Mapping
+         */
+        Rows(final ResultSet rset, final ListOutcome.Mapping<T> mapping) {
+            super(Long.MAX_VALUE, Spliterator.ORDERED);
+            this.rset = rset;
+            this.mapping = mapping;
+        }
+
+        @Override
+        @SuppressWarnings("PMD.AvoidCatchingGenericException")
+        public boolean tryAdvance(final Consumer<? super T> action) {
+            try {
+                final boolean next = this.rset.next();
+                if (next) {
+                    action.accept(this.mapping.map(this.rset));
+                }
+                return next;
+                // @checkstyle IllegalCatch (1 line)
+            } catch (final Exception ex) {
+                throw new IllegalStateException(ex);
+            }
+        }
+    }
+}
@@ -31,11 +31,11 @@
 package com.github.piotrkot.oojdbc.statements;
 
 import com.github.piotrkot.oojdbc.Preparation;
-import com.github.piotrkot.oojdbc.Utc;
-import java.sql.Date;
 import java.sql.PreparedStatement;
 import java.sql.SQLException;
 import java.sql.Types;
+import java.util.ArrayList;
+import java.util.List;
 import lombok.RequiredArgsConstructor;
 import org.cactoos.iterable.IterableOf;
 import org.cactoos.iterable.Joined;
@@ -46,6 +46,11 @@ import org.cactoos.iterable.Joined;
  */
 @RequiredArgsConstructor
 public final class Args implements Preparation {
+    /**
+     * Binders of arguments, resolved once per class.
+     */
+    private static final Binders BINDERS = new Binders();
+
     /**
      * Arguments.
      */
@@ -72,30 +77,59 @@ public final class Args implements Preparation {
     }
 
     @Override
-    @SuppressWarnings("PMD.CyclomaticComplexity")
     public void prepare(final PreparedStatement stmt) throws SQLException {
-        int pos = 1;
+        this.prepare(stmt, 1);
+    }
+
+    /**
+     * Bind the arguments from the position on.
+     * @param stmt Statement
+     * @param from Position of the first argument
+     * @return Position after the last argument
+     * @throws SQLException If fails
+     */
+    int prepare(final PreparedStatement stmt, final int from)
+        throws SQLException {
+        int pos = from;
         for (final Object arg : this.arguments) {
             if (arg == null) {
                 stmt.setNull(pos, Types.NULL);
-            } else if (arg instanceof Long) {
-                stmt.setLong(pos, (Long) arg);
-            } else if (arg instanceof Boolean) {
-                stmt.setBoolean(pos, (Boolean) arg);
-            } else if (arg instanceof Date) {
-                stmt.setDate(pos, (Date) arg);
-            } else if (arg instanceof Integer) {
-                stmt.setInt(pos, (Integer) arg);
-            } else if (arg instanceof Utc) {
-                ((Utc) arg).setTimestamp(stmt, pos);
-            } else if (arg instanceof Float) {
-                stmt.setFloat(pos, (Float) arg);
-            } else if (arg instanceof byte[]) {
-                stmt.setBytes(pos, (byte[]) arg);
             } else {
-                stmt.setObject(pos, arg);
+                Args.BINDERS.binder(arg.getClass()).bind(stmt, pos, arg);
             }
             ++pos;
         }
+        return pos;
+    }
+
+    /**
+     * Estimated size of the arguments sent to the database, in bytes.
+     * @return Number of bytes
+     * @checkstyle MagicNumber (20 lines)
+     */
+    long weight() {
+        long bytes = 0L;
+        for (final Object arg : this.arguments) {
+            if (arg instanceof CharSequence) {
+                bytes += 4L * ((CharSequence) arg).length();
+            } else if (arg instanceof byte[]) {
+                bytes += ((byte[]) arg).length;
+            } else {
+                bytes += 16L;
+            }
+        }
+        return bytes;
+    }
+
+    /**
+     * Values of the arguments.
+     * @return Values
+     */
+    List<Object> values() {
+        final List<Object> values = new ArrayList<>(0);
+        for (final Object arg : this.arguments) {
+            values.add(arg);
+        }
+        return values;
     }
 }
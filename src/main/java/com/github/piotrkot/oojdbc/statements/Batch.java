@@ -0,0 +1,148 @@
+/*
+ * Copyright (c) 2012-2018, jcabi.com
+ * Copyright (c) 2021, github.com/piotrkot
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions
+ * are met: 1) Redistributions of source code must retain the above
+ * copyright notice, this list of conditions and the following
+ * disclaimer. 2) Redistributions in binary form must reproduce the above
+ * copyright notice, this list of conditions and the following
+ * disclaimer in the documentation and/or other materials provided
+ * with the distribution. 3) Neither the name of the jcabi.com nor
+ * the names of its contributors may be used to endorse or promote
+ * products derived from this software without specific prior written
+ * permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT
+ * NOT LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND
+ * FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL
+ * THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT,
+ * INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION)
+ * HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT,
+ * STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED
+ * OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.github.piotrkot.oojdbc.statements;
+
+import com.github.piotrkot.oojdbc.Connect;
+import com.github.piotrkot.oojdbc.Sql;
+import com.github.piotrkot.oojdbc.Stmnt;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.util.LinkedList;
+import java.util.List;
+
+/**
+ * JDBC batch of inserts or updates.
+ *
+ * <p>Every row of arguments is bound to the same statement and added to
+ * the batch, which is sent to the database every {@code size} rows:
+ *
+ * <pre> int[] counts = new JdbcSessionTx&lt;&gt;(
+ *   new Batch(
+ *     new Sql("INSERT INTO users (name, age) VALUES (?, ?)"),
+ *     new IterableOf&lt;&gt;(new Args("Mark", 32), new Args("Jeff", 41))
+ *   )
+ * ).using(source);</pre>
+ *
+ * <p>Rows may come from a {@link java.util.stream.Stream} as well, by
+ * passing {@code stream::iterator}. The result holds update counts of all
+ * rows, in the order the rows were given.
+ *
+ * @since 1.5
+ */
+public final class Batch implements Stmnt<int[]> {
+    /**
+     * Default number of rows sent to the database at once.
+     */
+    private static final int SIZE = 1000;
+
+    /**
+     * SQL command.
+     */
+    private final Sql sql;
+
+    /**
+     * Parameters to SQL command, row by row.
+     */
+    private final Iterable<Args> rows;
+
+    /**
+     * Number of rows sent to the database at once.
+     */
+    private final int size;
+
+    /**
+     * Ctor.
+     * @param sql SQL command
+     * @param rows Parameters to SQL command, row by row
+     */
+    public Batch(final Sql sql, final Iterable<Args> rows) {
+        this(sql, rows, Batch.SIZE);
+    }
+
+    /**
+     * Ctor.
+     * @param sql SQL command
+     * @param rows Parameters to SQL command, row by row
+     * @param size Number of rows sent to the database at once, positive
+     */
+    @SuppressWarnings("PMD.ConstructorOnlyInitializesOrCallOtherConstructors")
+    public Batch(final Sql sql, final Iterable<Args> rows, final int size) {
+        if (size <= 0) {
+            throw new IllegalArgumentException(
+                String.format("Batch size must be positive, not %d", size)
+            );
+        }
+        this.sql = sql;
+        this.rows = rows;
+        this.size = size;
+    }
+
+    @Override
+    public int[] using(final Connection conn) throws Exception {
+        final List<int[]> chunks = new LinkedList<>();
+        try (PreparedStatement stmt =
+            new Connect.Plain(this.sql.asString()).open(conn)) {
+            int pending = 0;
+            for (final Args row : this.rows) {
+                row.prepare(stmt);
+                stmt.addBatch();
+                ++pending;
+                if (pending == this.size) {
+                    chunks.add(stmt.executeBatch());
+                    pending = 0;
+                }
+            }
+            if (pending > 0) {
+                chunks.add(stmt.executeBatch());
+            }
+        }
+        return Batch.joined(chunks);
+    }
+
+    /**
+     * Join update counts of all chunks.
+     * @param chunks Update counts, chunk by chunk
+     * @return Update counts of all rows
+     */
+    private static int[] joined(final List<int[]> chunks) {
+        int total = 0;
+        for (final int[] chunk : chunks) {
+            total += chunk.length;
+        }
+        final int[] counts = new int[total];
+        int pos = 0;
+        for (final int[] chunk : chunks) {
+            System.arraycopy(chunk, 0, counts, pos, chunk.length);
+            pos += chunk.length;
+        }
+        return counts;
+    }
+}
@@ -0,0 +1,280 @@
+/*
+ * Copyright (c) 2012-2018, jcabi.com
+ * Copyright (c) 2021, github.com/piotrkot
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions
+ * are met: 1) Redistributions of source code must retain the above
+ * copyright notice, this list of conditions and the following
+ * disclaimer. 2) Redistributions in binary form must reproduce the above
+ * copyright notice, this list of conditions and the following
+ * disclaimer in the documentation and/or other materials provided
+ * with the distribution. 3) Neither the name of the jcabi.com nor
+ * the names of its contributors may be used to endorse or promote
+ * products derived from this software without specific prior written
+ * permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT
+ * NOT LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND
+ * FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL
+ * THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT,
+ * INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION)
+ * HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT,
+ * STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED
+ * OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.github.piotrkot.oojdbc.statements;
+
+import com.github.piotrkot.oojdbc.JavaTime;
+import com.github.piotrkot.oojdbc.Utc;
+import java.math.BigDecimal;
+import java.sql.Date;
+import java.sql.JDBCType;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Time;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayDeque;
+import java.util.Calendar;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Queue;
+import java.util.TimeZone;
+import java.util.function.Function;
+
+/**
+ * Binders of arguments, by class.
+ *
+ * <p>A class is resolved once, to the binder of itself or of its closest
+ * superclass or interface, falling back to
+ * {@link PreparedStatement#setObject(int, Object)}.
+ *
+ * <p>Support of java.time by the driver is detected once, by
+ * {@link JavaTime}. An {@link Instant} is bound as a TIMESTAMP without
+ * time zone, in UTC. For columns with a time zone, bind an
+ * {@link OffsetDateTime}, as a TIMESTAMP in UTC is read by some databases
+ * in the time zone of the session.
+ *
+ * @since 1.5
+ */
+final class Binders {
+
+    /**
+     * UTC calendar, per thread, as calendars are mutable.
+     */
+    private static final ThreadLocal<Calendar> UTC = ThreadLocal.withInitial(
+        () -> Calendar.getInstance(TimeZone.getTimeZone("UTC"))
+    );
+
+    /**
+     * Binder used when nothing else matches.
+     */
+    private static final Binders.Binder ANY = PreparedStatement::setObject;
+
+    /**
+     * Support of java.time, shared by all binders.
+     */
+    private static final JavaTime TIME = new JavaTime();
+
+    /**
+     * Registered binders, by class.
+     */
+    private final Map<Class<?>, Binders.Binder> registered;
+
+    /**
+     * Resolved binders, by class.
+     */
+    private final ClassValue<Binders.Binder> resolved;
+
+    /**
+     * Ctor.
+     */
+    Binders() {
+        this(Binders.defaults());
+    }
+
+    /**
+     * Ctor.
+     * @param registered Registered binders, by class
+     */
+    private Binders(final Map<Class<?>, Binders.Binder> registered) {
+        this.registered = Collections.unmodifiableMap(registered);
+        this.resolved = new ClassValue<Binders.Binder>() {
+            @Override
+            protected Binders.Binder computeValue(final Class<?> type) {
+                return Binders.this.lookup(type);
+            }
+        };
+    }
+
+    /**
+     * Binder for the class.
+     * @param type Class of arguments
+     * @return Binder
+     */
+    public Binders.Binder binder(final Class<?> type) {
+        return this.resolved.get(type);
+    }
+
+    /**
+     * Find binder of the class, its superclasses or interfaces.
+     * @param type Class of arguments
+     * @return Binder
+     */
+    private Binders.Binder lookup(final Class<?> type) {
+        final Queue<Class<?>> types = new ArrayDeque<>(0);
+        types.add(type);
+        Binders.Binder binder = null;
+        while (binder == null && !types.isEmpty()) {
+            final Class<?> next = types.remove();
+            binder = this.registered.get(next);
+            if (next.getSuperclass() != null) {
+                types.add(next.getSuperclass());
+            }
+            Collections.addAll(types, next.getInterfaces());
+        }
+        if (binder == null) {
+            binder = Binders.ANY;
+        }
+        return binder;
+    }
+
+    /**
+     * Default binders.
+     * @return Binders, by class
+     * @checkstyle ExecutableStatementCount (50 lines)
+     */
+    private static Map<Class<?>, Binders.Binder> defaults() {
+        final Map<Class<?>, Binders.Binder> binders = new HashMap<>();
+        binders.put(Long.class, (stmt, pos, arg) -> stmt.setLong(pos, (Long) arg));
+        binders.put(
+            Integer.class, (stmt, pos, arg) -> stmt.setInt(pos, (Integer) arg)
+        );
+        binders.put(
+            Short.class, (stmt, pos, arg) -> stmt.setShort(pos, (Short) arg)
+        );
+        binders.put(Byte.class, (stmt, pos, arg) -> stmt.setByte(pos, (Byte) arg));
+        binders.put(
+            Double.class, (stmt, pos, arg) -> stmt.setDouble(pos, (Double) arg)
+        );
+        binders.put(
+            Float.class, (stmt, pos, arg) -> stmt.setFloat(pos, (Float) arg)
+        );
+        binders.put(
+            Boolean.class,
+            (stmt, pos, arg) -> stmt.setBoolean(pos, (Boolean) arg)
+        );
+        binders.put(
+            String.class, (stmt, pos, arg) -> stmt.setString(pos, (String) arg)
+        );
+        binders.put(
+            BigDecimal.class,
+            (stmt, pos, arg) -> stmt.setBigDecimal(pos, (BigDecimal) arg)
+        );
+        binders.put(
+            byte[].class, (stmt, pos, arg) -> stmt.setBytes(pos, (byte[]) arg)
+        );
+        binders.put(Date.class, (stmt, pos, arg) -> stmt.setDate(pos, (Date) arg));
+        binders.put(Time.class, (stmt, pos, arg) -> stmt.setTime(pos, (Time) arg));
+        binders.put(
+            Timestamp.class,
+            (stmt, pos, arg) -> stmt.setTimestamp(pos, (Timestamp) arg)
+        );
+        binders.put(
+            Utc.class, (stmt, pos, arg) -> ((Utc) arg).setTimestamp(stmt, pos)
+        );
+        binders.put(
+            LocalDate.class,
+            (stmt, pos, arg) -> stmt.setDate(pos, Date.valueOf((LocalDate) arg))
+        );
+        binders.put(
+            LocalTime.class,
+            (stmt, pos, arg) -> stmt.setTime(pos, Time.valueOf((LocalTime) arg))
+        );
+        binders.put(
+            LocalDateTime.class,
+            Binders.temporal(
+                arg -> arg, JDBCType.TIMESTAMP,
+                (stmt, pos, arg) -> stmt.setTimestamp(
+                    pos, Timestamp.valueOf((LocalDateTime) arg)
+                )
+            )
+        );
+        binders.put(
+            Instant.class,
+            Binders.temporal(
+                arg -> LocalDateTime.ofInstant((Instant) arg, ZoneOffset.UTC),
+                JDBCType.TIMESTAMP,
+                (stmt, pos, arg) -> stmt.setTimestamp(
+                    pos, Timestamp.from((Instant) arg), Binders.UTC.get()
+                )
+            )
+        );
+        binders.put(
+            OffsetDateTime.class,
+            Binders.temporal(
+                arg -> arg, JDBCType.TIMESTAMP_WITH_TIMEZONE,
+                (stmt, pos, arg) -> stmt.setTimestamp(
+                    pos, Timestamp.from(((OffsetDateTime) arg).toInstant()),
+                    Binders.UTC.get()
+                )
+            )
+        );
+        return binders;
+    }
+
+    /**
+     * Binder of java.time values, set as objects of the SQL type.
+     * @param convert Conversion to a value supported by JDBC
+     * @param type SQL type
+     * @param fallback Binder for drivers without java.time support
+     * @return Binder
+     */
+    private static Binders.Binder temporal(
+        final Function<Object, Object> convert, final JDBCType type,
+        final Binders.Binder fallback) {
+        final JavaTime.Call<PreparedStatement, Void> modern =
+            (stmt, pos, arg) -> {
+                stmt.setObject(pos, convert.apply(arg), type);
+                return null;
+            };
+        final JavaTime.Call<PreparedStatement, Void> legacy =
+            (stmt, pos, arg) -> {
+                fallback.bind(stmt, pos, arg);
+                return null;
+            };
+        return (stmt, pos, arg) -> Binders.TIME.bind(
+            stmt, pos, arg, modern, legacy
+        );
+    }
+
+    /**
+     * Binder of an argument.
+     *
+     * @since 1.5
+     */
+    @FunctionalInterface
+    interface Binder {
+        /**
+         * Bind argument.
+         * @param stmt Statement
+         * @param pos Parameter position, starting from 1
+         * @param arg Argument, not NULL
+         * @throws SQLException If fails
+         */
+        void bind(PreparedStatement stmt, int pos, Object arg)
+            throws SQLException;
+    }
+}
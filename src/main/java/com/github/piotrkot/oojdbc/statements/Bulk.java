@@ -0,0 +1,501 @@
+/*
+ * Copyright (c) 2012-2018, jcabi.com
+ * Copyright (c) 2021, github.com/piotrkot
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions
+ * are met: 1) Redistributions of source code must retain the above
+ * copyright notice, this list of conditions and the following
+ * disclaimer. 2) Redistributions in binary form must reproduce the above
+ * copyright notice, this list of conditions and the following
+ * disclaimer in the documentation and/or other materials provided
+ * with the distribution. 3) Neither the name of the jcabi.com nor
+ * the names of its contributors may be used to endorse or promote
+ * products derived from this software without specific prior written
+ * permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT
+ * NOT LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND
+ * FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL
+ * THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT,
+ * INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION)
+ * HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT,
+ * STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED
+ * OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.github.piotrkot.oojdbc.statements;
+
+import com.github.piotrkot.oojdbc.Connect;
+import com.github.piotrkot.oojdbc.Dialect;
+import com.github.piotrkot.oojdbc.Outcome;
+import com.github.piotrkot.oojdbc.Sql;
+import com.github.piotrkot.oojdbc.Stmnt;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import lombok.AccessLevel;
+import lombok.RequiredArgsConstructor;
+import org.cactoos.Func;
+
+/**
+ * Bulk insert, with many rows in a single {@code INSERT ... VALUES}.
+ *
+ * <p>Single-row SQL is rewritten to {@code VALUES (?, ?), (?, ?), ...}
+ * with as many rows as the dialect allows in a single statement, by the
+ * number of parameters and the estimated size in bytes, yet no more than
+ * {@code size} rows. Each chunk is sent in one round trip, unlike in
+ * {@link Batch}, where drivers may send each row on its own:
+ *
+ * <pre> List&lt;Long&gt; ids = new JdbcSessionTx&lt;&gt;(
+ *   new Bulk&lt;&gt;(
+ *     new Sql("INSERT INTO users (name, age) VALUES (?, ?)"),
+ *     new IterableOf&lt;&gt;(new Args("Mark", 32), new Args("Jeff", 41)),
+ *     rset -&gt; rset.getLong(1)
+ *   )
+ * ).using(source);</pre>
+ *
+ * <p>Chunks not full are split into chunks of powers of two rows, so there
+ * are only a few shapes of the statement, each prepared once per run and
+ * cached with the connection where statements are cached.
+ *
+ * <p>Keys generated for the rows are mapped in the order of the rows, one
+ * per row, as MySQL, PostgreSQL and H2 return them. Without a mapping of
+ * keys, none are requested and the result is empty. The dialect of the
+ * connection is detected once per connection URL, unless given explicitly.
+ * Dialects without {@link Dialect.Feature#MULTI_ROW_VALUES} get a row at
+ * a time.
+ *
+ * @param <T> Type of keys
+ * @since 1.5
+ */
+@RequiredArgsConstructor(access = AccessLevel.PRIVATE)
+public final class Bulk<T> implements Stmnt<List<T>> {
+    /**
+     * Default most rows in a single statement.
+     */
+    private static final int SIZE = 1000;
+
+    /**
+     * Rows of values of single-row SQL.
+     */
+    private static final Pattern VALUES = Pattern.compile(
+        "\\bVALUES\\s*\\(", Pattern.CASE_INSENSITIVE
+    );
+
+    /**
+     * Single-row SQL command.
+     */
+    private final Sql sql;
+
+    /**
+     * Parameters to SQL command, row by row.
+     */
+    private final Iterable<Args> rows;
+
+    /**
+     * Mapping of generated keys.
+     */
+    private final Outcome.Mapping<T> keys;
+
+    /**
+     * Whether generated keys are requested.
+     */
+    private final boolean keyed;
+
+    /**
+     * Most rows in a single statement.
+     */
+    private final int size;
+
+    /**
+     * Dialect of a connection.
+     */
+    private final Func<Connection, Dialect> dialect;
+
+    /**
+     * Ctor, without generated keys.
+     * @param sql Single-row SQL command
+     * @param rows Parameters to SQL command, row by row
+     */
+    public Bulk(final Sql sql, final Iterable<Args> rows) {
+        this(sql, rows, rset -> null, false, Bulk.SIZE, new Dialect.Detect());
+    }
+
+    /**
+     * Ctor.
+     * @param sql Single-row SQL command
+     * @param rows Parameters to SQL command, row by row
+     * @param keys Mapping of generated keys
+     */
+    public Bulk(final Sql sql, final Iterable<Args> rows,
+        final Outcome.Mapping<T> keys) {
+        this(sql, rows, keys, Bulk.SIZE);
+    }
+
+    /**
+     * Ctor.
+     * @param sql Single-row SQL command
+     * @param rows Parameters to SQL command, row by row
+     * @param keys Mapping of generated keys
+     * @param size Most rows in a single statement
+     * @checkstyle ParameterNumberCheck (3 lines)
+     */
+    public Bulk(final Sql sql, final Iterable<Args> rows,
+        final Outcome.Mapping<T> keys, final int size) {
+        this(sql, rows, keys, true, size, new Dialect.Detect());
+    }
+
+    /**
+     * Ctor.
+     * @param sql Single-row SQL command
+     * @param rows Parameters to SQL command, row by row
+     * @param keys Mapping of generated keys
+     * @param size Most rows in a single statement
+     * @param dialect Dialect of the database
+     * @checkstyle ParameterNumberCheck (3 lines)
+     */
+    public Bulk(final Sql sql, final Iterable<Args> rows,
+        final Outcome.Mapping<T> keys, final int size, final Dialect dialect) {
+        this(
+            sql, rows, keys, true, size,
+            (Func<Connection, Dialect>) conn -> dialect
+        );
+    }
+
+    @Override
+    public List<T> using(final Connection conn) throws Exception {
+        final Dialect dlct = this.dialect.apply(conn);
+        final Bulk.Shapes shapes = new Bulk.Shapes(
+            conn, this.sql.asString(), this.keyed
+        );
+        final int most = this.most(dlct, shapes.width());
+        final List<T> generated = new ArrayList<>(0);
+        try {
+            final List<Args> pending = new ArrayList<>(most);
+            long bytes = 0L;
+            for (final Args row : this.rows) {
+                final long weight = shapes.weight(row);
+                if (!pending.isEmpty() && (pending.size() == most
+                    || bytes + weight > dlct.limits().bytes())) {
+                    this.flush(shapes, pending, most, generated);
+                    bytes = 0L;
+                }
+                pending.add(row);
+                bytes += weight;
+            }
+            this.flush(shapes, pending, most, generated);
+        } finally {
+            shapes.close();
+        }
+        return generated;
+    }
+
+    /**
+     * Most rows in a single statement.
+     * @param dlct Dialect of the connection
+     * @param width Parameters in a row
+     * @return Number of rows
+     */
+    private int most(final Dialect dlct, final int width) {
+        int most = 1;
+        if (dlct.supports(Dialect.Feature.MULTI_ROW_VALUES)) {
+            most = Math.max(
+                1,
+                Math.min(
+                    this.size,
+                    dlct.limits().parameters() / Math.max(width, 1)
+                )
+            );
+        }
+        return most;
+    }
+
+    /**
+     * Insert pending rows, all at once if there are most rows in a single
+     * statement, or in chunks of powers of two rows otherwise.
+     * @param shapes Statements by number of rows
+     * @param pending Pending rows, cleared
+     * @param most Most rows in a single statement
+     * @param generated Generated keys
+     * @throws Exception If fails
+     * @checkstyle ParameterNumberCheck (3 lines)
+     */
+    private void flush(final Bulk.Shapes shapes, final List<Args> pending,
+        final int most, final List<T> generated) throws Exception {
+        int pos = 0;
+        while (pos < pending.size()) {
+            final int left = pending.size() - pos;
+            final int count;
+            if (left >= most) {
+                count = most;
+            } else {
+                count = Integer.highestOneBit(left);
+            }
+            this.insert(
+                shapes.statement(count), pending.subList(pos, pos + count),
+                shapes.width(), generated
+            );
+            pos += count;
+        }
+        pending.clear();
+    }
+
+    /**
+     * Insert a chunk of rows.
+     * @param stmt Statement of the chunk
+     * @param chunk Rows
+     * @param width Parameters in a row
+     * @param generated Generated keys
+     * @throws Exception If fails
+     * @checkstyle ParameterNumberCheck (3 lines)
+     */
+    private void insert(final PreparedStatement stmt, final List<Args> chunk,
+        final int width, final List<T> generated) throws Exception {
+        int pos = 1;
+        for (final Args row : chunk) {
+            final int next = row.prepare(stmt, pos);
+            if (next - pos != width) {
+                throw new IllegalArgumentException(
+                    String.format(
+                        "Row of %d arguments for %d parameters",
+                        next - pos, width
+                    )
+                );
+            }
+            pos = next;
+        }
+        stmt.executeUpdate();
+        if (this.keyed) {
+            final int before = generated.size();
+            try (ResultSet rset = stmt.getGeneratedKeys()) {
+                while (rset.next()) {
+                    generated.add(this.keys.map(rset));
+                }
+            }
+            if (generated.size() - before != chunk.size()) {
+                throw new SQLException(
+                    String.format(
+                        "%d keys generated for %d rows, can't map them back",
+                        generated.size() - before, chunk.size()
+                    )
+                );
+            }
+        }
+    }
+
+    /**
+     * Statements of the SQL with different numbers of rows, prepared once.
+     *
+     * @since 1.5
+     */
+    private static final class Shapes {
+        /**
+         * Connection.
+         */
+        private final Connection conn;
+
+        /**
+         * SQL before the row.
+         */
+        private final String head;
+
+        /**
+         * The row.
+         */
+        private final String row;
+
+        /**
+         * SQL after the row.
+         */
+        private final String tail;
+
+        /**
+         * Whether generated keys are requested.
+         */
+        private final boolean keyed;
+
+        /**
+         * Prepared statements by number of rows.
+         */
+        private final Map<Integer, PreparedStatement> prepared;
+
+        /**
+         * Ctor.
+         * @param conn Connection
+         * @param sql Single-row SQL
+         * @param keyed Whether generated keys are requested
+         */
+        Shapes(final Connection conn, final String sql, final boolean keyed) {
+            this(conn, sql, Bulk.Shapes.bounds(sql), keyed);
+        }
+
+        /**
+         * Ctor.
+         * @param conn Connection
+         * @param sql Single-row SQL
+         * @param bounds Start and end of the row
+         * @param keyed Whether generated keys are requested
+         * @checkstyle ParameterNumberCheck (3 lines)
+         */
+        private Shapes(final Connection conn, final String sql,
+            final int[] bounds, final boolean keyed) {
+            this.conn = conn;
+            this.head = sql.substring(0, bounds[0]);
+            this.row = sql.substring(bounds[0], bounds[1]);
+            this.tail = sql.substring(bounds[1]);
+            this.keyed = keyed;
+            this.prepared = new HashMap<>(0);
+        }
+
+        /**
+         * Number of parameters in a row.
+         * @return Number of parameters
+         */
+        int width() {
+            return Bulk.Shapes.parameters(this.row);
+        }
+
+        /**
+         * Estimated size of a row with its arguments.
+         * @param args Arguments of the row
+         * @return Number of bytes
+         */
+        long weight(final Args args) {
+            return this.row.length() + args.weight();
+        }
+
+        /**
+         * Statement with the number of rows.
+         * @param count Number of rows
+         * @return Statement, prepared on the first call
+         * @throws SQLException If fails
+         */
+        PreparedStatement statement(final int count) throws SQLException {
+            PreparedStatement stmt = this.prepared.get(count);
+            if (stmt == null) {
+                final String text = String.format(
+                    "%s%s%s",
+                    this.head,
+                    String.join(", ", Collections.nCopies(count, this.row)),
+                    this.tail
+                );
+                if (this.keyed) {
+                    stmt = new Connect.WithKeys(text).open(this.conn);
+                } else {
+                    stmt = new Connect.Plain(text).open(this.conn);
+                }
+                this.prepared.put(count, stmt);
+            }
+            return stmt;
+        }
+
+        /**
+         * Close all statements.
+         * @throws SQLException If fails
+         */
+        void close() throws SQLException {
+            SQLException error = null;
+            for (final PreparedStatement stmt : this.prepared.values()) {
+                try {
+                    stmt.close();
+                } catch (final SQLException ex) {
+                    error = ex;
+                }
+            }
+            if (error != null) {
+                throw error;
+            }
+        }
+
+        /**
+         * Start and end of the row of values in single-row SQL.
+         * @param sql Single-row SQL
+         * @return Start and end
+         */
+        private static int[] bounds(final String sql) {
+            final Matcher matcher = Bulk.VALUES.matcher(sql);
+            if (!matcher.find()) {
+                throw new IllegalArgumentException(
+                    String.format("No VALUES (...) in SQL: %s", sql)
+                );
+            }
+            final int start = matcher.end() - 1;
+            final int end = Bulk.Shapes.closed(sql, start);
+            if (Bulk.Shapes.parameters(sql.substring(end)) > 0) {
+                throw new IllegalArgumentException(
+                    String.format("Parameters after VALUES in SQL: %s", sql)
+                );
+            }
+            return new int[]{start, end};
+        }
+
+        /**
+         * Position after the parenthesis closing the one at the position,
+         * skipping quoted text.
+         * @param sql SQL
+         * @param open Position of the opening parenthesis
+         * @return Position after the closing parenthesis
+         */
+        private static int closed(final String sql, final int open) {
+            int depth = 0;
+            char quote = 0;
+            int pos = open;
+            do {
+                final char chr = sql.charAt(pos);
+                if (quote == 0) {
+                    if (chr == '\'' || chr == '"') {
+                        quote = chr;
+                    } else if (chr == '(') {
+                        ++depth;
+                    } else if (chr == ')') {
+                        --depth;
+                    }
+                } else if (chr == quote) {
+                    quote = 0;
+                }
+                ++pos;
+            } while (depth > 0 && pos < sql.length());
+            if (depth > 0) {
+                throw new IllegalArgumentException(
+                    String.format("Unbalanced VALUES (...) in SQL: %s", sql)
+                );
+            }
+            return pos;
+        }
+
+        /**
+         * Number of parameters, outside of quoted text.
+         * @param sql SQL
+         * @return Number of parameters
+         */
+        private static int parameters(final String sql) {
+            int count = 0;
+            char quote = 0;
+            for (final char chr : sql.toCharArray()) {
+                if (quote == 0) {
+                    if (chr == '\'' || chr == '"') {
+                        quote = chr;
+                    } else if (chr == '?') {
+                        ++count;
+                    }
+                } else if (chr == quote) {
+                    quote = 0;
+                }
+            }
+            return count;
+        }
+    }
+}
@@ -0,0 +1,131 @@
+/*
+ * Copyright (c) 2012-2018, jcabi.com
+ * Copyright (c) 2021, github.com/piotrkot
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions
+ * are met: 1) Redistributions of source code must retain the above
+ * copyright notice, this list of conditions and the following
+ * disclaimer. 2) Redistributions in binary form must reproduce the above
+ * copyright notice, this list of conditions and the following
+ * disclaimer in the documentation and/or other materials provided
+ * with the distribution. 3) Neither the name of the jcabi.com nor
+ * the names of its contributors may be used to endorse or promote
+ * products derived from this software without specific prior written
+ * permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT
+ * NOT LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND
+ * FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL
+ * THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT,
+ * INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION)
+ * HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT,
+ * STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED
+ * OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.github.piotrkot.oojdbc.statements;
+
+import com.github.piotrkot.oojdbc.QueryCache;
+import com.github.piotrkot.oojdbc.Stmnt;
+import java.sql.Connection;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.concurrent.TimeUnit;
+import lombok.AccessLevel;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * JDBC select with its result cached.
+ *
+ * <p>Results are cached in the {@link QueryCache} by the compiled SQL
+ * and the values of the arguments. Tables the query reads are declared,
+ * so writes to them invalidate the result:
+ *
+ * <pre> new Cached&lt;&gt;(
+ *   cache,
+ *   new Select&lt;&gt;(
+ *     new Sql("SELECT code FROM currency WHERE country = ?"),
+ *     new Args("PL"),
+ *     new SingleOutcome&lt;&gt;(String.class)
+ *   ),
+ *   1L, TimeUnit.HOURS,
+ *   "currency"
+ * )</pre>
+ *
+ * <p>Writes invalidate results only when made through a data source
+ * {@link QueryCache#watching(javax.sql.DataSource) watching} for them,
+ * which also makes a unit read the tables it wrote past the cache, till
+ * committed. Results due to refresh are refreshed by the caller, on its
+ * connection.
+ *
+ * <p>The outcome has to read all the rows, results handing out the
+ * result set, e.g. streams, can't be cached. Results are shared by all
+ * callers: collections and maps come back unmodifiable, arrays and other
+ * objects must not be changed.
+ *
+ * @param <T> Type of expected result
+ * @since 1.5
+ */
+@RequiredArgsConstructor(access = AccessLevel.PRIVATE)
+public final class Cached<T> implements Stmnt<T> {
+    /**
+     * Cache.
+     */
+    private final QueryCache cache;
+
+    /**
+     * Query.
+     */
+    private final Select<T> select;
+
+    /**
+     * Time to live, in nanoseconds.
+     */
+    private final long life;
+
+    /**
+     * Tables read.
+     */
+    private final Collection<String> tables;
+
+    /**
+     * Ctor.
+     *
+     * <p>The result lives as long as the cache tells.
+     *
+     * @param cache Cache
+     * @param select Query
+     * @param tables Tables read
+     */
+    public Cached(final QueryCache cache, final Select<T> select,
+        final String... tables) {
+        this(cache, select, QueryCache.DEFAULT_TTL, Arrays.asList(tables));
+    }
+
+    /**
+     * Ctor.
+     * @param cache Cache
+     * @param select Query
+     * @param ttl Time to live
+     * @param unit Unit of the time
+     * @param tables Tables read
+     * @checkstyle ParameterNumberCheck (3 lines)
+     */
+    public Cached(final QueryCache cache, final Select<T> select,
+        final long ttl, final TimeUnit unit, final String... tables) {
+        this(cache, select, unit.toNanos(ttl), Arrays.asList(tables));
+    }
+
+    @Override
+    public T using(final Connection conn) throws Exception {
+        return this.cache.get(
+            conn, this.select.key(), this.life, this.tables,
+            () -> this.select.using(conn)
+        );
+    }
+}
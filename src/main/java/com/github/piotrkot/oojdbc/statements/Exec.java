@@ -31,19 +31,28 @@
 package com.github.piotrkot.oojdbc.statements;
 
 import com.github.piotrkot.oojdbc.Connect;
+import com.github.piotrkot.oojdbc.Dialect;
 import com.github.piotrkot.oojdbc.Outcome;
 import com.github.piotrkot.oojdbc.Request;
 import com.github.piotrkot.oojdbc.Sql;
 import com.github.piotrkot.oojdbc.Stmnt;
 import java.sql.Connection;
-import java.sql.PreparedStatement;
+import java.util.Arrays;
+import java.util.List;
+import lombok.AccessLevel;
 import lombok.RequiredArgsConstructor;
+import org.cactoos.Func;
 
 /**
  * JDBC execute.
+ *
+ * <p>The dialect of the connection decides whether generated keys are
+ * requested. It is detected once per connection URL, unless given
+ * explicitly.
+ *
  * @since 1.0
  */
-@RequiredArgsConstructor
+@RequiredArgsConstructor(access = AccessLevel.PRIVATE)
 public final class Exec implements Stmnt<Void> {
     /**
      * SQL command.
@@ -55,6 +64,11 @@ public final class Exec implements Stmnt<Void> {
      */
     private final Args args;
 
+    /**
+     * Dialect of a connection.
+     */
+    private final Func<Connection, Dialect> dialect;
+
     /**
      * Ctor.
      * @param sql SQL command
@@ -63,20 +77,47 @@ public final class Exec implements Stmnt<Void> {
         this(sql, new Args());
     }
 
+    /**
+     * Ctor.
+     * @param sql SQL command
+     * @param args Parameters to SQL command
+     */
+    public Exec(final Sql sql, final Args args) {
+        this(sql, args, new Dialect.Detect());
+    }
+
+    /**
+     * Ctor.
+     * @param sql SQL command
+     * @param args Parameters to SQL command
+     * @param dialect Dialect of the database
+     */
+    public Exec(final Sql sql, final Args args, final Dialect dialect) {
+        this(sql, args, (Func<Connection, Dialect>) conn -> dialect);
+    }
+
     @Override
     public Void using(final Connection conn) throws Exception {
-        final String vendor = conn.getMetaData().getDatabaseProductName();
         final Connect connect;
-        if (vendor.equalsIgnoreCase("mysql")) {
+        if (this.dialect.apply(conn).supports(Dialect.Feature.REQUESTED_KEYS)) {
             connect = new Connect.WithKeys(this.sql.asString());
         } else {
             connect = new Connect.Plain(this.sql.asString());
         }
-        final PreparedStatement stmt = connect.open(conn);
-        this.args.prepare(stmt);
-        return Outcome.VOID.handle(
-            Request.EXECUTE.fetch(stmt),
-            stmt
-        );
+        return new Execution<>(
+            connect,
+            this.args,
+            Request.EXECUTE,
+            Outcome.VOID
+        ).using(conn);
+    }
+
+    /**
+     * Key of the statement, its compiled SQL and the values of its
+     * arguments.
+     * @return Key
+     */
+    List<Object> key() {
+        return Arrays.asList(this.sql.compiled().asString(), this.args.values());
     }
 }
@@ -0,0 +1,184 @@
+/*
+ * Copyright (c) 2012-2018, jcabi.com
+ * Copyright (c) 2021, github.com/piotrkot
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions
+ * are met: 1) Redistributions of source code must retain the above
+ * copyright notice, this list of conditions and the following
+ * disclaimer. 2) Redistributions in binary form must reproduce the above
+ * copyright notice, this list of conditions and the following
+ * disclaimer in the documentation and/or other materials provided
+ * with the distribution. 3) Neither the name of the jcabi.com nor
+ * the names of its contributors may be used to endorse or promote
+ * products derived from this software without specific prior written
+ * permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT
+ * NOT LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND
+ * FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL
+ * THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT,
+ * INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION)
+ * HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT,
+ * STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED
+ * OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.github.piotrkot.oojdbc.statements;
+
+import com.github.piotrkot.oojdbc.Connect;
+import com.github.piotrkot.oojdbc.Dialect;
+import com.github.piotrkot.oojdbc.Preparation;
+import com.github.piotrkot.oojdbc.Stmnt;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import lombok.AccessLevel;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Execution hints of a query.
+ *
+ * <p>Tell the driver how many rows to fetch at once, how many rows to
+ * return at most and which type of result set to open. In streaming
+ * mode, rows are fetched incrementally, whatever the dialect of the
+ * database needs for it: a fetch size of {@link Integer#MIN_VALUE} on
+ * MySQL, a transaction on PostgreSQL. When the connection is in
+ * auto-commit mode, it is turned off for the query and turned back on
+ * after, unless the outcome owns the result set, e.g. streams it. Then
+ * it stays off till the connection is closed.
+ *
+ * <p>Fetch size and max rows are always set, to zero when not given, so
+ * a statement reused from a cache never keeps hints of its previous
+ * query.
+ *
+ * @since 1.5
+ */
+@RequiredArgsConstructor(access = AccessLevel.PRIVATE)
+public final class Hints implements Preparation {
+    /**
+     * Fetch size when streaming, if not given.
+     */
+    private static final int STREAMED = 1000;
+
+    /**
+     * Fetch size, zero for driver default.
+     */
+    private final int fetch;
+
+    /**
+     * Max number of rows, zero for no limit.
+     */
+    private final int max;
+
+    /**
+     * Result set type.
+     */
+    private final int type;
+
+    /**
+     * Result set concurrency.
+     */
+    private final int concurrency;
+
+    /**
+     * Stream rows incrementally.
+     */
+    private final boolean streaming;
+
+    /**
+     * Ctor, with driver defaults.
+     */
+    public Hints() {
+        this(0, 0);
+    }
+
+    /**
+     * Ctor.
+     * @param fetch Fetch size, zero for driver default
+     * @param streaming Stream rows incrementally
+     */
+    public Hints(final int fetch, final boolean streaming) {
+        this(
+            fetch, 0, ResultSet.TYPE_FORWARD_ONLY,
+            ResultSet.CONCUR_READ_ONLY, streaming
+        );
+    }
+
+    /**
+     * Ctor.
+     * @param fetch Fetch size, zero for driver default
+     * @param max Max number of rows, zero for no limit
+     */
+    public Hints(final int fetch, final int max) {
+        this(fetch, max, ResultSet.TYPE_FORWARD_ONLY);
+    }
+
+    /**
+     * Ctor.
+     * @param fetch Fetch size, zero for driver default
+     * @param max Max number of rows, zero for no limit
+     * @param type Result set type, e.g. {@link ResultSet#TYPE_FORWARD_ONLY}
+     */
+    public Hints(final int fetch, final int max, final int type) {
+        this(fetch, max, type, ResultSet.CONCUR_READ_ONLY, false);
+    }
+
+    /**
+     * Opening of the statement.
+     * @param sql SQL query
+     * @return Connect
+     */
+    public Connect connect(final String sql) {
+        return new Connect.Cursor(sql, this.type, this.concurrency);
+    }
+
+    @Override
+    public void prepare(final PreparedStatement stmt) throws SQLException {
+        int size = this.fetch;
+        if (this.streaming) {
+            if (new Dialect.Detect().apply(stmt.getConnection())
+                .supports(Dialect.Feature.STREAMING_BY_MIN_FETCH)) {
+                size = Integer.MIN_VALUE;
+            } else if (size == 0) {
+                size = Hints.STREAMED;
+            }
+        }
+        stmt.setFetchSize(size);
+        stmt.setMaxRows(this.max);
+    }
+
+    /**
+     * Run the query, in a transaction if streaming needs it.
+     * @param conn Connection
+     * @param stmnt Query
+     * @param owning Outcome owns the result set
+     * @param <T> Type of expected result
+     * @return Outcome of ResultSet
+     * @throws Exception If fails
+     */
+    public <T> T run(final Connection conn, final Stmnt<T> stmnt,
+        final boolean owning) throws Exception {
+        final boolean restore = this.streaming && conn.getAutoCommit()
+            && new Dialect.Detect().apply(conn)
+                .supports(Dialect.Feature.CURSOR_IN_TRANSACTION);
+        if (restore) {
+            conn.setAutoCommit(false);
+        }
+        boolean done = false;
+        try {
+            final T result = stmnt.using(conn);
+            done = true;
+            return result;
+        } finally {
+            if (restore && (!owning || !done)) {
+                conn.setAutoCommit(true);
+            }
+        }
+    }
+}
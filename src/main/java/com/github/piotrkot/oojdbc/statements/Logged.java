@@ -0,0 +1,167 @@
+/*
+ * Copyright (c) 2012-2018, jcabi.com
+ * Copyright (c) 2021, github.com/piotrkot
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions
+ * are met: 1) Redistributions of source code must retain the above
+ * copyright notice, this list of conditions and the following
+ * disclaimer. 2) Redistributions in binary form must reproduce the above
+ * copyright notice, this list of conditions and the following
+ * disclaimer in the documentation and/or other materials provided
+ * with the distribution. 3) Neither the name of the jcabi.com nor
+ * the names of its contributors may be used to endorse or promote
+ * products derived from this software without specific prior written
+ * permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT
+ * NOT LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND
+ * FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL
+ * THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT,
+ * INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION)
+ * HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT,
+ * STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED
+ * OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.github.piotrkot.oojdbc.statements;
+
+import com.github.piotrkot.oojdbc.SlowLog;
+import com.github.piotrkot.oojdbc.Sql;
+import com.github.piotrkot.oojdbc.Stmnt;
+import java.sql.Connection;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Supplier;
+import lombok.AccessLevel;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * JDBC statement logged to the {@link SlowLog} when slow.
+ *
+ * <p>The SQL and the arguments of {@link Select}, {@link Insert},
+ * {@link Update} and {@link Exec} are logged. Other statements are
+ * logged by their class name. The key of the statement is built once,
+ * when it's first found slow.
+ *
+ * @param <T> Type of expected result
+ * @since 1.5
+ */
+@RequiredArgsConstructor(access = AccessLevel.PRIVATE)
+public final class Logged<T> implements Stmnt<T> {
+    /**
+     * Slow query log.
+     */
+    private final SlowLog log;
+
+    /**
+     * JDBC statement.
+     */
+    private final Stmnt<T> stmnt;
+
+    /**
+     * Statement as logged.
+     */
+    private final SlowLog.Query query;
+
+    /**
+     * Ctor.
+     * @param log Slow query log
+     * @param stmnt JDBC statement
+     */
+    public Logged(final SlowLog log, final Stmnt<T> stmnt) {
+        this(log, stmnt, new Logged.Keyed(Logged.key(stmnt)));
+    }
+
+    @Override
+    public T using(final Connection conn) throws Exception {
+        final long start = System.nanoTime();
+        try {
+            return this.stmnt.using(conn);
+        } finally {
+            this.log.took(System.nanoTime() - start, this.query);
+        }
+    }
+
+    /**
+     * Key of the statement, its SQL and the values of its arguments.
+     * @param stmnt JDBC statement
+     * @return Key
+     */
+    private static Supplier<List<Object>> key(final Stmnt<?> stmnt) {
+        final Supplier<List<Object>> key;
+        if (stmnt instanceof Select) {
+            key = ((Select<?>) stmnt)::key;
+        } else if (stmnt instanceof Insert) {
+            key = ((Insert<?>) stmnt)::key;
+        } else if (stmnt instanceof Update) {
+            key = ((Update<?>) stmnt)::key;
+        } else if (stmnt instanceof Exec) {
+            key = ((Exec) stmnt)::key;
+        } else {
+            key = () -> Arrays.asList(
+                stmnt.getClass().getName(), Collections.emptyList()
+            );
+        }
+        return key;
+    }
+
+    /**
+     * Statement logged by its key, built once with the fingerprint of
+     * its SQL.
+     *
+     * @since 1.5
+     */
+    @RequiredArgsConstructor
+    private static final class Keyed implements SlowLog.Query {
+        /**
+         * Key of the statement.
+         */
+        private final Supplier<List<Object>> key;
+
+        /**
+         * SQL, arguments and fingerprint, once built.
+         */
+        private final AtomicReference<List<Object>> built =
+            new AtomicReference<>();
+
+        @Override
+        public String sql() {
+            return (String) this.whole().get(0);
+        }
+
+        @Override
+        public long fingerprint() {
+            return (Long) this.whole().get(2);
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public List<Object> args() {
+            return (List<Object>) this.whole().get(1);
+        }
+
+        /**
+         * SQL, arguments and fingerprint of the statement.
+         * @return Key with the fingerprint
+         */
+        private List<Object> whole() {
+            List<Object> result = this.built.get();
+            if (result == null) {
+                final List<Object> origin = this.key.get();
+                final String sql = String.valueOf(origin.get(0));
+                result = Arrays.asList(
+                    sql, origin.get(1), new Sql(sql).fingerprint()
+                );
+                this.built.lazySet(result);
+            }
+            return result;
+        }
+    }
+}
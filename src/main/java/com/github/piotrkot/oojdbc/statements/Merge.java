@@ -0,0 +1,205 @@
+/*
+ * Copyright (c) 2012-2018, jcabi.com
+ * Copyright (c) 2021, github.com/piotrkot
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions
+ * are met: 1) Redistributions of source code must retain the above
+ * copyright notice, this list of conditions and the following
+ * disclaimer. 2) Redistributions in binary form must reproduce the above
+ * copyright notice, this list of conditions and the following
+ * disclaimer in the documentation and/or other materials provided
+ * with the distribution. 3) Neither the name of the jcabi.com nor
+ * the names of its contributors may be used to endorse or promote
+ * products derived from this software without specific prior written
+ * permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT
+ * NOT LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND
+ * FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL
+ * THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT,
+ * INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION)
+ * HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT,
+ * STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED
+ * OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.github.piotrkot.oojdbc.statements;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.Queue;
+
+/**
+ * Merge of results of partitions.
+ *
+ * @param <T> Type of items
+ * @since 1.5
+ */
+public interface Merge<T> {
+
+    /**
+     * Merge results.
+     * @param parts Results of partitions, in order of partitions
+     * @return Merged result
+     */
+    List<T> merged(List<? extends Collection<T>> parts);
+
+    /**
+     * Concatenation of results, in order of partitions.
+     *
+     * @param <T> Type of items
+     * @since 1.5
+     */
+    final class Concat<T> implements Merge<T> {
+        @Override
+        public List<T> merged(final List<? extends Collection<T>> parts) {
+            int size = 0;
+            for (final Collection<T> part : parts) {
+                size += part.size();
+            }
+            final List<T> result = new ArrayList<>(size);
+            for (final Collection<T> part : parts) {
+                result.addAll(part);
+            }
+            return result;
+        }
+
+        /**
+         * Head of a sorted result.
+         *
+         * @param <T> Type of items
+         * @since 1.5
+         */
+        private static final class Head<T> {
+            /**
+             * Remaining items.
+             */
+            private final Iterator<T> items;
+
+            /**
+             * Current item.
+             */
+            private T item;
+
+            /**
+             * Ctor.
+             * @param items Items, at least one
+             */
+            Head(final Iterator<T> items) {
+                this.items = items;
+                this.item = items.next();
+            }
+
+            /**
+             * Move to the next item.
+             * @return TRUE if there is one
+             */
+            boolean next() {
+                final boolean more = this.items.hasNext();
+                if (more) {
+                    this.item = this.items.next();
+                }
+                return more;
+            }
+        }
+    }
+
+    /**
+     * K-way merge of results, each sorted first.
+     *
+     * <p>Results ordered by the database are already sorted, so sorting
+     * them again takes linear time.
+     *
+     * @param <T> Type of items
+     * @since 1.5
+     */
+    final class Sorted<T> implements Merge<T> {
+        /**
+         * Order of items.
+         */
+        private final Comparator<? super T> order;
+
+        /**
+         * Ctor.
+         * @param order Order of items
+         */
+        public Sorted(final Comparator<? super T> order) {
+            this.order = order;
+        }
+
+        @Override
+        public List<T> merged(final List<? extends Collection<T>> parts) {
+            final Queue<Sorted.Head<T>> heads = new PriorityQueue<>(
+                Math.max(1, parts.size()),
+                (left, right) -> this.order.compare(left.item, right.item)
+            );
+            int size = 0;
+            for (final Collection<T> part : parts) {
+                final List<T> sorted = new ArrayList<>(part);
+                sorted.sort(this.order);
+                size += sorted.size();
+                final Iterator<T> items = sorted.iterator();
+                if (items.hasNext()) {
+                    heads.add(new Sorted.Head<>(items));
+                }
+            }
+            final List<T> result = new ArrayList<>(size);
+            while (!heads.isEmpty()) {
+                final Sorted.Head<T> head = heads.remove();
+                result.add(head.item);
+                if (head.next()) {
+                    heads.add(head);
+                }
+            }
+            return result;
+        }
+
+        /**
+         * Head of a sorted result.
+         *
+         * @param <T> Type of items
+         * @since 1.5
+         */
+        private static final class Head<T> {
+            /**
+             * Remaining items.
+             */
+            private final Iterator<T> items;
+
+            /**
+             * Current item.
+             */
+            private T item;
+
+            /**
+             * Ctor.
+             * @param items Items, at least one
+             */
+            Head(final Iterator<T> items) {
+                this.items = items;
+                this.item = items.next();
+            }
+
+            /**
+             * Move to the next item.
+             * @return TRUE if there is one
+             */
+            boolean next() {
+                final boolean more = this.items.hasNext();
+                if (more) {
+                    this.item = this.items.next();
+                }
+                return more;
+            }
+        }
+    }
+}
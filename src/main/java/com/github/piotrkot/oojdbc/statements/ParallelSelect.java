@@ -0,0 +1,184 @@
+/*
+ * Copyright (c) 2012-2018, jcabi.com
+ * Copyright (c) 2021, github.com/piotrkot
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions
+ * are met: 1) Redistributions of source code must retain the above
+ * copyright notice, this list of conditions and the following
+ * disclaimer. 2) Redistributions in binary form must reproduce the above
+ * copyright notice, this list of conditions and the following
+ * disclaimer in the documentation and/or other materials provided
+ * with the distribution. 3) Neither the name of the jcabi.com nor
+ * the names of its contributors may be used to endorse or promote
+ * products derived from this software without specific prior written
+ * permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT
+ * NOT LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND
+ * FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL
+ * THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT,
+ * INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION)
+ * HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT,
+ * STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED
+ * OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.github.piotrkot.oojdbc.statements;
+
+import com.github.piotrkot.oojdbc.JdbcSession;
+import com.github.piotrkot.oojdbc.Outcome;
+import com.github.piotrkot.oojdbc.Sql;
+import com.github.piotrkot.oojdbc.VirtualThreads;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import javax.sql.DataSource;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * JDBC select split into partitions, run concurrently.
+ *
+ * <p>Every partition is the SQL restricted by a {@link Split} of a key
+ * column, run on its own connection of the data source. Results are
+ * merged by a {@link Merge}, concatenated by default:
+ *
+ * <pre> List&lt;User&gt; users = new ParallelSelect&lt;&gt;(
+ *   new Sql("SELECT id, name FROM user"),
+ *   new Args(),
+ *   new Split.Modulus("id", 8),
+ *   new BeanOutcome&lt;&gt;(User.class)
+ * ).using(source);</pre>
+ *
+ * <p>The outcome is shared by the partitions, so it must be thread-safe.
+ * As soon as one partition fails, the others are cancelled and the
+ * failure is thrown, without waiting for the partitions before it.
+ *
+ * @param <T> Type of items
+ * @since 1.5
+ */
+@RequiredArgsConstructor
+public final class ParallelSelect<T> {
+
+    /**
+     * SQL command.
+     */
+    private final Sql sql;
+
+    /**
+     * Parameters to SQL command.
+     */
+    private final Args args;
+
+    /**
+     * Split into partitions.
+     */
+    private final Split split;
+
+    /**
+     * Outcome of every partition.
+     */
+    private final Outcome<? extends Collection<T>> outcome;
+
+    /**
+     * Merge of results.
+     */
+    private final Merge<T> merge;
+
+    /**
+     * Executor running partitions.
+     */
+    private final Executor executor;
+
+    /**
+     * Ctor.
+     * @param sql SQL command
+     * @param args Parameters to SQL command
+     * @param split Split into partitions
+     * @param outcome Outcome of every partition
+     * @checkstyle ParameterNumberCheck (3 lines)
+     */
+    public ParallelSelect(final Sql sql, final Args args, final Split split,
+        final Outcome<? extends Collection<T>> outcome) {
+        this(sql, args, split, outcome, new Merge.Concat<>());
+    }
+
+    /**
+     * Ctor.
+     * @param sql SQL command
+     * @param args Parameters to SQL command
+     * @param split Split into partitions
+     * @param outcome Outcome of every partition
+     * @param merge Merge of results
+     * @checkstyle ParameterNumberCheck (3 lines)
+     */
+    public ParallelSelect(final Sql sql, final Args args, final Split split,
+        final Outcome<? extends Collection<T>> outcome, final Merge<T> merge) {
+        this(sql, args, split, outcome, merge, new VirtualThreads());
+    }
+
+    /**
+     * Run partitions and merge their results.
+     * @param source Data source
+     * @return Merged result
+     * @throws SQLException If any partition fails
+     */
+    public List<T> using(final DataSource source) throws SQLException {
+        final List<CompletableFuture<? extends Collection<T>>> futures =
+            new ArrayList<>(this.split.parts());
+        for (int part = 0; part < this.split.parts(); ++part) {
+            futures.add(
+                new JdbcSession<>(
+                    new Select<>(
+                        new Sql(
+                            "SELECT * FROM (", this.sql.asString(),
+                            ") part WHERE", this.split.condition(part)
+                        ),
+                        this.args,
+                        this.outcome
+                    )
+                ).usingAsync(source, this.executor)
+            );
+        }
+        final CompletableFuture<Void> failed = new CompletableFuture<>();
+        for (final CompletableFuture<? extends Collection<T>> future
+            : futures) {
+            future.whenComplete(
+                (result, error) -> {
+                    if (error != null) {
+                        failed.completeExceptionally(error);
+                    }
+                }
+            );
+        }
+        try {
+            CompletableFuture.anyOf(
+                CompletableFuture.allOf(
+                    futures.toArray(new CompletableFuture<?>[0])
+                ),
+                failed
+            ).get();
+        } catch (final ExecutionException ex) {
+            futures.forEach(future -> future.cancel(true));
+            throw new SQLException(ex);
+        } catch (final InterruptedException ex) {
+            futures.forEach(future -> future.cancel(true));
+            Thread.currentThread().interrupt();
+            throw new SQLException(ex);
+        }
+        final List<Collection<T>> results = new ArrayList<>(futures.size());
+        for (final CompletableFuture<? extends Collection<T>> future
+            : futures) {
+            results.add(future.join());
+        }
+        return this.merge.merged(results);
+    }
+}
@@ -37,7 +37,6 @@ import com.github.piotrkot.oojdbc.Request;
 import com.github.piotrkot.oojdbc.Sql;
 import com.github.piotrkot.oojdbc.Stmnt;
 import java.sql.Connection;
-import java.sql.PreparedStatement;
 import lombok.RequiredArgsConstructor;
 
 /**
@@ -92,13 +91,14 @@ public final class ProcCall<T> implements Stmnt<T> {
 
     @Override
     public T using(final Connection conn) throws Exception {
-        final PreparedStatement stmt = new Connect.Call(this.sql.asString())
-            .open(conn);
-        this.args.prepare(stmt);
-        this.prep.prepare(stmt);
-        return this.outcome.handle(
-            Request.EXECUTE_UPDATE.fetch(stmt),
-            stmt
-        );
+        return new Execution<>(
+            new Connect.Call(this.sql.asString()),
+            stmt -> {
+                this.args.prepare(stmt);
+                this.prep.prepare(stmt);
+            },
+            Request.EXECUTE_UPDATE,
+            this.outcome
+        ).using(conn);
     }
 }
@@ -30,17 +30,28 @@
  */
 package com.github.piotrkot.oojdbc.statements;
 
-import com.github.piotrkot.oojdbc.Connect;
 import com.github.piotrkot.oojdbc.Outcome;
 import com.github.piotrkot.oojdbc.Request;
 import com.github.piotrkot.oojdbc.Sql;
 import com.github.piotrkot.oojdbc.Stmnt;
 import java.sql.Connection;
-import java.sql.PreparedStatement;
+import java.util.Arrays;
+import java.util.List;
 import lombok.RequiredArgsConstructor;
 
 /**
  * JDBC select.
+ *
+ * <p>Execution {@link Hints} tell how the rows are fetched, e.g. to
+ * stream a big result instead of fetching it at once:
+ *
+ * <pre> new Select&lt;&gt;(
+ *   new Sql("SELECT id FROM user"),
+ *   new Args(),
+ *   new Hints(500, true),
+ *   new StreamOutcome&lt;&gt;(rset -&gt; rset.getLong(1))
+ * )</pre>
+ *
  * @param <T> Type of expected result
  * @since 1.0
  */
@@ -56,6 +67,11 @@ public final class Select<T> implements Stmnt<T> {
      */
     private final Args args;
 
+    /**
+     * Execution hints.
+     */
+    private final Hints hints;
+
     /**
      * Outcome of ResultSet.
      */
@@ -70,14 +86,39 @@ public final class Select<T> implements Stmnt<T> {
         this(sql, new Args(), outcome);
     }
 
+    /**
+     * Ctor.
+     * @param sql SQL command
+     * @param args Parameters to SQL command
+     * @param outcome Outcome of ResultSet
+     */
+    public Select(final Sql sql, final Args args, final Outcome<T> outcome) {
+        this(sql, args, new Hints(), outcome);
+    }
+
     @Override
     public T using(final Connection conn) throws Exception {
-        final PreparedStatement stmt = new Connect.Plain(this.sql.asString())
-            .open(conn);
-        this.args.prepare(stmt);
-        return this.outcome.handle(
-            Request.EXECUTE_QUERY.fetch(stmt),
-            stmt
+        return this.hints.run(
+            conn,
+            new Execution<>(
+                this.hints.connect(this.sql.asString()),
+                stmt -> {
+                    this.args.prepare(stmt);
+                    this.hints.prepare(stmt);
+                },
+                Request.EXECUTE_QUERY,
+                this.outcome
+            ),
+            this.outcome instanceof Outcome.Owning
         );
     }
+
+    /**
+     * Key of the statement, its compiled SQL and the values of its
+     * arguments.
+     * @return Key
+     */
+    List<Object> key() {
+        return Arrays.asList(this.sql.compiled().asString(), this.args.values());
+    }
 }
@@ -0,0 +1,183 @@
+/*
+ * Copyright (c) 2012-2018, jcabi.com
+ * Copyright (c) 2021, github.com/piotrkot
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions
+ * are met: 1) Redistributions of source code must retain the above
+ * copyright notice, this list of conditions and the following
+ * disclaimer. 2) Redistributions in binary form must reproduce the above
+ * copyright notice, this list of conditions and the following
+ * disclaimer in the documentation and/or other materials provided
+ * with the distribution. 3) Neither the name of the jcabi.com nor
+ * the names of its contributors may be used to endorse or promote
+ * products derived from this software without specific prior written
+ * permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT
+ * NOT LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND
+ * FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL
+ * THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT,
+ * INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION)
+ * HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT,
+ * STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED
+ * OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.github.piotrkot.oojdbc.statements;
+
+/**
+ * Split of rows into partitions, by a key column.
+ *
+ * <p>Rows with NULL keys belong to the first partition.
+ *
+ * @since 1.5
+ */
+public interface Split {
+
+    /**
+     * Number of partitions.
+     * @return Partitions
+     */
+    int parts();
+
+    /**
+     * SQL condition selecting rows of the partition.
+     * @param part Partition, from 0
+     * @return Condition
+     */
+    String condition(int part);
+
+    /**
+     * Split by the remainder of the key divided by the number of parts.
+     *
+     * <p>The remainder is made non-negative, as {@code MOD} takes the sign
+     * of the key in most databases, so negative keys belong to partitions
+     * too.
+     *
+     * @since 1.5
+     */
+    final class Modulus implements Split {
+        /**
+         * Key column.
+         */
+        private final String key;
+
+        /**
+         * Number of partitions.
+         */
+        private final int count;
+
+        /**
+         * Ctor.
+         * @param key Key column, of an integral type
+         * @param count Number of partitions
+         */
+        public Modulus(final String key, final int count) {
+            this.key = key;
+            this.count = count;
+        }
+
+        @Override
+        public int parts() {
+            return this.count;
+        }
+
+        @Override
+        public String condition(final int part) {
+            String cond = String.format(
+                "MOD(MOD(%s, %d) + %2$d, %2$d) = %d",
+                this.key, this.count, part
+            );
+            if (part == 0) {
+                cond = String.format("%s OR %s IS NULL", cond, this.key);
+            }
+            return cond;
+        }
+    }
+
+    /**
+     * Split by equal ranges of the key, between bounds.
+     *
+     * <p>Keys below the lower bound belong to the first partition, keys
+     * above the upper bound to the last one.
+     *
+     * @since 1.5
+     */
+    final class Range implements Split {
+        /**
+         * Key column.
+         */
+        private final String key;
+
+        /**
+         * Lower bound of keys, inclusive.
+         */
+        private final long low;
+
+        /**
+         * Upper bound of keys, inclusive.
+         */
+        private final long high;
+
+        /**
+         * Number of partitions.
+         */
+        private final int count;
+
+        /**
+         * Ctor.
+         * @param key Key column, of an integral type
+         * @param low Lower bound of keys, inclusive
+         * @param high Upper bound of keys, inclusive
+         * @param count Number of partitions
+         * @checkstyle ParameterNumberCheck (3 lines)
+         */
+        public Range(final String key, final long low, final long high,
+            final int count) {
+            this.key = key;
+            this.low = low;
+            this.high = high;
+            this.count = count;
+        }
+
+        @Override
+        public int parts() {
+            return this.count;
+        }
+
+        @Override
+        public String condition(final int part) {
+            final String cond;
+            if (this.count == 1) {
+                cond = "1 = 1";
+            } else if (part == 0) {
+                cond = String.format(
+                    "%s < %d OR %1$s IS NULL", this.key, this.bound(1)
+                );
+            } else if (part == this.count - 1) {
+                cond = String.format("%s >= %d", this.key, this.bound(part));
+            } else {
+                cond = String.format(
+                    "%s >= %d AND %1$s < %d",
+                    this.key, this.bound(part), this.bound(part + 1)
+                );
+            }
+            return cond;
+        }
+
+        /**
+         * Lower bound of the partition.
+         * @param part Partition
+         * @return Bound
+         */
+        private long bound(final int part) {
+            final double width = ((double) this.high - this.low + 1) / this.count;
+            return this.low + (long) Math.ceil(width * part);
+        }
+    }
+}
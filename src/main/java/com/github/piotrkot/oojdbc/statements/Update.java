@@ -36,7 +36,8 @@ import com.github.piotrkot.oojdbc.Request;
 import com.github.piotrkot.oojdbc.Sql;
 import com.github.piotrkot.oojdbc.Stmnt;
 import java.sql.Connection;
-import java.sql.PreparedStatement;
+import java.util.Arrays;
+import java.util.List;
 import lombok.RequiredArgsConstructor;
 
 /**
@@ -72,12 +73,20 @@ public final class Update<T> implements Stmnt<T> {
 
     @Override
     public T using(final Connection conn) throws Exception {
-        final PreparedStatement stmt = new Connect.WithKeys(this.sql.asString())
-            .open(conn);
-        this.args.prepare(stmt);
-        return this.outcome.handle(
-            Request.EXECUTE_UPDATE.fetch(stmt),
-            stmt
-        );
+        return new Execution<>(
+            new Connect.WithKeys(this.sql.asString()),
+            this.args,
+            Request.EXECUTE_UPDATE,
+            this.outcome
+        ).using(conn);
+    }
+
+    /**
+     * Key of the statement, its compiled SQL and the values of its
+     * arguments.
+     * @return Key
+     */
+    List<Object> key() {
+        return Arrays.asList(this.sql.compiled().asString(), this.args.values());
     }
 }
@@ -0,0 +1,93 @@
+/*
+ * Copyright (c) 2012-2018, jcabi.com
+ * Copyright (c) 2021, github.com/piotrkot
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions
+ * are met: 1) Redistributions of source code must retain the above
+ * copyright notice, this list of conditions and the following
+ * disclaimer. 2) Redistributions in binary form must reproduce the above
+ * copyright notice, this list of conditions and the following
+ * disclaimer in the documentation and/or other materials provided
+ * with the distribution. 3) Neither the name of the jcabi.com nor
+ * the names of its contributors may be used to endorse or promote
+ * products derived from this software without specific prior written
+ * permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT
+ * NOT LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND
+ * FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL
+ * THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT,
+ * INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION)
+ * HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT,
+ * STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED
+ * OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.github.piotrkot.oojdbc;
+
+import com.github.piotrkot.oojdbc.outcomes.SingleOutcome;
+import com.github.piotrkot.oojdbc.statements.Select;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import org.hamcrest.MatcherAssert;
+import org.hamcrest.Matchers;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Test case for {@link Async}.
+ *
+ * @since 1.5
+ * @checkstyle ClassDataAbstractionCoupling (2 lines)
+ */
+final class AsyncTest {
+
+    /**
+     * Async can run sessions on virtual threads.
+     * @throws Exception If there is some problem inside
+     */
+    @Test
+    void runsSessionAsynchronously() throws Exception {
+        MatcherAssert.assertThat(
+            new JdbcSession<>(
+                new Select<>(
+                    new Sql("SELECT 'done'"),
+                    new SingleOutcome<>(String.class)
+                )
+            ).usingAsync(new H2Source("snc14")).get(1L, TimeUnit.MINUTES),
+            Matchers.is("done")
+        );
+    }
+
+    /**
+     * Async can cancel the statement in flight.
+     * @throws Exception If there is some problem inside
+     */
+    @Test
+    void cancelsStatementInFlight() throws Exception {
+        final ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            final CompletableFuture<Long> future = new JdbcSessionTx<>(
+                new Select<>(
+                    new Sql("SELECT SUM(X) FROM SYSTEM_RANGE(1, 100000000000)"),
+                    new SingleOutcome<>(Long.class)
+                )
+            ).usingAsync(new H2Source("snc15"), executor);
+            TimeUnit.MILLISECONDS.sleep(500L);
+            future.cancel(true);
+            MatcherAssert.assertThat(
+                executor.submit(() -> "free").get(1L, TimeUnit.MINUTES),
+                Matchers.is("free")
+            );
+            MatcherAssert.assertThat(future.isCancelled(), Matchers.is(true));
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+}
@@ -0,0 +1,142 @@
+/*
+ * Copyright (c) 2012-2018, jcabi.com
+ * Copyright (c) 2021, github.com/piotrkot
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions
+ * are met: 1) Redistributions of source code must retain the above
+ * copyright notice, this list of conditions and the following
+ * disclaimer. 2) Redistributions in binary form must reproduce the above
+ * copyright notice, this list of conditions and the following
+ * disclaimer in the documentation and/or other materials provided
+ * with the distribution. 3) Neither the name of the jcabi.com nor
+ * the names of its contributors may be used to endorse or promote
+ * products derived from this software without specific prior written
+ * permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT
+ * NOT LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND
+ * FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL
+ * THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT,
+ * INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION)
+ * HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT,
+ * STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED
+ * OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.github.piotrkot.oojdbc;
+
+import com.github.piotrkot.oojdbc.outcomes.ColumnOutcome;
+import com.github.piotrkot.oojdbc.outcomes.SingleOutcome;
+import com.github.piotrkot.oojdbc.statements.Select;
+import java.sql.Time;
+import java.util.UUID;
+import javax.sql.DataSource;
+import org.hamcrest.MatcherAssert;
+import org.hamcrest.Matchers;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Test case for {@link Codecs}.
+ *
+ * @since 1.5
+ * @checkstyle ClassDataAbstractionCoupling (2 lines)
+ */
+final class CodecsTest {
+
+    /**
+     * Codecs can read more types from any column.
+     * @throws Exception If there is some problem inside
+     */
+    @Test
+    void readsTypesFromAnyColumn() throws Exception {
+        final DataSource source = new H2Source("cdcs1");
+        MatcherAssert.assertThat(
+            new JdbcSession<>(
+                new Select<>(
+                    new Sql("SELECT 1 AS a, 2.5 AS b UNION SELECT 3, 4.5"),
+                    new ColumnOutcome<>(Double.class, "b")
+                )
+            ).using(source),
+            Matchers.contains(2.5, 4.5)
+        );
+        MatcherAssert.assertThat(
+            new JdbcSession<>(
+                new Select<>(
+                    new Sql("SELECT 'x', 7"),
+                    new SingleOutcome<>(Integer.class, 2, false)
+                )
+            ).using(source),
+            Matchers.is(7)
+        );
+        MatcherAssert.assertThat(
+            new JdbcSession<>(
+                new Select<>(
+                    new Sql(
+                        "SELECT CAST(",
+                        "'c8d1e23f-3a5b-4c6d-9e7f-0a1b2c3d4e5f' AS UUID)"
+                    ),
+                    new SingleOutcome<>(UUID.class)
+                )
+            ).using(source),
+            Matchers.is(UUID.fromString("c8d1e23f-3a5b-4c6d-9e7f-0a1b2c3d4e5f"))
+        );
+    }
+
+    /**
+     * Codecs can fall back to the only codec of a subtype.
+     * @throws Exception If there is some problem inside
+     */
+    @Test
+    void fallsBackToSubtype() throws Exception {
+        MatcherAssert.assertThat(
+            new JdbcSession<>(
+                new Select<>(
+                    new Sql("SELECT 'abc'"),
+                    new SingleOutcome<>(CharSequence.class)
+                )
+            ).using(new H2Source("cdcs2")),
+            Matchers.hasToString("abc")
+        );
+    }
+
+    /**
+     * Codecs can reject types only codecs of supertypes are registered for.
+     */
+    @Test
+    void rejectsCodecsOfSupertypes() {
+        final Codecs codecs = new Codecs().with(
+            CharSequence.class,
+            (rset, pos) -> new StringBuilder(rset.getString(pos))
+        );
+        Assertions.assertThrows(
+            IllegalArgumentException.class,
+            () -> codecs.forType(StringBuilder.class)
+        );
+        Assertions.assertThrows(
+            IllegalArgumentException.class,
+            () -> codecs.forType(Time.class)
+        );
+    }
+
+    /**
+     * Codecs can cache mappings per type and column.
+     */
+    @Test
+    void cachesMappings() {
+        final Codecs codecs = new Codecs();
+        MatcherAssert.assertThat(
+            codecs.forType(Long.class, "id"),
+            Matchers.sameInstance(codecs.forType(Long.class, "id"))
+        );
+        MatcherAssert.assertThat(
+            codecs.forType(Long.class, 2),
+            Matchers.not(Matchers.sameInstance(codecs.forType(Long.class)))
+        );
+    }
+}
@@ -0,0 +1,132 @@
+/*
+ * Copyright (c) 2012-2018, jcabi.com
+ * Copyright (c) 2021, github.com/piotrkot
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions
+ * are met: 1) Redistributions of source code must retain the above
+ * copyright notice, this list of conditions and the following
+ * disclaimer. 2) Redistributions in binary form must reproduce the above
+ * copyright notice, this list of conditions and the following
+ * disclaimer in the documentation and/or other materials provided
+ * with the distribution. 3) Neither the name of the jcabi.com nor
+ * the names of its contributors may be used to endorse or promote
+ * products derived from this software without specific prior written
+ * permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT
+ * NOT LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND
+ * FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL
+ * THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT,
+ * INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION)
+ * HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT,
+ * STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED
+ * OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.github.piotrkot.oojdbc;
+
+import com.github.piotrkot.oojdbc.statements.Args;
+import com.github.piotrkot.oojdbc.statements.Exec;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.hamcrest.MatcherAssert;
+import org.hamcrest.Matchers;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Test case for {@link Dialect}.
+ *
+ * @since 1.5
+ */
+final class DialectTest {
+
+    /**
+     * Dialect can be detected from the connection.
+     * @throws Exception If there is some problem inside
+     */
+    @Test
+    void detectsDialectOfConnection() throws Exception {
+        try (Connection conn = new H2Source("d1al3").getConnection()) {
+            MatcherAssert.assertThat(
+                new Dialect.Detect().apply(conn),
+                Matchers.sameInstance(Dialect.H2)
+            );
+        }
+    }
+
+    /**
+     * Dialect can tell supported features.
+     */
+    @Test
+    void tellsSupportedFeatures() {
+        MatcherAssert.assertThat(
+            Dialect.POSTGRESQL.supports(Dialect.Feature.RETURNING),
+            Matchers.is(true)
+        );
+        MatcherAssert.assertThat(
+            Dialect.MYSQL.supports(Dialect.Feature.ARRAYS),
+            Matchers.is(false)
+        );
+        MatcherAssert.assertThat(
+            Dialect.GENERIC.supports(Dialect.Feature.GENERATED_KEYS),
+            Matchers.is(false)
+        );
+    }
+
+    /**
+     * Dialect can tell transient failures, also when wrapped.
+     */
+    @Test
+    void tellsTransientFailures() {
+        MatcherAssert.assertThat(
+            Dialect.POSTGRESQL.retryable(
+                new SQLException(new SQLException("deadlock", "40P01"))
+            ),
+            Matchers.is(true)
+        );
+        MatcherAssert.assertThat(
+            Dialect.MYSQL.retryable(
+                // @checkstyle MagicNumber (1 line)
+                new SQLException("lock wait", "HY000", 1205)
+            ),
+            Matchers.is(true)
+        );
+        MatcherAssert.assertThat(
+            Dialect.GENERIC.retryable(new SQLException("deadlock", "40P01")),
+            Matchers.is(false)
+        );
+    }
+
+    /**
+     * Dialect can be detected once per connection.
+     * @throws Exception If there is some problem inside
+     */
+    @Test
+    @SuppressWarnings("PMD.CloseResource")
+    void detectsOncePerConnection() throws Exception {
+        final AtomicInteger asked = new AtomicInteger();
+        try (Connection origin = new H2Source("d1al4").getConnection()) {
+            final Connection conn = (Connection) Proxy.newProxyInstance(
+                Thread.currentThread().getContextClassLoader(),
+                new Class<?>[]{Connection.class},
+                (proxy, method, args) -> {
+                    if ("getMetaData".equals(method.getName())) {
+                        asked.incrementAndGet();
+                    }
+                    return method.invoke(origin, args);
+                }
+            );
+            for (int idx = 0; idx < 3; ++idx) {
+                new Exec(new Sql("VALUES ?"), new Args(idx)).using(conn);
+            }
+        }
+        MatcherAssert.assertThat(asked.get(), Matchers.is(1));
+    }
+}
@@ -0,0 +1,157 @@
+/*
+ * Copyright (c) 2012-2018, jcabi.com
+ * Copyright (c) 2021, github.com/piotrkot
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions
+ * are met: 1) Redistributions of source code must retain the above
+ * copyright notice, this list of conditions and the following
+ * disclaimer. 2) Redistributions in binary form must reproduce the above
+ * copyright notice, this list of conditions and the following
+ * disclaimer in the documentation and/or other materials provided
+ * with the distribution. 3) Neither the name of the jcabi.com nor
+ * the names of its contributors may be used to endorse or promote
+ * products derived from this software without specific prior written
+ * permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT
+ * NOT LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND
+ * FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL
+ * THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT,
+ * INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION)
+ * HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT,
+ * STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED
+ * OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.github.piotrkot.oojdbc;
+
+import com.github.piotrkot.oojdbc.outcomes.SingleOutcome;
+import com.github.piotrkot.oojdbc.statements.Args;
+import com.github.piotrkot.oojdbc.statements.Exec;
+import com.github.piotrkot.oojdbc.statements.Select;
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import javax.sql.DataSource;
+import org.hamcrest.MatcherAssert;
+import org.hamcrest.Matchers;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Test case for {@link GroupCommit}.
+ *
+ * @since 1.5
+ * @checkstyle ClassDataAbstractionCoupling (2 lines)
+ */
+final class GroupCommitTest {
+
+    /**
+     * GroupCommit can commit statements together, without failed ones.
+     * @throws Exception If there is some problem inside
+     */
+    @Test
+    @SuppressWarnings("PMD.AvoidInstantiatingObjectsInLoops")
+    void commitsTogetherWithoutFailures() throws Exception {
+        final DataSource source = new H2Source("grp16");
+        new JdbcSession<>(
+            new Exec(new Sql("CREATE TABLE evt (id INT PRIMARY KEY)"))
+        ).using(source);
+        final List<CompletableFuture<Void>> futures = new ArrayList<>(0);
+        final CompletableFuture<Void> failing;
+        try (GroupCommit group = new GroupCommit(
+            source, 1L, TimeUnit.SECONDS, 100
+        )) {
+            // @checkstyle MagicNumber (1 line)
+            for (int idx = 0; idx < 20; ++idx) {
+                futures.add(
+                    group.submit(
+                        new Exec(
+                            new Sql("INSERT INTO evt VALUES (?)"),
+                            new Args(idx)
+                        )
+                    )
+                );
+            }
+            failing = group.submit(
+                new Exec(new Sql("INSERT INTO evt VALUES (?)"), new Args(3))
+            );
+            for (final CompletableFuture<Void> future : futures) {
+                future.get(1L, TimeUnit.MINUTES);
+            }
+            MatcherAssert.assertThat(group.commits(), Matchers.is(1L));
+        }
+        Assertions.assertThrows(
+            ExecutionException.class,
+            () -> failing.get(1L, TimeUnit.MINUTES)
+        );
+        MatcherAssert.assertThat(
+            new JdbcSession<>(
+                new Select<>(
+                    new Sql("SELECT COUNT(*) FROM evt"),
+                    new SingleOutcome<>(Long.class)
+                )
+            ).using(source),
+            Matchers.is(20L)
+        );
+    }
+
+    /**
+     * GroupCommit can keep running groups after a group fails unexpectedly.
+     * @throws Exception If there is some problem inside
+     */
+    @Test
+    void survivesUnexpectedFailures() throws Exception {
+        final DataSource origin = new H2Source("grp17");
+        final AtomicInteger count = new AtomicInteger();
+        final DataSource source = (DataSource) Proxy.newProxyInstance(
+            Thread.currentThread().getContextClassLoader(),
+            new Class<?>[]{DataSource.class},
+            (proxy, method, args) -> {
+                if (count.incrementAndGet() == 1) {
+                    throw new IllegalStateException("unexpected");
+                }
+                return method.invoke(origin, args);
+            }
+        );
+        try (GroupCommit group = new GroupCommit(
+            source, 1L, TimeUnit.MILLISECONDS, 1
+        )) {
+            final CompletableFuture<Void> first = group.submit(
+                new Exec(new Sql("VALUES 1"))
+            );
+            Assertions.assertThrows(
+                ExecutionException.class,
+                () -> first.get(1L, TimeUnit.MINUTES)
+            );
+            group.submit(new Exec(new Sql("VALUES 2")))
+                .get(1L, TimeUnit.MINUTES);
+        }
+    }
+
+    /**
+     * GroupCommit can refuse statements once closed.
+     * @throws Exception If there is some problem inside
+     */
+    @Test
+    void refusesStatementsWhenClosed() throws Exception {
+        final GroupCommit group = new GroupCommit(new H2Source("grp18"));
+        group.close();
+        final CompletableFuture<Void> late = group.submit(
+            new Exec(new Sql("VALUES 1"))
+        );
+        Assertions.assertThrows(
+            ExecutionException.class,
+            () -> late.get(1L, TimeUnit.MINUTES)
+        );
+    }
+}
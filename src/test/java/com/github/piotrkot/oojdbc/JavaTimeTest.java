@@ -0,0 +1,126 @@
+/*
+ * Copyright (c) 2012-2018, jcabi.com
+ * Copyright (c) 2021, github.com/piotrkot
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions
+ * are met: 1) Redistributions of source code must retain the above
+ * copyright notice, this list of conditions and the following
+ * disclaimer. 2) Redistributions in binary form must reproduce the above
+ * copyright notice, this list of conditions and the following
+ * disclaimer in the documentation and/or other materials provided
+ * with the distribution. 3) Neither the name of the jcabi.com nor
+ * the names of its contributors may be used to endorse or promote
+ * products derived from this software without specific prior written
+ * permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT
+ * NOT LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND
+ * FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL
+ * THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT,
+ * INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION)
+ * HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT,
+ * STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED
+ * OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.github.piotrkot.oojdbc;
+
+import java.lang.reflect.Proxy;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.SQLFeatureNotSupportedException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import org.hamcrest.MatcherAssert;
+import org.hamcrest.Matchers;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Test case for {@link JavaTime}.
+ *
+ * @since 1.5
+ */
+final class JavaTimeTest {
+
+    /**
+     * JavaTime can detect missing support once.
+     * @throws Exception If there is some problem inside
+     */
+    @Test
+    @SuppressWarnings("PMD.CloseResource")
+    void detectsMissingSupportOnce() throws Exception {
+        final AtomicInteger modern = new AtomicInteger();
+        final ResultSet rset = (ResultSet) Proxy.newProxyInstance(
+            Thread.currentThread().getContextClassLoader(),
+            new Class<?>[]{ResultSet.class},
+            (proxy, method, args) -> proxy
+        );
+        final JavaTime.Call<ResultSet, String> reading = (rows, pos, arg) -> {
+            modern.incrementAndGet();
+            throw new SQLFeatureNotSupportedException("not supported");
+        };
+        final JavaTime time = JavaTimeTest.time();
+        for (int idx = 0; idx < 3; ++idx) {
+            MatcherAssert.assertThat(
+                time.read(rset, 1, reading, (rows, pos, arg) -> "legacy"),
+                Matchers.is("legacy")
+            );
+        }
+        MatcherAssert.assertThat(modern.get(), Matchers.is(1));
+    }
+
+    /**
+     * JavaTime can fall back for a failing column only.
+     * @throws Exception If there is some problem inside
+     */
+    @Test
+    @SuppressWarnings("PMD.CloseResource")
+    void fallsBackForFailingColumnOnly() throws Exception {
+        final ResultSet rset = (ResultSet) Proxy.newProxyInstance(
+            Thread.currentThread().getContextClassLoader(),
+            new Class<?>[]{ResultSet.class},
+            (proxy, method, args) -> proxy
+        );
+        final JavaTime time = JavaTimeTest.time();
+        MatcherAssert.assertThat(
+            time.read(
+                rset, 1,
+                (rows, pos, arg) -> {
+                    throw new SQLException("can't convert the column");
+                },
+                (rows, pos, arg) -> "old"
+            ),
+            Matchers.is("old")
+        );
+        for (int idx = 0; idx < 2; ++idx) {
+            MatcherAssert.assertThat(
+                time.read(
+                    rset, 2,
+                    (rows, pos, arg) -> "new", (rows, pos, arg) -> "old"
+                ),
+                Matchers.is("new")
+            );
+        }
+    }
+
+    /**
+     * JavaTime with support of its own.
+     * @return JavaTime
+     */
+    private static JavaTime time() {
+        return new JavaTime(
+            new ClassValue<AtomicReference<Boolean>>() {
+                @Override
+                protected AtomicReference<Boolean> computeValue(
+                    final Class<?> type) {
+                    return new AtomicReference<>();
+                }
+            }
+        );
+    }
+}
@@ -0,0 +1,135 @@
+/*
+ * Copyright (c) 2012-2018, jcabi.com
+ * Copyright (c) 2021, github.com/piotrkot
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions
+ * are met: 1) Redistributions of source code must retain the above
+ * copyright notice, this list of conditions and the following
+ * disclaimer. 2) Redistributions in binary form must reproduce the above
+ * copyright notice, this list of conditions and the following
+ * disclaimer in the documentation and/or other materials provided
+ * with the distribution. 3) Neither the name of the jcabi.com nor
+ * the names of its contributors may be used to endorse or promote
+ * products derived from this software without specific prior written
+ * permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT
+ * NOT LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND
+ * FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL
+ * THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT,
+ * INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION)
+ * HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT,
+ * STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED
+ * OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.github.piotrkot.oojdbc;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.hamcrest.MatcherAssert;
+import org.hamcrest.Matchers;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Test case for {@link JdbcSessionRetry}.
+ *
+ * @since 1.5
+ */
+final class JdbcSessionRetryTest {
+
+    /**
+     * JdbcSessionRetry can run the statement again on transient failures.
+     * @throws Exception If there is some problem inside
+     */
+    @Test
+    void retriesTransientFailures() throws Exception {
+        final AtomicInteger runs = new AtomicInteger();
+        final JdbcSessionRetry<String> session = new JdbcSessionRetry<>(
+            conn -> {
+                if (runs.incrementAndGet() < 3) {
+                    throw new SQLException("conflict", "40001");
+                }
+                return "done";
+            },
+            5, 1L, 10L, TimeUnit.MILLISECONDS
+        );
+        MatcherAssert.assertThat(
+            session.using(new H2Source("rtr18")),
+            Matchers.equalTo("done")
+        );
+        MatcherAssert.assertThat(session.retries(), Matchers.equalTo(2L));
+    }
+
+    /**
+     * JdbcSessionRetry can give up after all attempts.
+     */
+    @Test
+    void givesUpAfterAttempts() {
+        final AtomicInteger runs = new AtomicInteger();
+        final JdbcSessionRetry<String> session = new JdbcSessionRetry<>(
+            conn -> {
+                runs.incrementAndGet();
+                throw new SQLException("deadlock", "40001");
+            },
+            3, 1L, 10L, TimeUnit.MILLISECONDS
+        );
+        Assertions.assertThrows(
+            SQLException.class,
+            () -> session.using(new H2Source("rtr18b"))
+        );
+        MatcherAssert.assertThat(runs.get(), Matchers.equalTo(3));
+        MatcherAssert.assertThat(session.exhausted(), Matchers.equalTo(1L));
+    }
+
+    /**
+     * JdbcSessionRetry does not run the statement again on other failures.
+     */
+    @Test
+    void failsFastOnOtherFailures() {
+        final AtomicInteger runs = new AtomicInteger();
+        final JdbcSessionRetry<String> session = new JdbcSessionRetry<>(
+            conn -> {
+                runs.incrementAndGet();
+                throw new SQLException("syntax", "42000");
+            }
+        );
+        Assertions.assertThrows(
+            SQLException.class,
+            () -> session.using(new H2Source("rtr18c"))
+        );
+        MatcherAssert.assertThat(runs.get(), Matchers.equalTo(1));
+        MatcherAssert.assertThat(session.retries(), Matchers.equalTo(0L));
+    }
+
+    /**
+     * JdbcSessionRetry can retry configured transactions.
+     * @throws Exception If there is some problem inside
+     */
+    @Test
+    void retriesConfiguredTransactions() throws Exception {
+        final AtomicInteger runs = new AtomicInteger();
+        final JdbcSessionRetry<Integer> session = new JdbcSessionRetry<>(
+            conn -> {
+                if (runs.incrementAndGet() < 2) {
+                    throw new SQLException("serialization", "40001");
+                }
+                return conn.getTransactionIsolation();
+            },
+            3, 1L, 10L, TimeUnit.MILLISECONDS
+        ).withIsolation(Connection.TRANSACTION_SERIALIZABLE);
+        MatcherAssert.assertThat(
+            session.using(new H2Source("rtr18d")),
+            Matchers.equalTo(Connection.TRANSACTION_SERIALIZABLE)
+        );
+        MatcherAssert.assertThat(session.retries(), Matchers.equalTo(1L));
+    }
+}
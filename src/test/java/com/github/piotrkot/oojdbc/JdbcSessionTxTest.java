@@ -0,0 +1,169 @@
+/*
+ * Copyright (c) 2012-2018, jcabi.com
+ * Copyright (c) 2021, github.com/piotrkot
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions
+ * are met: 1) Redistributions of source code must retain the above
+ * copyright notice, this list of conditions and the following
+ * disclaimer. 2) Redistributions in binary form must reproduce the above
+ * copyright notice, this list of conditions and the following
+ * disclaimer in the documentation and/or other materials provided
+ * with the distribution. 3) Neither the name of the jcabi.com nor
+ * the names of its contributors may be used to endorse or promote
+ * products derived from this software without specific prior written
+ * permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT
+ * NOT LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND
+ * FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL
+ * THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT,
+ * INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION)
+ * HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT,
+ * STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED
+ * OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.github.piotrkot.oojdbc;
+
+import com.github.piotrkot.oojdbc.outcomes.ColumnOutcome;
+import com.github.piotrkot.oojdbc.statements.Exec;
+import com.github.piotrkot.oojdbc.statements.Insert;
+import com.github.piotrkot.oojdbc.statements.Select;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.Arrays;
+import java.util.Collection;
+import javax.sql.DataSource;
+import org.hamcrest.MatcherAssert;
+import org.hamcrest.Matchers;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Test case for {@link JdbcSessionTx}.
+ *
+ * @since 1.5
+ */
+final class JdbcSessionTxTest {
+
+    /**
+     * JdbcSessionTx can set isolation and read-only.
+     * @throws Exception If there is some problem inside
+     */
+    @Test
+    void setsTransactionCharacteristics() throws Exception {
+        MatcherAssert.assertThat(
+            new JdbcSessionTx<>(
+                conn -> Arrays.asList(
+                    conn.getTransactionIsolation(),
+                    conn.getAutoCommit()
+                )
+            ).withIsolation(Connection.TRANSACTION_SERIALIZABLE)
+                .withReadOnly()
+                .using(new H2Source("tx19a")),
+            Matchers.contains(Connection.TRANSACTION_SERIALIZABLE, false)
+        );
+    }
+
+    /**
+     * JdbcSessionTx can set back isolation and read-only before closing.
+     * @throws Exception If there is some problem inside
+     */
+    @Test
+    @SuppressWarnings("PMD.CloseResource")
+    void restoresTransactionCharacteristics() throws Exception {
+        final Connection origin = new H2Source("tx19d").getConnection();
+        final int level = origin.getTransactionIsolation();
+        final Connection kept = (Connection) Proxy.newProxyInstance(
+            Thread.currentThread().getContextClassLoader(),
+            new Class<?>[]{Connection.class},
+            (proxy, method, args) -> {
+                Object result = null;
+                if (!"close".equals(method.getName())) {
+                    result = method.invoke(origin, args);
+                }
+                return result;
+            }
+        );
+        final DataSource source = (DataSource) Proxy.newProxyInstance(
+            Thread.currentThread().getContextClassLoader(),
+            new Class<?>[]{DataSource.class},
+            (proxy, method, args) -> kept
+        );
+        new JdbcSessionTx<>(conn -> conn.isReadOnly())
+            .withIsolation(Connection.TRANSACTION_SERIALIZABLE)
+            .withReadOnly()
+            .using(source);
+        MatcherAssert.assertThat(
+            Arrays.asList(origin.getTransactionIsolation(), origin.isReadOnly()),
+            Matchers.contains(level, false)
+        );
+        origin.close();
+    }
+
+    /**
+     * JdbcSessionTx can begin the transaction with the first write.
+     * @throws Exception If there is some problem inside
+     */
+    @Test
+    void beginsWithFirstWrite() throws Exception {
+        final DataSource source = new H2Source("tx19b");
+        new JdbcSession<>(
+            new Exec(new Sql("CREATE TABLE tx19b (name VARCHAR(30))"))
+        ).using(source);
+        MatcherAssert.assertThat(
+            new JdbcSessionTx<>(
+                conn -> {
+                    new Select<>(
+                        new Sql("SELECT name FROM tx19b"),
+                        new ColumnOutcome<>(String.class)
+                    ).using(conn);
+                    final boolean reading = conn.getAutoCommit();
+                    new Insert<>(
+                        new Sql("INSERT INTO tx19b VALUES ('foo')"),
+                        Outcome.VOID
+                    ).using(conn);
+                    return Arrays.asList(reading, conn.getAutoCommit());
+                }
+            ).withLazyBegin().using(source),
+            Matchers.contains(true, false)
+        );
+    }
+
+    /**
+     * JdbcSessionTx can rollback a lazily begun transaction.
+     * @throws Exception If there is some problem inside
+     */
+    @Test
+    void rollbacksLazyTransaction() throws Exception {
+        final DataSource source = new H2Source("tx19c");
+        new JdbcSession<>(
+            new Exec(new Sql("CREATE TABLE tx19c (name VARCHAR(30))"))
+        ).using(source);
+        Assertions.assertThrows(
+            SQLException.class,
+            () -> new JdbcSessionTx<>(
+                conn -> {
+                    new Insert<>(
+                        new Sql("INSERT INTO tx19c VALUES ('foo')"),
+                        Outcome.VOID
+                    ).using(conn);
+                    throw new SQLException("failed");
+                }
+            ).withLazyBegin().using(source)
+        );
+        final Collection<String> names = new JdbcSession<>(
+            new Select<>(
+                new Sql("SELECT name FROM tx19c"),
+                new ColumnOutcome<>(String.class)
+            )
+        ).using(source);
+        MatcherAssert.assertThat(names, Matchers.empty());
+    }
+}
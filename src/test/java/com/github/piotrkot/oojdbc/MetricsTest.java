@@ -0,0 +1,211 @@
+/*
+ * Copyright (c) 2012-2018, jcabi.com
+ * Copyright (c) 2021, github.com/piotrkot
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions
+ * are met: 1) Redistributions of source code must retain the above
+ * copyright notice, this list of conditions and the following
+ * disclaimer. 2) Redistributions in binary form must reproduce the above
+ * copyright notice, this list of conditions and the following
+ * disclaimer in the documentation and/or other materials provided
+ * with the distribution. 3) Neither the name of the jcabi.com nor
+ * the names of its contributors may be used to endorse or promote
+ * products derived from this software without specific prior written
+ * permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT
+ * NOT LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND
+ * FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL
+ * THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT,
+ * INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION)
+ * HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT,
+ * STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED
+ * OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.github.piotrkot.oojdbc;
+
+import com.github.piotrkot.oojdbc.outcomes.ColumnOutcome;
+import com.github.piotrkot.oojdbc.statements.Exec;
+import com.github.piotrkot.oojdbc.statements.Select;
+import java.lang.management.ManagementFactory;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import javax.sql.DataSource;
+import org.hamcrest.MatcherAssert;
+import org.hamcrest.Matchers;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Test case for {@link Metrics}.
+ *
+ * @since 1.5
+ */
+final class MetricsTest {
+
+    /**
+     * Metrics can count executions, errors and rows by statement.
+     * @throws Exception If there is some problem inside
+     */
+    @Test
+    void countsExecutionsByStatement() throws Exception {
+        final DataSource source = new H2Source("mtr22a");
+        final Metrics metrics = new Metrics();
+        new JdbcSession<>(
+            new Measured<>(
+                metrics,
+                new Exec(
+                    new Sql(
+                        "CREATE TABLE mtr (id INT);",
+                        "INSERT INTO mtr VALUES (1), (2), (3)"
+                    )
+                )
+            )
+        ).using(source);
+        final String[] spellings = {"SELECT id FROM mtr", "SELECT id  FROM mtr"};
+        for (final String sql : spellings) {
+            new JdbcSession<>(
+                new Measured<>(
+                    metrics,
+                    new Select<>(
+                        new Sql(sql), new ColumnOutcome<>(Integer.class)
+                    )
+                )
+            ).using(source);
+        }
+        Assertions.assertThrows(
+            SQLException.class,
+            () -> new JdbcSession<>(
+                new Measured<>(metrics, new Exec(new Sql("DROP TABLE nope")))
+            ).using(source)
+        );
+        final List<Metrics.Snapshot> all = metrics.snapshot();
+        MatcherAssert.assertThat(all, Matchers.hasSize(3));
+        final Metrics.Snapshot select = MetricsTest.find(all, "SELECT");
+        MatcherAssert.assertThat(select.executions(), Matchers.equalTo(2L));
+        MatcherAssert.assertThat(select.rows(), Matchers.equalTo(6L));
+        MatcherAssert.assertThat(
+            select.latency(0.999, TimeUnit.NANOSECONDS),
+            Matchers.greaterThanOrEqualTo(
+                select.latency(0.5, TimeUnit.NANOSECONDS)
+            )
+        );
+        MatcherAssert.assertThat(
+            MetricsTest.find(all, "DROP").errors(), Matchers.equalTo(1L)
+        );
+    }
+
+    /**
+     * Metrics can count every execution of a statement, not its preparation.
+     * @throws Exception If there is some problem inside
+     */
+    @Test
+    void countsEveryExecution() throws Exception {
+        final Metrics metrics = new Metrics();
+        new JdbcSession<>(
+            new Measured<>(
+                metrics,
+                conn -> {
+                    try (PreparedStatement stmt =
+                        conn.prepareStatement("SELECT 7 AS again")) {
+                        for (int idx = 0; idx < 3; ++idx) {
+                            try (ResultSet rset = stmt.executeQuery()) {
+                                rset.next();
+                            }
+                        }
+                    }
+                    conn.prepareStatement("SELECT 8 AS never").close();
+                    return true;
+                }
+            )
+        ).using(new H2Source("mtr22d"));
+        final List<Metrics.Snapshot> all = metrics.snapshot();
+        MatcherAssert.assertThat(all, Matchers.hasSize(2));
+        final Metrics.Snapshot again = MetricsTest.find(all, "SELECT 7");
+        MatcherAssert.assertThat(again.executions(), Matchers.equalTo(3L));
+        MatcherAssert.assertThat(again.rows(), Matchers.equalTo(3L));
+        MatcherAssert.assertThat(
+            MetricsTest.find(all, "SELECT 8").executions(),
+            Matchers.equalTo(0L)
+        );
+    }
+
+    /**
+     * Metrics can expose statements as MBeans.
+     * @throws Exception If there is some problem inside
+     */
+    @Test
+    void exposesStatementsAsBeans() throws Exception {
+        final MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+        final Metrics metrics = new Metrics();
+        metrics.register(server);
+        new JdbcSession<>(
+            new Measured<>(
+                metrics,
+                new Select<>(
+                    new Sql("SELECT 22 AS mbean"),
+                    new ColumnOutcome<>(Integer.class)
+                )
+            )
+        ).using(new H2Source("mtr22b"));
+        MatcherAssert.assertThat(
+            server.getAttribute(
+                new ObjectName(
+                    String.format(
+                        "com.github.piotrkot.oojdbc:type=Statement,name=%s",
+                        Long.toHexString(
+                            new Sql("SELECT 22 AS mbean").fingerprint()
+                        )
+                    )
+                ),
+                "Executions"
+            ),
+            Matchers.equalTo(1L)
+        );
+    }
+
+    /**
+     * Metrics can be disabled.
+     * @throws Exception If there is some problem inside
+     */
+    @Test
+    void recordsNothingWhenDisabled() throws Exception {
+        final Metrics metrics = new Metrics();
+        metrics.enable(false);
+        new JdbcSession<>(
+            new Measured<>(
+                metrics,
+                new Select<>(
+                    new Sql("SELECT 1"),
+                    new ColumnOutcome<>(Integer.class)
+                )
+            )
+        ).using(new H2Source("mtr22c"));
+        MatcherAssert.assertThat(metrics.snapshot(), Matchers.empty());
+    }
+
+    /**
+     * Snapshot of the statement.
+     * @param all Snapshots
+     * @param prefix Prefix of the SQL
+     * @return Snapshot
+     */
+    private static Metrics.Snapshot find(final List<Metrics.Snapshot> all,
+        final String prefix) {
+        return all.stream()
+            .filter(snap -> snap.sql().startsWith(prefix))
+            .findFirst()
+            .orElseThrow(IllegalStateException::new);
+    }
+}
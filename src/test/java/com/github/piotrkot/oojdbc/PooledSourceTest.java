@@ -0,0 +1,238 @@
+/*
+ * Copyright (c) 2012-2018, jcabi.com
+ * Copyright (c) 2021, github.com/piotrkot
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions
+ * are met: 1) Redistributions of source code must retain the above
+ * copyright notice, this list of conditions and the following
+ * disclaimer. 2) Redistributions in binary form must reproduce the above
+ * copyright notice, this list of conditions and the following
+ * disclaimer in the documentation and/or other materials provided
+ * with the distribution. 3) Neither the name of the jcabi.com nor
+ * the names of its contributors may be used to endorse or promote
+ * products derived from this software without specific prior written
+ * permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT
+ * NOT LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND
+ * FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL
+ * THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT,
+ * INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION)
+ * HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT,
+ * STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED
+ * OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.github.piotrkot.oojdbc;
+
+import com.github.piotrkot.oojdbc.outcomes.SingleOutcome;
+import com.github.piotrkot.oojdbc.statements.Exec;
+import com.github.piotrkot.oojdbc.statements.Select;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import javax.sql.DataSource;
+import org.hamcrest.MatcherAssert;
+import org.hamcrest.Matchers;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Test case for {@link PooledSource}.
+ *
+ * @since 1.5
+ * @checkstyle ClassDataAbstractionCoupling (2 lines)
+ */
+final class PooledSourceTest {
+
+    /**
+     * PooledSource can reuse warmed up connections, reset.
+     * @throws Exception If there is some problem inside
+     */
+    @Test
+    void reusesResetConnections() throws Exception {
+        try (PooledSource source = new PooledSource(
+            new H2Source("pool17"), 2, 2
+        ).warm()) {
+            MatcherAssert.assertThat(source.idleCount(), Matchers.is(2));
+            new JdbcSessionTx<>(
+                new Exec(new Sql("CREATE TABLE foo (id INT)"))
+            ).using(source);
+            try (Connection conn = source.getConnection()) {
+                MatcherAssert.assertThat(
+                    conn.getAutoCommit(), Matchers.is(true)
+                );
+            }
+            MatcherAssert.assertThat(
+                new JdbcSession<>(
+                    new Select<>(
+                        new Sql("SELECT COUNT(*) FROM foo"),
+                        new SingleOutcome<>(Long.class)
+                    )
+                ).using(source),
+                Matchers.is(0L)
+            );
+            MatcherAssert.assertThat(source.idleCount(), Matchers.is(2));
+            MatcherAssert.assertThat(source.acquires(), Matchers.is(3L));
+            MatcherAssert.assertThat(
+                source.holdTime(TimeUnit.NANOSECONDS),
+                Matchers.greaterThan(0L)
+            );
+        }
+    }
+
+    /**
+     * PooledSource can time out waiting for a connection.
+     * @throws Exception If there is some problem inside
+     */
+    @Test
+    void timesOutWhenExhausted() throws Exception {
+        try (PooledSource source = new PooledSource(
+            new H2Source("pool18"), 0, 1, TimeUnit.MILLISECONDS.toNanos(50L)
+        ); Connection conn = source.getConnection()) {
+            MatcherAssert.assertThat(conn.isClosed(), Matchers.is(false));
+            Assertions.assertThrows(
+                SQLException.class, source::getConnection
+            );
+            MatcherAssert.assertThat(
+                source.acquireWait(TimeUnit.NANOSECONDS),
+                Matchers.greaterThanOrEqualTo(0L)
+            );
+        }
+    }
+
+    /**
+     * PooledSource can refuse connections once closed.
+     * @throws Exception If there is some problem inside
+     */
+    @Test
+    void refusesConnectionsWhenClosed() throws Exception {
+        final PooledSource source = new PooledSource(
+            new H2Source("pool19"), 1, 1
+        ).warm();
+        source.close();
+        Assertions.assertThrows(SQLException.class, source::getConnection);
+    }
+
+    /**
+     * PooledSource can close connections opened by a failed warm up.
+     */
+    @Test
+    void closesConnectionsOfFailedWarmUp() {
+        final DataSource origin = new H2Source("pool20");
+        final List<Connection> opened = new CopyOnWriteArrayList<>();
+        final AtomicInteger count = new AtomicInteger();
+        final DataSource failing = (DataSource) Proxy.newProxyInstance(
+            Thread.currentThread().getContextClassLoader(),
+            new Class<?>[]{DataSource.class},
+            (proxy, method, args) -> {
+                if (count.incrementAndGet() == 3) {
+                    throw new SQLException("third fails");
+                }
+                final Connection conn = origin.getConnection();
+                opened.add(conn);
+                return conn;
+            }
+        );
+        Assertions.assertThrows(
+            SQLException.class, () -> new PooledSource(failing, 4, 4).warm()
+        );
+        MatcherAssert.assertThat(opened, Matchers.hasSize(3));
+        for (final Connection conn : opened) {
+            MatcherAssert.assertThat(
+                Assertions.assertDoesNotThrow(conn::isClosed),
+                Matchers.is(true)
+            );
+        }
+    }
+
+    /**
+     * PooledSource can restore the read-only mode the connection had.
+     * @throws Exception If there is some problem inside
+     */
+    @Test
+    void restoresInitialReadOnly() throws Exception {
+        try (PooledSource source = new PooledSource(
+            PooledSourceTest.tracked(
+                new H2Source("pool21"), new AtomicBoolean(true),
+                new AtomicInteger()
+            ),
+            1, 1
+        )) {
+            for (int idx = 0; idx < 2; ++idx) {
+                try (Connection conn = source.getConnection()) {
+                    MatcherAssert.assertThat(
+                        conn.isReadOnly(), Matchers.is(true)
+                    );
+                    conn.setReadOnly(false);
+                }
+            }
+        }
+    }
+
+    /**
+     * PooledSource can skip idle connections dropped by the database.
+     * @throws Exception If there is some problem inside
+     */
+    @Test
+    void skipsDroppedIdleConnections() throws Exception {
+        final AtomicBoolean valid = new AtomicBoolean(true);
+        final AtomicInteger opened = new AtomicInteger();
+        try (PooledSource source = new PooledSource(
+            PooledSourceTest.tracked(new H2Source("pool22"), valid, opened),
+            1, 1, TimeUnit.SECONDS.toNanos(1L), 0L
+        ).warm()) {
+            valid.set(false);
+            source.getConnection().close();
+            MatcherAssert.assertThat(opened.get(), Matchers.is(2));
+        }
+    }
+
+    /**
+     * Data source of connections opened read-only.
+     * @param origin Origin of connections
+     * @param valid Are the connections valid
+     * @param opened Number of connections opened
+     * @return Data source
+     */
+    private static DataSource tracked(final DataSource origin,
+        final AtomicBoolean valid, final AtomicInteger opened) {
+        return (DataSource) Proxy.newProxyInstance(
+            Thread.currentThread().getContextClassLoader(),
+            new Class<?>[]{DataSource.class},
+            (proxy, method, args) -> {
+                opened.incrementAndGet();
+                final Connection conn = origin.getConnection();
+                final AtomicBoolean readonly = new AtomicBoolean(true);
+                return Proxy.newProxyInstance(
+                    Thread.currentThread().getContextClassLoader(),
+                    new Class<?>[]{Connection.class},
+                    (cproxy, cmethod, cargs) -> {
+                        final Object result;
+                        if ("isReadOnly".equals(cmethod.getName())) {
+                            result = readonly.get();
+                        } else if ("setReadOnly".equals(cmethod.getName())) {
+                            readonly.set((Boolean) cargs[0]);
+                            result = null;
+                        } else if ("isValid".equals(cmethod.getName())) {
+                            result = valid.get();
+                        } else {
+                            result = cmethod.invoke(conn, cargs);
+                        }
+                        return result;
+                    }
+                );
+            }
+        );
+    }
+}
@@ -0,0 +1,322 @@
+/*
+ * Copyright (c) 2012-2018, jcabi.com
+ * Copyright (c) 2021, github.com/piotrkot
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions
+ * are met: 1) Redistributions of source code must retain the above
+ * copyright notice, this list of conditions and the following
+ * disclaimer. 2) Redistributions in binary form must reproduce the above
+ * copyright notice, this list of conditions and the following
+ * disclaimer in the documentation and/or other materials provided
+ * with the distribution. 3) Neither the name of the jcabi.com nor
+ * the names of its contributors may be used to endorse or promote
+ * products derived from this software without specific prior written
+ * permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT
+ * NOT LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND
+ * FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL
+ * THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT,
+ * INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION)
+ * HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT,
+ * STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED
+ * OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.github.piotrkot.oojdbc;
+
+import com.github.piotrkot.oojdbc.outcomes.ColumnOutcome;
+import com.github.piotrkot.oojdbc.statements.Args;
+import com.github.piotrkot.oojdbc.statements.Cached;
+import com.github.piotrkot.oojdbc.statements.Exec;
+import com.github.piotrkot.oojdbc.statements.Insert;
+import com.github.piotrkot.oojdbc.statements.Select;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import javax.sql.DataSource;
+import org.hamcrest.MatcherAssert;
+import org.hamcrest.Matchers;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Test case for {@link QueryCache}.
+ *
+ * @since 1.5
+ * @checkstyle ClassDataAbstractionCoupling (2 lines)
+ */
+@SuppressWarnings("PMD.TooManyMethods")
+final class QueryCacheTest {
+
+    /**
+     * QueryCache can serve results until the table is written.
+     * @throws Exception If there is some problem inside
+     */
+    @Test
+    void servesResultsUntilWritten() throws Exception {
+        final QueryCache cache = new QueryCache(10);
+        final DataSource source = cache.watching(new H2Source("qc21a"));
+        new JdbcSession<>(
+            new Exec(new Sql("CREATE TABLE country (name VARCHAR(30))"))
+        ).using(source);
+        final Stmnt<Collection<String>> names = new Cached<>(
+            cache,
+            new Select<>(
+                new Sql("SELECT name FROM  country WHERE name <> ?"),
+                new Args(""),
+                new ColumnOutcome<>(String.class)
+            ),
+            "country"
+        );
+        MatcherAssert.assertThat(
+            new JdbcSession<>(names).using(source), Matchers.empty()
+        );
+        MatcherAssert.assertThat(
+            new JdbcSession<>(names).using(source), Matchers.empty()
+        );
+        MatcherAssert.assertThat(cache.hits(), Matchers.equalTo(1L));
+        new JdbcSessionTx<>(
+            new Insert<>(
+                new Sql("INSERT INTO country VALUES ('Poland')"),
+                Outcome.VOID
+            )
+        ).using(source);
+        MatcherAssert.assertThat(
+            new JdbcSession<>(names).using(source),
+            Matchers.contains("Poland")
+        );
+        MatcherAssert.assertThat(cache.misses(), Matchers.equalTo(2L));
+    }
+
+    /**
+     * QueryCache can expire results.
+     * @throws Exception If there is some problem inside
+     */
+    @Test
+    void expiresResults() throws Exception {
+        final QueryCache cache = new QueryCache(
+            10, Long.MAX_VALUE, 1L, TimeUnit.NANOSECONDS
+        );
+        final AtomicInteger loads = new AtomicInteger();
+        cache.get(
+            "key", QueryCache.DEFAULT_TTL, Collections.emptySet(),
+            loads::incrementAndGet
+        );
+        TimeUnit.MILLISECONDS.sleep(1L);
+        cache.get(
+            "key", QueryCache.DEFAULT_TTL, Collections.emptySet(),
+            loads::incrementAndGet
+        );
+        MatcherAssert.assertThat(loads.get(), Matchers.equalTo(2));
+    }
+
+    /**
+     * QueryCache can hand out collections that can't be changed.
+     * @throws Exception If there is some problem inside
+     */
+    @Test
+    void sharesUnmodifiableCollections() throws Exception {
+        final QueryCache cache = new QueryCache(10);
+        final Callable<List<String>> load =
+            () -> new ArrayList<>(Collections.singletonList("Jeff"));
+        for (int idx = 0; idx < 2; ++idx) {
+            final List<String> names = cache.get(
+                "names", QueryCache.DEFAULT_TTL, Collections.emptySet(), load
+            );
+            Assertions.assertThrows(
+                UnsupportedOperationException.class,
+                () -> names.add("Walter")
+            );
+        }
+        MatcherAssert.assertThat(
+            cache.get(
+                "names", QueryCache.DEFAULT_TTL, Collections.emptySet(), load
+            ),
+            Matchers.contains("Jeff")
+        );
+    }
+
+    /**
+     * QueryCache can keep frequent results over new ones.
+     * @throws Exception If there is some problem inside
+     */
+    @Test
+    void keepsFrequentResults() throws Exception {
+        final QueryCache cache = new QueryCache(1);
+        final AtomicInteger loads = new AtomicInteger();
+        for (int idx = 0; idx < 3; ++idx) {
+            cache.get(
+                "hot", QueryCache.DEFAULT_TTL, Collections.emptySet(),
+                loads::incrementAndGet
+            );
+        }
+        cache.get(
+            "cold", QueryCache.DEFAULT_TTL, Collections.emptySet(),
+            loads::incrementAndGet
+        );
+        cache.get(
+            "hot", QueryCache.DEFAULT_TTL, Collections.emptySet(),
+            loads::incrementAndGet
+        );
+        MatcherAssert.assertThat(loads.get(), Matchers.equalTo(2));
+        MatcherAssert.assertThat(cache.size(), Matchers.equalTo(1));
+    }
+
+    /**
+     * QueryCache can let a unit read its own writes past the cache.
+     * @throws Exception If there is some problem inside
+     */
+    @Test
+    void readsOwnWrites() throws Exception {
+        final QueryCache cache = new QueryCache(10);
+        final DataSource source = cache.watching(new H2Source("qc21b"));
+        new JdbcSession<>(
+            new Exec(new Sql("CREATE TABLE city (name VARCHAR(30))"))
+        ).using(source);
+        final Stmnt<Collection<String>> names = new Cached<>(
+            cache,
+            new Select<>(
+                new Sql("SELECT name FROM city"),
+                new ColumnOutcome<>(String.class)
+            ),
+            "city"
+        );
+        MatcherAssert.assertThat(
+            new JdbcSessionTx<>(
+                conn -> {
+                    names.using(conn);
+                    new Insert<>(
+                        new Sql("INSERT INTO city VALUES ('Krakow')"),
+                        Outcome.VOID
+                    ).using(conn);
+                    return names.using(conn);
+                }
+            ).using(source),
+            Matchers.contains("Krakow")
+        );
+        MatcherAssert.assertThat(
+            new JdbcSession<>(names).using(source),
+            Matchers.contains("Krakow")
+        );
+    }
+
+    /**
+     * QueryCache can refresh results ahead of their expiry.
+     * @throws Exception If there is some problem inside
+     */
+    @Test
+    void refreshesAhead() throws Exception {
+        final QueryCache cache = new QueryCache(
+            10, Long.MAX_VALUE, 1L, TimeUnit.SECONDS
+        );
+        final AtomicInteger loads = new AtomicInteger();
+        cache.get(
+            "ahead", QueryCache.DEFAULT_TTL, Collections.emptySet(),
+            loads::incrementAndGet
+        );
+        // @checkstyle MagicNumber (1 line)
+        TimeUnit.MILLISECONDS.sleep(850L);
+        MatcherAssert.assertThat(
+            cache.get(
+                "ahead", QueryCache.DEFAULT_TTL, Collections.emptySet(),
+                loads::incrementAndGet
+            ),
+            Matchers.equalTo(2)
+        );
+        MatcherAssert.assertThat(
+            cache.get(
+                "ahead", QueryCache.DEFAULT_TTL, Collections.emptySet(),
+                loads::incrementAndGet
+            ),
+            Matchers.equalTo(2)
+        );
+        MatcherAssert.assertThat(cache.hits(), Matchers.equalTo(2L));
+        MatcherAssert.assertThat(cache.misses(), Matchers.equalTo(1L));
+    }
+
+    /**
+     * QueryCache can load a missing result once for concurrent callers.
+     * @throws Exception If there is some problem inside
+     */
+    @Test
+    void loadsMissingResultOnce() throws Exception {
+        final QueryCache cache = new QueryCache(10);
+        final AtomicInteger loads = new AtomicInteger();
+        final CountDownLatch release = new CountDownLatch(1);
+        final AtomicReference<Object> waited = new AtomicReference<>();
+        final Thread first = new Thread(
+            () -> QueryCacheTest.blocked(cache, loads, release, waited)
+        );
+        final Thread second = new Thread(
+            () -> QueryCacheTest.blocked(cache, loads, release, waited)
+        );
+        first.start();
+        while (loads.get() == 0) {
+            Thread.yield();
+        }
+        second.start();
+        while (second.getState() != Thread.State.WAITING) {
+            Thread.yield();
+        }
+        MatcherAssert.assertThat(loads.get(), Matchers.equalTo(1));
+        release.countDown();
+        first.join();
+        second.join();
+        MatcherAssert.assertThat(loads.get(), Matchers.equalTo(1));
+        MatcherAssert.assertThat(waited.get(), Matchers.equalTo(1));
+    }
+
+    /**
+     * QueryCache can tell tables written by SQL.
+     */
+    @Test
+    void tellsTablesWritten() {
+        MatcherAssert.assertThat(
+            WatchedSource.written(
+                "INSERT INTO app.\"Users\" SELECT * FROM x; UPDATE roles SET a = 1"
+            ),
+            Matchers.containsInAnyOrder("users", "roles")
+        );
+    }
+
+    /**
+     * Get the result with a loader blocked till released.
+     * @param cache Cache
+     * @param loads Number of loads
+     * @param release Release of the loader
+     * @param result Result got
+     * @checkstyle ParameterNumberCheck (4 lines)
+     */
+    @SuppressWarnings("PMD.AvoidCatchingGenericException")
+    private static void blocked(final QueryCache cache,
+        final AtomicInteger loads, final CountDownLatch release,
+        final AtomicReference<Object> result) {
+        try {
+            result.set(
+                cache.get(
+                    "once", QueryCache.DEFAULT_TTL, Collections.emptySet(),
+                    () -> {
+                        final int load = loads.incrementAndGet();
+                        release.await();
+                        return load;
+                    }
+                )
+            );
+            // @checkstyle IllegalCatch (1 line)
+        } catch (final Exception ex) {
+            throw new IllegalStateException(ex);
+        }
+    }
+}
@@ -0,0 +1,263 @@
+/*
+ * Copyright (c) 2012-2018, jcabi.com
+ * Copyright (c) 2021, github.com/piotrkot
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions
+ * are met: 1) Redistributions of source code must retain the above
+ * copyright notice, this list of conditions and the following
+ * disclaimer. 2) Redistributions in binary form must reproduce the above
+ * copyright notice, this list of conditions and the following
+ * disclaimer in the documentation and/or other materials provided
+ * with the distribution. 3) Neither the name of the jcabi.com nor
+ * the names of its contributors may be used to endorse or promote
+ * products derived from this software without specific prior written
+ * permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT
+ * NOT LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND
+ * FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL
+ * THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT,
+ * INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION)
+ * HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT,
+ * STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED
+ * OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.github.piotrkot.oojdbc;
+
+import com.github.piotrkot.oojdbc.outcomes.ColumnOutcome;
+import com.github.piotrkot.oojdbc.statements.Args;
+import com.github.piotrkot.oojdbc.statements.Exec;
+import com.github.piotrkot.oojdbc.statements.Insert;
+import com.github.piotrkot.oojdbc.statements.Select;
+import java.lang.reflect.Proxy;
+import java.sql.Savepoint;
+import java.util.Collection;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import javax.sql.DataSource;
+import org.hamcrest.MatcherAssert;
+import org.hamcrest.Matchers;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Test case for {@link ReadWriteSource}.
+ *
+ * @since 1.5
+ * @checkstyle ClassDataAbstractionCoupling (2 lines)
+ */
+final class ReadWriteSourceTest {
+
+    /**
+     * ReadWriteSource can read from replicas and write to the primary.
+     * @throws Exception If there is some problem inside
+     */
+    @Test
+    void readsFromReplicasAndWritesToPrimary() throws Exception {
+        final DataSource primary = ReadWriteSourceTest.database("rw20p");
+        final ReadWriteSource source = new ReadWriteSource(
+            primary, 0L, TimeUnit.SECONDS,
+            ReadWriteSourceTest.database("rw20r")
+        ).with(new ReadWriteSource.Affinity());
+        MatcherAssert.assertThat(
+            ReadWriteSourceTest.names(source),
+            Matchers.contains("rw20r")
+        );
+        new JdbcSession<>(
+            new Insert<>(
+                new Sql("INSERT INTO node VALUES ('new')"),
+                Outcome.VOID
+            )
+        ).using(source);
+        MatcherAssert.assertThat(
+            ReadWriteSourceTest.names(primary),
+            Matchers.contains("rw20p", "new")
+        );
+        MatcherAssert.assertThat(
+            ReadWriteSourceTest.names(source),
+            Matchers.contains("rw20r")
+        );
+    }
+
+    /**
+     * ReadWriteSource can read from the primary shortly after a write.
+     * @throws Exception If there is some problem inside
+     */
+    @Test
+    void readsOwnWrites() throws Exception {
+        final ReadWriteSource source = new ReadWriteSource(
+            ReadWriteSourceTest.database("rw20a"), 1L, TimeUnit.MINUTES,
+            ReadWriteSourceTest.database("rw20b")
+        );
+        final ReadWriteSource.Affinity writer = new ReadWriteSource.Affinity();
+        new JdbcSession<>(
+            new Insert<>(
+                new Sql("INSERT INTO node VALUES ('new')"),
+                Outcome.VOID
+            )
+        ).using(source.with(writer));
+        MatcherAssert.assertThat(
+            ReadWriteSourceTest.names(source.with(writer)),
+            Matchers.contains("rw20a", "new")
+        );
+        MatcherAssert.assertThat(
+            ReadWriteSourceTest.names(
+                source.with(new ReadWriteSource.Affinity())
+            ),
+            Matchers.contains("rw20b")
+        );
+    }
+
+    /**
+     * ReadWriteSource can run transactions on the primary, unless
+     * read-only.
+     * @throws Exception If there is some problem inside
+     */
+    @Test
+    void routesTransactions() throws Exception {
+        final ReadWriteSource source = new ReadWriteSource(
+            ReadWriteSourceTest.database("rw20c"), 0L, TimeUnit.SECONDS,
+            ReadWriteSourceTest.database("rw20d")
+        );
+        final Stmnt<Collection<String>> select = new Select<>(
+            new Sql("SELECT name FROM node ORDER BY name"),
+            new ColumnOutcome<>(String.class)
+        );
+        MatcherAssert.assertThat(
+            new JdbcSessionTx<>(select).using(source),
+            Matchers.contains("rw20c")
+        );
+        MatcherAssert.assertThat(
+            new JdbcSessionTx<>(select).withReadOnly().using(source),
+            Matchers.contains("rw20d")
+        );
+        MatcherAssert.assertThat(
+            new JdbcSessionTx<>(
+                conn -> {
+                    select.using(conn);
+                    new Insert<>(
+                        new Sql("INSERT INTO node VALUES ('tx')"),
+                        Outcome.VOID
+                    ).using(conn);
+                    return select.using(conn);
+                }
+            ).withLazyBegin().using(source),
+            Matchers.contains("rw20c", "tx")
+        );
+    }
+
+    /**
+     * ReadWriteSource can run a pure write unit with no replica opened.
+     * @throws Exception If there is some problem inside
+     */
+    @Test
+    void writesWithoutOpeningReplicas() throws Exception {
+        final DataSource replica = ReadWriteSourceTest.database("rw20f");
+        final AtomicInteger opened = new AtomicInteger();
+        final DataSource primary = ReadWriteSourceTest.database("rw20e");
+        final ReadWriteSource source = new ReadWriteSource(
+            primary, 0L, TimeUnit.SECONDS,
+            (DataSource) Proxy.newProxyInstance(
+                Thread.currentThread().getContextClassLoader(),
+                new Class<?>[]{DataSource.class},
+                (proxy, method, args) -> {
+                    if ("getConnection".equals(method.getName())) {
+                        opened.incrementAndGet();
+                    }
+                    return method.invoke(replica, args);
+                }
+            )
+        );
+        new JdbcSession<>(
+            new Exec(new Sql("INSERT INTO node VALUES ('exec')"))
+        ).using(source);
+        new JdbcSessionTx<>(
+            new Insert<>(
+                new Sql("INSERT INTO node VALUES ('tx')"), Outcome.VOID
+            )
+        ).using(source);
+        MatcherAssert.assertThat(opened.get(), Matchers.is(0));
+        MatcherAssert.assertThat(
+            ReadWriteSourceTest.names(primary),
+            Matchers.contains("tx", "rw20e", "exec")
+        );
+    }
+
+    /**
+     * ReadWriteSource can roll back to savepoints.
+     * @throws Exception If there is some problem inside
+     */
+    @Test
+    void rollsBackToSavepoints() throws Exception {
+        final DataSource primary = ReadWriteSourceTest.database("rw20g");
+        new JdbcSessionTx<>(
+            conn -> {
+                final Stmnt<Void> insert = new Insert<>(
+                    new Sql("INSERT INTO node VALUES ('gone')"), Outcome.VOID
+                );
+                new Insert<>(
+                    new Sql("INSERT INTO node VALUES ('kept')"), Outcome.VOID
+                ).using(conn);
+                final Savepoint point = conn.setSavepoint();
+                MatcherAssert.assertThat(point, Matchers.notNullValue());
+                insert.using(conn);
+                conn.rollback(point);
+                conn.releaseSavepoint(point);
+                return true;
+            }
+        ).using(
+            new ReadWriteSource(
+                primary, 0L, TimeUnit.SECONDS,
+                ReadWriteSourceTest.database("rw20h")
+            )
+        );
+        MatcherAssert.assertThat(
+            ReadWriteSourceTest.names(primary),
+            Matchers.contains("rw20g", "kept")
+        );
+    }
+
+    /**
+     * Names in a database.
+     * @param source Data source
+     * @return Names
+     * @throws Exception If there is some problem inside
+     */
+    private static Collection<String> names(final DataSource source)
+        throws Exception {
+        return new JdbcSession<>(
+            new Select<>(
+                new Sql("SELECT name FROM node ORDER BY name DESC"),
+                new ColumnOutcome<>(String.class)
+            )
+        ).using(source);
+    }
+
+    /**
+     * Database with a table of one name, the name of the database.
+     * @param name Name of the database
+     * @return Data source
+     * @throws Exception If there is some problem inside
+     */
+    private static DataSource database(final String name) throws Exception {
+        final DataSource source = new H2Source(name);
+        new JdbcSession<>(
+            conn -> {
+                new Exec(
+                    new Sql("CREATE TABLE node (name VARCHAR(30))")
+                ).using(conn);
+                return new Insert<>(
+                    new Sql("INSERT INTO node VALUES (?)"),
+                    new Args(name),
+                    Outcome.VOID
+                ).using(conn);
+            }
+        ).using(source);
+        return source;
+    }
+}
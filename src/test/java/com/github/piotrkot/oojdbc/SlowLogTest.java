@@ -0,0 +1,223 @@
+/*
+ * Copyright (c) 2012-2018, jcabi.com
+ * Copyright (c) 2021, github.com/piotrkot
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions
+ * are met: 1) Redistributions of source code must retain the above
+ * copyright notice, this list of conditions and the following
+ * disclaimer. 2) Redistributions in binary form must reproduce the above
+ * copyright notice, this list of conditions and the following
+ * disclaimer in the documentation and/or other materials provided
+ * with the distribution. 3) Neither the name of the jcabi.com nor
+ * the names of its contributors may be used to endorse or promote
+ * products derived from this software without specific prior written
+ * permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT
+ * NOT LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND
+ * FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL
+ * THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT,
+ * INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION)
+ * HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT,
+ * STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED
+ * OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.github.piotrkot.oojdbc;
+
+import com.github.piotrkot.oojdbc.outcomes.SingleOutcome;
+import com.github.piotrkot.oojdbc.statements.Args;
+import com.github.piotrkot.oojdbc.statements.Logged;
+import com.github.piotrkot.oojdbc.statements.Select;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import javax.sql.DataSource;
+import org.hamcrest.MatcherAssert;
+import org.hamcrest.Matchers;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Test case for {@link SlowLog}.
+ *
+ * @since 1.5
+ */
+final class SlowLogTest {
+
+    /**
+     * SlowLog can log queries slower than the threshold of their SQL.
+     * @throws Exception If there is some problem inside
+     */
+    @Test
+    void logsQueriesOverThreshold() throws Exception {
+        final List<SlowLog.Entry> entries = new CopyOnWriteArrayList<>();
+        final DataSource source = new H2Source("slw23a");
+        final Sql slow = new Sql("SELECT ? || 'slow'");
+        try (SlowLog log = new SlowLog(1L, TimeUnit.HOURS, entries::add)) {
+            log.threshold(slow, 0L, TimeUnit.NANOSECONDS);
+            new JdbcSession<>(
+                new Logged<>(
+                    log,
+                    new Select<>(
+                        new Sql("SELECT ? || 'fast'"),
+                        new Args("quite"),
+                        new SingleOutcome<>(String.class)
+                    )
+                )
+            ).using(source);
+            new JdbcSession<>(
+                new Logged<>(
+                    log,
+                    new Select<>(
+                        slow, new Args("very"),
+                        new SingleOutcome<>(String.class)
+                    )
+                )
+            ).using(source);
+        }
+        MatcherAssert.assertThat(entries, Matchers.hasSize(1));
+        MatcherAssert.assertThat(
+            entries.get(0).sql(), Matchers.equalTo("SELECT ? || 'slow'")
+        );
+        MatcherAssert.assertThat(
+            entries.get(0).args(), Matchers.contains("very")
+        );
+    }
+
+    /**
+     * SlowLog can redact arguments.
+     * @throws Exception If there is some problem inside
+     */
+    @Test
+    void redactsArguments() throws Exception {
+        final List<SlowLog.Entry> entries = new CopyOnWriteArrayList<>();
+        try (SlowLog log = new SlowLog(
+            0L, TimeUnit.NANOSECONDS, SlowLog.Redaction.MASK, entries::add
+        )) {
+            new JdbcSession<>(
+                new Logged<>(
+                    log,
+                    new Select<>(
+                        new Sql("SELECT ?"), new Args("secret"),
+                        new SingleOutcome<>(String.class)
+                    )
+                )
+            ).using(new H2Source("slw23b"));
+        }
+        MatcherAssert.assertThat(
+            entries.get(0).args(), Matchers.contains("?")
+        );
+    }
+
+    /**
+     * SlowLog can wake up its sleeping drain for new entries.
+     * @throws Exception If there is some problem inside
+     */
+    @Test
+    void drainsEntriesAfterSleeping() throws Exception {
+        final List<SlowLog.Entry> entries = new CopyOnWriteArrayList<>();
+        final DataSource source = new H2Source("slw23c");
+        try (SlowLog log = new SlowLog(0L, TimeUnit.NANOSECONDS, entries::add)) {
+            for (int idx = 1; idx <= 2; ++idx) {
+                new JdbcSession<>(
+                    new Logged<>(
+                        log,
+                        new Select<>(
+                            new Sql("SELECT ? || 'again'"), new Args(idx),
+                            new SingleOutcome<>(String.class)
+                        )
+                    )
+                ).using(source);
+                final long end = System.currentTimeMillis() + 5000L;
+                while (entries.size() < idx
+                    && System.currentTimeMillis() < end) {
+                    TimeUnit.MILLISECONDS.sleep(10L);
+                }
+                MatcherAssert.assertThat(entries, Matchers.hasSize(idx));
+            }
+        }
+    }
+
+    /**
+     * SlowLog can lift its fast path when a threshold is raised.
+     * @throws Exception If there is some problem inside
+     */
+    @Test
+    void liftsRaisedThresholds() throws Exception {
+        final AtomicInteger looked = new AtomicInteger();
+        final Sql sql = new Sql("SELECT 'raised'");
+        try (SlowLog log = new SlowLog(1L, TimeUnit.HOURS, entry -> { })) {
+            log.threshold(sql, 0L, TimeUnit.NANOSECONDS);
+            log.threshold(sql, 1L, TimeUnit.HOURS);
+            log.took(1_000_000L, SlowLogTest.query(sql, looked));
+        }
+        MatcherAssert.assertThat(looked.get(), Matchers.is(0));
+    }
+
+    /**
+     * SlowLog can ignore queries once closed.
+     * @throws Exception If there is some problem inside
+     */
+    @Test
+    void ignoresQueriesWhenClosed() throws Exception {
+        final AtomicInteger looked = new AtomicInteger();
+        final SlowLog log = new SlowLog(
+            0L, TimeUnit.NANOSECONDS, entry -> { }
+        );
+        log.close();
+        log.took(1_000_000L, SlowLogTest.query(new Sql("SELECT 1"), looked));
+        MatcherAssert.assertThat(looked.get(), Matchers.is(0));
+    }
+
+    /**
+     * Ring can refuse items when full.
+     */
+    @Test
+    void refusesItemsWhenFull() {
+        final Ring<String> ring = new Ring<>(2);
+        MatcherAssert.assertThat(ring.offer("a"), Matchers.is(true));
+        MatcherAssert.assertThat(ring.offer("b"), Matchers.is(true));
+        MatcherAssert.assertThat(ring.offer("c"), Matchers.is(false));
+        MatcherAssert.assertThat(ring.poll(), Matchers.equalTo("a"));
+        MatcherAssert.assertThat(ring.offer("c"), Matchers.is(true));
+        MatcherAssert.assertThat(ring.poll(), Matchers.equalTo("b"));
+        MatcherAssert.assertThat(ring.poll(), Matchers.equalTo("c"));
+        MatcherAssert.assertThat(ring.poll(), Matchers.nullValue());
+    }
+
+    /**
+     * Query counting how often it is looked at.
+     * @param sql SQL
+     * @param looked Times looked at
+     * @return Query
+     */
+    private static SlowLog.Query query(final Sql sql,
+        final AtomicInteger looked) {
+        return new SlowLog.Query() {
+            @Override
+            public String sql() {
+                looked.incrementAndGet();
+                return sql.compiled().asString();
+            }
+
+            @Override
+            public long fingerprint() {
+                looked.incrementAndGet();
+                return sql.compiled().fingerprint();
+            }
+
+            @Override
+            public List<Object> args() {
+                looked.incrementAndGet();
+                return Collections.emptyList();
+            }
+        };
+    }
+}
@@ -0,0 +1,141 @@
+/*
+ * Copyright (c) 2012-2018, jcabi.com
+ * Copyright (c) 2021, github.com/piotrkot
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions
+ * are met: 1) Redistributions of source code must retain the above
+ * copyright notice, this list of conditions and the following
+ * disclaimer. 2) Redistributions in binary form must reproduce the above
+ * copyright notice, this list of conditions and the following
+ * disclaimer in the documentation and/or other materials provided
+ * with the distribution. 3) Neither the name of the jcabi.com nor
+ * the names of its contributors may be used to endorse or promote
+ * products derived from this software without specific prior written
+ * permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT
+ * NOT LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND
+ * FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL
+ * THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT,
+ * INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION)
+ * HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT,
+ * STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED
+ * OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.github.piotrkot.oojdbc;
+
+import org.hamcrest.MatcherAssert;
+import org.hamcrest.Matchers;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Test case for {@link Sql}.
+ *
+ * @since 1.5
+ */
+final class SqlTest {
+
+    /**
+     * Sql can join its parts.
+     */
+    @Test
+    void joinsParts() {
+        MatcherAssert.assertThat(
+            new Sql("SELECT name", "FROM users").asString(),
+            Matchers.is("SELECT name FROM users")
+        );
+    }
+
+    /**
+     * Sql can normalize whitespace when compiled.
+     */
+    @Test
+    void normalizesWhitespace() {
+        MatcherAssert.assertThat(
+            new Sql("  SELECT a,\n\tb ", " FROM t ").compiled().asString(),
+            Matchers.is("SELECT a, b FROM t")
+        );
+    }
+
+    /**
+     * Sql can keep quoted text and comments intact.
+     */
+    @Test
+    void keepsQuotesAndComments() {
+        MatcherAssert.assertThat(
+            new Sql(
+                "SELECT 'a  b',  \"c  d\" -- x  y\n",
+                "  FROM t WHERE e = 'it''s  ok'"
+            ).compiled().asString(),
+            Matchers.is(
+                "SELECT 'a  b', \"c  d\" -- x  y\nFROM t WHERE e = 'it''s  ok'"
+            )
+        );
+    }
+
+    /**
+     * Sql can keep text after a backslash in quotes intact.
+     */
+    @Test
+    void keepsTextAfterBackslash() {
+        MatcherAssert.assertThat(
+            new Sql("SELECT  'C:\\' ||  ' a  b'").compiled().asString(),
+            Matchers.is("SELECT 'C:\\' ||  ' a  b'")
+        );
+    }
+
+    /**
+     * Sql can keep block comments intact, written with angle brackets
+     * in place of slashes.
+     */
+    @Test
+    void keepsBlockComments() {
+        MatcherAssert.assertThat(
+            new Sql(
+                "SELECT  <* it's  <* so *>  *> ' a  b'".replace('<', '/')
+                    .replace('>', '/')
+            ).compiled().asString(),
+            Matchers.is(
+                "SELECT <* it's  <* so *>  *> ' a  b'".replace('<', '/')
+                    .replace('>', '/')
+            )
+        );
+    }
+
+    /**
+     * Sql can keep dollar-quoted text intact.
+     */
+    @Test
+    void keepsDollarQuotes() {
+        MatcherAssert.assertThat(
+            new Sql(
+                "SELECT  $f$ it's  $$ $f$,  $$ a  b $$,  $1"
+            ).compiled().asString(),
+            Matchers.is("SELECT $f$ it's  $$ $f$, $$ a  b $$, $1")
+        );
+    }
+
+    /**
+     * Sql can give equivalent spellings the same fingerprint.
+     */
+    @Test
+    void fingerprintsEquivalentSpellings() {
+        final Sql first = new Sql("SELECT a", "FROM t").compiled();
+        final Sql second = new Sql("SELECT  a\nFROM t").compiled();
+        MatcherAssert.assertThat(
+            first.fingerprint(),
+            Matchers.is(second.fingerprint())
+        );
+        MatcherAssert.assertThat(first, Matchers.equalTo(second));
+        MatcherAssert.assertThat(
+            first.compiled(),
+            Matchers.sameInstance(first)
+        );
+    }
+}
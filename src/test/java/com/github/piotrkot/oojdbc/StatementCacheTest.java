@@ -0,0 +1,183 @@
+/*
+ * Copyright (c) 2012-2018, jcabi.com
+ * Copyright (c) 2021, github.com/piotrkot
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions
+ * are met: 1) Redistributions of source code must retain the above
+ * copyright notice, this list of conditions and the following
+ * disclaimer. 2) Redistributions in binary form must reproduce the above
+ * copyright notice, this list of conditions and the following
+ * disclaimer in the documentation and/or other materials provided
+ * with the distribution. 3) Neither the name of the jcabi.com nor
+ * the names of its contributors may be used to endorse or promote
+ * products derived from this software without specific prior written
+ * permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT
+ * NOT LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND
+ * FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL
+ * THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT,
+ * INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION)
+ * HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT,
+ * STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED
+ * OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.github.piotrkot.oojdbc;
+
+import com.github.piotrkot.oojdbc.outcomes.ColumnOutcome;
+import com.github.piotrkot.oojdbc.outcomes.SingleOutcome;
+import com.github.piotrkot.oojdbc.statements.Args;
+import com.github.piotrkot.oojdbc.statements.Exec;
+import com.github.piotrkot.oojdbc.statements.Insert;
+import com.github.piotrkot.oojdbc.statements.Select;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.util.Collection;
+import javax.sql.DataSource;
+import org.hamcrest.MatcherAssert;
+import org.hamcrest.Matchers;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Test case for {@link StatementCache}.
+ *
+ * @since 1.5
+ * @checkstyle ClassDataAbstractionCoupling (2 lines)
+ */
+final class StatementCacheTest {
+
+    /**
+     * StatementCache can reuse prepared statements.
+     * @throws Exception If there is some problem inside
+     */
+    @Test
+    @SuppressWarnings("PMD.AvoidInstantiatingObjectsInLoops")
+    void reusesPreparedStatements() throws Exception {
+        final DataSource source = new H2Source("stc41");
+        final StatementCache<Long> cache = new StatementCache<>(
+            conn -> {
+                new Exec(
+                    new Sql("CREATE TABLE foo (id INT, name VARCHAR(50))")
+                ).using(conn);
+                // @checkstyle MagicNumber (1 line)
+                for (int idx = 0; idx < 5; ++idx) {
+                    new Insert<>(
+                        new Sql("INSERT INTO foo (id, name) VALUES (?, ?)"),
+                        new Args(idx, "Jeff"),
+                        Outcome.VOID
+                    ).using(conn);
+                }
+                return new Select<>(
+                    new Sql("SELECT COUNT(*) FROM foo"),
+                    new SingleOutcome<>(Long.class)
+                ).using(conn);
+            },
+            2
+        );
+        MatcherAssert.assertThat(
+            new JdbcSessionTx<>(cache).using(source),
+            Matchers.is(5L)
+        );
+        MatcherAssert.assertThat(cache.hits(), Matchers.is(4L));
+        MatcherAssert.assertThat(cache.misses(), Matchers.is(3L));
+    }
+
+    /**
+     * StatementCache can prepare again statement still in use.
+     * @throws Exception If there is some problem inside
+     */
+    @Test
+    void preparesStatementInUseAgain() throws Exception {
+        final StatementCache<Integer> cache = new StatementCache<>(
+            conn -> {
+                final Select<ResultSet> select = new Select<>(
+                    new Sql("CALL 7"),
+                    (Outcome.Owning<ResultSet>) (rset, stmt) -> rset
+                );
+                try (ResultSet first = select.using(conn);
+                    ResultSet second = select.using(conn)) {
+                    int sum = 0;
+                    while (first.next() && second.next()) {
+                        sum += first.getInt(1) + second.getInt(1);
+                    }
+                    return sum;
+                }
+            }
+        );
+        MatcherAssert.assertThat(
+            new JdbcSession<>(cache).using(new H2Source("stc42")),
+            Matchers.is(14)
+        );
+        MatcherAssert.assertThat(cache.misses(), Matchers.is(2L));
+    }
+
+    /**
+     * StatementCache can restore properties of reused statements.
+     * @throws Exception If there is some problem inside
+     */
+    @Test
+    void restoresPropertiesOfReusedStatements() throws Exception {
+        final StatementCache<Collection<Integer>> cache = new StatementCache<>(
+            conn -> {
+                final Sql sql = new Sql("SELECT X FROM SYSTEM_RANGE(1, 3)");
+                final Outcome<Boolean> limiting = (rset, stmt) -> {
+                    stmt.setMaxRows(1);
+                    stmt.setQueryTimeout(1);
+                    return rset.next();
+                };
+                new Select<>(sql, limiting).using(conn);
+                final Outcome<Collection<Integer>> all = (rset, stmt) -> {
+                    MatcherAssert.assertThat(
+                        stmt.getQueryTimeout(), Matchers.is(0)
+                    );
+                    return new ColumnOutcome<>(Integer.class)
+                        .handle(rset, stmt);
+                };
+                return new Select<>(sql, all).using(conn);
+            }
+        );
+        MatcherAssert.assertThat(
+            new JdbcSession<>(cache).using(new H2Source("stc43")),
+            Matchers.contains(1, 2, 3)
+        );
+        MatcherAssert.assertThat(cache.hits(), Matchers.is(1L));
+    }
+
+    /**
+     * StatementCache can drop a batch left by an aborted user.
+     * @throws Exception If there is some problem inside
+     */
+    @Test
+    void dropsAbortedBatches() throws Exception {
+        final StatementCache<Long> cache = new StatementCache<>(
+            conn -> {
+                new Exec(new Sql("CREATE TABLE bar (id INT)")).using(conn);
+                final String sql = "INSERT INTO bar (id) VALUES (?)";
+                try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+                    stmt.setInt(1, 1);
+                    stmt.addBatch();
+                }
+                try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+                    stmt.setInt(1, 2);
+                    stmt.addBatch();
+                    stmt.executeBatch();
+                }
+                return new Select<>(
+                    new Sql("SELECT COUNT(*) FROM bar"),
+                    new SingleOutcome<>(Long.class)
+                ).using(conn);
+            }
+        );
+        MatcherAssert.assertThat(
+            new JdbcSession<>(cache).using(new H2Source("stc44")),
+            Matchers.is(1L)
+        );
+        MatcherAssert.assertThat(cache.hits(), Matchers.is(1L));
+    }
+}
@@ -30,15 +30,23 @@
  */
 package com.github.piotrkot.oojdbc;
 
+import com.github.piotrkot.oojdbc.outcomes.ListOutcome;
+import com.github.piotrkot.oojdbc.outcomes.LongColumnOutcome;
+import com.github.piotrkot.oojdbc.outcomes.SingleOutcome;
 import com.github.piotrkot.oojdbc.statements.Args;
 import com.github.piotrkot.oojdbc.statements.Exec;
 import com.github.piotrkot.oojdbc.statements.Insert;
+import com.github.piotrkot.oojdbc.statements.Select;
 import java.security.SecureRandom;
 import java.sql.Connection;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.text.DateFormat;
 import java.text.SimpleDateFormat;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
 import java.util.Date;
 import java.util.GregorianCalendar;
 import java.util.Locale;
@@ -195,4 +203,82 @@ final class UtcTest {
             Matchers.equalTo(date.toString())
         );
     }
+
+    /**
+     * Utc can read timestamps of instants as milliseconds.
+     * @throws Exception If there is some problem inside
+     */
+    @Test
+    void readsInstantsAsMillis() throws Exception {
+        final Instant instant = Instant.parse("2008-05-24T05:06:07.123Z");
+        new JdbcSession<>(
+            new Exec(
+                new Sql("INSERT INTO foo (date) VALUES (?), (?), (NULL)"),
+                new Args(instant, new Utc(instant.toEpochMilli() + 1L))
+            )
+        ).using(this.source);
+        MatcherAssert.assertThat(
+            new JdbcSession<>(
+                new Select<>(
+                    new Sql("SELECT date FROM foo ORDER BY date"),
+                    new LongColumnOutcome(
+                        1, -1L, LongColumnOutcome.Getter.UTC_MILLIS
+                    )
+                )
+            ).using(this.source),
+            Matchers.is(
+                new long[] {
+                    -1L, instant.toEpochMilli(), instant.toEpochMilli() + 1L,
+                }
+            )
+        );
+        MatcherAssert.assertThat(
+            new JdbcSession<>(
+                new Select<>(
+                    new Sql("SELECT date FROM foo WHERE date = ?"),
+                    new Args(instant),
+                    new SingleOutcome<>(Instant.class)
+                )
+            ).using(this.source),
+            Matchers.is(instant)
+        );
+    }
+
+    /**
+     * Utc can bind its UTC wall clock to columns with time zone, read in
+     * the time zone of the session, while OffsetDateTime keeps the instant.
+     * @throws Exception If there is some problem inside
+     */
+    @Test
+    void bindsWallClockToColumnsWithTimeZone() throws Exception {
+        final Instant instant = Instant.parse("2008-05-24T05:06:07.123Z");
+        MatcherAssert.assertThat(
+            new JdbcSession<>(
+                conn -> {
+                    new Exec(new Sql("SET TIME ZONE '+05:00'")).using(conn);
+                    new Exec(
+                        new Sql(
+                            "CREATE TABLE bar",
+                            "(id INT, date TIMESTAMP WITH TIME ZONE)"
+                        )
+                    ).using(conn);
+                    new Exec(
+                        new Sql("INSERT INTO bar VALUES (1, ?), (2, ?)"),
+                        new Args(
+                            new Utc(instant.toEpochMilli()),
+                            instant.atOffset(ZoneOffset.UTC)
+                        )
+                    ).using(conn);
+                    return new Select<>(
+                        new Sql("SELECT date FROM bar ORDER BY id"),
+                        new ListOutcome<>(
+                            rset -> rset.getObject(1, OffsetDateTime.class)
+                                .toInstant()
+                        )
+                    ).using(conn);
+                }
+            ).using(this.source),
+            Matchers.contains(instant.minus(Duration.ofHours(5L)), instant)
+        );
+    }
 }
@@ -0,0 +1,347 @@
+/*
+ * Copyright (c) 2012-2018, jcabi.com
+ * Copyright (c) 2021, github.com/piotrkot
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions
+ * are met: 1) Redistributions of source code must retain the above
+ * copyright notice, this list of conditions and the following
+ * disclaimer. 2) Redistributions in binary form must reproduce the above
+ * copyright notice, this list of conditions and the following
+ * disclaimer in the documentation and/or other materials provided
+ * with the distribution. 3) Neither the name of the jcabi.com nor
+ * the names of its contributors may be used to endorse or promote
+ * products derived from this software without specific prior written
+ * permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT
+ * NOT LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND
+ * FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL
+ * THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT,
+ * INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION)
+ * HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT,
+ * STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED
+ * OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.github.piotrkot.oojdbc.outcomes;
+
+import com.github.piotrkot.oojdbc.H2Source;
+import com.github.piotrkot.oojdbc.JdbcSession;
+import com.github.piotrkot.oojdbc.Sql;
+import com.github.piotrkot.oojdbc.statements.Exec;
+import com.github.piotrkot.oojdbc.statements.Select;
+import java.beans.ConstructorProperties;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import javax.sql.DataSource;
+import javax.tools.JavaCompiler;
+import javax.tools.ToolProvider;
+import org.hamcrest.MatcherAssert;
+import org.hamcrest.Matchers;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Assumptions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * Test case for {@link BeanOutcome}.
+ *
+ * @since 1.5
+ * @checkstyle ClassDataAbstractionCoupling (2 lines)
+ */
+@SuppressWarnings("PMD.TooManyMethods")
+final class BeanOutcomeTest {
+
+    /**
+     * Data source.
+     */
+    private DataSource source;
+
+    /**
+     * Create table with users.
+     * @throws Exception If there is some problem inside
+     */
+    @BeforeEach
+    void createUsers() throws Exception {
+        this.source = new H2Source("bns11");
+        new JdbcSession<>(
+            conn -> {
+                new Exec(
+                    new Sql(
+                        "CREATE TABLE IF NOT EXISTS usr",
+                        "(first_name VARCHAR(50), age INT, extra INT)"
+                    )
+                ).using(conn);
+                new Exec(new Sql("DELETE FROM usr")).using(conn);
+                return new Exec(
+                    new Sql("INSERT INTO usr VALUES ('Jeff', 42, 1), ('Walter', 45, 2)")
+                ).using(conn);
+            }
+        ).using(this.source);
+    }
+
+    /**
+     * BeanOutcome can fill beans with setters.
+     * @throws Exception If there is some problem inside
+     */
+    @Test
+    void fillsBeans() throws Exception {
+        final List<BeanOutcomeTest.Bean> users = new JdbcSession<>(
+            new Select<>(
+                new Sql("SELECT first_name, age FROM usr ORDER BY age"),
+                new BeanOutcome<>(BeanOutcomeTest.Bean.class)
+            )
+        ).using(this.source);
+        MatcherAssert.assertThat(users, Matchers.hasSize(2));
+        MatcherAssert.assertThat(
+            users.get(1).name, Matchers.is("Walter")
+        );
+        MatcherAssert.assertThat(users.get(1).age, Matchers.is(45));
+    }
+
+    /**
+     * BeanOutcome can build objects with constructors.
+     * @throws Exception If there is some problem inside
+     */
+    @Test
+    void buildsWithConstructor() throws Exception {
+        final BeanOutcome<BeanOutcomeTest.Value> outcome =
+            new BeanOutcome<>(BeanOutcomeTest.Value.class);
+        final Select<List<BeanOutcomeTest.Value>> select = new Select<>(
+            new Sql("SELECT * FROM usr ORDER BY age"), outcome
+        );
+        new JdbcSession<>(select).using(this.source);
+        final List<BeanOutcomeTest.Value> users =
+            new JdbcSession<>(select).using(this.source);
+        MatcherAssert.assertThat(
+            users.get(0).name, Matchers.is("Jeff")
+        );
+        MatcherAssert.assertThat(users.get(0).age, Matchers.is(42L));
+    }
+
+    /**
+     * BeanOutcome can fail when constructor parameters have no columns.
+     */
+    @Test
+    void failsOnMissingColumn() {
+        Assertions.assertThrows(
+            SQLException.class,
+            () -> new JdbcSession<>(
+                new Select<>(
+                    new Sql("SELECT age FROM usr"),
+                    new BeanOutcome<>(BeanOutcomeTest.Value.class)
+                )
+            ).using(this.source)
+        );
+    }
+
+    /**
+     * BeanOutcome can read SQL NULL into wrapper properties.
+     * @throws Exception If there is some problem inside
+     */
+    @Test
+    void readsNullIntoWrappers() throws Exception {
+        final List<BeanOutcomeTest.Bean> users = new JdbcSession<>(
+            new Select<>(
+                new Sql(
+                    "SELECT first_name, age, CAST(NULL AS INT) AS extra",
+                    "FROM usr ORDER BY age"
+                ),
+                new BeanOutcome<>(BeanOutcomeTest.Bean.class)
+            )
+        ).using(this.source);
+        MatcherAssert.assertThat(users.get(0).extra, Matchers.nullValue());
+    }
+
+    /**
+     * BeanOutcome can build records, with SQL NULL in wrapper components.
+     * @param dir Directory for compiled classes
+     * @throws Exception If there is some problem inside
+     */
+    @Test
+    void buildsRecords(@TempDir final Path dir) throws Exception {
+        Assumptions.assumeTrue(
+            Double.parseDouble(System.getProperty("java.specification.version"))
+                >= 16,
+            "records need Java 16"
+        );
+        final List<?> users = BeanOutcomeTest.users(
+            this.source,
+            BeanOutcomeTest.compiled(
+                dir, "Person",
+                "public record Person(String firstName, Integer extra) {}"
+            )
+        );
+        MatcherAssert.assertThat(
+            users.get(1),
+            Matchers.hasToString("Person[firstName=Walter, extra=null]")
+        );
+    }
+
+    /**
+     * BeanOutcome can prefer setters over parameter names.
+     * @param dir Directory for compiled classes
+     * @throws Exception If there is some problem inside
+     */
+    @Test
+    void prefersSettersOverParameterNames(@TempDir final Path dir)
+        throws Exception {
+        final List<?> users = BeanOutcomeTest.users(
+            this.source,
+            BeanOutcomeTest.compiled(
+                dir, "Named",
+                String.join(
+                    "\n",
+                    "public class Named {",
+                    "  private String name = \"none\";",
+                    "  public Named() { }",
+                    "  public Named(String firstName, Integer extra) {",
+                    "    this.name = \"constructor\";",
+                    "  }",
+                    "  public void setFirstName(String first) {",
+                    "    this.name = first;",
+                    "  }",
+                    "  public String toString() { return this.name; }",
+                    "}"
+                ),
+                "-parameters"
+            )
+        );
+        MatcherAssert.assertThat(users.get(0), Matchers.hasToString("Jeff"));
+    }
+
+    /**
+     * Users, read into objects of the type.
+     * @param source Data source
+     * @param type Type of objects
+     * @return Users, by age
+     * @throws Exception If fails
+     */
+    private static List<?> users(final DataSource source, final Class<?> type)
+        throws Exception {
+        return new JdbcSession<>(
+            new Select<>(
+                new Sql(
+                    "SELECT first_name, CAST(NULL AS INT) AS extra",
+                    "FROM usr ORDER BY age"
+                ),
+                new BeanOutcome<>(type)
+            )
+        ).using(source);
+    }
+
+    /**
+     * Class compiled from the source.
+     * @param dir Directory for compiled classes
+     * @param name Name of the class
+     * @param code Source code of the class
+     * @param options Options of the compiler
+     * @return Class
+     * @throws Exception If fails
+     * @checkstyle ParameterNumberCheck (4 lines)
+     */
+    @SuppressWarnings("PMD.CloseResource")
+    private static Class<?> compiled(final Path dir, final String name,
+        final String code, final String... options) throws Exception {
+        final JavaCompiler javac = ToolProvider.getSystemJavaCompiler();
+        Assumptions.assumeTrue(javac != null, "no Java compiler");
+        final Path file = dir.resolve(String.format("%s.java", name));
+        Files.write(file, code.getBytes(StandardCharsets.UTF_8));
+        final List<String> args = new ArrayList<>(Arrays.asList(options));
+        args.add(file.toString());
+        MatcherAssert.assertThat(
+            javac.run(null, null, null, args.toArray(new String[0])),
+            Matchers.is(0)
+        );
+        return new URLClassLoader(new URL[]{dir.toUri().toURL()})
+            .loadClass(name);
+    }
+
+    /**
+     * Bean with setters.
+     *
+     * @since 1.5
+     */
+    public static final class Bean {
+        /**
+         * Name.
+         */
+        private String name;
+
+        /**
+         * Age.
+         */
+        private int age;
+
+        /**
+         * Extra, NULL unless set.
+         */
+        private Integer extra;
+
+        /**
+         * Set name.
+         * @param first First name
+         */
+        public void setFirstName(final String first) {
+            this.name = first;
+        }
+
+        /**
+         * Set age.
+         * @param years Age
+         */
+        public void setAge(final int years) {
+            this.age = years;
+        }
+
+        /**
+         * Set extra.
+         * @param value Extra
+         */
+        public void setExtra(final Integer value) {
+            this.extra = value;
+        }
+    }
+
+    /**
+     * Value built with a constructor.
+     *
+     * @since 1.5
+     */
+    public static final class Value {
+        /**
+         * Name.
+         */
+        private final String name;
+
+        /**
+         * Age.
+         */
+        private final long age;
+
+        /**
+         * Ctor.
+         * @param name Name
+         * @param age Age
+         */
+        @ConstructorProperties({"firstName", "age"})
+        // @checkstyle RedundantModifier (1 line)
+        public Value(final String name, final long age) {
+            this.name = name;
+            this.age = age;
+        }
+    }
+}
@@ -0,0 +1,122 @@
+/*
+ * Copyright (c) 2012-2018, jcabi.com
+ * Copyright (c) 2021, github.com/piotrkot
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions
+ * are met: 1) Redistributions of source code must retain the above
+ * copyright notice, this list of conditions and the following
+ * disclaimer. 2) Redistributions in binary form must reproduce the above
+ * copyright notice, this list of conditions and the following
+ * disclaimer in the documentation and/or other materials provided
+ * with the distribution. 3) Neither the name of the jcabi.com nor
+ * the names of its contributors may be used to endorse or promote
+ * products derived from this software without specific prior written
+ * permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT
+ * NOT LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND
+ * FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL
+ * THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT,
+ * INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION)
+ * HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT,
+ * STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED
+ * OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.github.piotrkot.oojdbc.outcomes;
+
+import com.github.piotrkot.oojdbc.H2Source;
+import com.github.piotrkot.oojdbc.JdbcSession;
+import com.github.piotrkot.oojdbc.Sql;
+import com.github.piotrkot.oojdbc.statements.Exec;
+import com.github.piotrkot.oojdbc.statements.Select;
+import java.math.BigDecimal;
+import javax.sql.DataSource;
+import org.hamcrest.MatcherAssert;
+import org.hamcrest.Matchers;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Test case for {@link ColumnarOutcome}.
+ *
+ * @since 1.5
+ * @checkstyle ClassDataAbstractionCoupling (2 lines)
+ */
+final class ColumnarOutcomeTest {
+
+    /**
+     * ColumnarOutcome can store columns by type, off the heap.
+     * @throws Exception If there is some problem inside
+     */
+    @Test
+    void storesColumnsByType() throws Exception {
+        final DataSource source = new H2Source("c0lmn1");
+        new JdbcSession<>(
+            conn -> {
+                new Exec(
+                    new Sql(
+                        "CREATE TABLE sale (id BIGINT, region VARCHAR(9),",
+                        "amount DOUBLE, tax DECIMAL(5, 2))"
+                    )
+                ).using(conn);
+                return new Exec(
+                    new Sql(
+                        "INSERT INTO sale VALUES (1, 'EU', 2.5, 0.5),",
+                        "(2, 'US', NULL, NULL), (3, 'EU', 4.0, 1.25)"
+                    )
+                ).using(conn);
+            }
+        ).using(source);
+        final Columns sales = new JdbcSession<>(
+            new Select<>(
+                new Sql("SELECT * FROM sale ORDER BY id"),
+                new ColumnarOutcome(true)
+            )
+        ).using(source);
+        MatcherAssert.assertThat(sales.size(), Matchers.is(3));
+        MatcherAssert.assertThat(sales.width(), Matchers.is(4));
+        final Columns.Cursor cursor = sales.cursor();
+        final StringBuilder regions = new StringBuilder();
+        double total = 0;
+        long ids = 0;
+        int nulls = 0;
+        while (cursor.next()) {
+            ids += cursor.getLong(1);
+            regions.append(cursor.getString(sales.position("region")));
+            total += cursor.getDouble(3);
+            if (cursor.isNull(4)) {
+                ++nulls;
+            }
+        }
+        MatcherAssert.assertThat(ids, Matchers.is(6L));
+        MatcherAssert.assertThat(regions.toString(), Matchers.is("EUUSEU"));
+        MatcherAssert.assertThat(total, Matchers.closeTo(6.5, 0.001));
+        MatcherAssert.assertThat(nulls, Matchers.is(1));
+    }
+
+    /**
+     * ColumnarOutcome can keep other types as objects.
+     * @throws Exception If there is some problem inside
+     */
+    @Test
+    void keepsOtherTypesAsObjects() throws Exception {
+        final Columns cols = new JdbcSession<>(
+            new Select<>(
+                new Sql("SELECT CAST(1.25 AS DECIMAL(5, 2))"),
+                new ColumnarOutcome()
+            )
+        ).using(new H2Source("c0lmn2"));
+        final Columns.Cursor cursor = cols.cursor();
+        MatcherAssert.assertThat(cursor.next(), Matchers.is(true));
+        MatcherAssert.assertThat(
+            cursor.getObject(1),
+            Matchers.is(new BigDecimal("1.25"))
+        );
+        MatcherAssert.assertThat(cursor.next(), Matchers.is(false));
+    }
+}
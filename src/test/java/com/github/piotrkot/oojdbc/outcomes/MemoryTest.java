@@ -0,0 +1,98 @@
+/*
+ * Copyright (c) 2012-2018, jcabi.com
+ * Copyright (c) 2021, github.com/piotrkot
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions
+ * are met: 1) Redistributions of source code must retain the above
+ * copyright notice, this list of conditions and the following
+ * disclaimer. 2) Redistributions in binary form must reproduce the above
+ * copyright notice, this list of conditions and the following
+ * disclaimer in the documentation and/or other materials provided
+ * with the distribution. 3) Neither the name of the jcabi.com nor
+ * the names of its contributors may be used to endorse or promote
+ * products derived from this software without specific prior written
+ * permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT
+ * NOT LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND
+ * FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL
+ * THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT,
+ * INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION)
+ * HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT,
+ * STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED
+ * OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.github.piotrkot.oojdbc.outcomes;
+
+import org.hamcrest.MatcherAssert;
+import org.hamcrest.Matchers;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Test case for {@link Memory}.
+ *
+ * @since 1.5
+ * @checkstyle MagicNumber (100 lines)
+ */
+final class MemoryTest {
+
+    /**
+     * Memory can keep values across chunks.
+     */
+    @Test
+    void keepsValuesAcrossChunks() {
+        final Memory memory = new Memory(true);
+        final int count = 100_000;
+        for (int idx = 0; idx < count; ++idx) {
+            memory.putLong(idx, idx * 3L);
+        }
+        for (int idx = 0; idx < count; ++idx) {
+            MatcherAssert.assertThat(
+                memory.getLong(idx), Matchers.equalTo(idx * 3L)
+            );
+        }
+    }
+
+    /**
+     * Memory can address offsets beyond two gigabytes.
+     */
+    @Test
+    void addressesLargeOffsets() {
+        final long offset = (long) Integer.MAX_VALUE * Long.BYTES;
+        final int index = Memory.index(offset);
+        MatcherAssert.assertThat(
+            Memory.start(index),
+            Matchers.lessThanOrEqualTo(offset)
+        );
+        MatcherAssert.assertThat(
+            Memory.start(index + 1),
+            Matchers.greaterThan(offset)
+        );
+        MatcherAssert.assertThat(
+            Memory.start(index + 1) - Memory.start(index),
+            Matchers.equalTo(64L << 20)
+        );
+    }
+
+    /**
+     * Memory can start chunks where the previous ones end.
+     */
+    @Test
+    void startsChunksContiguously() {
+        for (int index = 0; index < 40; ++index) {
+            MatcherAssert.assertThat(
+                Memory.index(Memory.start(index)), Matchers.equalTo(index)
+            );
+            MatcherAssert.assertThat(
+                Memory.index(Memory.start(index + 1) - 1L),
+                Matchers.equalTo(index)
+            );
+        }
+    }
+}
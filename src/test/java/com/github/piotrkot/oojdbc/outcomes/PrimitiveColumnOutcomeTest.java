@@ -0,0 +1,156 @@
+/*
+ * Copyright (c) 2012-2018, jcabi.com
+ * Copyright (c) 2021, github.com/piotrkot
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions
+ * are met: 1) Redistributions of source code must retain the above
+ * copyright notice, this list of conditions and the following
+ * disclaimer. 2) Redistributions in binary form must reproduce the above
+ * copyright notice, this list of conditions and the following
+ * disclaimer in the documentation and/or other materials provided
+ * with the distribution. 3) Neither the name of the jcabi.com nor
+ * the names of its contributors may be used to endorse or promote
+ * products derived from this software without specific prior written
+ * permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT
+ * NOT LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND
+ * FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL
+ * THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT,
+ * INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION)
+ * HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT,
+ * STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED
+ * OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.github.piotrkot.oojdbc.outcomes;
+
+import com.github.piotrkot.oojdbc.H2Source;
+import com.github.piotrkot.oojdbc.JdbcSession;
+import com.github.piotrkot.oojdbc.Outcome;
+import com.github.piotrkot.oojdbc.Sql;
+import com.github.piotrkot.oojdbc.statements.Args;
+import com.github.piotrkot.oojdbc.statements.Batch;
+import com.github.piotrkot.oojdbc.statements.Exec;
+import com.github.piotrkot.oojdbc.statements.Select;
+import java.lang.reflect.Array;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.stream.Stream;
+import javax.sql.DataSource;
+import org.hamcrest.MatcherAssert;
+import org.hamcrest.Matchers;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DynamicTest;
+import org.junit.jupiter.api.TestFactory;
+
+/**
+ * Test case for {@link IntColumnOutcome}, {@link LongColumnOutcome} and
+ * {@link DoubleColumnOutcome}, of what they share.
+ *
+ * @since 1.5
+ * @checkstyle ClassDataAbstractionCoupling (2 lines)
+ */
+final class PrimitiveColumnOutcomeTest {
+
+    /**
+     * Primitive column outcomes can grow past many rows and replace NULL
+     * with a sentinel, or fail on it.
+     * @return Tests, one per outcome
+     */
+    @TestFactory
+    Stream<DynamicTest> growsAndHandlesNulls() {
+        return Stream.of(
+            PrimitiveColumnOutcomeTest.checked(
+                "INT", new IntColumnOutcome(-1), new IntColumnOutcome()
+            ),
+            PrimitiveColumnOutcomeTest.checked(
+                "BIGINT", new LongColumnOutcome(-1L), new LongColumnOutcome()
+            ),
+            PrimitiveColumnOutcomeTest.checked(
+                "DOUBLE", new DoubleColumnOutcome(-1.0),
+                new DoubleColumnOutcome()
+            )
+        );
+    }
+
+    /**
+     * Test of one outcome.
+     * @param type SQL type of the column
+     * @param lenient Outcome replacing NULL with -1
+     * @param strict Outcome failing on NULL
+     * @return Test
+     */
+    private static DynamicTest checked(final String type,
+        final Outcome<?> lenient, final Outcome<?> strict) {
+        return DynamicTest.dynamicTest(
+            type,
+            () -> {
+                final DataSource source = PrimitiveColumnOutcomeTest.filled(
+                    String.format("prim%s", type), type
+                );
+                final Object values = new JdbcSession<>(
+                    new Select<>(
+                        new Sql("SELECT val FROM foo ORDER BY val NULLS LAST"),
+                        lenient
+                    )
+                ).using(source);
+                final int count = Array.getLength(values);
+                MatcherAssert.assertThat(count, Matchers.is(1001));
+                MatcherAssert.assertThat(
+                    ((Number) Array.get(values, count - 2)).intValue(),
+                    Matchers.is(999)
+                );
+                MatcherAssert.assertThat(
+                    ((Number) Array.get(values, count - 1)).intValue(),
+                    Matchers.is(-1)
+                );
+                MatcherAssert.assertThat(
+                    Assertions.assertThrows(
+                        SQLException.class,
+                        () -> new JdbcSession<>(
+                            new Select<>(new Sql("SELECT val FROM foo"), strict)
+                        ).using(source)
+                    ).getMessage(),
+                    Matchers.containsString("NULL in column 1")
+                );
+            }
+        );
+    }
+
+    /**
+     * Source with a table of 1000 values and one NULL.
+     * @param name Database name
+     * @param type SQL type of the column
+     * @return Source
+     * @throws Exception If fails
+     */
+    @SuppressWarnings("PMD.AvoidInstantiatingObjectsInLoops")
+    private static DataSource filled(final String name, final String type)
+        throws Exception {
+        final DataSource source = new H2Source(name);
+        final Collection<Args> rows = new ArrayList<>(1000);
+        for (int idx = 0; idx < 1000; ++idx) {
+            rows.add(new Args(idx));
+        }
+        new JdbcSession<>(
+            conn -> {
+                new Exec(
+                    new Sql(String.format("CREATE TABLE foo (val %s)", type))
+                ).using(conn);
+                new Exec(new Sql("INSERT INTO foo (val) VALUES (NULL)"))
+                    .using(conn);
+                return new Batch(
+                    new Sql("INSERT INTO foo (val) VALUES (?)"), rows
+                ).using(conn);
+            }
+        ).using(source);
+        return source;
+    }
+}
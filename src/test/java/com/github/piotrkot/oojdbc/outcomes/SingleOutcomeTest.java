@@ -150,6 +150,19 @@ final class SingleOutcomeTest {
         MatcherAssert.assertThat(name, Matchers.startsWith("Jeff"));
     }
 
+    @Test
+    void retrievesNullWrapperAsZero() throws Exception {
+        MatcherAssert.assertThat(
+            new JdbcSession<>(
+                new Select<>(
+                    new Sql("CALL CAST(NULL AS INT)"),
+                    new SingleOutcome<>(Integer.class)
+                )
+            ).using(this.datasource()),
+            Matchers.is(0)
+        );
+    }
+
     @Test
     void failsFast() {
         Assertions.assertThrows(
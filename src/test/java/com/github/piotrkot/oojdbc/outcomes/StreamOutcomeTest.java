@@ -0,0 +1,133 @@
+/*
+ * Copyright (c) 2012-2018, jcabi.com
+ * Copyright (c) 2021, github.com/piotrkot
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions
+ * are met: 1) Redistributions of source code must retain the above
+ * copyright notice, this list of conditions and the following
+ * disclaimer. 2) Redistributions in binary form must reproduce the above
+ * copyright notice, this list of conditions and the following
+ * disclaimer in the documentation and/or other materials provided
+ * with the distribution. 3) Neither the name of the jcabi.com nor
+ * the names of its contributors may be used to endorse or promote
+ * products derived from this software without specific prior written
+ * permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT
+ * NOT LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND
+ * FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL
+ * THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT,
+ * INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION)
+ * HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT,
+ * STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED
+ * OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.github.piotrkot.oojdbc.outcomes;
+
+import com.github.piotrkot.oojdbc.H2Source;
+import com.github.piotrkot.oojdbc.JdbcSession;
+import com.github.piotrkot.oojdbc.JdbcSessionStream;
+import com.github.piotrkot.oojdbc.Sql;
+import com.github.piotrkot.oojdbc.statements.Args;
+import com.github.piotrkot.oojdbc.statements.Batch;
+import com.github.piotrkot.oojdbc.statements.Exec;
+import com.github.piotrkot.oojdbc.statements.Select;
+import java.lang.reflect.Proxy;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import javax.sql.DataSource;
+import org.hamcrest.MatcherAssert;
+import org.hamcrest.Matchers;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Test case for {@link StreamOutcome}.
+ *
+ * @since 1.5
+ * @checkstyle ClassDataAbstractionCoupling (2 lines)
+ */
+final class StreamOutcomeTest {
+
+    /**
+     * StreamOutcome can stream rows lazily.
+     * @throws Exception If there is some problem inside
+     */
+    @Test
+    @SuppressWarnings("PMD.AvoidInstantiatingObjectsInLoops")
+    void streamsRows() throws Exception {
+        final DataSource source = new H2Source("str34");
+        final Collection<Args> rows = new ArrayList<>(100);
+        // @checkstyle MagicNumber (1 line)
+        for (int idx = 0; idx < 100; ++idx) {
+            rows.add(new Args(idx));
+        }
+        new JdbcSession<>(
+            conn -> {
+                new Exec(new Sql("CREATE TABLE foo (id INT)")).using(conn);
+                return new Batch(
+                    new Sql("INSERT INTO foo (id) VALUES (?)"), rows
+                ).using(conn);
+            }
+        ).using(source);
+        try (Stream<Integer> ids = new JdbcSessionStream<>(
+            new Select<>(
+                new Sql("SELECT id FROM foo ORDER BY id"),
+                new StreamOutcome<>(rset -> rset.getInt(1))
+            )
+        ).using(source)) {
+            MatcherAssert.assertThat(
+                ids.filter(id -> id % 10 == 0)
+                    .limit(3)
+                    .collect(Collectors.toList()),
+                Matchers.contains(0, 10, 20)
+            );
+        }
+    }
+
+    /**
+     * StreamOutcome can close the statement when closing rows fails.
+     * @throws Exception If there is some problem inside
+     */
+    @Test
+    void closesStatementAfterFailedRows() throws Exception {
+        final AtomicBoolean closed = new AtomicBoolean();
+        final Stream<Object> rows = new StreamOutcome<Object>(rset -> rset).handle(
+            (ResultSet) Proxy.newProxyInstance(
+                Thread.currentThread().getContextClassLoader(),
+                new Class<?>[]{ResultSet.class},
+                (proxy, method, args) -> {
+                    throw new SQLException("rows not closed");
+                }
+            ),
+            (Statement) Proxy.newProxyInstance(
+                Thread.currentThread().getContextClassLoader(),
+                new Class<?>[]{Statement.class},
+                (proxy, method, args) -> {
+                    closed.set("close".equals(method.getName()));
+                    throw new SQLException("statement not closed");
+                }
+            )
+        );
+        final IllegalStateException thrown = Assertions.assertThrows(
+            IllegalStateException.class, rows::close
+        );
+        MatcherAssert.assertThat(closed.get(), Matchers.is(true));
+        MatcherAssert.assertThat(
+            thrown.getCause().getSuppressed(),
+            Matchers.arrayWithSize(1)
+        );
+    }
+}
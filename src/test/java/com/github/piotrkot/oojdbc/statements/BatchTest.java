@@ -0,0 +1,133 @@
+/*
+ * Copyright (c) 2012-2018, jcabi.com
+ * Copyright (c) 2021, github.com/piotrkot
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions
+ * are met: 1) Redistributions of source code must retain the above
+ * copyright notice, this list of conditions and the following
+ * disclaimer. 2) Redistributions in binary form must reproduce the above
+ * copyright notice, this list of conditions and the following
+ * disclaimer in the documentation and/or other materials provided
+ * with the distribution. 3) Neither the name of the jcabi.com nor
+ * the names of its contributors may be used to endorse or promote
+ * products derived from this software without specific prior written
+ * permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT
+ * NOT LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND
+ * FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL
+ * THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT,
+ * INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION)
+ * HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT,
+ * STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED
+ * OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.github.piotrkot.oojdbc.statements;
+
+import com.github.piotrkot.oojdbc.H2Source;
+import com.github.piotrkot.oojdbc.JdbcSession;
+import com.github.piotrkot.oojdbc.JdbcSessionTx;
+import com.github.piotrkot.oojdbc.Sql;
+import com.github.piotrkot.oojdbc.outcomes.SingleOutcome;
+import javax.sql.DataSource;
+import org.cactoos.iterable.IterableOf;
+import org.hamcrest.MatcherAssert;
+import org.hamcrest.Matchers;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Test case for {@link Batch}.
+ *
+ * @since 1.5
+ * @checkstyle ClassDataAbstractionCoupling (2 lines)
+ */
+final class BatchTest {
+
+    /**
+     * Batch can insert rows in chunks.
+     * @throws Exception If there is some problem inside
+     */
+    @Test
+    void insertsRowsInChunks() throws Exception {
+        final DataSource source = new H2Source("b4tc1");
+        new JdbcSession<>(
+            new Exec(new Sql("CREATE TABLE foo (id INT, name VARCHAR(50))"))
+        ).using(source);
+        MatcherAssert.assertThat(
+            new JdbcSessionTx<>(
+                new Batch(
+                    new Sql("INSERT INTO foo (id, name) VALUES (?, ?)"),
+                    new IterableOf<>(
+                        new Args(1, "Jeff"),
+                        new Args(2, "Walter"),
+                        new Args(3, "Donny")
+                    ),
+                    2
+                )
+            ).using(source),
+            Matchers.equalTo(new int[]{1, 1, 1})
+        );
+        MatcherAssert.assertThat(
+            new JdbcSession<>(
+                new Select<>(
+                    new Sql("SELECT COUNT(*) FROM foo"),
+                    new SingleOutcome<>(Long.class)
+                )
+            ).using(source),
+            Matchers.is(3L)
+        );
+    }
+
+    /**
+     * Batch can update rows.
+     * @throws Exception If there is some problem inside
+     */
+    @Test
+    void updatesRows() throws Exception {
+        final DataSource source = new H2Source("b4tc2");
+        new JdbcSession<>(
+            conn -> {
+                new Exec(
+                    new Sql("CREATE TABLE bar (id INT, name VARCHAR(50))")
+                ).using(conn);
+                return new Batch(
+                    new Sql("INSERT INTO bar (id, name) VALUES (?, 'x')"),
+                    new IterableOf<>(new Args(1), new Args(1), new Args(2))
+                ).using(conn);
+            }
+        ).using(source);
+        MatcherAssert.assertThat(
+            new JdbcSession<>(
+                new Batch(
+                    new Sql("UPDATE bar SET name = ? WHERE id = ?"),
+                    new IterableOf<>(new Args("a", 1), new Args("b", 2))
+                )
+            ).using(source),
+            Matchers.equalTo(new int[]{2, 1})
+        );
+    }
+
+    /**
+     * Batch can reject sizes which are not positive.
+     */
+    @Test
+    void rejectsNonPositiveSizes() {
+        for (final int size : new int[]{0, -1}) {
+            Assertions.assertThrows(
+                IllegalArgumentException.class,
+                () -> new Batch(
+                    new Sql("INSERT INTO foo (id) VALUES (?)"),
+                    new IterableOf<>(new Args(1)),
+                    size
+                )
+            );
+        }
+    }
+}
@@ -0,0 +1,190 @@
+/*
+ * Copyright (c) 2012-2018, jcabi.com
+ * Copyright (c) 2021, github.com/piotrkot
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions
+ * are met: 1) Redistributions of source code must retain the above
+ * copyright notice, this list of conditions and the following
+ * disclaimer. 2) Redistributions in binary form must reproduce the above
+ * copyright notice, this list of conditions and the following
+ * disclaimer in the documentation and/or other materials provided
+ * with the distribution. 3) Neither the name of the jcabi.com nor
+ * the names of its contributors may be used to endorse or promote
+ * products derived from this software without specific prior written
+ * permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT
+ * NOT LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND
+ * FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL
+ * THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT,
+ * INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION)
+ * HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT,
+ * STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED
+ * OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.github.piotrkot.oojdbc.statements;
+
+import com.github.piotrkot.oojdbc.Dialect;
+import com.github.piotrkot.oojdbc.H2Source;
+import com.github.piotrkot.oojdbc.JdbcSession;
+import com.github.piotrkot.oojdbc.JdbcSessionTx;
+import com.github.piotrkot.oojdbc.Sql;
+import com.github.piotrkot.oojdbc.outcomes.ColumnOutcome;
+import com.github.piotrkot.oojdbc.outcomes.SingleOutcome;
+import java.sql.SQLException;
+import javax.sql.DataSource;
+import org.cactoos.iterable.IterableOf;
+import org.hamcrest.MatcherAssert;
+import org.hamcrest.Matchers;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Test case for {@link Bulk}.
+ *
+ * @since 1.5
+ * @checkstyle ClassDataAbstractionCoupling (2 lines)
+ */
+final class BulkTest {
+
+    /**
+     * Bulk can insert rows in chunks and map keys back to rows.
+     * @throws Exception If there is some problem inside
+     */
+    @Test
+    void mapsKeysToRows() throws Exception {
+        final DataSource source = BulkTest.users("bu1k1");
+        MatcherAssert.assertThat(
+            new JdbcSessionTx<>(
+                new Bulk<>(
+                    new Sql("INSERT INTO users (name) VALUES (?)"),
+                    new IterableOf<>(
+                        new Args("Jeff"), new Args("Walter"),
+                        new Args("Donny"), new Args("Maude"),
+                        new Args("Brandt"), new Args("Bunny"),
+                        new Args("Jackie")
+                    ),
+                    rset -> rset.getLong(1),
+                    4
+                )
+            ).using(source),
+            Matchers.contains(1L, 2L, 3L, 4L, 5L, 6L, 7L)
+        );
+        MatcherAssert.assertThat(
+            new JdbcSession<>(
+                new Select<>(
+                    new Sql("SELECT name FROM users ORDER BY id"),
+                    new ColumnOutcome<>(String.class)
+                )
+            ).using(source),
+            Matchers.contains(
+                "Jeff", "Walter", "Donny", "Maude", "Brandt", "Bunny", "Jackie"
+            )
+        );
+    }
+
+    /**
+     * Bulk can keep chunks within parameter limit of the dialect.
+     * @throws Exception If there is some problem inside
+     */
+    @Test
+    void keepsWithinParameterLimit() throws Exception {
+        final DataSource source = BulkTest.users("bu1k2");
+        MatcherAssert.assertThat(
+            new JdbcSessionTx<>(
+                new Bulk<>(
+                    new Sql("INSERT INTO users (name, age) VALUES (?, ?)"),
+                    new IterableOf<>(
+                        new Args("Karl", 1), new Args("Kieffer", 2),
+                        new Args("Franz", 3)
+                    ),
+                    rset -> rset.getLong(1),
+                    100,
+                    new Dialect.Features(
+                        Dialect.Transients.STANDARD,
+                        new Dialect.Limits(5, 1000L),
+                        Dialect.Feature.MULTI_ROW_VALUES
+                    )
+                )
+            ).using(source),
+            Matchers.hasSize(3)
+        );
+        MatcherAssert.assertThat(
+            new JdbcSession<>(
+                new Select<>(
+                    new Sql("SELECT SUM(CAST(age AS INT)) FROM users"),
+                    new SingleOutcome<>(Long.class)
+                )
+            ).using(source),
+            Matchers.equalTo(6L)
+        );
+    }
+
+    /**
+     * Bulk can insert rows without keys.
+     * @throws Exception If there is some problem inside
+     */
+    @Test
+    void insertsWithoutKeys() throws Exception {
+        final DataSource source = BulkTest.users("bu1k3");
+        MatcherAssert.assertThat(
+            new JdbcSession<>(
+                new Bulk<>(
+                    new Sql("INSERT INTO users (name, age) VALUES (?, 'x?')"),
+                    new IterableOf<>(new Args("Arthur"), new Args("Liam"))
+                )
+            ).using(source),
+            Matchers.empty()
+        );
+        MatcherAssert.assertThat(
+            new JdbcSession<>(
+                new Select<>(
+                    new Sql("SELECT COUNT(*) FROM users"),
+                    new SingleOutcome<>(Long.class)
+                )
+            ).using(source),
+            Matchers.equalTo(2L)
+        );
+    }
+
+    /**
+     * Bulk can refuse SQL without a row of values.
+     */
+    @Test
+    void refusesSqlWithoutValues() {
+        Assertions.assertThrows(
+            SQLException.class,
+            () -> new JdbcSession<>(
+                new Bulk<>(
+                    new Sql("INSERT INTO users (name) SELECT ?"),
+                    new IterableOf<>(new Args("Larry"))
+                )
+            ).using(BulkTest.users("bu1k4"))
+        );
+    }
+
+    /**
+     * Source with the table of users.
+     * @param name Name of the database
+     * @return Source
+     * @throws Exception If fails
+     */
+    private static DataSource users(final String name) throws Exception {
+        final DataSource source = new H2Source(name);
+        new JdbcSession<>(
+            new Exec(
+                new Sql(
+                    "CREATE TABLE users (id INT AUTO_INCREMENT PRIMARY KEY,",
+                    "name VARCHAR(50), age VARCHAR(10))"
+                )
+            )
+        ).using(source);
+        return source;
+    }
+}
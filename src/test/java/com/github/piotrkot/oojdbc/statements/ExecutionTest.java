@@ -0,0 +1,116 @@
+/*
+ * Copyright (c) 2012-2018, jcabi.com
+ * Copyright (c) 2021, github.com/piotrkot
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions
+ * are met: 1) Redistributions of source code must retain the above
+ * copyright notice, this list of conditions and the following
+ * disclaimer. 2) Redistributions in binary form must reproduce the above
+ * copyright notice, this list of conditions and the following
+ * disclaimer in the documentation and/or other materials provided
+ * with the distribution. 3) Neither the name of the jcabi.com nor
+ * the names of its contributors may be used to endorse or promote
+ * products derived from this software without specific prior written
+ * permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT
+ * NOT LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND
+ * FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL
+ * THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT,
+ * INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION)
+ * HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT,
+ * STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED
+ * OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.github.piotrkot.oojdbc.statements;
+
+import com.github.piotrkot.oojdbc.H2Source;
+import com.github.piotrkot.oojdbc.Outcome;
+import com.github.piotrkot.oojdbc.Request;
+import com.github.piotrkot.oojdbc.Sql;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.util.concurrent.atomic.AtomicReference;
+import org.hamcrest.MatcherAssert;
+import org.hamcrest.Matchers;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Test case for {@link Execution}.
+ *
+ * @since 1.5
+ */
+final class ExecutionTest {
+
+    /**
+     * Execution can close the statement and the result set.
+     * @throws Exception If there is some problem inside
+     */
+    @Test
+    void closesStatementAndResultSet() throws Exception {
+        final AtomicReference<Statement> stmnt = new AtomicReference<>();
+        final AtomicReference<ResultSet> result = new AtomicReference<>();
+        try (Connection conn = new H2Source("ex3c1").getConnection()) {
+            new Select<>(
+                new Sql("CALL 1"),
+                (rset, stmt) -> {
+                    stmnt.set(stmt);
+                    result.set(rset);
+                    return rset.next();
+                }
+            ).using(conn);
+            MatcherAssert.assertThat(stmnt.get().isClosed(), Matchers.is(true));
+            MatcherAssert.assertThat(result.get().isClosed(), Matchers.is(true));
+        }
+    }
+
+    /**
+     * Execution can close the statement when outcome fails.
+     * @throws Exception If there is some problem inside
+     */
+    @Test
+    void closesStatementOnFailure() throws Exception {
+        final AtomicReference<Statement> stmnt = new AtomicReference<>();
+        try (Connection conn = new H2Source("ex3c2").getConnection()) {
+            Assertions.assertThrows(
+                IllegalStateException.class,
+                () -> new Execution<>(
+                    new com.github.piotrkot.oojdbc.Connect.Plain("CALL 2"),
+                    new Args(),
+                    Request.EXECUTE_QUERY,
+                    (Outcome.Owning<Boolean>) (rset, stmt) -> {
+                        stmnt.set(stmt);
+                        throw new IllegalStateException("failed");
+                    }
+                ).using(conn)
+            );
+            MatcherAssert.assertThat(stmnt.get().isClosed(), Matchers.is(true));
+        }
+    }
+
+    /**
+     * Execution can leave resources open to owning outcome.
+     * @throws Exception If there is some problem inside
+     */
+    @Test
+    void leavesResultSetToOwningOutcome() throws Exception {
+        try (Connection conn = new H2Source("ex3c3").getConnection();
+            ResultSet rset = new Select<>(
+                new Sql("CALL 3"),
+                (Outcome.Owning<ResultSet>) (rst, stmt) -> rst
+            ).using(conn)) {
+            final boolean found = rset.next();
+            MatcherAssert.assertThat(found, Matchers.is(true));
+            MatcherAssert.assertThat(rset.getInt(1), Matchers.is(3));
+            rset.getStatement().close();
+        }
+    }
+}
@@ -0,0 +1,135 @@
+/*
+ * Copyright (c) 2012-2018, jcabi.com
+ * Copyright (c) 2021, github.com/piotrkot
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions
+ * are met: 1) Redistributions of source code must retain the above
+ * copyright notice, this list of conditions and the following
+ * disclaimer. 2) Redistributions in binary form must reproduce the above
+ * copyright notice, this list of conditions and the following
+ * disclaimer in the documentation and/or other materials provided
+ * with the distribution. 3) Neither the name of the jcabi.com nor
+ * the names of its contributors may be used to endorse or promote
+ * products derived from this software without specific prior written
+ * permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT
+ * NOT LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND
+ * FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL
+ * THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT,
+ * INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION)
+ * HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT,
+ * STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED
+ * OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.github.piotrkot.oojdbc.statements;
+
+import com.github.piotrkot.oojdbc.H2Source;
+import com.github.piotrkot.oojdbc.JdbcSession;
+import com.github.piotrkot.oojdbc.Sql;
+import com.github.piotrkot.oojdbc.outcomes.ColumnOutcome;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import javax.sql.DataSource;
+import org.cactoos.iterable.IterableOf;
+import org.hamcrest.MatcherAssert;
+import org.hamcrest.Matchers;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Test case for {@link Hints}.
+ *
+ * @since 1.5
+ * @checkstyle ClassDataAbstractionCoupling (2 lines)
+ */
+final class HintsTest {
+
+    /**
+     * Hints can limit number of rows.
+     * @throws Exception If there is some problem inside
+     */
+    @Test
+    void limitsRows() throws Exception {
+        MatcherAssert.assertThat(
+            new JdbcSession<>(
+                new Select<>(
+                    new Sql("SELECT id FROM foo ORDER BY id"),
+                    new Args(),
+                    new Hints(1, 2),
+                    new ColumnOutcome<>(Long.class)
+                )
+            ).using(HintsTest.source("h1nt1")),
+            Matchers.contains(1L, 2L)
+        );
+    }
+
+    /**
+     * Hints can set fetch size and result set type.
+     * @throws Exception If there is some problem inside
+     */
+    @Test
+    void setsFetchSizeAndType() throws Exception {
+        MatcherAssert.assertThat(
+            new JdbcSession<>(
+                new Select<>(
+                    new Sql("SELECT id FROM foo"),
+                    new Args(),
+                    new Hints(2, true),
+                    (rset, stmt) -> stmt.getFetchSize() * 10 + rset.getType()
+                )
+            ).using(HintsTest.source("h1nt2")),
+            Matchers.is(2 * 10 + ResultSet.TYPE_FORWARD_ONLY)
+        );
+    }
+
+    /**
+     * Hints can reset hints of a previous query on the statement.
+     * @throws Exception If there is some problem inside
+     */
+    @Test
+    void resetsPreviousHints() throws Exception {
+        MatcherAssert.assertThat(
+            new JdbcSession<>(
+                new Select<>(
+                    new Sql("SELECT id FROM foo"),
+                    new Args(),
+                    new Hints(),
+                    (rset, stmt) -> {
+                        stmt.setMaxRows(1);
+                        stmt.setFetchSize(1);
+                        new Hints().prepare((PreparedStatement) stmt);
+                        return stmt.getMaxRows() == 0
+                            && stmt.getFetchSize() != 1;
+                    }
+                )
+            ).using(HintsTest.source("h1nt3")),
+            Matchers.is(true)
+        );
+    }
+
+    /**
+     * Data source with a table of three rows.
+     * @param name Name of the database
+     * @return Data source
+     * @throws Exception If there is some problem inside
+     */
+    private static DataSource source(final String name) throws Exception {
+        final DataSource source = new H2Source(name);
+        new JdbcSession<>(
+            conn -> {
+                new Exec(new Sql("CREATE TABLE foo (id BIGINT)")).using(conn);
+                return new Batch(
+                    new Sql("INSERT INTO foo (id) VALUES (?)"),
+                    new IterableOf<>(new Args(1L), new Args(2L), new Args(3L))
+                ).using(conn);
+            }
+        ).using(source);
+        return source;
+    }
+}
@@ -0,0 +1,172 @@
+/*
+ * Copyright (c) 2012-2018, jcabi.com
+ * Copyright (c) 2021, github.com/piotrkot
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions
+ * are met: 1) Redistributions of source code must retain the above
+ * copyright notice, this list of conditions and the following
+ * disclaimer. 2) Redistributions in binary form must reproduce the above
+ * copyright notice, this list of conditions and the following
+ * disclaimer in the documentation and/or other materials provided
+ * with the distribution. 3) Neither the name of the jcabi.com nor
+ * the names of its contributors may be used to endorse or promote
+ * products derived from this software without specific prior written
+ * permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT
+ * NOT LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND
+ * FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL
+ * THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT,
+ * INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION)
+ * HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT,
+ * STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED
+ * OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.github.piotrkot.oojdbc.statements;
+
+import com.github.piotrkot.oojdbc.H2Source;
+import com.github.piotrkot.oojdbc.JdbcSession;
+import com.github.piotrkot.oojdbc.Sql;
+import com.github.piotrkot.oojdbc.outcomes.ColumnOutcome;
+import java.sql.SQLException;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.LongStream;
+import javax.sql.DataSource;
+import org.hamcrest.MatcherAssert;
+import org.hamcrest.Matchers;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Test case for {@link ParallelSelect}.
+ *
+ * @since 1.5
+ * @checkstyle ClassDataAbstractionCoupling (2 lines)
+ */
+final class ParallelSelectTest {
+
+    /**
+     * Data source.
+     */
+    private DataSource source;
+
+    /**
+     * Create table with keys from 1 to 100, and a NULL key.
+     * @throws Exception If there is some problem inside
+     */
+    @BeforeEach
+    void createKeys() throws Exception {
+        this.source = new H2Source("prll15");
+        new JdbcSession<>(
+            conn -> {
+                new Exec(
+                    new Sql("CREATE TABLE IF NOT EXISTS keys (id BIGINT)")
+                ).using(conn);
+                new Exec(new Sql("DELETE FROM keys")).using(conn);
+                return new Exec(
+                    new Sql(
+                        "INSERT INTO keys SELECT X FROM SYSTEM_RANGE(1, 100)",
+                        "UNION ALL SELECT NULL"
+                    )
+                ).using(conn);
+            }
+        ).using(this.source);
+    }
+
+    /**
+     * ParallelSelect can merge ranges in order.
+     * @throws Exception If there is some problem inside
+     */
+    @Test
+    void mergesRangesInOrder() throws Exception {
+        final List<Long> keys = new ParallelSelect<>(
+            new Sql("SELECT id FROM keys WHERE id > ?"),
+            new Args(10L),
+            new Split.Range("id", 1L, 100L, 7),
+            new ColumnOutcome<>(Long.class),
+            new Merge.Sorted<>(Comparator.<Long>naturalOrder())
+        ).using(this.source);
+        MatcherAssert.assertThat(
+            keys,
+            Matchers.equalTo(
+                LongStream.rangeClosed(11L, 100L).boxed()
+                    .collect(Collectors.toList())
+            )
+        );
+    }
+
+    /**
+     * ParallelSelect can concatenate partitions by modulus.
+     * @throws Exception If there is some problem inside
+     */
+    @Test
+    void concatenatesModulusPartitions() throws Exception {
+        MatcherAssert.assertThat(
+            new ParallelSelect<>(
+                new Sql("SELECT id FROM keys"),
+                new Args(),
+                new Split.Modulus("id", 4),
+                new ColumnOutcome<>(Long.class)
+            ).using(this.source),
+            Matchers.hasSize(101)
+        );
+    }
+
+    /**
+     * ParallelSelect can partition negative keys by modulus.
+     * @throws Exception If there is some problem inside
+     */
+    @Test
+    void partitionsNegativeKeys() throws Exception {
+        MatcherAssert.assertThat(
+            new ParallelSelect<>(
+                new Sql("SELECT -id AS id FROM keys"),
+                new Args(),
+                new Split.Modulus("id", 3),
+                new ColumnOutcome<>(Long.class)
+            ).using(this.source),
+            Matchers.hasSize(101)
+        );
+    }
+
+    /**
+     * ParallelSelect can fail when any partition fails.
+     */
+    @Test
+    void failsOnFailedPartition() {
+        Assertions.assertThrows(
+            SQLException.class,
+            () -> new ParallelSelect<>(
+                new Sql("SELECT id FROM keys"),
+                new Args(),
+                new Split() {
+                    @Override
+                    public int parts() {
+                        return 3;
+                    }
+
+                    @Override
+                    public String condition(final int part) {
+                        final String cond;
+                        if (part == 2) {
+                            cond = "missing = 1";
+                        } else {
+                            cond = "1 = 1";
+                        }
+                        return cond;
+                    }
+                },
+                new ColumnOutcome<>(Long.class)
+            ).using(this.source)
+        );
+    }
+}